@@ -1,13 +1,28 @@
 package com.company.projectmanagement.config;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.BeanDescription;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationConfig;
 import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.BeanPropertyWriter;
+import com.fasterxml.jackson.databind.ser.BeanSerializerModifier;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.fasterxml.jackson.datatype.hibernate6.Hibernate6Module;
+import jakarta.persistence.Basic;
+import jakarta.persistence.FetchType;
+import org.hibernate.Hibernate;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
 
+import java.lang.reflect.Field;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
 @Configuration
 public class JacksonConfig {
 
@@ -20,12 +35,21 @@ public class JacksonConfig {
         mapper.registerModule(new JavaTimeModule());
 
         // Register Hibernate6 module to handle lazy loading issues
+        // Open-session-in-view is off, so associations that the service layer did not
+        // fetch are written as null instead of being lazily loaded during serialization
         Hibernate6Module hibernateModule = new Hibernate6Module();
         hibernateModule.disable(Hibernate6Module.Feature.USE_TRANSIENT_ANNOTATION);
-        hibernateModule.enable(Hibernate6Module.Feature.FORCE_LAZY_LOADING);
+        hibernateModule.disable(Hibernate6Module.Feature.FORCE_LAZY_LOADING);
         hibernateModule.enable(Hibernate6Module.Feature.SERIALIZE_IDENTIFIER_FOR_LAZY_NOT_LOADED_OBJECTS);
         mapper.registerModule(hibernateModule);
 
+        // Lazy basic attributes (bytecode enhanced) that were not fetched are left out
+        // rather than failing the response with a LazyInitializationException; an absent
+        // field means "not loaded for this view", null means empty (see Views for the per-view list)
+        SimpleModule lazyAttributeModule = new SimpleModule("LazyAttributeModule");
+        lazyAttributeModule.setSerializerModifier(new LazyAttributeSerializerModifier());
+        mapper.registerModule(lazyAttributeModule);
+
         // Configure Jackson to handle lazy loading issues properly
         mapper.configure(SerializationFeature.FAIL_ON_EMPTY_BEANS, false);
 
@@ -34,4 +58,52 @@ public class JacksonConfig {
 
         return mapper;
     }
+
+    private static class LazyAttributeSerializerModifier extends BeanSerializerModifier {
+
+        @Override
+        public List<BeanPropertyWriter> changeProperties(SerializationConfig config, BeanDescription beanDesc,
+                                                         List<BeanPropertyWriter> beanProperties) {
+            Set<String> lazyAttributes = lazyAttributesOf(beanDesc.getBeanClass());
+            if (lazyAttributes.isEmpty()) {
+                return beanProperties;
+            }
+            for (int i = 0; i < beanProperties.size(); i++) {
+                BeanPropertyWriter writer = beanProperties.get(i);
+                if (lazyAttributes.contains(writer.getName())) {
+                    beanProperties.set(i, new InitializedOnlyPropertyWriter(writer));
+                }
+            }
+            return beanProperties;
+        }
+
+        private static Set<String> lazyAttributesOf(Class<?> type) {
+            Set<String> names = new HashSet<>();
+            for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+                for (Field field : c.getDeclaredFields()) {
+                    Basic basic = field.getAnnotation(Basic.class);
+                    if (basic != null && basic.fetch() == FetchType.LAZY) {
+                        names.add(field.getName());
+                    }
+                }
+            }
+            return names;
+        }
+    }
+
+    private static class InitializedOnlyPropertyWriter extends BeanPropertyWriter {
+
+        private static final long serialVersionUID = 1L;
+
+        InitializedOnlyPropertyWriter(BeanPropertyWriter base) {
+            super(base);
+        }
+
+        @Override
+        public void serializeAsField(Object bean, JsonGenerator gen, SerializerProvider prov) throws Exception {
+            if (Hibernate.isPropertyInitialized(bean, getName())) {
+                super.serializeAsField(bean, gen, prov);
+            }
+        }
+    }
 }
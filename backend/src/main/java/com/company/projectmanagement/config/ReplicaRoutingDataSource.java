@@ -0,0 +1,251 @@
+package com.company.projectmanagement.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * 读写分离数据源
+ * 只读事务轮询路由到健康的副本；写事务、副本全部不可用、或当前客户端刚写入过时走主库。
+ * 必须包在 LazyConnectionDataSourceProxy 里使用，这样取连接时事务的只读标记已经设置好。
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    static final String PRIMARY = "primary";
+
+    private static final ThreadLocal<String> CURRENT_CLIENT = new ThreadLocal<>();
+
+    private static final ThreadLocal<ReadContext> CURRENT_READ_CONTEXT = new ThreadLocal<>();
+
+    private final DataSource primary;
+
+    private final Map<String, DataSource> replicas;
+
+    private final Set<String> healthyReplicas = ConcurrentHashMap.newKeySet();
+
+    private final Map<String, Long> lastWriteByClient = new ConcurrentHashMap<>();
+
+    private final AtomicInteger roundRobin = new AtomicInteger();
+
+    private final Map<String, AtomicLong> routedConnections = new ConcurrentHashMap<>();
+
+    private final long healthCheckIntervalMs;
+
+    private final long readYourWritesWindowMs;
+
+    private ScheduledExecutorService healthChecker;
+
+    public ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas,
+                                    long healthCheckIntervalMs, long readYourWritesWindowMs) {
+        this.primary = primary;
+        this.replicas = new LinkedHashMap<>(replicas);
+        this.healthCheckIntervalMs = healthCheckIntervalMs;
+        this.readYourWritesWindowMs = readYourWritesWindowMs;
+
+        Map<Object, Object> targets = new HashMap<>(replicas);
+        targets.put(PRIMARY, primary);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+    }
+
+    // 首次健康检查和定时任务在对象构造完成后才启动，避免构造期间把 this 交给其他线程
+    @Override
+    public void afterPropertiesSet() {
+        super.afterPropertiesSet();
+        checkReplicas();
+        healthChecker = Executors.newSingleThreadScheduledExecutor(Thread.ofVirtual().name("replica-health").factory());
+        healthChecker.scheduleWithFixedDelay(this::checkReplicas, healthCheckIntervalMs, healthCheckIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Bind the calling client to the current thread for read-your-writes pinning
+     */
+    public static void setCurrentClient(String clientKey) {
+        CURRENT_CLIENT.set(clientKey);
+    }
+
+    public static void clearCurrentClient() {
+        CURRENT_CLIENT.remove();
+    }
+
+    /**
+     * Capture the calling thread's routing context so work fanned out to other threads
+     * keeps read-your-writes pinning and reads from one shared target
+     */
+    public static ReadContext captureReadContext() {
+        return new ReadContext(CURRENT_CLIENT.get());
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        String client = CURRENT_CLIENT.get();
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            // 写事务：提交后记录写入时间，之后的短时间内该客户端的读请求留在主库；
+            // 回滚的事务不固定，窗口从提交时刻起算
+            if (client != null && TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        lastWriteByClient.put(client, System.currentTimeMillis());
+                    }
+                });
+            }
+            return PRIMARY;
+        }
+        if (client != null) {
+            Long lastWrite = lastWriteByClient.get(client);
+            if (lastWrite != null && System.currentTimeMillis() - lastWrite < readYourWritesWindowMs) {
+                return PRIMARY;
+            }
+        }
+        ReadContext context = CURRENT_READ_CONTEXT.get();
+        if (context == null) {
+            return nextReadTarget();
+        }
+        // 同一上下文中的并发读取共用第一次选中的目标；该副本失效后再重新选择
+        String shared = context.target.get();
+        if (shared != null && (PRIMARY.equals(shared) || healthyReplicas.contains(shared))) {
+            return shared;
+        }
+        String next = nextReadTarget();
+        return context.target.compareAndSet(shared, next) ? next : context.target.get();
+    }
+
+    private String nextReadTarget() {
+        List<String> candidates = new ArrayList<>(healthyReplicas);
+        if (candidates.isEmpty()) {
+            return PRIMARY;
+        }
+        Collections.sort(candidates);
+        return candidates.get(Math.floorMod(roundRobin.getAndIncrement(), candidates.size()));
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Object key = determineCurrentLookupKey();
+        if (!PRIMARY.equals(key)) {
+            try {
+                Connection connection = replicas.get(key).getConnection();
+                countRouted((String) key);
+                return connection;
+            } catch (SQLException e) {
+                // 副本取连接失败：标记为不健康并回退主库
+                log.warn("Replica {} unavailable, falling back to primary: {}", key, e.getMessage());
+                healthyReplicas.remove(key);
+            }
+        }
+        Connection connection = primary.getConnection();
+        countRouted(PRIMARY);
+        return connection;
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return getConnection();
+    }
+
+    /**
+     * Replica health and read-your-writes state, for diagnostics
+     */
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        Map<String, Boolean> replicaHealth = new LinkedHashMap<>();
+        replicas.keySet().forEach(name -> replicaHealth.put(name, healthyReplicas.contains(name)));
+        status.put("replicas", replicaHealth);
+        Map<String, Long> routed = new LinkedHashMap<>();
+        routedConnections.forEach((key, count) -> routed.put(key, count.get()));
+        status.put("routedConnections", routed);
+        status.put("pinnedClients", lastWriteByClient.size());
+        status.put("readYourWritesWindowMs", readYourWritesWindowMs);
+        return status;
+    }
+
+    public void shutdown() {
+        if (healthChecker != null) {
+            healthChecker.shutdownNow();
+        }
+    }
+
+    private void countRouted(String key) {
+        routedConnections.computeIfAbsent(key, k -> new AtomicLong()).incrementAndGet();
+    }
+
+    private void checkReplicas() {
+        replicas.forEach((name, dataSource) -> {
+            boolean healthy;
+            try (Connection connection = dataSource.getConnection()) {
+                healthy = connection.isValid(2);
+            } catch (SQLException | RuntimeException e) {
+                healthy = false;
+            }
+            if (healthy) {
+                if (healthyReplicas.add(name)) {
+                    log.info("Replica {} is healthy", name);
+                }
+            } else if (healthyReplicas.remove(name)) {
+                log.warn("Replica {} failed health check", name);
+            }
+        });
+        // 清理已过期的写入记录
+        long cutoff = System.currentTimeMillis() - readYourWritesWindowMs;
+        lastWriteByClient.values().removeIf(time -> time < cutoff);
+    }
+
+    /**
+     * Routing context captured on the calling thread and re-applied on worker threads
+     */
+    public static final class ReadContext {
+
+        private final String client;
+
+        private final AtomicReference<String> target = new AtomicReference<>();
+
+        private ReadContext(String client) {
+            this.client = client;
+        }
+
+        public <T> T call(Supplier<T> task) {
+            String previousClient = CURRENT_CLIENT.get();
+            ReadContext previousContext = CURRENT_READ_CONTEXT.get();
+            restore(CURRENT_CLIENT, client);
+            CURRENT_READ_CONTEXT.set(this);
+            try {
+                return task.get();
+            } finally {
+                restore(CURRENT_CLIENT, previousClient);
+                restore(CURRENT_READ_CONTEXT, previousContext);
+            }
+        }
+
+        private static <V> void restore(ThreadLocal<V> holder, V value) {
+            if (value == null) {
+                holder.remove();
+            } else {
+                holder.set(value);
+            }
+        }
+    }
+}
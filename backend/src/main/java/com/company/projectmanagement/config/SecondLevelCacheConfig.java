@@ -0,0 +1,73 @@
+package com.company.projectmanagement.config;
+
+import com.company.projectmanagement.model.Team;
+import com.company.projectmanagement.model.TeamMember;
+import com.company.projectmanagement.service.CacheInvalidationBroadcaster;
+import com.company.projectmanagement.service.EntityCommitListener;
+import com.company.projectmanagement.service.EntityCommitListeners;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * 二级缓存配置
+ * Hibernate 在本节点写入时自动更新缓存；提交后再通过 {@link CacheInvalidationBroadcaster}
+ * 通知其他节点。默认实现只记录日志，集群部署时替换为消息总线实现即可。
+ */
+@Configuration
+public class SecondLevelCacheConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(SecondLevelCacheConfig.class);
+
+    private final EntityCommitListeners entityCommitListeners;
+
+    private final ObjectProvider<CacheInvalidationBroadcaster> broadcaster;
+
+    public SecondLevelCacheConfig(EntityCommitListeners entityCommitListeners,
+                                  ObjectProvider<CacheInvalidationBroadcaster> broadcaster) {
+        this.entityCommitListeners = entityCommitListeners;
+        this.broadcaster = broadcaster;
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public CacheInvalidationBroadcaster cacheInvalidationBroadcaster() {
+        return (region, id) -> log.debug("Cache entry changed: {}#{}", region, id);
+    }
+
+    @PostConstruct
+    public void registerListeners() {
+        entityCommitListeners.register(new ReferenceDataChangeListener());
+    }
+
+    private static String regionOf(Object entity) {
+        return entity instanceof Team ? Team.CACHE_REGION : TeamMember.CACHE_REGION;
+    }
+
+    private static Long idOf(Object entity) {
+        return entity instanceof Team team ? team.getId() : ((TeamMember) entity).getId();
+    }
+
+    // 插入不影响其他节点已缓存的条目，只通知更新和删除
+    private class ReferenceDataChangeListener extends EntityCommitListener {
+
+        ReferenceDataChangeListener() {
+            super(Team.class, TeamMember.class);
+        }
+
+        @Override
+        protected void onUpdate(Object entity) {
+            broadcaster.getObject().entityChanged(regionOf(entity), idOf(entity));
+        }
+
+        @Override
+        protected void onDelete(Object entity, Long id) {
+            broadcaster.getObject().entityChanged(regionOf(entity), id);
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.company.projectmanagement.config;
+
+import com.company.projectmanagement.model.Project;
+import com.company.projectmanagement.model.ProjectPhase;
+import com.company.projectmanagement.model.StatusHistory;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.HibernateException;
+import org.hibernate.action.spi.BeforeTransactionCompletionProcess;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.context.annotation.Configuration;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * 状态历史记录
+ * 监听 Project / ProjectPhase 的插入和更新，比较新旧状态，把变化追加到 status_history。
+ * 写入在事务提交前、flush 之后执行，和业务修改处于同一个事务；
+ * 实体 @PreUpdate 中自动推导出的状态变化也会被记录。
+ */
+@Configuration
+public class StatusHistoryConfig {
+
+    private static final String INSERT_SQL = "INSERT INTO status_history " +
+            "(entity_type, entity_id, project_id, field_name, old_value, new_value, changed_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    public StatusHistoryConfig(EntityManagerFactory entityManagerFactory) {
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    @PostConstruct
+    public void registerListeners() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        StatusChangeListener listener = new StatusChangeListener();
+        registry.appendListeners(EventType.POST_INSERT, listener);
+        registry.appendListeners(EventType.POST_UPDATE, listener);
+    }
+
+    private record Change(StatusHistory.EntityType entityType, Long entityId, Long projectId,
+                          StatusHistory.Field field, String oldValue, String newValue) {}
+
+    private static class StatusChangeListener implements PostInsertEventListener, PostUpdateEventListener {
+
+        @Override
+        public void onPostInsert(PostInsertEvent event) {
+            collect(event.getSession(), event.getPersister(), event.getEntity(), event.getId(), null, event.getState());
+        }
+
+        @Override
+        public void onPostUpdate(PostUpdateEvent event) {
+            // 分离实体直接 update 时拿不到旧状态，无法判断是否变化
+            if (event.getOldState() != null) {
+                collect(event.getSession(), event.getPersister(), event.getEntity(), event.getId(), event.getOldState(), event.getState());
+            }
+        }
+
+        @Override
+        public boolean requiresPostCommitHandling(EntityPersister persister) {
+            return false;
+        }
+
+        private void collect(EventSource session, EntityPersister persister, Object entity, Object id,
+                             Object[] oldState, Object[] newState) {
+            List<Change> changes = new ArrayList<>();
+            if (entity instanceof Project) {
+                Long projectId = (Long) id;
+                addIfChanged(changes, persister, "itProjectStatus", oldState, newState,
+                        StatusHistory.EntityType.PROJECT, projectId, projectId, StatusHistory.Field.IT_PROJECT_STATUS);
+                addIfChanged(changes, persister, "escalation", oldState, newState,
+                        StatusHistory.EntityType.PROJECT, projectId, projectId, StatusHistory.Field.ESCALATION);
+            } else if (entity instanceof ProjectPhase phase && phase.getProject() != null) {
+                addIfChanged(changes, persister, "status", oldState, newState,
+                        StatusHistory.EntityType.PHASE, (Long) id, phase.getProject().getId(), StatusHistory.Field.PHASE_STATUS);
+            }
+            if (!changes.isEmpty()) {
+                LocalDateTime changedAt = LocalDateTime.now();
+                session.getActionQueue().registerProcess((BeforeTransactionCompletionProcess) s -> write(s, changes, changedAt));
+            }
+        }
+
+        private void addIfChanged(List<Change> changes, EntityPersister persister, String property,
+                                  Object[] oldState, Object[] newState, StatusHistory.EntityType entityType,
+                                  Long entityId, Long projectId, StatusHistory.Field field) {
+            int index = persister.getPropertyIndex(property);
+            Object oldValue = oldState != null ? oldState[index] : null;
+            Object newValue = newState[index];
+            if (!Objects.equals(oldValue, newValue)) {
+                changes.add(new Change(entityType, entityId, projectId, field, asString(oldValue), asString(newValue)));
+            }
+        }
+
+        private static String asString(Object value) {
+            if (value == null) {
+                return null;
+            }
+            return value instanceof Enum<?> e ? e.name() : value.toString();
+        }
+
+        private static void write(SharedSessionContractImplementor session, List<Change> changes, LocalDateTime changedAt) {
+            Connection connection = session.getJdbcCoordinator().getLogicalConnection().getPhysicalConnection();
+            try (PreparedStatement statement = connection.prepareStatement(INSERT_SQL)) {
+                for (Change change : changes) {
+                    statement.setString(1, change.entityType().name());
+                    statement.setLong(2, change.entityId());
+                    statement.setLong(3, change.projectId());
+                    statement.setString(4, change.field().name());
+                    statement.setString(5, change.oldValue());
+                    statement.setString(6, change.newValue());
+                    statement.setTimestamp(7, Timestamp.valueOf(changedAt));
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+            } catch (SQLException e) {
+                throw new HibernateException("Failed to write status history", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.company.projectmanagement.config;
+
+import com.company.projectmanagement.model.Views;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.format.FormatterRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    @Override
+    public void addFormatters(FormatterRegistry registry) {
+        // view=summary|detail|full, case-insensitive; unknown values are rejected with 400
+        registry.addConverter(String.class, Views.Shape.class, Views.Shape::parse);
+    }
+}
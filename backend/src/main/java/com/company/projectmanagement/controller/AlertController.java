@@ -0,0 +1,65 @@
+package com.company.projectmanagement.controller;
+
+import com.company.projectmanagement.service.DeadlineAlert;
+import com.company.projectmanagement.service.DeadlineAlertService;
+import com.company.projectmanagement.service.SseDeadlineAlertSink;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/alerts")
+@Tag(name = "截止日期提醒", description = "里程碑、阶段、项目检查点和风险的到期提醒")
+@CrossOrigin(origins = {"http://localhost:3000", "http://127.0.0.1:3000"},
+             methods = {RequestMethod.GET, RequestMethod.POST, RequestMethod.OPTIONS},
+             allowedHeaders = "*",
+             allowCredentials = "true")
+public class AlertController {
+
+    @Autowired
+    private DeadlineAlertService deadlineAlertService;
+
+    @Autowired
+    private SseDeadlineAlertSink sseSink;
+
+    @RequestMapping(method = RequestMethod.OPTIONS)
+    public ResponseEntity<?> handlePreflight() {
+        return ResponseEntity.ok().build();
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "订阅提醒流", description = "通过 Server-Sent Events 实时接收到期提醒（事件名 deadline）")
+    public SseEmitter stream(
+            @Parameter(description = "连接超时（毫秒）") @RequestParam(defaultValue = "1800000") long timeoutMs) {
+        return sseSink.subscribe(timeoutMs);
+    }
+
+    @GetMapping("/recent")
+    @Operation(summary = "最近的提醒", description = "获取最近触发的到期提醒，最新的在前")
+    public ResponseEntity<List<DeadlineAlert>> getRecentAlerts() {
+        return ResponseEntity.ok(deadlineAlertService.getRecentAlerts());
+    }
+
+    @GetMapping("/statistics")
+    @Operation(summary = "提醒引擎统计", description = "时间轮中的定时器数量、已触发提醒数和订阅者数量")
+    public ResponseEntity<Map<String, Object>> getStatistics() {
+        Map<String, Object> stats = deadlineAlertService.getStatistics();
+        stats.put("streamSubscribers", sseSink.getSubscriberCount());
+        return ResponseEntity.ok(stats);
+    }
+
+    @PostMapping("/reload")
+    @Operation(summary = "重新加载截止日期", description = "从数据库重新加载所有未完成的截止日期")
+    public ResponseEntity<Map<String, Object>> reload() {
+        deadlineAlertService.rebuild();
+        return ResponseEntity.ok(deadlineAlertService.getStatistics());
+    }
+}
@@ -0,0 +1,57 @@
+package com.company.projectmanagement.controller;
+
+import com.company.projectmanagement.service.AutocompleteService;
+import com.company.projectmanagement.service.AutocompleteSuggestion;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/autocomplete")
+@Tag(name = "自动补全", description = "项目名称、团队名称和成员姓名/邮箱的前缀补全")
+@CrossOrigin(origins = {"http://localhost:3000", "http://127.0.0.1:3000"},
+             methods = {RequestMethod.GET, RequestMethod.POST, RequestMethod.OPTIONS},
+             allowedHeaders = "*",
+             allowCredentials = "true")
+public class AutocompleteController {
+
+    @Autowired
+    private AutocompleteService autocompleteService;
+
+    @RequestMapping(method = RequestMethod.OPTIONS)
+    public ResponseEntity<?> handlePreflight() {
+        return ResponseEntity.ok().build();
+    }
+
+    @GetMapping
+    @Operation(summary = "名称补全", description = "按任一词的前缀匹配名称（成员还匹配邮箱），按匹配到的词排序返回前 N 条")
+    public ResponseEntity<List<AutocompleteSuggestion>> suggest(
+            @Parameter(description = "输入的前缀") @RequestParam(defaultValue = "") String q,
+            @Parameter(description = "类型: PROJECT, TEAM, MEMBER，默认全部") @RequestParam(required = false) List<AutocompleteSuggestion.Type> types,
+            @Parameter(description = "最多返回条数，默认 10，最大 50") @RequestParam(required = false) Integer limit) {
+        try {
+            return ResponseEntity.ok(autocompleteService.suggest(q, types, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping("/statistics")
+    @Operation(summary = "补全索引统计", description = "各类型的条目数、键数和前缀树节点数")
+    public ResponseEntity<Map<String, Object>> getStatistics() {
+        return ResponseEntity.ok(autocompleteService.getStatistics());
+    }
+
+    @PostMapping("/reload")
+    @Operation(summary = "重建补全索引", description = "从数据库重新加载所有项目、团队和成员名称")
+    public ResponseEntity<Map<String, Object>> reload() {
+        autocompleteService.rebuild();
+        return ResponseEntity.ok(autocompleteService.getStatistics());
+    }
+}
@@ -0,0 +1,32 @@
+package com.company.projectmanagement.controller;
+
+import com.company.projectmanagement.service.ReferenceDataCacheService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/cache")
+@Tag(name = "Cache", description = "Second-level cache statistics and eviction")
+public class CacheController {
+
+    @Autowired
+    private ReferenceDataCacheService cacheService;
+
+    @GetMapping("/statistics")
+    @Operation(summary = "Get cache statistics", description = "Hit, miss and put counts for the team and team member cache regions")
+    public ResponseEntity<Map<String, Object>> getStatistics() {
+        return ResponseEntity.ok(cacheService.getStatistics());
+    }
+
+    @DeleteMapping
+    @Operation(summary = "Evict reference data cache", description = "Evict all teams and team members from the local second-level cache")
+    public ResponseEntity<Void> evictAll() {
+        cacheService.evictAll();
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,35 @@
+package com.company.projectmanagement.controller;
+
+import com.company.projectmanagement.service.DashboardService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.bind.annotation.RequestMethod;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/dashboard")
+@CrossOrigin(origins = {"http://localhost:3000", "http://127.0.0.1:3000"}, 
+             methods = {RequestMethod.GET, RequestMethod.POST, RequestMethod.PUT, RequestMethod.DELETE, RequestMethod.OPTIONS},
+             allowedHeaders = "*", 
+             allowCredentials = "true")
+@Tag(name = "Dashboard", description = "Aggregated dashboard figures")
+public class DashboardController {
+
+    @Autowired
+    private DashboardService dashboardService;
+
+    @GetMapping
+    @Operation(summary = "Get dashboard summary", description = "Retrieve project, milestone, Gantt and team statistics in a single call")
+    @ApiResponse(responseCode = "200", description = "Successfully retrieved dashboard summary",
+            content = @Content(mediaType = "application/json"))
+    public ResponseEntity<Map<String, Object>> getDashboardSummary() {
+        Map<String, Object> summary = dashboardService.getDashboardSummary();
+        return ResponseEntity.ok(summary);
+    }
+}
@@ -0,0 +1,27 @@
+package com.company.projectmanagement.controller;
+
+import com.company.projectmanagement.config.ReplicaRoutingDataSource;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/datasource")
+@ConditionalOnProperty(prefix = "app.datasource.routing", name = "enabled", havingValue = "true")
+@Tag(name = "DataSource", description = "Read replica routing status")
+public class DataSourceRoutingController {
+
+    @Autowired
+    private ReplicaRoutingDataSource routingDataSource;
+
+    @GetMapping("/routing")
+    @Operation(summary = "Get replica routing status", description = "Replica health, connections routed per target and read-your-writes pinning")
+    public ResponseEntity<Map<String, Object>> getRoutingStatus() {
+        return ResponseEntity.ok(routingDataSource.getStatus());
+    }
+}
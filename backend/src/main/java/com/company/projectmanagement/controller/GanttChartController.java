@@ -2,6 +2,9 @@ package com.company.projectmanagement.controller;
 
 import com.company.projectmanagement.model.ProjectPhase;
 import com.company.projectmanagement.service.GanttChartService;
+import com.company.projectmanagement.service.OptimisticVersions;
+import com.company.projectmanagement.service.VersionRequiredException;
+import com.company.projectmanagement.service.ProjectPhaseService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -10,6 +13,8 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.bind.annotation.RequestMethod;
@@ -28,6 +33,9 @@ public class GanttChartController {
     @Autowired
     private GanttChartService ganttChartService;
     
+    @Autowired
+    private ProjectPhaseService projectPhaseService;
+    
     @GetMapping("/data")
     @Operation(summary = "Get Gantt chart data", description = "Retrieve complete Gantt chart data including projects, phases, statistics, and milestones")
     @ApiResponse(responseCode = "200", description = "Successfully retrieved Gantt chart data",
@@ -53,16 +61,30 @@ public class GanttChartController {
                 content = @Content(mediaType = "application/json", 
                 schema = @Schema(implementation = ProjectPhase.class))),
         @ApiResponse(responseCode = "404", description = "Phase not found"),
+        @ApiResponse(responseCode = "409", description = "Phase was modified concurrently; body holds the current state"),
+        @ApiResponse(responseCode = "428", description = "Neither a version nor an If-Match header was sent"),
         @ApiResponse(responseCode = "400", description = "Invalid phase data")
     })
     public ResponseEntity<ProjectPhase> updatePhase(
             @Parameter(description = "ID of the phase to update") 
             @PathVariable Long phaseId,
             @Parameter(description = "Updated phase data") 
-            @RequestBody ProjectPhase phaseDetails) {
+            @RequestBody ProjectPhase phaseDetails,
+            @Parameter(description = "Version the phase was read at, used when the body has no version")
+            @RequestHeader(value = "If-Match", required = false) String ifMatch) {
         try {
+            phaseDetails.setVersion(OptimisticVersions.resolve(phaseDetails.getVersion(), ifMatch));
             ProjectPhase updatedPhase = ganttChartService.updatePhase(phaseId, phaseDetails);
             return ResponseEntity.ok(updatedPhase);
+        } catch (VersionRequiredException e) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_REQUIRED).build();
+        } catch (OptimisticLockingFailureException e) {
+            // Version conflict: return the current state so the client can merge and retry
+            return projectPhaseService.getProjectPhaseById(phaseId)
+                    .map(current -> ResponseEntity.status(HttpStatus.CONFLICT).body(current))
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         }
@@ -0,0 +1,18 @@
+package com.company.projectmanagement.controller;
+
+import com.company.projectmanagement.model.Views;
+import org.springframework.http.converter.json.MappingJacksonValue;
+
+/**
+ * 将返回体包装为带 JSON 视图的响应
+ */
+final class JsonViewResponses {
+
+    private JsonViewResponses() {}
+
+    static MappingJacksonValue of(Object body, Views.Shape shape) {
+        MappingJacksonValue value = new MappingJacksonValue(body);
+        value.setSerializationView(shape.getView());
+        return value;
+    }
+}
@@ -4,27 +4,34 @@ package com.company.projectmanagement.controller;
 import com.company.projectmanagement.model.KeyMilestone;
 import com.company.projectmanagement.model.KeyMilestone.MilestoneStatus;
 import com.company.projectmanagement.model.KeyMilestone.Priority;
+import com.company.projectmanagement.model.Views;
 import com.company.projectmanagement.service.KeyMilestoneService;
+import com.company.projectmanagement.service.OptimisticVersions;
+import com.company.projectmanagement.service.VersionRequiredException;
+import com.fasterxml.jackson.databind.JsonNode;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.MappingJacksonValue;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.bind.annotation.RequestMethod;
 
 import jakarta.validation.Valid;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/milestones")
 @Tag(name = "关键里程碑管理", description = "关键里程碑相关的API接口")
 @CrossOrigin(origins = {"http://localhost:3000", "http://127.0.0.1:3000"}, 
-             methods = {RequestMethod.GET, RequestMethod.POST, RequestMethod.PUT, RequestMethod.DELETE, RequestMethod.OPTIONS},
+             methods = {RequestMethod.GET, RequestMethod.POST, RequestMethod.PUT, RequestMethod.PATCH, RequestMethod.DELETE, RequestMethod.OPTIONS},
              allowedHeaders = "*", 
              allowCredentials = "true")
 public class KeyMilestoneController {
@@ -39,69 +46,152 @@ public class KeyMilestoneController {
 
     @GetMapping
     @Operation(summary = "获取所有关键里程碑", description = "获取系统中的所有关键里程碑")
-    public ResponseEntity<List<KeyMilestone>> getAllMilestones() {
-        List<KeyMilestone> milestones = milestoneService.getAllMilestones();
-        return ResponseEntity.ok(milestones);
+    public ResponseEntity<MappingJacksonValue> getAllMilestones(
+            @Parameter(description = "返回形态: summary, detail, full") @RequestParam(defaultValue = "full") Views.Shape view) {
+        List<KeyMilestone> milestones = milestoneService.getAllMilestones(view);
+        return ResponseEntity.ok(JsonViewResponses.of(milestones, view));
     }
 
     @GetMapping("/{id}")
     @Operation(summary = "根据ID获取关键里程碑", description = "通过里程碑ID获取具体的关键里程碑信息")
-    public ResponseEntity<KeyMilestone> getMilestoneById(
-            @Parameter(description = "里程碑ID") @PathVariable Long id) {
-        Optional<KeyMilestone> milestone = milestoneService.getMilestoneById(id);
-        return milestone.map(ResponseEntity::ok)
+    public ResponseEntity<MappingJacksonValue> getMilestoneById(
+            @Parameter(description = "里程碑ID") @PathVariable Long id,
+            @Parameter(description = "返回形态: summary, detail, full") @RequestParam(defaultValue = "full") Views.Shape view) {
+        Optional<KeyMilestone> milestone = milestoneService.getMilestoneById(id, view);
+        return milestone.map(m -> ResponseEntity.ok(JsonViewResponses.of(m, view)))
                        .orElse(ResponseEntity.notFound().build());
     }
 
     @GetMapping("/project/{projectId}")
     @Operation(summary = "获取项目的关键里程碑", description = "获取指定项目的所有关键里程碑")
-    public ResponseEntity<List<KeyMilestone>> getMilestonesByProject(
-            @Parameter(description = "项目ID") @PathVariable Long projectId) {
-        List<KeyMilestone> milestones = milestoneService.getMilestonesByProjectId(projectId);
-        return ResponseEntity.ok(milestones);
+    public ResponseEntity<MappingJacksonValue> getMilestonesByProject(
+            @Parameter(description = "项目ID") @PathVariable Long projectId,
+            @Parameter(description = "返回形态: summary, detail, full") @RequestParam(defaultValue = "full") Views.Shape view) {
+        List<KeyMilestone> milestones = milestoneService.getMilestonesByProjectId(projectId, view);
+        return ResponseEntity.ok(JsonViewResponses.of(milestones, view));
+    }
+
+    @GetMapping("/owner")
+    @Operation(summary = "根据负责人获取关键里程碑", description = "负责人唯一匹配成员姓名或邮箱时按成员关联查询，否则按负责人文本模糊匹配")
+    public ResponseEntity<MappingJacksonValue> getMilestonesByOwner(
+            @Parameter(description = "负责人姓名或邮箱") @RequestParam String owner,
+            @Parameter(description = "返回形态: summary, detail, full") @RequestParam(defaultValue = "full") Views.Shape view) {
+        return ResponseEntity.ok(JsonViewResponses.of(milestoneService.getMilestonesByOwner(owner, view), view));
+    }
+
+    @GetMapping("/owner/member/{memberId}")
+    @Operation(summary = "获取成员负责的关键里程碑", description = "获取关联到指定团队成员的所有关键里程碑")
+    public ResponseEntity<MappingJacksonValue> getMilestonesByOwnerMember(
+            @Parameter(description = "成员ID") @PathVariable Long memberId,
+            @Parameter(description = "返回形态: summary, detail, full") @RequestParam(defaultValue = "full") Views.Shape view) {
+        return ResponseEntity.ok(JsonViewResponses.of(milestoneService.getMilestonesByOwnerMember(memberId, view), view));
+    }
+
+    @PostMapping("/owners/link")
+    @Operation(summary = "关联负责人到成员", description = "将尚未关联的里程碑按负责人文本唯一匹配成员姓名或邮箱并建立关联，返回关联数量")
+    public ResponseEntity<Map<String, Object>> linkOwnersToMembers() {
+        return ResponseEntity.ok(milestoneService.linkOwnersToMembers());
     }
 
     @GetMapping("/status/{status}")
     @Operation(summary = "根据状态获取关键里程碑", description = "获取指定状态的所有关键里程碑")
-    public ResponseEntity<List<KeyMilestone>> getMilestonesByStatus(
-            @Parameter(description = "里程碑状态") @PathVariable MilestoneStatus status) {
-        List<KeyMilestone> milestones = milestoneService.getMilestonesByStatus(status);
-        return ResponseEntity.ok(milestones);
+    public ResponseEntity<MappingJacksonValue> getMilestonesByStatus(
+            @Parameter(description = "里程碑状态") @PathVariable MilestoneStatus status,
+            @Parameter(description = "返回形态: summary, detail, full") @RequestParam(defaultValue = "full") Views.Shape view) {
+        List<KeyMilestone> milestones = milestoneService.getMilestonesByStatus(status, view);
+        return ResponseEntity.ok(JsonViewResponses.of(milestones, view));
     }
 
     @GetMapping("/priority/{priority}")
     @Operation(summary = "根据优先级获取关键里程碑", description = "获取指定优先级的所有关键里程碑")
-    public ResponseEntity<List<KeyMilestone>> getMilestonesByPriority(
-            @Parameter(description = "里程碑优先级") @PathVariable Priority priority) {
-        List<KeyMilestone> milestones = milestoneService.getMilestonesByPriority(priority);
-        return ResponseEntity.ok(milestones);
+    public ResponseEntity<MappingJacksonValue> getMilestonesByPriority(
+            @Parameter(description = "里程碑优先级") @PathVariable Priority priority,
+            @Parameter(description = "返回形态: summary, detail, full") @RequestParam(defaultValue = "full") Views.Shape view) {
+        List<KeyMilestone> milestones = milestoneService.getMilestonesByPriority(priority, view);
+        return ResponseEntity.ok(JsonViewResponses.of(milestones, view));
     }
 
     @GetMapping("/due-date")
     @Operation(summary = "根据到期日期范围获取关键里程碑", description = "获取在指定日期范围内到期的关键里程碑")
-    public ResponseEntity<List<KeyMilestone>> getMilestonesByDueDateRange(
+    public ResponseEntity<MappingJacksonValue> getMilestonesByDueDateRange(
             @Parameter(description = "开始日期") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
-            @Parameter(description = "结束日期") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
-        List<KeyMilestone> milestones = milestoneService.getMilestonesByDueDateRange(startDate, endDate);
-        return ResponseEntity.ok(milestones);
+            @Parameter(description = "结束日期") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @Parameter(description = "返回形态: summary, detail, full") @RequestParam(defaultValue = "full") Views.Shape view) {
+        List<KeyMilestone> milestones = milestoneService.getMilestonesByDueDateRange(startDate, endDate, view);
+        return ResponseEntity.ok(JsonViewResponses.of(milestones, view));
+    }
+
+    @GetMapping("/statistics/project/{projectId}")
+    @Operation(summary = "获取项目里程碑统计", description = "获取指定项目的里程碑总数、完成数、逾期数、平均进度和完成率")
+    public ResponseEntity<Map<String, Object>> getMilestoneStatistics(
+            @Parameter(description = "项目ID") @PathVariable Long projectId) {
+        return ResponseEntity.ok(milestoneService.getMilestoneStatistics(projectId));
+    }
+
+    @GetMapping("/statistics")
+    @Operation(summary = "批量获取里程碑统计", description = "一次查询返回多个项目的里程碑统计，按项目ID分组；不传项目ID时返回全部项目")
+    public ResponseEntity<Map<Long, Map<String, Object>>> getMilestoneStatisticsBatch(
+            @Parameter(description = "项目ID列表，逗号分隔") @RequestParam(required = false) List<Long> projectIds) {
+        if (projectIds == null || projectIds.isEmpty()) {
+            return ResponseEntity.ok(milestoneService.getAllMilestoneStatistics());
+        }
+        return ResponseEntity.ok(milestoneService.getMilestoneStatistics(projectIds));
     }
 
     @PostMapping
     @Operation(summary = "创建关键里程碑", description = "创建新的关键里程碑")
     public ResponseEntity<KeyMilestone> createMilestone(
             @Parameter(description = "关键里程碑信息") @Valid @RequestBody KeyMilestone milestone) {
-        KeyMilestone createdMilestone = milestoneService.createMilestone(milestone);
-        return ResponseEntity.status(HttpStatus.CREATED).body(createdMilestone);
+        try {
+            KeyMilestone createdMilestone = milestoneService.createMilestone(milestone);
+            return ResponseEntity.status(HttpStatus.CREATED).body(createdMilestone);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     @PutMapping("/{id}")
-    @Operation(summary = "更新关键里程碑", description = "更新指定的关键里程碑信息")
+    @Operation(summary = "更新关键里程碑", description = "更新指定的关键里程碑信息；须带读取时的 version（或 If-Match 头），缺少时返回 428，版本不一致返回 409")
     public ResponseEntity<KeyMilestone> updateMilestone(
             @Parameter(description = "里程碑ID") @PathVariable Long id,
-            @Parameter(description = "更新的关键里程碑信息") @Valid @RequestBody KeyMilestone milestone) {
+            @Parameter(description = "更新的关键里程碑信息") @Valid @RequestBody KeyMilestone milestone,
+            @Parameter(description = "读取时的版本号，请求体未带 version 时使用") @RequestHeader(value = "If-Match", required = false) String ifMatch) {
         try {
+            milestone.setVersion(OptimisticVersions.resolve(milestone.getVersion(), ifMatch));
             KeyMilestone updatedMilestone = milestoneService.updateMilestone(id, milestone);
             return ResponseEntity.ok(updatedMilestone);
+        } catch (VersionRequiredException e) {
+            // 未带版本号：无法判断是否基于最新状态修改
+            return ResponseEntity.status(HttpStatus.PRECONDITION_REQUIRED).build();
+        } catch (OptimisticLockingFailureException e) {
+            // 版本冲突：返回 409 和当前最新状态
+            return milestoneService.getMilestoneById(id)
+                    .map(current -> ResponseEntity.status(HttpStatus.CONFLICT).body(current))
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    @PatchMapping(value = "/{id}", consumes = {"application/merge-patch+json", "application/json"})
+    @Operation(summary = "部分更新关键里程碑", description = "按 JSON Merge Patch 只修改请求中出现的字段；须带 version（或 If-Match 头），缺少时返回 428，版本不一致返回 409")
+    public ResponseEntity<KeyMilestone> patchMilestone(
+            @Parameter(description = "里程碑ID") @PathVariable Long id,
+            @RequestBody JsonNode patch,
+            @Parameter(description = "读取时的版本号，请求体未带 version 时使用") @RequestHeader(value = "If-Match", required = false) String ifMatch) {
+        try {
+            return ResponseEntity.ok(milestoneService.patchMilestone(id, patch, OptimisticVersions.fromIfMatch(ifMatch)));
+        } catch (VersionRequiredException e) {
+            // 未带版本号：无法判断是否基于最新状态修改
+            return ResponseEntity.status(HttpStatus.PRECONDITION_REQUIRED).build();
+        } catch (OptimisticLockingFailureException e) {
+            return milestoneService.getMilestoneById(id)
+                    .map(current -> ResponseEntity.status(HttpStatus.CONFLICT).body(current))
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         }
@@ -126,11 +216,43 @@ public class KeyMilestoneController {
         try {
             KeyMilestone completedMilestone = milestoneService.completeMilestone(id);
             return ResponseEntity.ok(completedMilestone);
+        } catch (OptimisticLockingFailureException e) {
+            // 版本冲突：返回 409 和当前最新状态
+            return milestoneService.getMilestoneById(id)
+                    .map(current -> ResponseEntity.status(HttpStatus.CONFLICT).body(current))
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    @PatchMapping("/{id}/progress")
+    @Operation(summary = "更新里程碑进度", description = "更新进度并按进度自动推进状态；开启写后缓冲时，不改变状态的进度更新会合并后批量落库，返回 202 且无响应体")
+    public ResponseEntity<KeyMilestone> updateMilestoneProgress(
+            @Parameter(description = "里程碑ID") @PathVariable Long id,
+            @Parameter(description = "进度 0-100") @RequestParam Integer progress) {
+        try {
+            return milestoneService.updateMilestoneProgress(id, progress)
+                    .map(ResponseEntity::ok)
+                    .orElseGet(() -> ResponseEntity.accepted().build());
+        } catch (OptimisticLockingFailureException e) {
+            // 版本冲突：返回 409 和当前最新状态
+            return milestoneService.getMilestoneById(id)
+                    .map(current -> ResponseEntity.status(HttpStatus.CONFLICT).body(current))
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         }
     }
 
+    @GetMapping("/progress-buffer/statistics")
+    @Operation(summary = "进度写后缓冲统计", description = "待落库、已写入和因版本变化丢弃的进度更新数量")
+    public ResponseEntity<Map<String, Object>> getProgressBufferStatistics() {
+        return ResponseEntity.ok(milestoneService.getProgressBufferStatistics());
+    }
+
     @PatchMapping("/{id}/status")
     @Operation(summary = "更新里程碑状态", description = "更新指定里程碑的状态")
     public ResponseEntity<KeyMilestone> updateMilestoneStatus(
@@ -139,9 +261,57 @@ public class KeyMilestoneController {
         try {
             KeyMilestone updatedMilestone = milestoneService.updateMilestoneStatus(id, status);
             return ResponseEntity.ok(updatedMilestone);
+        } catch (OptimisticLockingFailureException e) {
+            // 版本冲突：返回 409 和当前最新状态
+            return milestoneService.getMilestoneById(id)
+                    .map(current -> ResponseEntity.status(HttpStatus.CONFLICT).body(current))
+                    .orElse(ResponseEntity.notFound().build());
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         }
     }
-}
 
+    @PatchMapping("/bulk/shift-dates")
+    @Operation(summary = "批量平移目标日期", description = "将匹配的里程碑目标日期整体平移指定天数，单条 UPDATE 完成，返回受影响数量")
+    public ResponseEntity<Map<String, Object>> bulkShiftTargetDates(
+            @Parameter(description = "平移天数，可为负数") @RequestParam long days,
+            @Parameter(description = "项目ID") @RequestParam(required = false) Long projectId,
+            @Parameter(description = "只处理这些状态") @RequestParam(required = false) List<MilestoneStatus> statuses,
+            @Parameter(description = "目标日期起 (yyyy-MM-dd)") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "目标日期止 (yyyy-MM-dd)") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        try {
+            return ResponseEntity.ok(milestoneService.bulkShiftTargetDates(days, projectId, statuses, from, to));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @PatchMapping("/bulk/status")
+    @Operation(summary = "批量更新状态", description = "将匹配的里程碑更新为指定状态，单条 UPDATE 完成，返回受影响数量")
+    public ResponseEntity<Map<String, Object>> bulkUpdateStatus(
+            @Parameter(description = "新状态") @RequestParam MilestoneStatus status,
+            @Parameter(description = "项目ID") @RequestParam(required = false) Long projectId,
+            @Parameter(description = "只处理这些状态") @RequestParam(required = false) List<MilestoneStatus> statuses,
+            @Parameter(description = "目标日期起 (yyyy-MM-dd)") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "目标日期止 (yyyy-MM-dd)") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        try {
+            return ResponseEntity.ok(milestoneService.bulkUpdateStatus(status, projectId, statuses, from, to));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @PatchMapping("/bulk/complete")
+    @Operation(summary = "批量完成里程碑", description = "将匹配的里程碑标记为已完成（进度 100，保留已有实际日期），返回受影响数量")
+    public ResponseEntity<Map<String, Object>> bulkCompleteMilestones(
+            @Parameter(description = "项目ID") @RequestParam(required = false) Long projectId,
+            @Parameter(description = "只处理这些状态") @RequestParam(required = false) List<MilestoneStatus> statuses,
+            @Parameter(description = "目标日期起 (yyyy-MM-dd)") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "目标日期止 (yyyy-MM-dd)") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        try {
+            return ResponseEntity.ok(milestoneService.bulkComplete(projectId, statuses, from, to));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+}
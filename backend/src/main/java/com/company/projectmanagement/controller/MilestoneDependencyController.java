@@ -0,0 +1,73 @@
+package com.company.projectmanagement.controller;
+
+import com.company.projectmanagement.service.MilestoneDependencyService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/milestones")
+@Tag(name = "里程碑依赖", description = "里程碑依赖关系及延期影响分析")
+@CrossOrigin(origins = {"http://localhost:3000", "http://127.0.0.1:3000"}, 
+             methods = {RequestMethod.GET, RequestMethod.POST, RequestMethod.PUT, RequestMethod.DELETE, RequestMethod.OPTIONS},
+             allowedHeaders = "*", 
+             allowCredentials = "true")
+public class MilestoneDependencyController {
+
+    @Autowired
+    private MilestoneDependencyService dependencyService;
+
+    @GetMapping("/{id}/dependencies")
+    @Operation(summary = "获取里程碑依赖", description = "获取里程碑的直接前置依赖和直接后继")
+    public ResponseEntity<Map<String, Object>> getDependencies(
+            @Parameter(description = "里程碑ID") @PathVariable Long id) {
+        return ResponseEntity.ok(dependencyService.getDependencies(id));
+    }
+
+    @PostMapping("/{id}/dependencies/{dependsOnId}")
+    @Operation(summary = "添加里程碑依赖", description = "声明里程碑依赖另一个里程碑，形成环时拒绝")
+    public ResponseEntity<Map<String, Object>> addDependency(
+            @Parameter(description = "里程碑ID") @PathVariable Long id,
+            @Parameter(description = "被依赖的里程碑ID") @PathVariable Long dependsOnId) {
+        try {
+            dependencyService.addDependency(id, dependsOnId);
+            return ResponseEntity.ok(dependencyService.getDependencies(id));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    @DeleteMapping("/{id}/dependencies/{dependsOnId}")
+    @Operation(summary = "删除里程碑依赖", description = "删除两个里程碑之间的依赖")
+    public ResponseEntity<Void> removeDependency(
+            @Parameter(description = "里程碑ID") @PathVariable Long id,
+            @Parameter(description = "被依赖的里程碑ID") @PathVariable Long dependsOnId) {
+        try {
+            dependencyService.removeDependency(id, dependsOnId);
+            return ResponseEntity.noContent().build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    @GetMapping("/{id}/impact")
+    @Operation(summary = "延期影响分析", description = "该里程碑延期时会直接或间接延期的全部里程碑")
+    public ResponseEntity<Map<String, Object>> getImpact(
+            @Parameter(description = "里程碑ID") @PathVariable Long id,
+            @Parameter(description = "是否返回里程碑明细") @RequestParam(defaultValue = "false") boolean includeMilestones) {
+        return ResponseEntity.ok(dependencyService.getImpact(id, includeMilestones));
+    }
+
+    @GetMapping("/dependency-graph/statistics")
+    @Operation(summary = "依赖图统计", description = "内存依赖图的节点数、边数和已缓存的传递闭包数")
+    public ResponseEntity<Map<String, Object>> getGraphStatistics() {
+        return ResponseEntity.ok(dependencyService.getGraphStatistics());
+    }
+}
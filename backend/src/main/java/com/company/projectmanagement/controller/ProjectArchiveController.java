@@ -0,0 +1,86 @@
+package com.company.projectmanagement.controller;
+
+import com.company.projectmanagement.model.ArchivedProject;
+import com.company.projectmanagement.model.Views;
+import com.company.projectmanagement.service.ProjectArchiveService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/archive")
+@Tag(name = "项目归档", description = "已结束项目的冷存储归档、只读查看和恢复")
+@CrossOrigin(origins = {"http://localhost:3000", "http://127.0.0.1:3000"},
+             methods = {RequestMethod.GET, RequestMethod.POST, RequestMethod.OPTIONS},
+             allowedHeaders = "*",
+             allowCredentials = "true")
+public class ProjectArchiveController {
+
+    @Autowired
+    private ProjectArchiveService projectArchiveService;
+
+    @RequestMapping(method = RequestMethod.OPTIONS)
+    public ResponseEntity<?> handlePreflight() {
+        return ResponseEntity.ok().build();
+    }
+
+    @GetMapping("/projects")
+    @Operation(summary = "获取归档项目列表", description = "列出所有已归档的项目及其行数和压缩后大小，按归档时间倒序")
+    public ResponseEntity<List<ArchivedProject>> getArchivedProjects() {
+        return ResponseEntity.ok(projectArchiveService.getArchivedProjects());
+    }
+
+    @GetMapping("/projects/{projectId}")
+    @Operation(summary = "查看归档项目", description = "读取归档时的项目完整数据，无需恢复")
+    public ResponseEntity<MappingJacksonValue> getArchivedProject(
+            @Parameter(description = "项目ID") @PathVariable Long projectId,
+            @Parameter(description = "返回形态: summary, detail, full") @RequestParam(defaultValue = "full") Views.Shape view) {
+        return projectArchiveService.getArchivedProject(projectId)
+                .map(p -> ResponseEntity.ok(JsonViewResponses.of(p, view)))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @PostMapping("/projects")
+    @Operation(summary = "归档指定项目", description = "将指定项目及其阶段、里程碑、风险和依赖移入归档，并从活动表删除")
+    public ResponseEntity<Map<String, Object>> archiveProjects(
+            @Parameter(description = "项目ID列表") @RequestParam List<Long> ids) {
+        try {
+            return ResponseEntity.ok(projectArchiveService.archiveProjects(ids));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @PostMapping("/run")
+    @Operation(summary = "归档已结束项目", description = "归档所有阶段均已完成（LIVE 除外）且结束超过配置天数的项目")
+    public ResponseEntity<Map<String, Object>> archiveFinishedProjects() {
+        return ResponseEntity.ok(projectArchiveService.archiveFinishedProjects());
+    }
+
+    @PostMapping("/projects/{projectId}/restore")
+    @Operation(summary = "恢复归档项目", description = "按原ID将归档项目写回活动表")
+    public ResponseEntity<Map<String, Object>> restoreProject(
+            @Parameter(description = "项目ID") @PathVariable Long projectId) {
+        try {
+            return ResponseEntity.ok(projectArchiveService.restoreProject(projectId));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    @GetMapping("/statistics")
+    @Operation(summary = "归档统计", description = "归档项目数、行数、压缩后字节数和活动项目数")
+    public ResponseEntity<Map<String, Object>> getStatistics() {
+        return ResponseEntity.ok(projectArchiveService.getStatistics());
+    }
+}
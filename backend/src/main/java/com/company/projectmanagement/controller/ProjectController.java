@@ -2,7 +2,13 @@ package com.company.projectmanagement.controller;
 
 import com.company.projectmanagement.model.Project;
 import com.company.projectmanagement.model.ProjectStatus;
+import com.company.projectmanagement.model.Views;
+import com.company.projectmanagement.service.ProjectArchiveService;
+import com.company.projectmanagement.service.ProjectDeletionResult;
 import com.company.projectmanagement.service.ProjectService;
+import com.company.projectmanagement.service.OptimisticVersions;
+import com.company.projectmanagement.service.VersionRequiredException;
+import com.fasterxml.jackson.databind.JsonNode;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -13,8 +19,10 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.MappingJacksonValue;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.bind.annotation.RequestMethod;
 
@@ -26,7 +34,7 @@ import java.util.Optional;
 @RestController
 @RequestMapping("/api/projects")
 @CrossOrigin(origins = {"http://localhost:3000", "http://127.0.0.1:3000"}, 
-             methods = {RequestMethod.GET, RequestMethod.POST, RequestMethod.PUT, RequestMethod.DELETE, RequestMethod.OPTIONS},
+             methods = {RequestMethod.GET, RequestMethod.POST, RequestMethod.PUT, RequestMethod.PATCH, RequestMethod.DELETE, RequestMethod.OPTIONS},
              allowedHeaders = "*", 
              allowCredentials = "true")
 @Tag(name = "Projects", description = "API for managing projects")
@@ -35,6 +43,9 @@ public class ProjectController {
     @Autowired
     private ProjectService projectService;
 
+    @Autowired
+    private ProjectArchiveService projectArchiveService;
+
     @RequestMapping(method = RequestMethod.OPTIONS)
     public ResponseEntity<?> handlePreflight() {
         return ResponseEntity.ok().build();
@@ -46,27 +57,35 @@ public class ProjectController {
             @ApiResponse(responseCode = "200", description = "成功获取项目列表",
                     content = @Content(schema = @Schema(implementation = Project.class)))
     })
-    public ResponseEntity<List<Project>> getAllProjects() {
-        List<Project> projects = projectService.getAllProjects();
-        return ResponseEntity.ok(projects);
+    public ResponseEntity<MappingJacksonValue> getAllProjects(
+            @Parameter(description = "返回形态: summary, detail, full") @RequestParam(defaultValue = "full") Views.Shape view) {
+        List<Project> projects = projectService.getAllProjects(view);
+        return ResponseEntity.ok(JsonViewResponses.of(projects, view));
     }
 
 
     @GetMapping("/{id}")
-    @Operation(summary = "根据ID获取项目", description = "通过项目ID获取具体的项目信息")
-    public ResponseEntity<Project> getProjectById(
-            @Parameter(description = "项目ID") @PathVariable Long id) {
-        Optional<Project> project = projectService.getProjectById(id);
-        return project.map(ResponseEntity::ok)
+    @Operation(summary = "根据ID获取项目", description = "通过项目ID获取具体的项目信息；已归档的项目从归档读取（响应头 X-Archived: true）")
+    public ResponseEntity<MappingJacksonValue> getProjectById(
+            @Parameter(description = "项目ID") @PathVariable Long id,
+            @Parameter(description = "返回形态: summary, detail, full") @RequestParam(defaultValue = "full") Views.Shape view) {
+        Optional<Project> project = projectService.getProjectById(id, view);
+        if (project.isPresent()) {
+            return ResponseEntity.ok(JsonViewResponses.of(project.get(), view));
+        }
+        // 不在活动表中时从归档读取，响应头标明数据来自归档
+        return projectArchiveService.getArchivedProject(id)
+                .map(p -> ResponseEntity.ok().header("X-Archived", "true").body(JsonViewResponses.of(p, view)))
                 .orElse(ResponseEntity.notFound().build());
     }
 
     @GetMapping("/status/{status}")
     @Operation(summary = "根据状态获取项目", description = "获取指定状态的所有项目")
-    public ResponseEntity<List<Project>> getProjectsByStatus(
-            @Parameter(description = "项目状态") @PathVariable ProjectStatus status) {
-        List<Project> projects = projectService.getProjectsByStatus(status);
-        return ResponseEntity.ok(projects);
+    public ResponseEntity<MappingJacksonValue> getProjectsByStatus(
+            @Parameter(description = "项目状态") @PathVariable ProjectStatus status,
+            @Parameter(description = "返回形态: summary, detail, full") @RequestParam(defaultValue = "full") Views.Shape view) {
+        List<Project> projects = projectService.getProjectsByStatus(status, view);
+        return ResponseEntity.ok(JsonViewResponses.of(projects, view));
     }
 
     @PostMapping
@@ -77,13 +96,47 @@ public class ProjectController {
     }
 
     @PutMapping("/{id}")
-    @Operation(summary = "更新项目", description = "更新指定ID的项目")
+    @Operation(summary = "更新项目", description = "更新指定ID的项目；须带读取时的 version（或 If-Match 头），缺少时返回 428，版本不一致返回 409")
     public ResponseEntity<Project> updateProject(
             @Parameter(description = "项目ID") @PathVariable Long id,
-            @Valid @RequestBody Project project) {
+            @Valid @RequestBody Project project,
+            @Parameter(description = "读取时的版本号，请求体未带 version 时使用") @RequestHeader(value = "If-Match", required = false) String ifMatch) {
         try {
+            project.setVersion(OptimisticVersions.resolve(project.getVersion(), ifMatch));
             Project updatedProject = projectService.updateProject(id, project);
             return ResponseEntity.ok(updatedProject);
+        } catch (VersionRequiredException e) {
+            // 未带版本号：无法判断是否基于最新状态修改
+            return ResponseEntity.status(HttpStatus.PRECONDITION_REQUIRED).build();
+        } catch (OptimisticLockingFailureException e) {
+            // 版本冲突：返回 409 和当前最新状态，由客户端合并后重试
+            return projectService.getProjectById(id)
+                    .map(current -> ResponseEntity.status(HttpStatus.CONFLICT).body(current))
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    @PatchMapping(value = "/{id}", consumes = {"application/merge-patch+json", "application/json"})
+    @Operation(summary = "部分更新项目", description = "按 JSON Merge Patch 只修改请求中出现的字段；须带 version（或 If-Match 头），缺少时返回 428，版本不一致返回 409")
+    public ResponseEntity<Project> patchProject(
+            @Parameter(description = "项目ID") @PathVariable Long id,
+            @RequestBody JsonNode patch,
+            @Parameter(description = "读取时的版本号，请求体未带 version 时使用") @RequestHeader(value = "If-Match", required = false) String ifMatch) {
+        try {
+            return ResponseEntity.ok(projectService.patchProject(id, patch, OptimisticVersions.fromIfMatch(ifMatch)));
+        } catch (VersionRequiredException e) {
+            // 未带版本号：无法判断是否基于最新状态修改
+            return ResponseEntity.status(HttpStatus.PRECONDITION_REQUIRED).build();
+        } catch (OptimisticLockingFailureException e) {
+            return projectService.getProjectById(id)
+                    .map(current -> ResponseEntity.status(HttpStatus.CONFLICT).body(current))
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         }
@@ -101,6 +154,17 @@ public class ProjectController {
         }
     }
 
+    @DeleteMapping("/bulk")
+    @Operation(summary = "批量删除项目", description = "用集合式 DELETE 语句删除多个项目及其里程碑、风险、依赖和阶段，不加载子对象，返回各表删除数量")
+    public ResponseEntity<ProjectDeletionResult> deleteProjects(
+            @Parameter(description = "项目ID列表") @RequestParam List<Long> ids) {
+        try {
+            return ResponseEntity.ok(projectService.deleteProjects(ids));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     @PostMapping("/{id}/copy")
     @Operation(summary = "复制项目", description = "复制指定ID的项目及其所有相关数据")
     @ApiResponses(value = {
@@ -120,10 +184,11 @@ public class ProjectController {
 
     @GetMapping("/search")
     @Operation(summary = "搜索项目", description = "根据关键词搜索项目")
-    public ResponseEntity<List<Project>> searchProjects(
-            @Parameter(description = "搜索关键词") @RequestParam String keyword) {
-        List<Project> projects = projectService.searchProjectsByName(keyword);
-        return ResponseEntity.ok(projects);
+    public ResponseEntity<MappingJacksonValue> searchProjects(
+            @Parameter(description = "搜索关键词") @RequestParam String keyword,
+            @Parameter(description = "返回形态: summary, detail, full") @RequestParam(defaultValue = "full") Views.Shape view) {
+        List<Project> projects = projectService.searchProjectsByName(keyword, view);
+        return ResponseEntity.ok(JsonViewResponses.of(projects, view));
     }
 
     @GetMapping("/date-range")
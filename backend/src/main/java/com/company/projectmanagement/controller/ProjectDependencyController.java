@@ -0,0 +1,112 @@
+package com.company.projectmanagement.controller;
+
+import com.company.projectmanagement.model.ProjectDependency;
+import com.company.projectmanagement.service.ProjectDependencyService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import jakarta.validation.Valid;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/project-dependencies")
+@Tag(name = "项目依赖管理", description = "跨项目依赖、环检测和上下游分析")
+@CrossOrigin(origins = {"http://localhost:3000", "http://127.0.0.1:3000"},
+             methods = {RequestMethod.GET, RequestMethod.POST, RequestMethod.PUT, RequestMethod.DELETE, RequestMethod.OPTIONS},
+             allowedHeaders = "*",
+             allowCredentials = "true")
+public class ProjectDependencyController {
+
+    @Autowired
+    private ProjectDependencyService dependencyService;
+
+    @RequestMapping(method = RequestMethod.OPTIONS)
+    public ResponseEntity<?> handlePreflight() {
+        return ResponseEntity.ok().build();
+    }
+
+    @GetMapping("/{id}")
+    @Operation(summary = "根据ID获取项目依赖", description = "通过依赖ID获取具体的依赖信息")
+    public ResponseEntity<ProjectDependency> getDependencyById(
+            @Parameter(description = "依赖ID") @PathVariable Long id) {
+        try {
+            return ResponseEntity.ok(dependencyService.getDependencyById(id));
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    @GetMapping("/project/{projectId}")
+    @Operation(summary = "获取项目的所有依赖", description = "获取指定项目的所有依赖记录")
+    public ResponseEntity<List<ProjectDependency>> getDependenciesByProject(
+            @Parameter(description = "项目ID") @PathVariable Long projectId) {
+        return ResponseEntity.ok(dependencyService.getDependenciesByProjectId(projectId));
+    }
+
+    @PostMapping("/project/{projectId}")
+    @Operation(summary = "创建项目依赖", description = "为项目添加依赖，dependsOnProjectId 指向被依赖的项目，形成环时拒绝")
+    public ResponseEntity<ProjectDependency> createDependency(
+            @Parameter(description = "项目ID") @PathVariable Long projectId,
+            @Parameter(description = "依赖信息") @Valid @RequestBody ProjectDependency dependency) {
+        try {
+            ProjectDependency created = dependencyService.createDependency(projectId, dependency);
+            return ResponseEntity.status(HttpStatus.CREATED).body(created);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    @PutMapping("/{id}")
+    @Operation(summary = "更新项目依赖", description = "更新依赖信息，修改被依赖项目时同样做环检测")
+    public ResponseEntity<ProjectDependency> updateDependency(
+            @Parameter(description = "依赖ID") @PathVariable Long id,
+            @Parameter(description = "更新的依赖信息") @Valid @RequestBody ProjectDependency dependency) {
+        try {
+            return ResponseEntity.ok(dependencyService.updateDependency(id, dependency));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    @DeleteMapping("/{id}")
+    @Operation(summary = "删除项目依赖", description = "删除指定的依赖记录")
+    public ResponseEntity<Void> deleteDependency(
+            @Parameter(description = "依赖ID") @PathVariable Long id) {
+        try {
+            dependencyService.deleteDependency(id);
+            return ResponseEntity.noContent().build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    @GetMapping("/project/{projectId}/upstream")
+    @Operation(summary = "上游项目", description = "该项目直接或间接依赖的全部项目")
+    public ResponseEntity<Map<String, Object>> getUpstream(
+            @Parameter(description = "项目ID") @PathVariable Long projectId) {
+        return ResponseEntity.ok(dependencyService.getUpstream(projectId));
+    }
+
+    @GetMapping("/project/{projectId}/downstream")
+    @Operation(summary = "下游项目", description = "直接或间接依赖该项目的全部项目")
+    public ResponseEntity<Map<String, Object>> getDownstream(
+            @Parameter(description = "项目ID") @PathVariable Long projectId) {
+        return ResponseEntity.ok(dependencyService.getDownstream(projectId));
+    }
+
+    @GetMapping("/graph")
+    @Operation(summary = "项目依赖图", description = "按拓扑顺序返回有跨项目依赖的项目及其层级，以及全部依赖边")
+    public ResponseEntity<Map<String, Object>> getDependencyGraph() {
+        return ResponseEntity.ok(dependencyService.getDependencyGraph());
+    }
+}
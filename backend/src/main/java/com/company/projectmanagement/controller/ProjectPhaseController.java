@@ -2,10 +2,14 @@ package com.company.projectmanagement.controller;
 
 import com.company.projectmanagement.model.ProjectPhase;
 import com.company.projectmanagement.service.ProjectPhaseService;
+import com.company.projectmanagement.service.OptimisticVersions;
+import com.company.projectmanagement.service.VersionRequiredException;
+import com.fasterxml.jackson.databind.JsonNode;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -18,7 +22,7 @@ import java.util.Optional;
 @RequestMapping("/api/project-phases")
 @Tag(name = "项目阶段管理", description = "项目阶段相关的API接口")
 @CrossOrigin(origins = {"http://localhost:3000", "http://127.0.0.1:3000"}, 
-             methods = {RequestMethod.GET, RequestMethod.POST, RequestMethod.PUT, RequestMethod.DELETE, RequestMethod.OPTIONS},
+             methods = {RequestMethod.GET, RequestMethod.POST, RequestMethod.PUT, RequestMethod.PATCH, RequestMethod.DELETE, RequestMethod.OPTIONS},
              allowedHeaders = "*", 
              allowCredentials = "true")
 public class ProjectPhaseController {
@@ -64,13 +68,47 @@ public class ProjectPhaseController {
     }
 
     @PutMapping("/{id}")
-    @Operation(summary = "更新项目阶段", description = "更新指定的项目阶段信息")
+    @Operation(summary = "更新项目阶段", description = "更新指定的项目阶段信息；须带读取时的 version（或 If-Match 头），缺少时返回 428，版本不一致返回 409")
     public ResponseEntity<ProjectPhase> updateProjectPhase(
             @Parameter(description = "阶段ID") @PathVariable Long id,
-            @Parameter(description = "更新的项目阶段信息") @Valid @RequestBody ProjectPhase projectPhase) {
+            @Parameter(description = "更新的项目阶段信息") @Valid @RequestBody ProjectPhase projectPhase,
+            @Parameter(description = "读取时的版本号，请求体未带 version 时使用") @RequestHeader(value = "If-Match", required = false) String ifMatch) {
         try {
+            projectPhase.setVersion(OptimisticVersions.resolve(projectPhase.getVersion(), ifMatch));
             ProjectPhase updatedProjectPhase = projectPhaseService.updateProjectPhase(id, projectPhase);
             return ResponseEntity.ok(updatedProjectPhase);
+        } catch (VersionRequiredException e) {
+            // 未带版本号：无法判断是否基于最新状态修改
+            return ResponseEntity.status(HttpStatus.PRECONDITION_REQUIRED).build();
+        } catch (OptimisticLockingFailureException e) {
+            // 版本冲突：返回 409 和当前最新状态
+            return projectPhaseService.getProjectPhaseById(id)
+                    .map(current -> ResponseEntity.status(HttpStatus.CONFLICT).body(current))
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    @PatchMapping(value = "/{id}", consumes = {"application/merge-patch+json", "application/json"})
+    @Operation(summary = "部分更新项目阶段", description = "按 JSON Merge Patch 只修改请求中出现的字段；须带 version（或 If-Match 头），缺少时返回 428，版本不一致返回 409")
+    public ResponseEntity<ProjectPhase> patchProjectPhase(
+            @Parameter(description = "阶段ID") @PathVariable Long id,
+            @RequestBody JsonNode patch,
+            @Parameter(description = "读取时的版本号，请求体未带 version 时使用") @RequestHeader(value = "If-Match", required = false) String ifMatch) {
+        try {
+            return ResponseEntity.ok(projectPhaseService.patchProjectPhase(id, patch, OptimisticVersions.fromIfMatch(ifMatch)));
+        } catch (VersionRequiredException e) {
+            // 未带版本号：无法判断是否基于最新状态修改
+            return ResponseEntity.status(HttpStatus.PRECONDITION_REQUIRED).build();
+        } catch (OptimisticLockingFailureException e) {
+            return projectPhaseService.getProjectPhaseById(id)
+                    .map(current -> ResponseEntity.status(HttpStatus.CONFLICT).body(current))
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         }
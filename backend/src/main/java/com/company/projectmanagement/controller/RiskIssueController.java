@@ -0,0 +1,125 @@
+package com.company.projectmanagement.controller;
+
+import com.company.projectmanagement.model.RiskIssue;
+import com.company.projectmanagement.model.RiskStatus;
+import com.company.projectmanagement.service.RiskIssueService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import jakarta.validation.Valid;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/risks")
+@Tag(name = "风险登记册", description = "项目风险与问题的登记、跟踪和热力图")
+@CrossOrigin(origins = {"http://localhost:3000", "http://127.0.0.1:3000"},
+             methods = {RequestMethod.GET, RequestMethod.POST, RequestMethod.PUT, RequestMethod.PATCH, RequestMethod.DELETE, RequestMethod.OPTIONS},
+             allowedHeaders = "*",
+             allowCredentials = "true")
+public class RiskIssueController {
+
+    @Autowired
+    private RiskIssueService riskIssueService;
+
+    @RequestMapping(method = RequestMethod.OPTIONS)
+    public ResponseEntity<?> handlePreflight() {
+        return ResponseEntity.ok().build();
+    }
+
+    @GetMapping("/{id}")
+    @Operation(summary = "根据ID获取风险", description = "通过ID获取风险或问题的详细信息")
+    public ResponseEntity<RiskIssue> getRiskById(
+            @Parameter(description = "风险ID") @PathVariable Long id) {
+        try {
+            return ResponseEntity.ok(riskIssueService.getRiskById(id));
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    @GetMapping("/project/{projectId}")
+    @Operation(summary = "获取项目的风险", description = "获取指定项目的所有风险和问题，按到期日排序")
+    public ResponseEntity<List<RiskIssue>> getRisksByProject(
+            @Parameter(description = "项目ID") @PathVariable Long projectId) {
+        return ResponseEntity.ok(riskIssueService.getRisksByProject(projectId));
+    }
+
+    @GetMapping("/overdue")
+    @Operation(summary = "获取逾期风险", description = "获取未关闭且已过到期日的风险和问题")
+    public ResponseEntity<List<RiskIssue>> getOverdueRisks() {
+        return ResponseEntity.ok(riskIssueService.getOverdueRisks());
+    }
+
+    @GetMapping("/heatmap")
+    @Operation(summary = "风险热力图", description = "严重程度 × 状态的风险计数及逾期未关闭数量，可按团队过滤；不带团队时附各团队明细")
+    public ResponseEntity<Map<String, Object>> getHeatmap(
+            @Parameter(description = "团队ID") @RequestParam(required = false) Long teamId) {
+        return ResponseEntity.ok(riskIssueService.getHeatmap(teamId));
+    }
+
+    @PostMapping("/heatmap/rebuild")
+    @Operation(summary = "重建风险热力图", description = "从数据库重新计算热力图计数器")
+    public ResponseEntity<Map<String, Object>> rebuildHeatmap() {
+        riskIssueService.rebuildHeatmap();
+        return ResponseEntity.ok(riskIssueService.getHeatmap(null));
+    }
+
+    @PostMapping("/project/{projectId}")
+    @Operation(summary = "创建风险", description = "为指定项目登记新的风险或问题")
+    public ResponseEntity<RiskIssue> createRisk(
+            @Parameter(description = "项目ID") @PathVariable Long projectId,
+            @Parameter(description = "风险信息") @Valid @RequestBody RiskIssue risk) {
+        try {
+            RiskIssue created = riskIssueService.createRisk(projectId, risk);
+            return ResponseEntity.status(HttpStatus.CREATED).body(created);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    @PutMapping("/{id}")
+    @Operation(summary = "更新风险", description = "更新指定的风险或问题")
+    public ResponseEntity<RiskIssue> updateRisk(
+            @Parameter(description = "风险ID") @PathVariable Long id,
+            @Parameter(description = "更新的风险信息") @Valid @RequestBody RiskIssue risk) {
+        try {
+            return ResponseEntity.ok(riskIssueService.updateRisk(id, risk));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    @PatchMapping("/{id}/status")
+    @Operation(summary = "更新风险状态", description = "更新指定风险或问题的状态")
+    public ResponseEntity<RiskIssue> updateRiskStatus(
+            @Parameter(description = "风险ID") @PathVariable Long id,
+            @Parameter(description = "新状态") @RequestParam RiskStatus status) {
+        try {
+            return ResponseEntity.ok(riskIssueService.updateRiskStatus(id, status));
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    @DeleteMapping("/{id}")
+    @Operation(summary = "删除风险", description = "删除指定的风险或问题")
+    public ResponseEntity<Void> deleteRisk(
+            @Parameter(description = "风险ID") @PathVariable Long id) {
+        try {
+            riskIssueService.deleteRisk(id);
+            return ResponseEntity.noContent().build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.company.projectmanagement.controller;
+
+import com.company.projectmanagement.model.StatusHistory;
+import com.company.projectmanagement.service.StatusHistoryService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/status-history")
+@CrossOrigin(origins = {"http://localhost:3000", "http://127.0.0.1:3000"}, 
+             methods = {RequestMethod.GET, RequestMethod.POST, RequestMethod.PUT, RequestMethod.DELETE, RequestMethod.OPTIONS},
+             allowedHeaders = "*", 
+             allowCredentials = "true")
+@Tag(name = "Status History", description = "RAG status history and portfolio trends")
+public class StatusHistoryController {
+
+    @Autowired
+    private StatusHistoryService statusHistoryService;
+
+    @GetMapping("/projects/{projectId}")
+    @Operation(summary = "Get project status history", description = "RAG, escalation and phase status changes of a project, newest first")
+    public ResponseEntity<List<StatusHistory>> getProjectHistory(
+            @PathVariable Long projectId,
+            @Parameter(description = "回溯天数") @RequestParam(defaultValue = "365") int days) {
+        return ResponseEntity.ok(statusHistoryService.getProjectHistory(projectId, days));
+    }
+
+    @GetMapping("/projects/{projectId}/current-status")
+    @Operation(summary = "Get current status duration", description = "How long the project has been in its current RAG status")
+    public ResponseEntity<Map<String, Object>> getCurrentStatusDuration(@PathVariable Long projectId) {
+        try {
+            return ResponseEntity.ok(statusHistoryService.getCurrentStatusDuration(projectId));
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    @GetMapping("/portfolio-trend")
+    @Operation(summary = "Get portfolio RAG trend", description = "Daily project counts per RAG status from the pre-aggregated snapshots")
+    public ResponseEntity<List<Map<String, Object>>> getPortfolioTrend(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        LocalDate end = endDate != null ? endDate : LocalDate.now();
+        LocalDate start = startDate != null ? startDate : end.minusYears(1);
+        if (start.isAfter(end)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(statusHistoryService.getPortfolioTrend(start, end));
+    }
+
+    @PostMapping("/snapshots")
+    @Operation(summary = "Take portfolio snapshot", description = "Rebuild today's portfolio snapshot from current project status")
+    public ResponseEntity<Void> takeSnapshot() {
+        statusHistoryService.takeDailySnapshot();
+        return ResponseEntity.noContent().build();
+    }
+}
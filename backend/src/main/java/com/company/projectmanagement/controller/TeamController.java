@@ -2,6 +2,7 @@ package com.company.projectmanagement.controller;
 
 import com.company.projectmanagement.model.Team;
 import com.company.projectmanagement.model.TeamMember;
+import com.company.projectmanagement.model.Views;
 import com.company.projectmanagement.service.TeamService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -9,6 +10,7 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.MappingJacksonValue;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.bind.annotation.RequestMethod;
 
@@ -37,17 +39,19 @@ public class TeamController {
 
     @GetMapping
     @Operation(summary = "获取所有团队", description = "获取系统中的所有团队")
-    public ResponseEntity<List<Team>> getAllTeams() {
-        List<Team> teams = teamService.getAllTeams();
-        return ResponseEntity.ok(teams);
+    public ResponseEntity<MappingJacksonValue> getAllTeams(
+            @Parameter(description = "返回形态: summary, detail, full") @RequestParam(defaultValue = "full") Views.Shape view) {
+        List<Team> teams = teamService.getAllTeams(view);
+        return ResponseEntity.ok(JsonViewResponses.of(teams, view));
     }
 
     @GetMapping("/{id}")
     @Operation(summary = "根据ID获取团队", description = "通过团队ID获取具体的团队信息")
-    public ResponseEntity<Team> getTeamById(
-            @Parameter(description = "团队ID") @PathVariable Long id) {
-        Optional<Team> team = teamService.getTeamById(id);
-        return team.map(ResponseEntity::ok)
+    public ResponseEntity<MappingJacksonValue> getTeamById(
+            @Parameter(description = "团队ID") @PathVariable Long id,
+            @Parameter(description = "返回形态: summary, detail, full") @RequestParam(defaultValue = "full") Views.Shape view) {
+        Optional<Team> team = teamService.getTeamById(id, view);
+        return team.map(t -> ResponseEntity.ok(JsonViewResponses.of(t, view)))
                   .orElse(ResponseEntity.notFound().build());
     }
 
@@ -59,6 +63,19 @@ public class TeamController {
         return ResponseEntity.ok(teams);
     }
 
+    @GetMapping("/search")
+    @Operation(summary = "搜索团队", description = "按名称在数据库中搜索团队；少于 3 个字符时按前缀匹配，否则按子串匹配且前缀命中排在前面")
+    public ResponseEntity<MappingJacksonValue> searchTeams(
+            @Parameter(description = "关键字") @RequestParam(defaultValue = "") String q,
+            @Parameter(description = "最多返回条数，默认 20，最大 100") @RequestParam(required = false) Integer limit,
+            @Parameter(description = "返回形态: summary, detail, full") @RequestParam(defaultValue = "summary") Views.Shape view) {
+        try {
+            return ResponseEntity.ok(JsonViewResponses.of(teamService.searchTeams(q, limit, view), view));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     @GetMapping("/statistics")
     @Operation(summary = "获取团队统计信息", description = "获取团队的统计信息")
     public ResponseEntity<Map<String, Object>> getTeamStatistics() {
@@ -112,15 +129,12 @@ public class TeamController {
     }
 
     @PutMapping("/{id}/members")
-    @Operation(summary = "更新团队成员", description = "为指定团队更新成员分配")
+    @Operation(summary = "更新团队成员", description = "为指定团队更新成员分配；不在列表中的成员移出团队，列表中的成员加入团队，批量 UPDATE 完成")
     public ResponseEntity<Map<String, Object>> updateTeamMembers(
             @Parameter(description = "团队ID") @PathVariable Long id,
             @Parameter(description = "成员ID列表") @RequestBody Map<String, Object> request) {
         try {
-            @SuppressWarnings("unchecked")
-            List<Long> memberIds = (List<Long>) request.get("memberIds");
-            teamService.updateTeamMembers(id, memberIds);
-            Map<String, Object> response = new HashMap<>();
+            Map<String, Object> response = new HashMap<>(teamService.updateTeamMembers(id, toIds(request.get("memberIds"))));
             response.put("success", true);
             response.put("message", "Team members updated successfully");
             return ResponseEntity.ok(response);
@@ -131,4 +145,40 @@ public class TeamController {
             return ResponseEntity.badRequest().body(response);
         }
     }
+
+    @PostMapping("/{id}/members/move")
+    @Operation(summary = "批量移动成员", description = "将指定成员，或来源团队的全部成员（可与成员列表组合）移入该团队，单条 UPDATE 完成，返回移动数量")
+    public ResponseEntity<Map<String, Object>> moveMembers(
+            @Parameter(description = "目标团队ID") @PathVariable Long id,
+            @Parameter(description = "memberIds: 成员ID列表; fromTeamId: 来源团队ID") @RequestBody Map<String, Object> request) {
+        try {
+            Object fromTeamId = request.get("fromTeamId");
+            return ResponseEntity.ok(teamService.moveMembers(id,
+                    fromTeamId != null ? ((Number) fromTeamId).longValue() : null,
+                    toIds(request.get("memberIds"))));
+        } catch (IllegalArgumentException | ClassCastException e) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", false);
+            response.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    // JSON 数字反序列化为 Integer 或 Long，统一转换为 Long
+    private static List<Long> toIds(Object value) {
+        if (value == null) {
+            return null;
+        }
+        if (!(value instanceof List<?> list)) {
+            throw new IllegalArgumentException("memberIds must be an array");
+        }
+        return list.stream().map(id -> {
+            if (!(id instanceof Number number)) {
+                throw new IllegalArgumentException("memberIds must contain numbers");
+            }
+            return number.longValue();
+        }).toList();
+    }
 }
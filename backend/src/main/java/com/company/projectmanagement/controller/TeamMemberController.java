@@ -1,6 +1,7 @@
 package com.company.projectmanagement.controller;
 
 import com.company.projectmanagement.model.TeamMember;
+import com.company.projectmanagement.model.Views;
 import com.company.projectmanagement.service.TeamMemberService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -8,6 +9,7 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.MappingJacksonValue;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.bind.annotation.RequestMethod;
 
@@ -36,26 +38,43 @@ public class TeamMemberController {
 
     @GetMapping
     @Operation(summary = "获取所有团队成员", description = "获取系统中的所有团队成员")
-    public ResponseEntity<List<TeamMember>> getAllTeamMembers() {
+    public ResponseEntity<MappingJacksonValue> getAllTeamMembers(
+            @Parameter(description = "返回形态: summary, detail, full") @RequestParam(defaultValue = "full") Views.Shape view) {
         List<TeamMember> teamMembers = teamMemberService.getAllTeamMembers();
-        return ResponseEntity.ok(teamMembers);
+        return ResponseEntity.ok(JsonViewResponses.of(teamMembers, view));
     }
 
     @GetMapping("/{id}")
     @Operation(summary = "根据ID获取团队成员", description = "通过成员ID获取具体的团队成员信息")
-    public ResponseEntity<TeamMember> getTeamMemberById(
-            @Parameter(description = "团队成员ID") @PathVariable Long id) {
+    public ResponseEntity<MappingJacksonValue> getTeamMemberById(
+            @Parameter(description = "团队成员ID") @PathVariable Long id,
+            @Parameter(description = "返回形态: summary, detail, full") @RequestParam(defaultValue = "full") Views.Shape view) {
         Optional<TeamMember> teamMember = teamMemberService.getTeamMemberById(id);
-        return teamMember.map(ResponseEntity::ok)
+        return teamMember.map(m -> ResponseEntity.ok(JsonViewResponses.of(m, view)))
                         .orElse(ResponseEntity.notFound().build());
     }
 
     @GetMapping("/team/{teamId}")
     @Operation(summary = "获取团队的所有成员", description = "获取指定团队的所有成员")
-    public ResponseEntity<List<TeamMember>> getTeamMembersByTeam(
-            @Parameter(description = "团队ID") @PathVariable Long teamId) {
+    public ResponseEntity<MappingJacksonValue> getTeamMembersByTeam(
+            @Parameter(description = "团队ID") @PathVariable Long teamId,
+            @Parameter(description = "返回形态: summary, detail, full") @RequestParam(defaultValue = "full") Views.Shape view) {
         List<TeamMember> teamMembers = teamMemberService.getTeamMembersByTeamId(teamId);
-        return ResponseEntity.ok(teamMembers);
+        return ResponseEntity.ok(JsonViewResponses.of(teamMembers, view));
+    }
+
+    @GetMapping("/search")
+    @Operation(summary = "搜索团队成员", description = "按姓名、邮箱或角色在数据库中搜索成员，可限定团队；少于 3 个字符时按前缀匹配，否则按子串匹配且姓名前缀命中排在前面")
+    public ResponseEntity<MappingJacksonValue> searchTeamMembers(
+            @Parameter(description = "关键字") @RequestParam(defaultValue = "") String q,
+            @Parameter(description = "团队ID") @RequestParam(required = false) Long teamId,
+            @Parameter(description = "最多返回条数，默认 20，最大 100") @RequestParam(required = false) Integer limit,
+            @Parameter(description = "返回形态: summary, detail, full") @RequestParam(defaultValue = "detail") Views.Shape view) {
+        try {
+            return ResponseEntity.ok(JsonViewResponses.of(teamMemberService.searchTeamMembers(q, teamId, limit), view));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     @GetMapping("/role/{role}")
@@ -0,0 +1,87 @@
+package com.company.projectmanagement.controller;
+
+import com.company.projectmanagement.service.MemberWorkloadService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/workload")
+@Tag(name = "成员工作量", description = "按周统计成员负责的未完成里程碑、所领导项目的阶段和被指派的风险")
+@CrossOrigin(origins = {"http://localhost:3000", "http://127.0.0.1:3000"},
+             methods = {RequestMethod.GET, RequestMethod.POST, RequestMethod.OPTIONS},
+             allowedHeaders = "*",
+             allowCredentials = "true")
+public class WorkloadController {
+
+    @Autowired
+    private MemberWorkloadService memberWorkloadService;
+
+    @RequestMapping(method = RequestMethod.OPTIONS)
+    public ResponseEntity<?> handlePreflight() {
+        return ResponseEntity.ok().build();
+    }
+
+    @GetMapping("/members/{memberId}")
+    @Operation(summary = "获取成员工作量", description = "从开始日期所在周起，按周返回成员的未完成里程碑、领导项目的未完成阶段和未关闭风险数量")
+    public ResponseEntity<Map<String, Object>> getMemberWorkload(
+            @Parameter(description = "成员ID") @PathVariable Long memberId,
+            @Parameter(description = "开始日期，默认今天") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "周数，默认 8") @RequestParam(required = false) Integer weeks) {
+        try {
+            return ResponseEntity.ok(memberWorkloadService.getMemberWorkload(memberId, from, weeks));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    @GetMapping("/teams/{teamId}")
+    @Operation(summary = "获取团队工作量", description = "团队内每个成员在同一时间窗口内的按周工作量")
+    public ResponseEntity<Map<String, Object>> getTeamWorkload(
+            @Parameter(description = "团队ID") @PathVariable Long teamId,
+            @Parameter(description = "开始日期，默认今天") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "周数，默认 8") @RequestParam(required = false) Integer weeks) {
+        try {
+            return ResponseEntity.ok(memberWorkloadService.getTeamWorkload(teamId, from, weeks));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping("/teams/{teamId}/capacity")
+    @Operation(summary = "获取团队负载矩阵", description = "成员 × 周的矩阵：每格为成员所领导项目在该周计划进行中的阶段数、该周到期的未完成里程碑数和未关闭风险数，行按成员姓名排序")
+    public ResponseEntity<Map<String, Object>> getTeamCapacity(
+            @Parameter(description = "团队ID") @PathVariable Long teamId,
+            @Parameter(description = "开始日期，默认今天") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "周数，默认 8，最大 104") @RequestParam(required = false) Integer weeks) {
+        try {
+            return ResponseEntity.ok(memberWorkloadService.getTeamCapacity(teamId, from, weeks));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    @GetMapping("/statistics")
+    @Operation(summary = "工作量索引统计", description = "索引中的成员数和各类未完成条目数")
+    public ResponseEntity<Map<String, Object>> getStatistics() {
+        return ResponseEntity.ok(memberWorkloadService.getStatistics());
+    }
+
+    @PostMapping("/reload")
+    @Operation(summary = "重建工作量索引", description = "从数据库重新加载所有未完成的工作")
+    public ResponseEntity<Map<String, Object>> reload() {
+        memberWorkloadService.rebuild();
+        return ResponseEntity.ok(memberWorkloadService.getStatistics());
+    }
+}
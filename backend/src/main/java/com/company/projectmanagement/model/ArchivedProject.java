@@ -0,0 +1,94 @@
+package com.company.projectmanagement.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDateTime;
+
+/**
+ * 冷存储中的项目
+ * 项目及其阶段、里程碑、风险和依赖的原始行打包成一个 gzip 压缩的段，按原项目ID存放；
+ * 热表中不再保留这些行，恢复时按原ID写回
+ */
+@Entity
+@Table(name = "archived_projects", indexes = {
+    @Index(name = "idx_archived_project_team", columnList = "team_id")
+})
+public class ArchivedProject {
+
+    @Id
+    @Column(name = "project_id")
+    private Long projectId;
+
+    @Column(name = "project_name", nullable = false)
+    private String projectName;
+
+    @Column(name = "team_id")
+    private Long teamId;
+
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+
+    @Column(name = "segment_format", nullable = false)
+    private Integer segmentFormat;
+
+    @Column(name = "row_count", nullable = false)
+    private Integer rowCount;
+
+    @Column(name = "segment_size", nullable = false)
+    private Integer segmentSize;
+
+    @JsonIgnore
+    @Basic(fetch = FetchType.LAZY)
+    @JdbcTypeCode(SqlTypes.LONGVARBINARY)
+    @Column(name = "segment", nullable = false)
+    private byte[] segment;
+
+    protected ArchivedProject() {
+    }
+
+    public ArchivedProject(Long projectId, String projectName, Long teamId, int segmentFormat, int rowCount, byte[] segment) {
+        this.projectId = projectId;
+        this.projectName = projectName;
+        this.teamId = teamId;
+        this.segmentFormat = segmentFormat;
+        this.rowCount = rowCount;
+        this.segmentSize = segment.length;
+        this.segment = segment;
+        this.archivedAt = LocalDateTime.now();
+    }
+
+    public Long getProjectId() {
+        return projectId;
+    }
+
+    public String getProjectName() {
+        return projectName;
+    }
+
+    public Long getTeamId() {
+        return teamId;
+    }
+
+    public LocalDateTime getArchivedAt() {
+        return archivedAt;
+    }
+
+    public Integer getSegmentFormat() {
+        return segmentFormat;
+    }
+
+    public Integer getRowCount() {
+        return rowCount;
+    }
+
+    public Integer getSegmentSize() {
+        return segmentSize;
+    }
+
+    public byte[] getSegment() {
+        return segment;
+    }
+}
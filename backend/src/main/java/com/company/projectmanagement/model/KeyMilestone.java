@@ -1,25 +1,52 @@
 package com.company.projectmanagement.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.LazyGroup;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.Max;
 import com.fasterxml.jackson.annotation.JsonBackReference;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonView;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "key_milestones")
+@DynamicUpdate
+@Table(name = "key_milestones", indexes = {
+    @Index(name = "idx_key_milestone_owner_member", columnList = "owner_member_id")
+})
+@NamedEntityGraph(name = KeyMilestone.GRAPH_TEXT, attributeNodes = {
+    @NamedAttributeNode("description"),
+    @NamedAttributeNode("deliverables"),
+    @NamedAttributeNode("dependencies"),
+    @NamedAttributeNode("riskAssessment"),
+    @NamedAttributeNode("successCriteria")
+})
 @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class KeyMilestone {
     
+    // Lazily loaded TEXT columns (bytecode enhanced), fetched together on first access
+    public static final String TEXT_GROUP = "text";
+    
+    // Fetch plan that reads the lazy TEXT columns in the same query
+    public static final String GRAPH_TEXT = "KeyMilestone.text";
+    
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
     
+    // 乐观锁版本号，更新时带回读取到的版本，不一致返回 409
+    @Version
+    @Column(name = "version", nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
+    
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "project_id", nullable = false)
     @JsonBackReference
@@ -29,6 +56,9 @@ public class KeyMilestone {
     @Column(name = "milestone_name", nullable = false)
     private String name;
     
+    @JsonView(Views.Detail.class)
+    @Basic(fetch = FetchType.LAZY)
+    @LazyGroup(TEXT_GROUP)
     @Column(name = "description", columnDefinition = "TEXT")
     private String description;
     
@@ -53,27 +83,54 @@ public class KeyMilestone {
     @Column(name = "owner")
     private String owner;
     
+    // Owner as a team member; the free-text owner is kept for display and for owners outside the teams
+    @ManyToOne(fetch = FetchType.LAZY)
+    @OnDelete(action = OnDeleteAction.SET_NULL)
+    @JoinColumn(name = "owner_member_id")
+    @JsonIgnore
+    private TeamMember ownerMember;
+    
+    // Read-only mapping of the same column, serialized as the owner's member ID
+    @Column(name = "owner_member_id", insertable = false, updatable = false)
+    private Long ownerMemberId;
+    
+    @JsonView(Views.Full.class)
+    @Basic(fetch = FetchType.LAZY)
+    @LazyGroup(TEXT_GROUP)
     @Column(name = "deliverables", columnDefinition = "TEXT")
     private String deliverables;
     
+    @JsonView(Views.Detail.class)
+    @Basic(fetch = FetchType.LAZY)
+    @LazyGroup(TEXT_GROUP)
     @Column(name = "dependencies", columnDefinition = "TEXT")
     private String dependencies;
     
+    @JsonView(Views.Detail.class)
     @Column(name = "budget", precision = 12, scale = 2)
     private BigDecimal budget;
     
+    @JsonView(Views.Full.class)
+    @Basic(fetch = FetchType.LAZY)
+    @LazyGroup(TEXT_GROUP)
     @Column(name = "risk_assessment", columnDefinition = "TEXT")
     private String riskAssessment;
     
+    @JsonView(Views.Full.class)
+    @Basic(fetch = FetchType.LAZY)
+    @LazyGroup(TEXT_GROUP)
     @Column(name = "success_criteria", columnDefinition = "TEXT")
     private String successCriteria;
     
+    @JsonView(Views.Detail.class)
     @Column(name = "created_date")
     private LocalDate createdDate;
     
+    @JsonView(Views.Detail.class)
     @Column(name = "created_at")
     private LocalDateTime createdAt;
     
+    @JsonView(Views.Detail.class)
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
     
@@ -124,6 +181,14 @@ public class KeyMilestone {
         this.id = id;
     }
     
+    public Long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+    
     public Project getProject() {
         return project;
     }
@@ -196,6 +261,23 @@ public class KeyMilestone {
         this.owner = owner;
     }
     
+    public TeamMember getOwnerMember() {
+        return ownerMember;
+    }
+    
+    public void setOwnerMember(TeamMember ownerMember) {
+        this.ownerMember = ownerMember;
+        this.ownerMemberId = ownerMember != null ? ownerMember.getId() : null;
+    }
+    
+    public Long getOwnerMemberId() {
+        return ownerMemberId;
+    }
+    
+    public void setOwnerMemberId(Long ownerMemberId) {
+        this.ownerMemberId = ownerMemberId;
+    }
+    
     public String getDeliverables() {
         return deliverables;
     }
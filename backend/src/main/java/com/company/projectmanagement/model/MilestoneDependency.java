@@ -0,0 +1,62 @@
+package com.company.projectmanagement.model;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.time.LocalDateTime;
+
+/**
+ * 里程碑依赖边：milestone 依赖 dependsOn，dependsOn 延期会影响 milestone
+ */
+@Entity
+@Table(name = "milestone_dependencies",
+       uniqueConstraints = @UniqueConstraint(name = "uk_milestone_dependency", columnNames = {"milestone_id", "depends_on_id"}),
+       indexes = @Index(name = "idx_milestone_dependency_depends_on", columnList = "depends_on_id"))
+public class MilestoneDependency {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    @JoinColumn(name = "milestone_id", nullable = false)
+    private KeyMilestone milestone;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    @JoinColumn(name = "depends_on_id", nullable = false)
+    private KeyMilestone dependsOn;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+
+    public MilestoneDependency() {}
+
+    public MilestoneDependency(KeyMilestone milestone, KeyMilestone dependsOn) {
+        this.milestone = milestone;
+        this.dependsOn = dependsOn;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public KeyMilestone getMilestone() {
+        return milestone;
+    }
+
+    public KeyMilestone getDependsOn() {
+        return dependsOn;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+}
@@ -0,0 +1,61 @@
+package com.company.projectmanagement.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDate;
+
+/**
+ * 组合 RAG 状态日快照，每天每个状态一行，趋势查询只读这张表
+ */
+@Entity
+@Table(name = "portfolio_status_daily", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_portfolio_status_daily", columnNames = {"snapshot_date", "it_project_status"})
+})
+public class PortfolioStatusSnapshot {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "snapshot_date", nullable = false)
+    private LocalDate snapshotDate;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "it_project_status", nullable = false, length = 20)
+    private ProjectStatus itProjectStatus;
+
+    @Column(name = "project_count", nullable = false)
+    private Long projectCount;
+
+    @Column(name = "escalated_count", nullable = false)
+    private Long escalatedCount;
+
+    public PortfolioStatusSnapshot() {}
+
+    public PortfolioStatusSnapshot(LocalDate snapshotDate, ProjectStatus itProjectStatus, Long projectCount, Long escalatedCount) {
+        this.snapshotDate = snapshotDate;
+        this.itProjectStatus = itProjectStatus;
+        this.projectCount = projectCount;
+        this.escalatedCount = escalatedCount;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public LocalDate getSnapshotDate() {
+        return snapshotDate;
+    }
+
+    public ProjectStatus getItProjectStatus() {
+        return itProjectStatus;
+    }
+
+    public Long getProjectCount() {
+        return projectCount;
+    }
+
+    public Long getEscalatedCount() {
+        return escalatedCount;
+    }
+}
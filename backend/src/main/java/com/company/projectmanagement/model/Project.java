@@ -1,10 +1,16 @@
 package com.company.projectmanagement.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.LazyGroup;
+import org.hibernate.annotations.DynamicUpdate;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import org.hibernate.annotations.Fetch;
+import org.hibernate.annotations.FetchMode;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonView;
 import com.fasterxml.jackson.annotation.JsonFormat;
 
 import java.time.LocalDate;
@@ -12,14 +18,47 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
+@DynamicUpdate
 @Table(name = "projects")
+// 团队和负责人不放入抓取计划（LOAD 类型图保留其 EAGER 默认），由二级缓存按 ID 提供
+@NamedEntityGraphs({
+    // 项目列表和详情（非 SUMMARY 形态）：里程碑和大文本字段，其余集合由服务层在事务内初始化
+    @NamedEntityGraph(name = Project.GRAPH_DETAIL, attributeNodes = {
+        @NamedAttributeNode(value = "keyMilestones", subgraph = "milestoneText"),
+        @NamedAttributeNode("itExecutiveSummary"),
+        @NamedAttributeNode("keyIssueAndRisk"),
+        @NamedAttributeNode("dependency"),
+        @NamedAttributeNode("relatedMaterials")
+    }, subgraphs = @NamedSubgraph(name = "milestoneText", attributeNodes = {
+        @NamedAttributeNode("description"),
+        @NamedAttributeNode("deliverables"),
+        @NamedAttributeNode("dependencies"),
+        @NamedAttributeNode("riskAssessment"),
+        @NamedAttributeNode("successCriteria")
+    })),
+    // 甘特图：阶段
+    @NamedEntityGraph(name = Project.GRAPH_GANTT, attributeNodes = {
+        @NamedAttributeNode("projectPhases")
+    })
+})
 @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class Project {
     
+    public static final String GRAPH_DETAIL = "Project.detail";
+    public static final String GRAPH_GANTT = "Project.gantt";
+    
+    // 大文本字段延迟加载（需字节码增强），首次访问任一字段时整组一次取回
+    public static final String TEXT_GROUP = "text";
+    
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
     
+    // 乐观锁版本号，更新时带回读取到的版本，不一致返回 409
+    @Version
+    @Column(name = "version", nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
+    
     @NotBlank(message = "Project name is required")
     @Column(name = "project_name", nullable = false)
     private String projectName;
@@ -28,10 +67,12 @@ public class Project {
     private String daRecord;
     
     @ManyToOne(fetch = FetchType.EAGER)
+    @Fetch(FetchMode.SELECT)
     @JoinColumn(name = "team_id")
     private Team team;
     
     @ManyToOne(fetch = FetchType.EAGER)
+    @Fetch(FetchMode.SELECT)
     @JoinColumn(name = "lead_id")
     private TeamMember lead;
     
@@ -45,9 +86,15 @@ public class Project {
     @Column(name = "near_milestone_date")
     private LocalDate nearMilestoneDate;
     
+    @JsonView(Views.Detail.class)
+    @Basic(fetch = FetchType.LAZY)
+    @LazyGroup(TEXT_GROUP)
     @Column(name = "it_executive_summary", columnDefinition = "TEXT")
     private String itExecutiveSummary;
     
+    @JsonView(Views.Detail.class)
+    @Basic(fetch = FetchType.LAZY)
+    @LazyGroup(TEXT_GROUP)
     @Column(name = "key_issue_and_risk", columnDefinition = "TEXT")
     private String keyIssueAndRisk;
     
@@ -60,12 +107,19 @@ public class Project {
     @Column(name = "go_live_date")
     private String goLiveDate;
     
+    @JsonView(Views.Detail.class)
+    @Basic(fetch = FetchType.LAZY)
+    @LazyGroup(TEXT_GROUP)
     @Column(name = "dependency", columnDefinition = "TEXT")
     private String dependency;
     
+    @JsonView(Views.Detail.class)
+    @Basic(fetch = FetchType.LAZY)
+    @LazyGroup(TEXT_GROUP)
     @Column(name = "related_materials", columnDefinition = "TEXT")
     private String relatedMaterials;
     
+    @JsonView(Views.Detail.class)
     @Column(name = "project_jira_link")
     private String projectJiraLink;
     
@@ -80,19 +134,27 @@ public class Project {
     @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
     private LocalDateTime updatedAt;
     
+    @JsonView(Views.Detail.class)
     @OneToMany(mappedBy = "project", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     @JsonManagedReference
     private List<KeyMilestone> keyMilestones;
     
+    @JsonView(Views.Full.class)
     @OneToMany(mappedBy = "project", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+    @BatchSize(size = 100)
     @JsonManagedReference
     private List<RiskIssue> risksIssues;
     
+    @JsonView(Views.Full.class)
     @OneToMany(mappedBy = "project", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+    @BatchSize(size = 100)
     @JsonManagedReference
     private List<ProjectDependency> projectDependencies;
 
+    @JsonView(Views.Full.class)
     @OneToMany(mappedBy = "project", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+    @BatchSize(size = 100)
+    @OrderBy("phaseName ASC")
     @JsonManagedReference
     private List<ProjectPhase> projectPhases;
     
@@ -123,6 +185,14 @@ public class Project {
         this.id = id;
     }
     
+    public Long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+    
     public String getProjectName() {
         return projectName;
     }
@@ -3,12 +3,16 @@ package com.company.projectmanagement.model;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import com.fasterxml.jackson.annotation.JsonBackReference;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
 
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "project_dependencies")
+@Table(name = "project_dependencies",
+       indexes = @Index(name = "idx_project_dependency_depends_on", columnList = "depends_on_project_id"))
 @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class ProjectDependency {
     
@@ -21,6 +25,17 @@ public class ProjectDependency {
     @JsonBackReference
     private Project project;
     
+    // 依赖的另一个项目（跨项目依赖）；外部系统等非项目依赖为空。被依赖项目删除后置空
+    @ManyToOne(fetch = FetchType.LAZY)
+    @OnDelete(action = OnDeleteAction.SET_NULL)
+    @JoinColumn(name = "depends_on_project_id")
+    @JsonIgnore
+    private Project dependsOnProject;
+    
+    // 同一列的只读映射，序列化时只输出被依赖项目的ID
+    @Column(name = "depends_on_project_id", insertable = false, updatable = false)
+    private Long dependsOnProjectId;
+    
     @NotBlank(message = "Dependency name is required")
     @Column(name = "dependency_name", nullable = false)
     private String dependencyName;
@@ -74,6 +89,23 @@ public class ProjectDependency {
         this.project = project;
     }
     
+    public Project getDependsOnProject() {
+        return dependsOnProject;
+    }
+    
+    public void setDependsOnProject(Project dependsOnProject) {
+        this.dependsOnProject = dependsOnProject;
+        this.dependsOnProjectId = dependsOnProject != null ? dependsOnProject.getId() : null;
+    }
+    
+    public Long getDependsOnProjectId() {
+        return dependsOnProjectId;
+    }
+    
+    public void setDependsOnProjectId(Long dependsOnProjectId) {
+        this.dependsOnProjectId = dependsOnProjectId;
+    }
+    
     public String getDependencyName() {
         return dependencyName;
     }
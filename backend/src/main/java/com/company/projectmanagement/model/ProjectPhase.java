@@ -1,6 +1,7 @@
 package com.company.projectmanagement.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.DynamicUpdate;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.math.BigDecimal;
@@ -8,6 +9,7 @@ import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonBackReference;
 
 @Entity
+@DynamicUpdate
 @Table(name = "project_phases")
 @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class ProjectPhase {
@@ -16,6 +18,11 @@ public class ProjectPhase {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
     
+    // 乐观锁版本号，更新时带回读取到的版本，不一致返回 409
+    @Version
+    @Column(name = "version", nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
+    
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "project_id", nullable = false)
     @JsonBackReference
@@ -109,6 +116,14 @@ public class ProjectPhase {
         this.id = id;
     }
     
+    public Long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+    
     public Project getProject() {
         return project;
     }
@@ -1,6 +1,7 @@
 package com.company.projectmanagement.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.LazyGroup;
 import jakarta.validation.constraints.NotBlank;
 import com.fasterxml.jackson.annotation.JsonBackReference;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
@@ -9,10 +10,24 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "risks_issues")
+@Table(name = "risks_issues", indexes = {
+    @Index(name = "idx_risk_issue_project", columnList = "project_id"),
+    @Index(name = "idx_risk_issue_status_due", columnList = "status, due_date")
+})
+@NamedEntityGraph(name = RiskIssue.GRAPH_TEXT, attributeNodes = {
+    @NamedAttributeNode("description"),
+    @NamedAttributeNode("mitigationAction"),
+    @NamedAttributeNode("assignedTo")
+})
 @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class RiskIssue {
     
+    // Lazily loaded TEXT columns (bytecode enhanced), fetched together on first access
+    public static final String TEXT_GROUP = "text";
+    
+    // Risk register responses: TEXT columns and the assignee in one query
+    public static final String GRAPH_TEXT = "RiskIssue.text";
+    
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -26,6 +41,8 @@ public class RiskIssue {
     @Column(name = "title", nullable = false)
     private String title;
     
+    @Basic(fetch = FetchType.LAZY)
+    @LazyGroup(TEXT_GROUP)
     @Column(name = "description", columnDefinition = "TEXT")
     private String description;
     
@@ -37,6 +54,8 @@ public class RiskIssue {
     @Column(name = "severity")
     private Severity severity = Severity.MEDIUM;
     
+    @Basic(fetch = FetchType.LAZY)
+    @LazyGroup(TEXT_GROUP)
     @Column(name = "mitigation_action", columnDefinition = "TEXT")
     private String mitigationAction;
     
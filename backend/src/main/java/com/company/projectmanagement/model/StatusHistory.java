@@ -0,0 +1,85 @@
+package com.company.projectmanagement.model;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+
+/**
+ * 状态变更历史（只追加）
+ * 记录项目 RAG 状态、升级标记和阶段状态的每一次变化，按 changed_at 做范围分区
+ */
+@Entity
+@Immutable
+@Table(name = "status_history", indexes = {
+    @Index(name = "idx_status_history_project", columnList = "project_id, field_name, changed_at")
+})
+public class StatusHistory {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "entity_type", nullable = false, length = 20)
+    private EntityType entityType;
+
+    @Column(name = "entity_id", nullable = false)
+    private Long entityId;
+
+    @Column(name = "project_id", nullable = false)
+    private Long projectId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "field_name", nullable = false, length = 30)
+    private Field fieldName;
+
+    @Column(name = "old_value", length = 50)
+    private String oldValue;
+
+    @Column(name = "new_value", length = 50)
+    private String newValue;
+
+    @Column(name = "changed_at", nullable = false)
+    private LocalDateTime changedAt;
+
+    public enum EntityType {
+        PROJECT, PHASE
+    }
+
+    public enum Field {
+        IT_PROJECT_STATUS, ESCALATION, PHASE_STATUS
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public EntityType getEntityType() {
+        return entityType;
+    }
+
+    public Long getEntityId() {
+        return entityId;
+    }
+
+    public Long getProjectId() {
+        return projectId;
+    }
+
+    public Field getFieldName() {
+        return fieldName;
+    }
+
+    public String getOldValue() {
+        return oldValue;
+    }
+
+    public String getNewValue() {
+        return newValue;
+    }
+
+    public LocalDateTime getChangedAt() {
+        return changedAt;
+    }
+}
@@ -2,18 +2,29 @@ package com.company.projectmanagement.model;
 
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonView;
 import com.fasterxml.jackson.annotation.JsonFormat;
 
 import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Team.CACHE_REGION)
 @Table(name = "teams")
+@NamedEntityGraph(name = Team.GRAPH_WITH_MEMBERS, attributeNodes = @NamedAttributeNode("members"))
 @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class Team {
     
+    public static final String CACHE_REGION = "teams";
+    
+    public static final String GRAPH_WITH_MEMBERS = "Team.withMembers";
+    
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -22,6 +33,7 @@ public class Team {
     @Column(name = "name", nullable = false, unique = true)
     private String name;
     
+    @JsonView(Views.Detail.class)
     @Column(name = "description", columnDefinition = "TEXT")
     private String description;
     
@@ -33,7 +45,9 @@ public class Team {
     @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
     private LocalDateTime updatedAt;
     
+    @JsonView(Views.Detail.class)
     @OneToMany(mappedBy = "team", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+    @BatchSize(size = 100)
     @JsonManagedReference
     private List<TeamMember> members;
     
@@ -2,18 +2,29 @@ package com.company.projectmanagement.model;
 
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import jakarta.validation.constraints.Email;
 import com.fasterxml.jackson.annotation.JsonBackReference;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonView;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
 import java.time.LocalDateTime;
+import java.util.Locale;
 
 @Entity
-@Table(name = "team_members")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = TeamMember.CACHE_REGION)
+// 邮箱唯一且统一存为小写，普通唯一索引即可保证不区分大小写；PostgreSQL 上迁移脚本另建成 LOWER(email) 的函数索引
+@Table(name = "team_members", indexes = {
+    @Index(name = "ux_team_members_email", columnList = "email", unique = true)
+})
 @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class TeamMember {
     
+    public static final String CACHE_REGION = "team-members";
+    
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -22,9 +33,11 @@ public class TeamMember {
     @Column(name = "name", nullable = false)
     private String name;
     
+    @JsonView(Views.Detail.class)
     @Column(name = "email")
     private String email;
     
+    @JsonView(Views.Detail.class)
     @Column(name = "role")
     private String role;
     
@@ -33,9 +46,11 @@ public class TeamMember {
     @JsonBackReference
     private Team team;
     
+    @JsonView(Views.Detail.class)
     @Column(name = "is_lead")
     private Boolean isLead = false;
     
+    @JsonView(Views.Detail.class)
     @Column(name = "created_at")
     private LocalDateTime createdAt;
     
@@ -61,6 +76,20 @@ public class TeamMember {
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
+        normalizeEmail();
+    }
+    
+    @PreUpdate
+    protected void onUpdate() {
+        normalizeEmail();
+    }
+    
+    // 空白邮箱存为 NULL，其余去掉首尾空格并转为小写
+    private void normalizeEmail() {
+        if (email != null) {
+            String trimmed = email.trim();
+            email = trimmed.isEmpty() ? null : trimmed.toLowerCase(Locale.ROOT);
+        }
     }
     
     // Constructors
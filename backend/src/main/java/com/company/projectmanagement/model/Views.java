@@ -0,0 +1,67 @@
+package com.company.projectmanagement.model;
+
+import java.util.Locale;
+
+/**
+ * JSON 视图定义，用于控制接口返回的数据范围
+ * 未标注 @JsonView 的属性属于 Summary，所有视图都会输出
+ * <p>
+ * 延迟加载的 TEXT 字段（@LazyGroup）只出现在 Detail/Full 中：
+ * <ul>
+ *   <li>Summary：不加载，也不输出</li>
+ *   <li>Detail：项目的 itExecutiveSummary、keyIssueAndRisk、dependency、relatedMaterials，
+ *       里程碑的 description、dependencies</li>
+ *   <li>Full：另加里程碑的 deliverables、riskAssessment、successCriteria，风险条目的 description、mitigationAction</li>
+ * </ul>
+ * 读取接口按返回形态通过实体图加载这些字段；某个字段未被加载时会从输出中省略（而不是写成 null），
+ * 因此字段缺失表示“本视图未加载”，null 表示“值为空”
+ */
+public final class Views {
+
+    private Views() {}
+
+    /**
+     * 摘要：列表和选择器需要的表头字段
+     */
+    public interface Summary {}
+
+    /**
+     * 详情：在摘要基础上增加长文本字段和主要子集合
+     */
+    public interface Detail extends Summary {}
+
+    /**
+     * 完整：整个对象图
+     */
+    public interface Full extends Detail {}
+
+    /**
+     * 请求参数 view= 对应的返回形态
+     */
+    public enum Shape {
+        SUMMARY(Summary.class),
+        DETAIL(Detail.class),
+        FULL(Full.class);
+
+        private final Class<?> view;
+
+        Shape(Class<?> view) {
+            this.view = view;
+        }
+
+        public Class<?> getView() {
+            return view;
+        }
+
+        public static Shape parse(String value) {
+            if (value == null || value.isBlank()) {
+                return FULL;
+            }
+            try {
+                return Shape.valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown view '" + value + "', expected summary, detail or full");
+            }
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.company.projectmanagement.repository;
+
+import com.company.projectmanagement.model.ArchivedProject;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ArchivedProjectRepository extends JpaRepository<ArchivedProject, Long> {
+
+    // 归档列表；段内容是延迟属性，不会被读取
+    List<ArchivedProject> findAllByOrderByArchivedAtDesc();
+
+    // 已归档行数与压缩后字节数 (count, rows, bytes)
+    @Query("SELECT COUNT(a), COALESCE(SUM(a.rowCount), 0), COALESCE(SUM(a.segmentSize), 0) FROM ArchivedProject a")
+    List<Object[]> summarize();
+}
@@ -3,17 +3,49 @@ package com.company.projectmanagement.repository;
 import com.company.projectmanagement.model.KeyMilestone;
 import com.company.projectmanagement.model.KeyMilestone.MilestoneStatus;
 import com.company.projectmanagement.model.KeyMilestone.Priority;
+import com.company.projectmanagement.model.TeamMember;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.EntityGraph.EntityGraphType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface KeyMilestoneRepository extends JpaRepository<KeyMilestone, Long> {
     
+    // Finders stay lean; only the *WithText* methods load the lazy TEXT columns through
+    // KeyMilestone.GRAPH_TEXT, for detail/full responses (see KeyMilestoneService#inShape)
+    
+    /**
+     * Find all milestones including their TEXT columns
+     */
+    @EntityGraph(value = KeyMilestone.GRAPH_TEXT, type = EntityGraphType.LOAD)
+    @Query("SELECT m FROM KeyMilestone m")
+    List<KeyMilestone> findAllWithText();
+    
+    /**
+     * Find a milestone including its TEXT columns
+     */
+    @EntityGraph(value = KeyMilestone.GRAPH_TEXT, type = EntityGraphType.LOAD)
+    @Query("SELECT m FROM KeyMilestone m WHERE m.id = :id")
+    Optional<KeyMilestone> findWithTextById(@Param("id") Long id);
+    
+    /**
+     * Find milestones by ID including their TEXT columns
+     */
+    @EntityGraph(value = KeyMilestone.GRAPH_TEXT, type = EntityGraphType.LOAD)
+    @Query("SELECT m FROM KeyMilestone m WHERE m.id IN :ids")
+    List<KeyMilestone> findWithTextByIdIn(@Param("ids") Collection<Long> ids);
+    
     /**
      * Find all milestones for a specific project
      */
@@ -41,23 +73,68 @@ public interface KeyMilestoneRepository extends JpaRepository<KeyMilestone, Long
     @Query("SELECT m FROM KeyMilestone m WHERE m.status != 'COMPLETED' AND m.targetDate < :currentDate ORDER BY m.targetDate ASC")
     List<KeyMilestone> findOverdueMilestones(@Param("currentDate") LocalDate currentDate);
     
+    // 仪表盘只取最早到期的若干条
+    @Query("SELECT m FROM KeyMilestone m WHERE m.status != 'COMPLETED' AND m.targetDate < :currentDate ORDER BY m.targetDate ASC")
+    List<KeyMilestone> findOverdueMilestones(@Param("currentDate") LocalDate currentDate, Pageable page);
+    
+    @Query("SELECT COUNT(m) FROM KeyMilestone m WHERE m.status != 'COMPLETED' AND m.targetDate < :currentDate")
+    long countOverdueMilestones(@Param("currentDate") LocalDate currentDate);
+    
     /**
      * Find milestones by owner
      */
     List<KeyMilestone> findByOwnerContainingIgnoreCaseOrderByTargetDateAsc(String owner);
     
+    /**
+     * Find milestones owned by a team member (indexed on owner_member_id)
+     */
+    List<KeyMilestone> findByOwnerMemberIdOrderByTargetDateAsc(Long ownerMemberId);
+    
+    /**
+     * Distinct owner texts (trimmed, lower case) of milestones not yet linked to a member
+     */
+    @Query("SELECT DISTINCT LOWER(TRIM(m.owner)) FROM KeyMilestone m WHERE m.ownerMember IS NULL AND m.owner IS NOT NULL")
+    List<String> findUnlinkedOwners();
+    
+    /**
+     * IDs of the unlinked milestones whose owner text is one of the given (trimmed, lower case) keys
+     */
+    @Query("SELECT m.id FROM KeyMilestone m WHERE m.ownerMember IS NULL AND LOWER(TRIM(m.owner)) IN :owners")
+    List<Long> findUnlinkedIdsByOwners(@Param("owners") Collection<String> owners);
+    
+    /**
+     * Link unlinked milestones whose owner text is one of the given (trimmed, lower case) keys to a member
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE KeyMilestone m SET m.ownerMember = :member, m.version = m.version + 1, m.updatedAt = :now " +
+           "WHERE m.ownerMember IS NULL AND LOWER(TRIM(m.owner)) IN :owners")
+    int linkOwners(@Param("member") TeamMember member,
+                   @Param("owners") Collection<String> owners,
+                   @Param("now") LocalDateTime now);
+    
     /**
      * Find upcoming milestones (due within next N days)
      */
     @Query("SELECT m FROM KeyMilestone m WHERE m.status != 'COMPLETED' AND m.targetDate BETWEEN :currentDate AND :futureDate ORDER BY m.targetDate ASC")
     List<KeyMilestone> findUpcomingMilestones(@Param("currentDate") LocalDate currentDate, @Param("futureDate") LocalDate futureDate);
     
+    @Query("SELECT m FROM KeyMilestone m WHERE m.status != 'COMPLETED' AND m.targetDate BETWEEN :currentDate AND :futureDate ORDER BY m.targetDate ASC")
+    List<KeyMilestone> findUpcomingMilestones(@Param("currentDate") LocalDate currentDate, @Param("futureDate") LocalDate futureDate,
+                                              Pageable page);
+    
+    @Query("SELECT COUNT(m) FROM KeyMilestone m WHERE m.status != 'COMPLETED' AND m.targetDate BETWEEN :currentDate AND :futureDate")
+    long countUpcomingMilestones(@Param("currentDate") LocalDate currentDate, @Param("futureDate") LocalDate futureDate);
+    
     /**
      * Count milestones by status for a project
      */
     @Query("SELECT COUNT(m) FROM KeyMilestone m WHERE m.project.id = :projectId AND m.status = :status")
     Long countByProjectIdAndStatus(@Param("projectId") Long projectId, @Param("status") MilestoneStatus status);
     
+    // 进度写后缓冲所需的 (progress, version, status, projectId)，不加载实体
+    @Query("SELECT m.progress, m.version, m.status, m.project.id FROM KeyMilestone m WHERE m.id = :id")
+    List<Object[]> findProgressStateById(@Param("id") Long id);
+    
     /**
      * Find milestones with progress above a threshold
      */
@@ -70,21 +147,40 @@ public interface KeyMilestoneRepository extends JpaRepository<KeyMilestone, Long
     @Query("SELECT m FROM KeyMilestone m WHERE m.priority IN ('HIGH', 'CRITICAL') ORDER BY m.priority DESC, m.targetDate ASC")
     List<KeyMilestone> findCriticalMilestones();
     
+    // 未完成的高优先级里程碑，按到期日排序
+    @Query("SELECT m FROM KeyMilestone m WHERE m.priority IN ('HIGH', 'CRITICAL') AND m.status != 'COMPLETED' " +
+           "ORDER BY m.targetDate ASC")
+    List<KeyMilestone> findOpenCriticalMilestones(Pageable page);
+    
+    /**
+     * Get milestone statistics (projectId, total, completed, overdue, avgProgress) for the given projects;
+     * projects without milestones are included with a zero count
+     */
+    @Query("SELECT p.id, " +
+           "COUNT(m), " +
+           "SUM(CASE WHEN m.status = 'COMPLETED' THEN 1 ELSE 0 END), " +
+           "SUM(CASE WHEN m.status != 'COMPLETED' AND m.targetDate < CURRENT_DATE THEN 1 ELSE 0 END), " +
+           "AVG(m.progress) " +
+           "FROM Project p LEFT JOIN p.keyMilestones m WHERE p.id IN :projectIds GROUP BY p.id")
+    List<Object[]> getMilestoneStatistics(@Param("projectIds") Collection<Long> projectIds);
+    
     /**
-     * Get milestone statistics for a project
+     * Get milestone statistics (projectId, total, completed, overdue, avgProgress) for all projects
      */
-    @Query("SELECT " +
-           "COUNT(m) as total, " +
-           "SUM(CASE WHEN m.status = 'COMPLETED' THEN 1 ELSE 0 END) as completed, " +
-           "SUM(CASE WHEN m.status != 'COMPLETED' AND m.targetDate < CURRENT_DATE THEN 1 ELSE 0 END) as overdue, " +
-           "AVG(m.progress) as avgProgress " +
-           "FROM KeyMilestone m WHERE m.project.id = :projectId")
-    Object[] getMilestoneStatistics(@Param("projectId") Long projectId);
+    @Query("SELECT p.id, " +
+           "COUNT(m), " +
+           "SUM(CASE WHEN m.status = 'COMPLETED' THEN 1 ELSE 0 END), " +
+           "SUM(CASE WHEN m.status != 'COMPLETED' AND m.targetDate < CURRENT_DATE THEN 1 ELSE 0 END), " +
+           "AVG(m.progress) " +
+           "FROM Project p LEFT JOIN p.keyMilestones m GROUP BY p.id")
+    List<Object[]> getMilestoneStatisticsForAllProjects();
     
     /**
-     * Find milestones with dependencies
+     * Find milestones with dependencies (dependency edges, or legacy free text)
      */
-    @Query("SELECT m FROM KeyMilestone m WHERE m.dependencies IS NOT NULL AND m.dependencies != '' ORDER BY m.targetDate ASC")
+    @Query("SELECT m FROM KeyMilestone m WHERE " +
+           "EXISTS (SELECT d.id FROM MilestoneDependency d WHERE d.milestone = m) OR " +
+           "(m.dependencies IS NOT NULL AND m.dependencies != '') ORDER BY m.targetDate ASC")
     List<KeyMilestone> findMilestonesWithDependencies();
     
     /**
@@ -103,7 +199,109 @@ public interface KeyMilestoneRepository extends JpaRepository<KeyMilestone, Long
     List<KeyMilestone> findByBudgetRange(@Param("minBudget") java.math.BigDecimal minBudget, @Param("maxBudget") java.math.BigDecimal maxBudget);
     
     /**
-     * Delete milestones by project ID
+     * Gantt rows (id, projectId, name, targetDate, status, progress) of all milestones, without loading entities
+     */
+    @Query("SELECT m.id, m.project.id, m.name, m.targetDate, m.status, m.progress FROM KeyMilestone m ORDER BY m.targetDate ASC")
+    List<Object[]> findGanttRows();
+    
+    /**
+     * IDs of the milestones of the given projects
+     */
+    @Query("SELECT m.id FROM KeyMilestone m WHERE m.project.id IN :projectIds")
+    List<Long> findIdsByProjectIds(@Param("projectIds") Collection<Long> projectIds);
+    
+    /**
+     * Delete the milestones of the given projects in one statement, without loading them
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM KeyMilestone m WHERE m.project.id IN :projectIds")
+    int deleteByProjectIds(@Param("projectIds") Collection<Long> projectIds);
+    
+    /**
+     * IDs of the milestones a bulk update with the same filters may change, read before the update
+     */
+    @Query("SELECT m.id FROM KeyMilestone m " +
+           "WHERE (:projectId IS NULL OR m.project.id = :projectId) AND m.status IN :statuses " +
+           "AND (:from IS NULL OR m.targetDate >= :from) AND (:to IS NULL OR m.targetDate <= :to)")
+    List<Long> findBulkIds(@Param("projectId") Long projectId,
+                           @Param("statuses") Collection<MilestoneStatus> statuses,
+                           @Param("from") LocalDate from,
+                           @Param("to") LocalDate to);
+    
+    // Bulk updates: one statement per request, whatever the number of milestones. Filters are
+    // optional (null matches everything), statuses must be non-empty; the version is bumped so
+    // buffered progress and concurrent editors see the change
+    
+    /**
+     * Shift target dates of the matching milestones by a number of days
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE KeyMilestone m SET m.targetDate = m.targetDate + (:days) day, " +
+           "m.version = m.version + 1, m.updatedAt = :now " +
+           "WHERE (:projectId IS NULL OR m.project.id = :projectId) AND m.status IN :statuses " +
+           "AND (:from IS NULL OR m.targetDate >= :from) AND (:to IS NULL OR m.targetDate <= :to) " +
+           "AND m.targetDate IS NOT NULL")
+    int shiftTargetDates(@Param("days") long days,
+                         @Param("projectId") Long projectId,
+                         @Param("statuses") Collection<MilestoneStatus> statuses,
+                         @Param("from") LocalDate from,
+                         @Param("to") LocalDate to,
+                         @Param("now") LocalDateTime now);
+    
+    /**
+     * Move the matching milestones to a status other than COMPLETED
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE KeyMilestone m SET m.status = :status, m.version = m.version + 1, m.updatedAt = :now " +
+           "WHERE (:projectId IS NULL OR m.project.id = :projectId) AND m.status IN :statuses " +
+           "AND (:from IS NULL OR m.targetDate >= :from) AND (:to IS NULL OR m.targetDate <= :to) " +
+           "AND m.status <> :status")
+    int updateStatus(@Param("status") MilestoneStatus status,
+                     @Param("projectId") Long projectId,
+                     @Param("statuses") Collection<MilestoneStatus> statuses,
+                     @Param("from") LocalDate from,
+                     @Param("to") LocalDate to,
+                     @Param("now") LocalDateTime now);
+    
+    /**
+     * Complete the matching milestones; an existing actual date is kept
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE KeyMilestone m SET m.status = 'COMPLETED', m.progress = 100, " +
+           "m.actualDate = COALESCE(m.actualDate, :today), m.version = m.version + 1, m.updatedAt = :now " +
+           "WHERE (:projectId IS NULL OR m.project.id = :projectId) AND m.status IN :statuses " +
+           "AND (:from IS NULL OR m.targetDate >= :from) AND (:to IS NULL OR m.targetDate <= :to) " +
+           "AND m.status <> 'COMPLETED'")
+    int completeAll(@Param("projectId") Long projectId,
+                    @Param("statuses") Collection<MilestoneStatus> statuses,
+                    @Param("from") LocalDate from,
+                    @Param("to") LocalDate to,
+                    @Param("today") LocalDate today,
+                    @Param("now") LocalDateTime now);
+    
+    /**
+     * Open milestone deadlines (id, projectId, name, targetDate) on or after a date, for the alert engine
+     */
+    @Query("SELECT m.id, m.project.id, m.name, m.targetDate FROM KeyMilestone m " +
+           "WHERE m.targetDate >= :from AND m.status NOT IN ('COMPLETED', 'CANCELLED')")
+    List<Object[]> findOpenDeadlines(@Param("from") LocalDate from);
+    
+    /**
+     * Deadlines (id, projectId, name, targetDate, status) of the given milestones, open or not
+     */
+    @Query("SELECT m.id, m.project.id, m.name, m.targetDate, m.status FROM KeyMilestone m WHERE m.id IN :ids")
+    List<Object[]> findDeadlinesByIds(@Param("ids") Collection<Long> ids);
+    
+    /**
+     * Open milestones linked to a member (id, ownerMemberId, targetDate), for the workload index
+     */
+    @Query("SELECT m.id, m.ownerMemberId, m.targetDate FROM KeyMilestone m " +
+           "WHERE m.ownerMemberId IS NOT NULL AND m.status NOT IN ('COMPLETED', 'CANCELLED')")
+    List<Object[]> findOpenOwnedWorkload();
+    
+    /**
+     * Workload rows (id, ownerMemberId, targetDate, status) of the given milestones, open or not
      */
-    void deleteByProjectId(Long projectId);
+    @Query("SELECT m.id, m.ownerMemberId, m.targetDate, m.status FROM KeyMilestone m WHERE m.id IN :ids")
+    List<Object[]> findWorkloadByIds(@Param("ids") Collection<Long> ids);
 }
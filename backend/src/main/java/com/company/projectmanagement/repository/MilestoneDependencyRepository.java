@@ -0,0 +1,32 @@
+package com.company.projectmanagement.repository;
+
+import com.company.projectmanagement.model.MilestoneDependency;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface MilestoneDependencyRepository extends JpaRepository<MilestoneDependency, Long> {
+
+    // 全部依赖边 (milestoneId, dependsOnId)，用于构建内存图
+    @Query("SELECT d.milestone.id, d.dependsOn.id FROM MilestoneDependency d")
+    List<Object[]> findAllEdges();
+
+    boolean existsByMilestoneIdAndDependsOnId(Long milestoneId, Long dependsOnId);
+
+    @Modifying
+    @Query("DELETE FROM MilestoneDependency d WHERE d.milestone.id = :milestoneId AND d.dependsOn.id = :dependsOnId")
+    int deleteEdge(@Param("milestoneId") Long milestoneId, @Param("dependsOnId") Long dependsOnId);
+
+    // 删除指向或来自这些项目里程碑的依赖边
+    @Modifying
+    @Query("DELETE FROM MilestoneDependency d WHERE " +
+           "d.milestone.id IN (SELECT m.id FROM KeyMilestone m WHERE m.project.id IN :projectIds) OR " +
+           "d.dependsOn.id IN (SELECT m.id FROM KeyMilestone m WHERE m.project.id IN :projectIds)")
+    int deleteByProjectIds(@Param("projectIds") Collection<Long> projectIds);
+}
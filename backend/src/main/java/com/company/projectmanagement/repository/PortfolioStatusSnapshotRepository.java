@@ -0,0 +1,23 @@
+package com.company.projectmanagement.repository;
+
+import com.company.projectmanagement.model.PortfolioStatusSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface PortfolioStatusSnapshotRepository extends JpaRepository<PortfolioStatusSnapshot, Long> {
+
+    List<PortfolioStatusSnapshot> findBySnapshotDateBetweenOrderBySnapshotDateAsc(LocalDate startDate, LocalDate endDate);
+
+    boolean existsBySnapshotDate(LocalDate snapshotDate);
+
+    @Modifying
+    @Query("DELETE FROM PortfolioStatusSnapshot s WHERE s.snapshotDate = :snapshotDate")
+    int deleteBySnapshotDate(@Param("snapshotDate") LocalDate snapshotDate);
+}
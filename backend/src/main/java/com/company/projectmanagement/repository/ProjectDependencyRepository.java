@@ -0,0 +1,34 @@
+package com.company.projectmanagement.repository;
+
+import com.company.projectmanagement.model.ProjectDependency;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ProjectDependencyRepository extends JpaRepository<ProjectDependency, Long> {
+
+    @Query("SELECT d FROM ProjectDependency d WHERE d.project.id = :projectId ORDER BY d.id")
+    List<ProjectDependency> findByProjectId(@Param("projectId") Long projectId);
+
+    // 跨项目依赖边 (projectId, dependsOnProjectId)，用于构建内存图
+    @Query("SELECT DISTINCT d.project.id, d.dependsOnProject.id FROM ProjectDependency d WHERE d.dependsOnProject IS NOT NULL")
+    List<Object[]> findProjectEdges();
+
+    @Query("SELECT COUNT(d) > 0 FROM ProjectDependency d WHERE d.project.id = :projectId AND d.dependsOnProject.id = :dependsOnProjectId")
+    boolean existsEdge(@Param("projectId") Long projectId, @Param("dependsOnProjectId") Long dependsOnProjectId);
+
+    @Modifying
+    @Query("DELETE FROM ProjectDependency d WHERE d.project.id IN :projectIds")
+    int deleteByProjectIds(@Param("projectIds") Collection<Long> projectIds);
+
+    // 其他项目指向这些项目的依赖保留，只断开引用（与外键的 ON DELETE SET NULL 一致）
+    @Modifying
+    @Query("UPDATE ProjectDependency d SET d.dependsOnProject = NULL WHERE d.dependsOnProject.id IN :projectIds")
+    int detachFromProjects(@Param("projectIds") Collection<Long> projectIds);
+}
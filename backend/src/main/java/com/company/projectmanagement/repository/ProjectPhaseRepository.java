@@ -4,11 +4,13 @@ import com.company.projectmanagement.model.ProjectPhase;
 import com.company.projectmanagement.model.ProjectPhase.PhaseType;
 import com.company.projectmanagement.model.ProjectPhase.PhaseStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -74,4 +76,30 @@ public interface ProjectPhaseRepository extends JpaRepository<ProjectPhase, Long
     // 查询项目进度百分比
     @Query("SELECT AVG(pp.progressPercentage) FROM ProjectPhase pp WHERE pp.project.id = :projectId")
     Double getProjectOverallProgress(@Param("projectId") Long projectId);
+    
+    // 未完成阶段的计划结束日期 (id, projectId, phaseName, plannedEndDate)，用于到期提醒
+    @Query("SELECT pp.id, pp.project.id, pp.phaseName, pp.plannedEndDate FROM ProjectPhase pp " +
+           "WHERE pp.plannedEndDate >= :from AND pp.status <> 'COMPLETED'")
+    List<Object[]> findOpenDeadlines(@Param("from") LocalDate from);
+
+    // 未完成阶段 (id, projectId, plannedEndDate, plannedStartDate)，用于成员工作量索引；阶段由项目负责人承担
+    @Query("SELECT pp.id, pp.project.id, pp.plannedEndDate, pp.plannedStartDate FROM ProjectPhase pp WHERE pp.status <> 'COMPLETED'")
+    List<Object[]> findOpenWorkload();
+
+    // 单个项目的未完成阶段截止日期，用于恢复归档项目后补登提醒
+    @Query("SELECT pp.id, pp.project.id, pp.phaseName, pp.plannedEndDate FROM ProjectPhase pp " +
+           "WHERE pp.project.id = :projectId AND pp.plannedEndDate >= :from AND pp.status <> 'COMPLETED'")
+    List<Object[]> findOpenDeadlinesByProjectId(@Param("projectId") Long projectId, @Param("from") LocalDate from);
+
+    // 单个项目的未完成阶段 (id, projectId, plannedEndDate, plannedStartDate)，用于恢复归档项目后补登工作量
+    @Query("SELECT pp.id, pp.project.id, pp.plannedEndDate, pp.plannedStartDate FROM ProjectPhase pp " +
+           "WHERE pp.project.id = :projectId AND pp.status <> 'COMPLETED'")
+    List<Object[]> findOpenWorkloadByProjectId(@Param("projectId") Long projectId);
+
+    @Query("SELECT pp.id FROM ProjectPhase pp WHERE pp.project.id IN :projectIds")
+    List<Long> findIdsByProjectIds(@Param("projectIds") Collection<Long> projectIds);
+
+    @Modifying
+    @Query("DELETE FROM ProjectPhase p WHERE p.project.id IN :projectIds")
+    int deleteByProjectIds(@Param("projectIds") Collection<Long> projectIds);
 }
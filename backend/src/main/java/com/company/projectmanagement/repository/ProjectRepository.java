@@ -2,32 +2,113 @@ package com.company.projectmanagement.repository;
 
 import com.company.projectmanagement.model.Project;
 import com.company.projectmanagement.model.ProjectStatus;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.EntityGraph.EntityGraphType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ProjectRepository extends JpaRepository<Project, Long> {
     
+    @Query("SELECT p FROM Project p")
+    List<Project> findAllForSummary();
+    
+    @Query("SELECT p FROM Project p WHERE p.id = :id")
+    Optional<Project> findSummaryById(@Param("id") Long id);
+    
+    @EntityGraph(value = Project.GRAPH_DETAIL, type = EntityGraphType.LOAD)
+    @Query("SELECT p FROM Project p")
+    List<Project> findAllForList();
+    
+    @EntityGraph(value = Project.GRAPH_DETAIL, type = EntityGraphType.LOAD)
+    @Query("SELECT p FROM Project p WHERE p.id = :id")
+    Optional<Project> findDetailById(@Param("id") Long id);
+    
+    @EntityGraph(value = Project.GRAPH_GANTT, type = EntityGraphType.LOAD)
+    @Query("SELECT p FROM Project p")
+    List<Project> findAllForGantt();
+    
+    @EntityGraph(value = Project.GRAPH_DETAIL, type = EntityGraphType.LOAD)
     List<Project> findByItProjectStatus(ProjectStatus status);
     
+    @Query("SELECT p FROM Project p WHERE p.itProjectStatus = :status")
+    List<Project> findSummaryByItProjectStatus(@Param("status") ProjectStatus status);
+    
+    @EntityGraph(value = Project.GRAPH_DETAIL, type = EntityGraphType.LOAD)
     List<Project> findByNextCheckDateBetween(LocalDate startDate, LocalDate endDate);
     
+    @EntityGraph(value = Project.GRAPH_DETAIL, type = EntityGraphType.LOAD)
     List<Project> findByProjectNameContainingIgnoreCase(String projectName);
     
+    @Query("SELECT p FROM Project p WHERE LOWER(p.projectName) LIKE LOWER(CONCAT('%', :projectName, '%'))")
+    List<Project> findSummaryByProjectNameContaining(@Param("projectName") String projectName);
+    
+    @EntityGraph(value = Project.GRAPH_DETAIL, type = EntityGraphType.LOAD)
     @Query("SELECT p FROM Project p WHERE p.team.id = :teamId")
     List<Project> findByTeamId(@Param("teamId") Long teamId);
     
+    @EntityGraph(value = Project.GRAPH_DETAIL, type = EntityGraphType.LOAD)
     @Query("SELECT p FROM Project p WHERE p.lead.id = :leadId")
     List<Project> findByLeadId(@Param("leadId") Long leadId);
     
+    @EntityGraph(value = Project.GRAPH_DETAIL, type = EntityGraphType.LOAD)
     @Query("SELECT p FROM Project p WHERE p.escalation = true")
     List<Project> findEscalatedProjects();
     
+    @EntityGraph(value = Project.GRAPH_DETAIL, type = EntityGraphType.LOAD)
     @Query("SELECT p FROM Project p WHERE p.nextCheckDate <= :date")
     List<Project> findProjectsWithUpcomingCheckpoints(@Param("date") LocalDate date);
+    
+    // 按 RAG 状态分组计数，用于生成日快照
+    @Query("SELECT p.itProjectStatus, COUNT(p), SUM(CASE WHEN p.escalation = true THEN 1 ELSE 0 END) " +
+           "FROM Project p GROUP BY p.itProjectStatus")
+    List<Object[]> countByStatus();
+    
+    // 项目所属团队 (projectId, teamId)，用于风险热力图按团队汇总
+    @Query("SELECT p.id, p.team.id FROM Project p")
+    List<Object[]> findTeamIds();
+    
+    @Query("SELECT p.id, t.id FROM Project p LEFT JOIN p.team t WHERE p.id IN :ids")
+    List<Object[]> findTeamIdsByIds(@Param("ids") Collection<Long> ids);
+    
+    // 下次检查日期 (id, projectName, nextCheckDate)，用于到期提醒
+    @Query("SELECT p.id, p.projectName, p.nextCheckDate FROM Project p WHERE p.nextCheckDate >= :from")
+    List<Object[]> findCheckpointDeadlines(@Param("from") LocalDate from);
+
+    // 有负责人的项目 (id, leadId)，用于成员工作量索引
+    @Query("SELECT p.id, p.lead.id FROM Project p WHERE p.lead IS NOT NULL")
+    List<Object[]> findProjectLeads();
+
+    // 单个项目的 (id, projectName, nextCheckDate, leadId)，用于恢复归档项目后补登提醒和工作量
+    @Query("SELECT p.id, p.projectName, p.nextCheckDate, p.lead.id FROM Project p LEFT JOIN p.lead WHERE p.id = :id")
+    List<Object[]> findCheckpointAndLeadById(@Param("id") Long id);
+
+    // 项目名称 (id, projectName)，用于自动补全
+    @Query("SELECT p.id, p.projectName FROM Project p")
+    List<Object[]> findNames();
+
+    // 可归档的项目：至少有一个阶段，除 LIVE 外所有阶段都已完成，且最后一个阶段在截止日期前结束；
+    // 实际和计划结束日期都为空的阶段视为未结束
+    @Query("SELECT p.id FROM Project p WHERE " +
+           "EXISTS (SELECT ph.id FROM ProjectPhase ph WHERE ph.project = p) AND " +
+           "NOT EXISTS (SELECT ph.id FROM ProjectPhase ph WHERE ph.project = p " +
+           "AND ph.status <> 'COMPLETED' AND ph.phaseName <> 'LIVE') AND " +
+           "NOT EXISTS (SELECT ph.id FROM ProjectPhase ph WHERE ph.project = p " +
+           "AND ((ph.endDate IS NULL AND ph.plannedEndDate IS NULL) " +
+           "OR COALESCE(ph.endDate, ph.plannedEndDate) >= :endedBefore)) " +
+           "ORDER BY p.id")
+    List<Long> findArchivableIds(@Param("endedBefore") LocalDate endedBefore);
+    
+    // 批量删除项目行；子表需先由调用方删除
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Project p WHERE p.id IN :ids")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
 }
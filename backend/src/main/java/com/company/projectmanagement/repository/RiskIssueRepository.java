@@ -0,0 +1,71 @@
+package com.company.projectmanagement.repository;
+
+import com.company.projectmanagement.model.RiskIssue;
+import com.company.projectmanagement.model.RiskStatus;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.EntityGraph.EntityGraphType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface RiskIssueRepository extends JpaRepository<RiskIssue, Long> {
+
+    @EntityGraph(value = RiskIssue.GRAPH_TEXT, type = EntityGraphType.LOAD)
+    @Query("SELECT r FROM RiskIssue r WHERE r.id = :id")
+    Optional<RiskIssue> findWithTextById(@Param("id") Long id);
+
+    @EntityGraph(value = RiskIssue.GRAPH_TEXT, type = EntityGraphType.LOAD)
+    @Query("SELECT r FROM RiskIssue r WHERE r.project.id = :projectId ORDER BY r.dueDate ASC NULLS LAST, r.id ASC")
+    List<RiskIssue> findByProjectId(@Param("projectId") Long projectId);
+
+    @EntityGraph(value = RiskIssue.GRAPH_TEXT, type = EntityGraphType.LOAD)
+    @Query("SELECT r FROM RiskIssue r WHERE r.project.id IN :projectIds")
+    List<RiskIssue> findByProjectIdIn(@Param("projectIds") Collection<Long> projectIds);
+
+    // 未关闭且已过期的风险
+    @EntityGraph(value = RiskIssue.GRAPH_TEXT, type = EntityGraphType.LOAD)
+    @Query("SELECT r FROM RiskIssue r WHERE r.status IN :statuses AND r.dueDate < :today ORDER BY r.dueDate ASC")
+    List<RiskIssue> findOverdue(@Param("statuses") Collection<RiskStatus> statuses, @Param("today") LocalDate today);
+
+    // 热力图计数器的初始数据 (id, projectId, severity, status, dueDate)
+    @Query("SELECT r.id, r.project.id, r.severity, r.status, r.dueDate FROM RiskIssue r")
+    List<Object[]> findHeatmapRows();
+
+    @Query("SELECT r.id, r.project.id, r.severity, r.status, r.dueDate FROM RiskIssue r WHERE r.project.id IN :projectIds")
+    List<Object[]> findHeatmapRowsByProjectIds(@Param("projectIds") Collection<Long> projectIds);
+
+    // 未关闭风险的到期日 (id, projectId, title, dueDate)，用于到期提醒
+    @Query("SELECT r.id, r.project.id, r.title, r.dueDate FROM RiskIssue r " +
+           "WHERE r.dueDate >= :from AND r.status IN ('OPEN', 'IN_PROGRESS')")
+    List<Object[]> findOpenDeadlines(@Param("from") LocalDate from);
+
+    // 已指派且未关闭的风险 (id, assigneeId, dueDate)，用于成员工作量索引
+    @Query("SELECT r.id, r.assignedTo.id, r.dueDate FROM RiskIssue r " +
+           "WHERE r.assignedTo IS NOT NULL AND r.status IN ('OPEN', 'IN_PROGRESS')")
+    List<Object[]> findOpenAssignedWorkload();
+
+    // 单个项目的未关闭风险截止日期，用于恢复归档项目后补登提醒
+    @Query("SELECT r.id, r.project.id, r.title, r.dueDate FROM RiskIssue r " +
+           "WHERE r.project.id = :projectId AND r.dueDate >= :from AND r.status IN ('OPEN', 'IN_PROGRESS')")
+    List<Object[]> findOpenDeadlinesByProjectId(@Param("projectId") Long projectId, @Param("from") LocalDate from);
+
+    // 单个项目已指派且未关闭的风险 (id, assigneeId, dueDate)，用于恢复归档项目后补登工作量
+    @Query("SELECT r.id, r.assignedTo.id, r.dueDate FROM RiskIssue r " +
+           "WHERE r.project.id = :projectId AND r.assignedTo IS NOT NULL AND r.status IN ('OPEN', 'IN_PROGRESS')")
+    List<Object[]> findOpenAssignedWorkloadByProjectId(@Param("projectId") Long projectId);
+
+    @Query("SELECT r.id FROM RiskIssue r WHERE r.project.id IN :projectIds")
+    List<Long> findIdsByProjectIds(@Param("projectIds") Collection<Long> projectIds);
+
+    @Modifying
+    @Query("DELETE FROM RiskIssue r WHERE r.project.id IN :projectIds")
+    int deleteByProjectIds(@Param("projectIds") Collection<Long> projectIds);
+}
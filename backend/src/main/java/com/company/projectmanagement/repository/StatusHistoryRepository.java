@@ -0,0 +1,25 @@
+package com.company.projectmanagement.repository;
+
+import com.company.projectmanagement.model.StatusHistory;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface StatusHistoryRepository extends JpaRepository<StatusHistory, Long> {
+
+    // 项目在时间范围内的全部变更（含阶段），走 (project_id, field_name, changed_at) 索引
+    @Query("SELECT h FROM StatusHistory h WHERE h.projectId = :projectId " +
+           "AND h.changedAt >= :from AND h.changedAt < :to ORDER BY h.changedAt DESC")
+    List<StatusHistory> findProjectHistory(@Param("projectId") Long projectId,
+                                           @Param("from") LocalDateTime from,
+                                           @Param("to") LocalDateTime to);
+
+    // 某字段最近一次变更
+    Optional<StatusHistory> findFirstByProjectIdAndFieldNameOrderByChangedAtDesc(Long projectId, StatusHistory.Field fieldName);
+}
@@ -1,11 +1,15 @@
 package com.company.projectmanagement.repository;
 
+import com.company.projectmanagement.model.Team;
 import com.company.projectmanagement.model.TeamMember;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,8 +18,16 @@ public interface TeamMemberRepository extends JpaRepository<TeamMember, Long> {
     
     Optional<TeamMember> findByEmail(String email);
     
+    // 忽略大小写按邮箱查找，走 LOWER(email) 唯一索引；迁移前的历史数据可能有多条
+    @Query("SELECT tm FROM TeamMember tm WHERE LOWER(tm.email) = :email ORDER BY tm.id")
+    List<TeamMember> findByEmailIgnoreCase(@Param("email") String normalizedEmail);
+    
     List<TeamMember> findByNameContainingIgnoreCase(String name);
     
+    // 按姓名或邮箱精确匹配（忽略大小写和首尾空格），用于把里程碑负责人文本关联到成员
+    @Query("SELECT tm FROM TeamMember tm WHERE LOWER(tm.name) = LOWER(TRIM(:owner)) OR LOWER(tm.email) = LOWER(TRIM(:owner))")
+    List<TeamMember> findByNameOrEmailIgnoreCase(@Param("owner") String owner);
+    
     @Query("SELECT tm FROM TeamMember tm WHERE tm.team.id = :teamId")
     List<TeamMember> findByTeamId(@Param("teamId") Long teamId);
     
@@ -24,4 +36,63 @@ public interface TeamMemberRepository extends JpaRepository<TeamMember, Long> {
     
     @Query("SELECT tm FROM TeamMember tm WHERE tm.isLead = true")
     List<TeamMember> findAllLeads();
+    
+    @Query("SELECT tm FROM TeamMember tm WHERE LOWER(tm.role) LIKE :pattern ESCAPE '!' ORDER BY tm.name")
+    List<TeamMember> findByRoleLike(@Param("pattern") String pattern);
+    
+    // 短关键字只做前缀匹配，由 lower(name/email/role) 上的前缀索引支持
+    @Query("SELECT tm FROM TeamMember tm WHERE (LOWER(tm.name) LIKE :prefix ESCAPE '!' " +
+           "OR LOWER(tm.email) LIKE :prefix ESCAPE '!' OR LOWER(tm.role) LIKE :prefix ESCAPE '!') " +
+           "AND (:teamId IS NULL OR tm.team.id = :teamId) ORDER BY LOWER(tm.name), tm.id")
+    List<TeamMember> searchByPrefix(@Param("prefix") String prefix, @Param("teamId") Long teamId, Pageable page);
+    
+    // 子串匹配由 PostgreSQL 的三元组索引支持；姓名前缀命中的排在前面
+    @Query("SELECT tm FROM TeamMember tm WHERE (LOWER(tm.name) LIKE :pattern ESCAPE '!' " +
+           "OR LOWER(tm.email) LIKE :pattern ESCAPE '!' OR LOWER(tm.role) LIKE :pattern ESCAPE '!') " +
+           "AND (:teamId IS NULL OR tm.team.id = :teamId) " +
+           "ORDER BY CASE WHEN LOWER(tm.name) LIKE :prefix ESCAPE '!' THEN 0 ELSE 1 END, LOWER(tm.name), tm.id")
+    List<TeamMember> searchByContains(@Param("pattern") String pattern, @Param("prefix") String prefix,
+                                      @Param("teamId") Long teamId, Pageable page);
+    
+    // 成员姓名和邮箱 (id, name, email)，用于自动补全
+    @Query("SELECT tm.id, tm.name, tm.email FROM TeamMember tm")
+    List<Object[]> findNames();
+    
+    // 团队成员 (id, name)，按姓名排序，用于团队负载矩阵的行
+    @Query("SELECT tm.id, tm.name FROM TeamMember tm WHERE tm.team.id = :teamId ORDER BY tm.name, tm.id")
+    List<Object[]> findNamesByTeamId(@Param("teamId") Long teamId);
+    
+    // 一次查询校验成员ID，返回其中实际存在的ID
+    @Query("SELECT tm.id FROM TeamMember tm WHERE tm.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+    
+    @Query("SELECT tm.id FROM TeamMember tm WHERE tm.team.id = :teamId")
+    List<Long> findIdsByTeamId(@Param("teamId") Long teamId);
+    
+    // 与 assignToTeam 条件一致，在 UPDATE 之前取出会被改动的成员ID
+    @Query("SELECT tm.id FROM TeamMember tm WHERE tm.id IN :ids " +
+           "AND (:fromTeamId IS NULL OR tm.team.id = :fromTeamId) " +
+           "AND (tm.team IS NULL OR tm.team <> :team)")
+    List<Long> findIdsToAssign(@Param("team") Team team, @Param("ids") Collection<Long> ids, @Param("fromTeamId") Long fromTeamId);
+    
+    // 批量调整团队归属：UPDATE 语句直接执行，不逐个加载成员。本节点的成员缓存区域由 Hibernate 失效，
+    // 提交后不经过实体监听器，其他节点需要调用方按ID广播
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE TeamMember tm SET tm.team = null WHERE tm.team.id = :teamId AND tm.id NOT IN :keepIds")
+    int removeFromTeamExcept(@Param("teamId") Long teamId, @Param("keepIds") Collection<Long> keepIds);
+    
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE TeamMember tm SET tm.team = null WHERE tm.team.id = :teamId")
+    int removeAllFromTeam(@Param("teamId") Long teamId);
+    
+    // 只改动尚不在目标团队的成员；fromTeamId 不为空时只移动该团队中的成员
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE TeamMember tm SET tm.team = :team WHERE tm.id IN :ids " +
+           "AND (:fromTeamId IS NULL OR tm.team.id = :fromTeamId) " +
+           "AND (tm.team IS NULL OR tm.team <> :team)")
+    int assignToTeam(@Param("team") Team team, @Param("ids") Collection<Long> ids, @Param("fromTeamId") Long fromTeamId);
+    
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE TeamMember tm SET tm.team = :team WHERE tm.team.id = :fromTeamId AND tm.team <> :team")
+    int moveAllFromTeam(@Param("team") Team team, @Param("fromTeamId") Long fromTeamId);
 }
@@ -1,7 +1,11 @@
 package com.company.projectmanagement.repository;
 
 import com.company.projectmanagement.model.Team;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -12,5 +16,27 @@ public interface TeamRepository extends JpaRepository<Team, Long> {
     
     Optional<Team> findByName(String name);
     
+    @EntityGraph(Team.GRAPH_WITH_MEMBERS)
     List<Team> findByNameContainingIgnoreCase(String name);
+    
+    @EntityGraph(Team.GRAPH_WITH_MEMBERS)
+    @Query("SELECT t FROM Team t")
+    List<Team> findAllWithMembers();
+    
+    @EntityGraph(Team.GRAPH_WITH_MEMBERS)
+    @Query("SELECT t FROM Team t WHERE t.id = :id")
+    Optional<Team> findWithMembersById(@Param("id") Long id);
+    
+    // 短关键字只做前缀匹配，由 lower(name) 上的前缀索引支持
+    @Query("SELECT t FROM Team t WHERE LOWER(t.name) LIKE :prefix ESCAPE '!' ORDER BY LOWER(t.name), t.id")
+    List<Team> searchByPrefix(@Param("prefix") String prefix, Pageable page);
+    
+    // 子串匹配由 PostgreSQL 的三元组索引支持；前缀命中的排在前面
+    @Query("SELECT t FROM Team t WHERE LOWER(t.name) LIKE :pattern ESCAPE '!' " +
+           "ORDER BY CASE WHEN LOWER(t.name) LIKE :prefix ESCAPE '!' THEN 0 ELSE 1 END, LOWER(t.name), t.id")
+    List<Team> searchByContains(@Param("pattern") String pattern, @Param("prefix") String prefix, Pageable page);
+    
+    // 团队名称 (id, name)，用于自动补全
+    @Query("SELECT t.id, t.name FROM Team t")
+    List<Object[]> findNames();
 }
@@ -0,0 +1,262 @@
+package com.company.projectmanagement.service;
+
+import com.company.projectmanagement.model.Project;
+import com.company.projectmanagement.model.Team;
+import com.company.projectmanagement.model.TeamMember;
+import com.company.projectmanagement.repository.ProjectRepository;
+import com.company.projectmanagement.repository.TeamMemberRepository;
+import com.company.projectmanagement.repository.TeamRepository;
+import com.company.projectmanagement.service.AutocompleteSuggestion.Type;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Autocomplete over project names, team names and member names/emails.
+ * Every word start of a name (and of an email's local part, plus the whole email) is a key in
+ * a {@link PrefixTrie} per type, so "lee" finds "Ann Lee". Loaded at startup from projections,
+ * kept current by entity writes after commit; set-based project deletes and archive restores
+ * call {@link #remove} and {@link #put} themselves.
+ */
+@Service
+public class AutocompleteService {
+
+    private static final Logger log = LoggerFactory.getLogger(AutocompleteService.class);
+
+    private static final int DEFAULT_LIMIT = 10;
+
+    private static final int MAX_LIMIT = 50;
+
+    // 每个名称最多登记的词首位置，避免超长项目名产生过多键
+    private static final int MAX_KEYS_PER_TEXT = 8;
+
+    private static final Comparator<Match> MATCH_ORDER = Comparator.comparing(Match::key)
+            .thenComparing(m -> m.suggestion().label())
+            .thenComparing(m -> m.suggestion().type())
+            .thenComparingLong(m -> m.suggestion().id());
+
+    private record Match(String key, AutocompleteSuggestion suggestion) {}
+
+    private record State(Map<Type, PrefixTrie<AutocompleteSuggestion>> tries,
+                         Map<Type, Map<Long, AutocompleteSuggestion>> entries) {
+
+        static State empty() {
+            Map<Type, PrefixTrie<AutocompleteSuggestion>> tries = new EnumMap<>(Type.class);
+            Map<Type, Map<Long, AutocompleteSuggestion>> entries = new EnumMap<>(Type.class);
+            for (Type type : Type.values()) {
+                tries.put(type, new PrefixTrie<>());
+                entries.put(type, new HashMap<>());
+            }
+            return new State(tries, entries);
+        }
+    }
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private TeamRepository teamRepository;
+
+    @Autowired
+    private TeamMemberRepository teamMemberRepository;
+
+    @Autowired
+    private EntityCommitListeners entityCommitListeners;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // 读写锁只保护 trie 的原地修改；重新加载与增量的衔接交给 ReloadableState
+    private final ReloadableState<State> state = new ReloadableState<>(State.empty());
+
+    @PostConstruct
+    void registerListener() {
+        entityCommitListeners.register(new NameChangeListener());
+    }
+
+    /**
+     * Load all names into fresh tries and swap them in; names committed while loading are replayed
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        State fresh = state.reload(() -> {
+            State loaded = State.empty();
+            for (Object[] row : projectRepository.findNames()) {
+                add(loaded, new AutocompleteSuggestion(Type.PROJECT, id(row[0]), (String) row[1], null));
+            }
+            for (Object[] row : teamRepository.findNames()) {
+                add(loaded, new AutocompleteSuggestion(Type.TEAM, id(row[0]), (String) row[1], null));
+            }
+            for (Object[] row : teamMemberRepository.findNames()) {
+                add(loaded, new AutocompleteSuggestion(Type.MEMBER, id(row[0]), (String) row[1], (String) row[2]));
+            }
+            return loaded;
+        });
+        log.info("Autocomplete loaded {} projects, {} teams and {} members",
+                fresh.entries().get(Type.PROJECT).size(), fresh.entries().get(Type.TEAM).size(),
+                fresh.entries().get(Type.MEMBER).size());
+    }
+
+    /**
+     * Top matches for a prefix, ordered by the matched key; an empty prefix matches nothing
+     */
+    public List<AutocompleteSuggestion> suggest(String prefix, Collection<Type> types, Integer limit) {
+        int size = limit != null ? limit : DEFAULT_LIMIT;
+        if (size < 1 || size > MAX_LIMIT) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_LIMIT);
+        }
+        String term = SearchTerms.normalize(prefix);
+        if (term.isEmpty()) {
+            return List.of();
+        }
+        Set<Type> requested = types == null || types.isEmpty() ? EnumSet.allOf(Type.class) : EnumSet.copyOf(types);
+        List<Match> matches = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            State current = state.get();
+            for (Type type : requested) {
+                current.tries().get(type).collect(term, size, (key, s) -> matches.add(new Match(key, s)));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        matches.sort(MATCH_ORDER);
+        Set<AutocompleteSuggestion> result = new LinkedHashSet<>();
+        for (Match match : matches) {
+            result.add(match.suggestion());
+            if (result.size() == size) {
+                break;
+            }
+        }
+        return new ArrayList<>(result);
+    }
+
+    /**
+     * Add or replace an entry
+     */
+    public void put(AutocompleteSuggestion suggestion) {
+        state.update(target -> write(() -> add(target, suggestion)));
+    }
+
+    public void remove(Type type, long id) {
+        state.update(target -> write(() -> {
+            AutocompleteSuggestion previous = target.entries().get(type).remove(id);
+            if (previous != null) {
+                PrefixTrie<AutocompleteSuggestion> trie = target.tries().get(type);
+                keys(previous).forEach(key -> trie.remove(key, previous));
+            }
+        }));
+    }
+
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        lock.readLock().lock();
+        try {
+            State current = state.get();
+            for (Type type : Type.values()) {
+                Map<String, Object> typeStats = new LinkedHashMap<>();
+                typeStats.put("entries", current.entries().get(type).size());
+                typeStats.put("keys", current.tries().get(type).size());
+                typeStats.put("nodes", current.tries().get(type).nodeCount());
+                stats.put(type.name().toLowerCase(), typeStats);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return stats;
+    }
+
+    // trie 的原地修改与 suggest 的遍历互斥
+    private void write(Runnable change) {
+        lock.writeLock().lock();
+        try {
+            change.run();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static void add(State target, AutocompleteSuggestion suggestion) {
+        if (suggestion.label() == null) {
+            return;
+        }
+        PrefixTrie<AutocompleteSuggestion> trie = target.tries().get(suggestion.type());
+        AutocompleteSuggestion previous = target.entries().get(suggestion.type()).put(suggestion.id(), suggestion);
+        if (previous != null) {
+            keys(previous).forEach(key -> trie.remove(key, previous));
+        }
+        keys(suggestion).forEach(key -> trie.put(key, suggestion));
+    }
+
+    // 名称的每个词首；邮箱取整个地址和 @ 之前的词首
+    private static Set<String> keys(AutocompleteSuggestion suggestion) {
+        Set<String> keys = new LinkedHashSet<>();
+        addWordStarts(keys, SearchTerms.normalize(suggestion.label()), Integer.MAX_VALUE);
+        if (suggestion.detail() != null) {
+            String email = SearchTerms.normalize(suggestion.detail());
+            int at = email.indexOf('@');
+            addWordStarts(keys, email, at < 0 ? email.length() : at);
+        }
+        return keys;
+    }
+
+    private static void addWordStarts(Set<String> keys, String text, int end) {
+        int added = 0;
+        for (int i = 0; i < Math.min(end, text.length()) && added < MAX_KEYS_PER_TEXT; i++) {
+            if (Character.isLetterOrDigit(text.charAt(i)) && (i == 0 || !Character.isLetterOrDigit(text.charAt(i - 1)))) {
+                keys.add(text.substring(i));
+                added++;
+            }
+        }
+    }
+
+    private static long id(Object value) {
+        return ((Number) value).longValue();
+    }
+
+    private class NameChangeListener extends EntityCommitListener {
+
+        NameChangeListener() {
+            super(Project.class, Team.class, TeamMember.class);
+        }
+
+        @Override
+        protected void onDelete(Object entity, Long id) {
+            if (entity instanceof Project) {
+                remove(Type.PROJECT, id);
+            } else if (entity instanceof Team) {
+                remove(Type.TEAM, id);
+            } else {
+                remove(Type.MEMBER, id);
+            }
+        }
+
+        @Override
+        protected void onSaved(Object entity) {
+            if (entity instanceof Project p) {
+                put(new AutocompleteSuggestion(Type.PROJECT, p.getId(), p.getProjectName(), null));
+            } else if (entity instanceof Team t) {
+                put(new AutocompleteSuggestion(Type.TEAM, t.getId(), t.getName(), null));
+            } else if (entity instanceof TeamMember m) {
+                put(new AutocompleteSuggestion(Type.MEMBER, m.getId(), m.getName(), m.getEmail()));
+            }
+        }
+    }
+}
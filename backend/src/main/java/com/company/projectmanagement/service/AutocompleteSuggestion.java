@@ -0,0 +1,14 @@
+package com.company.projectmanagement.service;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * One autocomplete match served by {@link AutocompleteService}; detail is the member's email
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record AutocompleteSuggestion(Type type, long id, String label, String detail) {
+
+    public enum Type {
+        PROJECT, TEAM, MEMBER
+    }
+}
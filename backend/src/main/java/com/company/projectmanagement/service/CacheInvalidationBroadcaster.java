@@ -0,0 +1,12 @@
+package com.company.projectmanagement.service;
+
+/**
+ * 二级缓存的集群失效扩展点
+ * 本地事务提交后，每个被修改或删除的缓存实体都会通过它发布；
+ * 接入消息总线时，其他节点收到消息后调用 {@link ReferenceDataCacheService#evictLocal(String, Object)}。
+ */
+@FunctionalInterface
+public interface CacheInvalidationBroadcaster {
+
+    void entityChanged(String region, Object id);
+}
@@ -0,0 +1,167 @@
+package com.company.projectmanagement.service;
+
+import com.company.projectmanagement.config.ReplicaRoutingDataSource;
+import com.company.projectmanagement.model.KeyMilestone;
+import com.company.projectmanagement.model.Project;
+import com.company.projectmanagement.model.ProjectPhase;
+import com.company.projectmanagement.model.Team;
+import com.company.projectmanagement.model.TeamMember;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Aggregates the figures the dashboard needs into a single response.
+ * The independent queries run concurrently on virtual threads, each in a
+ * read-only transaction that carries the caller's replica routing context,
+ * and the result is cached for a short, configurable TTL.
+ */
+@Service
+public class DashboardService {
+
+    @Autowired
+    private ProjectService projectService;
+
+    @Autowired
+    private KeyMilestoneService milestoneService;
+
+    @Autowired
+    private GanttChartService ganttChartService;
+
+    @Autowired
+    private TeamService teamService;
+
+    @Autowired
+    private TeamMemberService teamMemberService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${dashboard.cache.ttl-seconds:30}")
+    private long cacheTtlSeconds;
+
+    @Value("${dashboard.upcoming-days:30}")
+    private int upcomingDays;
+
+    @Value("${dashboard.milestone-limit:20}")
+    private int milestoneLimit;
+
+    @Autowired
+    private EntityCommitListeners entityCommitListeners;
+
+    private TransactionTemplate readOnlyTemplate;
+
+    private ExecutorService executor;
+
+    private volatile CachedSummary cached;
+
+    // 每次失效加一；加载期间发生过失效的结果不放进缓存
+    private final AtomicLong generation = new AtomicLong();
+
+    @PostConstruct
+    void init() {
+        readOnlyTemplate = new TransactionTemplate(transactionManager);
+        readOnlyTemplate.setReadOnly(true);
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        entityCommitListeners.register(new SummaryEvictionListener());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Get the dashboard summary, served from cache while it is still fresh
+     */
+    public Map<String, Object> getDashboardSummary() {
+        CachedSummary current = cached;
+        long now = System.nanoTime();
+        if (current != null && now - current.loadedAt < cacheTtlSeconds * 1_000_000_000L) {
+            return current.summary;
+        }
+        synchronized (this) {
+            current = cached;
+            if (current != null && System.nanoTime() - current.loadedAt < cacheTtlSeconds * 1_000_000_000L) {
+                return current.summary;
+            }
+            long loadingGeneration = generation.get();
+            Map<String, Object> summary = loadSummary();
+            if (generation.get() == loadingGeneration) {
+                cached = new CachedSummary(summary, System.nanoTime());
+            }
+            return summary;
+        }
+    }
+
+    /**
+     * Drop the cached summary so the next call reloads it; called after committed entity writes
+     */
+    public void evictCache() {
+        generation.incrementAndGet();
+        cached = null;
+    }
+
+    private Map<String, Object> loadSummary() {
+        // 所有并发查询共用调用方的路由上下文：保留读己之写的主库固定，并落在同一个副本上
+        ReplicaRoutingDataSource.ReadContext context = ReplicaRoutingDataSource.captureReadContext();
+        CompletableFuture<Map<String, Object>> projectStats = submit(context, projectService::getProjectStatistics);
+        CompletableFuture<Map<String, Object>> milestones = submit(context, () -> milestoneService.getDashboardMilestones(upcomingDays, milestoneLimit));
+        CompletableFuture<Map<String, Object>> ganttStats = submit(context, ganttChartService::getGanttStatistics);
+        CompletableFuture<Map<String, Object>> teamStats = submit(context, teamService::getTeamStatistics);
+        CompletableFuture<Map<String, Object>> memberStats = submit(context, teamMemberService::getTeamMemberStatistics);
+
+        CompletableFuture.allOf(projectStats, milestones, ganttStats, teamStats, memberStats).join();
+
+        Map<String, Object> summary = new HashMap<>();
+        summary.put("projectStatistics", projectStats.join());
+        summary.putAll(milestones.join());
+        summary.put("upcomingDays", upcomingDays);
+        summary.put("ganttStatistics", ganttStats.join());
+        summary.put("teamStatistics", teamStats.join());
+        summary.put("teamMemberStatistics", memberStats.join());
+        summary.put("currentDate", LocalDate.now());
+        summary.put("generatedAt", LocalDateTime.now());
+        return Collections.unmodifiableMap(summary);
+    }
+
+    // 事务绑定在线程上，每个查询在工作线程里开自己的只读事务，路由上下文从调用线程带过去
+    private <T> CompletableFuture<T> submit(ReplicaRoutingDataSource.ReadContext context, Supplier<T> query) {
+        return CompletableFuture.supplyAsync(() -> context.call(() -> readOnlyTemplate.execute(status -> query.get())), executor);
+    }
+
+    // 实体写入提交后失效；集合级 UPDATE 和进度写后缓冲不产生实体事件，由 TTL 兜底
+    private class SummaryEvictionListener extends EntityCommitListener {
+
+        SummaryEvictionListener() {
+            super(Project.class, ProjectPhase.class, KeyMilestone.class, Team.class, TeamMember.class);
+        }
+
+        @Override
+        protected void onSaved(Object entity) {
+            evictCache();
+        }
+
+        @Override
+        protected void onDelete(Object entity, Long id) {
+            evictCache();
+        }
+    }
+
+    private record CachedSummary(Map<String, Object> summary, long loadedAt) {}
+}
@@ -0,0 +1,19 @@
+package com.company.projectmanagement.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * A deadline event fired by {@link DeadlineAlertService}
+ */
+public record DeadlineAlert(Kind kind, EntityType entityType, Long entityId, Long projectId,
+                            String label, LocalDate dueDate, LocalDateTime firedAt) {
+
+    public enum Kind {
+        UPCOMING, DUE, OVERDUE
+    }
+
+    public enum EntityType {
+        MILESTONE, PHASE, PROJECT_CHECKPOINT, RISK
+    }
+}
@@ -0,0 +1,432 @@
+package com.company.projectmanagement.service;
+
+import com.company.projectmanagement.model.KeyMilestone;
+import com.company.projectmanagement.model.KeyMilestone.MilestoneStatus;
+import com.company.projectmanagement.model.Project;
+import com.company.projectmanagement.model.ProjectPhase;
+import com.company.projectmanagement.model.RiskIssue;
+import com.company.projectmanagement.model.RiskStatus;
+import com.company.projectmanagement.repository.KeyMilestoneRepository;
+import com.company.projectmanagement.repository.ProjectPhaseRepository;
+import com.company.projectmanagement.repository.ProjectRepository;
+import com.company.projectmanagement.repository.RiskIssueRepository;
+import com.company.projectmanagement.service.DeadlineAlert.EntityType;
+import com.company.projectmanagement.service.DeadlineAlert.Kind;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Deadline alert engine.
+ * Open deadlines (milestone target dates, phase planned end dates, project checkpoints and
+ * risk due dates) are held as timers in a {@link HierarchicalTimingWheel}. Each deadline fires
+ * UPCOMING a few days before, DUE at the start of the day and OVERDUE the day after; every
+ * {@link DeadlineAlertSink} bean receives the alerts. Entity writes reschedule or cancel the
+ * affected timers after commit; set-based statements report the rows they changed through
+ * {@link #refreshMilestones} and {@link #removeDeadlines}, and a nightly rebuild is a safety net. At startup the
+ * points missed while the application was down (within a few days) fire once.
+ */
+@Service
+public class DeadlineAlertService {
+
+    private static final Logger log = LoggerFactory.getLogger(DeadlineAlertService.class);
+
+    private static final int WHEEL_SIZE = 64;
+
+    private static final int RECENT_ALERTS = 200;
+
+    // IN 列表分批，单条语句的参数个数有上限
+    private static final int QUERY_CHUNK = 500;
+
+    private record Deadline(EntityType entityType, long entityId, Long projectId, String label, LocalDate dueDate) {}
+
+    private record Entry(Deadline deadline, Kind kind) {}
+
+    private record State(HierarchicalTimingWheel<Entry> wheel,
+                         Map<String, List<HierarchicalTimingWheel.Timer<Entry>>> timers) {}
+
+    @Autowired
+    private KeyMilestoneRepository milestoneRepository;
+
+    @Autowired
+    private ProjectPhaseRepository projectPhaseRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private RiskIssueRepository riskIssueRepository;
+
+    @Autowired
+    private List<DeadlineAlertSink> sinks;
+
+    @Autowired
+    private EntityCommitListeners entityCommitListeners;
+
+    @Value("${alerts.enabled:true}")
+    private boolean enabled;
+
+    @Value("${alerts.upcoming-days:3}")
+    private int upcomingDays;
+
+    @Value("${alerts.tick-ms:60000}")
+    private long tickMs;
+
+    @Value("${alerts.catch-up-days:7}")
+    private int catchUpDays;
+
+    private final ZoneId zone = ZoneId.systemDefault();
+
+    private ReloadableState<State> state;
+
+    private final Deque<DeadlineAlert> recentAlerts = new ArrayDeque<>();
+
+    private final AtomicLong firedCount = new AtomicLong();
+
+    @PostConstruct
+    void init() {
+        state = new ReloadableState<>(newState());
+        entityCommitListeners.register(new DeadlineChangeListener());
+    }
+
+    /**
+     * Initial load; alert points passed while the application was down fire once
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (!enabled) {
+            return;
+        }
+        List<Entry> missed = new ArrayList<>();
+        load(LocalDate.now(zone).minusDays(catchUpDays), missed);
+        missed.forEach(this::publish);
+        if (!missed.isEmpty()) {
+            log.info("Fired {} deadline alerts missed while the application was down", missed.size());
+        }
+    }
+
+    /**
+     * Load all open deadlines into a fresh wheel and swap it in
+     */
+    @Scheduled(cron = "${alerts.rebuild-cron:0 30 0 * * *}")
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        load(LocalDate.now(zone), null);
+    }
+
+    // 扫描期间提交的变更在切换前重放到新时间轮；missed 非空时收集已错过的提醒点
+    private void load(LocalDate from, List<Entry> missed) {
+        long loadedAt = System.currentTimeMillis();
+        State loaded = state.reload(() -> {
+            State fresh = newState();
+            for (Object[] row : milestoneRepository.findOpenDeadlines(from)) {
+                load(fresh, new Deadline(EntityType.MILESTONE, id(row[0]), id(row[1]), (String) row[2], (LocalDate) row[3]),
+                        loadedAt, missed);
+            }
+            for (Object[] row : projectPhaseRepository.findOpenDeadlines(from)) {
+                load(fresh, new Deadline(EntityType.PHASE, id(row[0]), id(row[1]), String.valueOf(row[2]), (LocalDate) row[3]),
+                        loadedAt, missed);
+            }
+            for (Object[] row : projectRepository.findCheckpointDeadlines(from)) {
+                load(fresh, new Deadline(EntityType.PROJECT_CHECKPOINT, id(row[0]), id(row[0]), (String) row[1], (LocalDate) row[2]),
+                        loadedAt, missed);
+            }
+            for (Object[] row : riskIssueRepository.findOpenDeadlines(from)) {
+                load(fresh, new Deadline(EntityType.RISK, id(row[0]), id(row[1]), (String) row[2], (LocalDate) row[3]),
+                        loadedAt, missed);
+            }
+            return fresh;
+        });
+        log.info("Deadline alert wheel loaded with {} timers", loaded.wheel().size());
+    }
+
+    private void load(State target, Deadline deadline, long now, List<Entry> missed) {
+        schedule(target, deadline);
+        if (missed != null && deadline.dueDate() != null) {
+            // 每个截止日期只补发最近错过的一个提醒点
+            Kind latest = null;
+            for (Kind kind : kindsOf(deadline)) {
+                if (epochMillis(pointOf(deadline, kind)) <= now) {
+                    latest = kind;
+                }
+            }
+            if (latest != null) {
+                missed.add(new Entry(deadline, latest));
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${alerts.tick-ms:60000}")
+    public void tick() {
+        if (!enabled) {
+            return;
+        }
+        State current = state.get();
+        List<HierarchicalTimingWheel.Timer<Entry>> expired = current.wheel().advance(System.currentTimeMillis());
+        // 在时间轮的锁之外发布：推送渠道可能阻塞（SSE、Webhook）
+        for (HierarchicalTimingWheel.Timer<Entry> timer : expired) {
+            if (!timer.isCancelled()) {
+                fire(current, timer);
+            }
+        }
+    }
+
+    /**
+     * Cancel the alerts of rows removed by a set-based DELETE, which fires no entity events; call after commit
+     */
+    public void removeDeadlines(EntityType type, Collection<Long> ids) {
+        if (!enabled || ids.isEmpty()) {
+            return;
+        }
+        List<String> keys = ids.stream().map(id -> key(type, id)).toList();
+        state.update(current -> keys.forEach(key -> cancel(current, key)));
+    }
+
+    /**
+     * Reschedule milestones changed by a set-based UPDATE from their committed rows; call after commit
+     */
+    public void refreshMilestones(Collection<Long> ids) {
+        if (!enabled || ids.isEmpty()) {
+            return;
+        }
+        List<Long> all = new ArrayList<>(ids);
+        Set<Long> closed = new HashSet<>(all);
+        List<Deadline> open = new ArrayList<>();
+        for (int i = 0; i < all.size(); i += QUERY_CHUNK) {
+            for (Object[] row : milestoneRepository.findDeadlinesByIds(all.subList(i, Math.min(i + QUERY_CHUNK, all.size())))) {
+                MilestoneStatus status = (MilestoneStatus) row[4];
+                if (status != MilestoneStatus.COMPLETED && status != MilestoneStatus.CANCELLED) {
+                    open.add(new Deadline(EntityType.MILESTONE, id(row[0]), id(row[1]), (String) row[2], (LocalDate) row[3]));
+                    closed.remove(id(row[0]));
+                }
+            }
+        }
+        state.update(current -> {
+            closed.forEach(id -> cancel(current, key(EntityType.MILESTONE, id)));
+            open.forEach(deadline -> schedule(current, deadline));
+        });
+    }
+
+    /**
+     * Schedule the open deadlines of a project written back with plain SQL (archive restore),
+     * which fires no entity events; call after commit
+     */
+    public void addProject(Long projectId, Collection<Long> milestoneIds) {
+        if (!enabled) {
+            return;
+        }
+        refreshMilestones(milestoneIds);
+        LocalDate from = LocalDate.now(zone);
+        List<Deadline> open = new ArrayList<>();
+        for (Object[] row : projectPhaseRepository.findOpenDeadlinesByProjectId(projectId, from)) {
+            open.add(new Deadline(EntityType.PHASE, id(row[0]), id(row[1]), String.valueOf(row[2]), (LocalDate) row[3]));
+        }
+        for (Object[] row : projectRepository.findCheckpointAndLeadById(projectId)) {
+            LocalDate checkDate = (LocalDate) row[2];
+            if (checkDate != null && !checkDate.isBefore(from)) {
+                open.add(new Deadline(EntityType.PROJECT_CHECKPOINT, id(row[0]), id(row[0]), (String) row[1], checkDate));
+            }
+        }
+        for (Object[] row : riskIssueRepository.findOpenDeadlinesByProjectId(projectId, from)) {
+            open.add(new Deadline(EntityType.RISK, id(row[0]), id(row[1]), (String) row[2], (LocalDate) row[3]));
+        }
+        state.update(current -> open.forEach(deadline -> schedule(current, deadline)));
+    }
+
+    public List<DeadlineAlert> getRecentAlerts() {
+        synchronized (recentAlerts) {
+            return new ArrayList<>(recentAlerts);
+        }
+    }
+
+    public Map<String, Object> getStatistics() {
+        State current = state.get();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("trackedDeadlines", current.timers().size());
+        stats.put("pendingTimers", current.wheel().size());
+        stats.put("firedAlerts", firedCount.get());
+        stats.put("upcomingDays", upcomingDays);
+        stats.put("tickMs", tickMs);
+        return stats;
+    }
+
+    private void fire(State current, HierarchicalTimingWheel.Timer<Entry> timer) {
+        Deadline deadline = timer.getPayload().deadline();
+        current.timers().computeIfPresent(key(deadline.entityType(), deadline.entityId()), (k, list) -> {
+            list.remove(timer);
+            return list.isEmpty() ? null : list;
+        });
+        publish(timer.getPayload());
+    }
+
+    private void publish(Entry entry) {
+        Deadline deadline = entry.deadline();
+        DeadlineAlert alert = new DeadlineAlert(entry.kind(), deadline.entityType(), deadline.entityId(),
+                deadline.projectId(), deadline.label(), deadline.dueDate(), LocalDateTime.now(zone));
+        firedCount.incrementAndGet();
+        synchronized (recentAlerts) {
+            if (recentAlerts.size() == RECENT_ALERTS) {
+                recentAlerts.removeLast();
+            }
+            recentAlerts.addFirst(alert);
+        }
+        for (DeadlineAlertSink sink : sinks) {
+            try {
+                sink.publish(alert);
+            } catch (RuntimeException e) {
+                log.warn("Deadline alert sink {} failed: {}", sink.getClass().getSimpleName(), e.getMessage());
+            }
+        }
+    }
+
+    // 替换该实体已有的定时器；只安排尚未到达的时间点
+    private void schedule(State target, Deadline deadline) {
+        String key = key(deadline.entityType(), deadline.entityId());
+        cancel(target, key);
+        if (deadline.dueDate() == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        List<HierarchicalTimingWheel.Timer<Entry>> timers = new ArrayList<>(3);
+        for (Kind kind : kindsOf(deadline)) {
+            long at = epochMillis(pointOf(deadline, kind));
+            if (at > now) {
+                timers.add(target.wheel().schedule(new Entry(deadline, kind), at));
+            }
+        }
+        if (!timers.isEmpty()) {
+            target.timers().put(key, timers);
+        }
+    }
+
+    // 按时间先后排列；检查日期只提醒，不算逾期
+    private List<Kind> kindsOf(Deadline deadline) {
+        List<Kind> kinds = new ArrayList<>(3);
+        if (upcomingDays > 0) {
+            kinds.add(Kind.UPCOMING);
+        }
+        kinds.add(Kind.DUE);
+        if (deadline.entityType() != EntityType.PROJECT_CHECKPOINT) {
+            kinds.add(Kind.OVERDUE);
+        }
+        return kinds;
+    }
+
+    private LocalDate pointOf(Deadline deadline, Kind kind) {
+        return switch (kind) {
+            case UPCOMING -> deadline.dueDate().minusDays(upcomingDays);
+            case DUE -> deadline.dueDate();
+            case OVERDUE -> deadline.dueDate().plusDays(1);
+        };
+    }
+
+    private long epochMillis(LocalDate day) {
+        return day.atStartOfDay(zone).toInstant().toEpochMilli();
+    }
+
+    private State newState() {
+        return new State(new HierarchicalTimingWheel<>(tickMs, WHEEL_SIZE, System.currentTimeMillis()),
+                new ConcurrentHashMap<>());
+    }
+
+    private void cancel(State target, String key) {
+        List<HierarchicalTimingWheel.Timer<Entry>> existing = target.timers().remove(key);
+        if (existing != null) {
+            existing.forEach(HierarchicalTimingWheel.Timer::cancel);
+        }
+    }
+
+    private static String key(EntityType type, long id) {
+        return type.name() + ":" + id;
+    }
+
+    private static long id(Object value) {
+        return ((Number) value).longValue();
+    }
+
+    private class DeadlineChangeListener extends EntityCommitListener {
+
+        DeadlineChangeListener() {
+            super(KeyMilestone.class, ProjectPhase.class, Project.class, RiskIssue.class);
+        }
+
+        @Override
+        protected void onDelete(Object entity, Long id) {
+            if (enabled) {
+                String key = key(typeOf(entity), id);
+                state.update(current -> cancel(current, key));
+            }
+        }
+
+        // 已完成/已关闭的条目取消提醒，其余按最新日期重新安排
+        @Override
+        protected void onSaved(Object entity) {
+            if (!enabled) {
+                return;
+            }
+            if (entity instanceof KeyMilestone m) {
+                boolean open = m.getStatus() != KeyMilestone.MilestoneStatus.COMPLETED
+                        && m.getStatus() != KeyMilestone.MilestoneStatus.CANCELLED;
+                update(EntityType.MILESTONE, m.getId(), open,
+                        new Deadline(EntityType.MILESTONE, m.getId(), m.getProject().getId(), m.getName(), m.getTargetDate()));
+            } else if (entity instanceof ProjectPhase p) {
+                boolean open = p.getStatus() != ProjectPhase.PhaseStatus.COMPLETED;
+                update(EntityType.PHASE, p.getId(), open,
+                        new Deadline(EntityType.PHASE, p.getId(), p.getProject().getId(), String.valueOf(p.getPhaseName()), p.getPlannedEndDate()));
+            } else if (entity instanceof Project p) {
+                update(EntityType.PROJECT_CHECKPOINT, p.getId(), true,
+                        new Deadline(EntityType.PROJECT_CHECKPOINT, p.getId(), p.getId(), p.getProjectName(), p.getNextCheckDate()));
+            } else if (entity instanceof RiskIssue r) {
+                boolean open = r.getStatus() == RiskStatus.OPEN || r.getStatus() == RiskStatus.IN_PROGRESS;
+                update(EntityType.RISK, r.getId(), open,
+                        new Deadline(EntityType.RISK, r.getId(), r.getProject().getId(), r.getTitle(), r.getDueDate()));
+            }
+        }
+
+        private void update(EntityType type, long id, boolean open, Deadline deadline) {
+            if (open) {
+                state.update(current -> schedule(current, deadline));
+            } else {
+                String key = key(type, id);
+                state.update(current -> cancel(current, key));
+            }
+        }
+
+        private EntityType typeOf(Object entity) {
+            if (entity instanceof KeyMilestone) {
+                return EntityType.MILESTONE;
+            }
+            if (entity instanceof ProjectPhase) {
+                return EntityType.PHASE;
+            }
+            if (entity instanceof Project) {
+                return EntityType.PROJECT_CHECKPOINT;
+            }
+            return EntityType.RISK;
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.company.projectmanagement.service;
+
+/**
+ * Receives fired deadline alerts. Every bean implementing this interface gets each alert;
+ * implementations must not block the timer thread for long.
+ */
+public interface DeadlineAlertSink {
+
+    void publish(DeadlineAlert alert);
+}
@@ -0,0 +1,90 @@
+package com.company.projectmanagement.service;
+
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+
+import java.util.List;
+
+/**
+ * Base class for in-memory structures that follow entity writes once they are committed.
+ * Only the entity types given to the constructor are delivered: Hibernate calls every
+ * post-commit listener for every entity once any of them asks for post-commit handling.
+ * Inserts and updates go to {@link #onSaved} unless overridden; writes of transactions that
+ * roll back are never delivered. Register instances with {@link EntityCommitListeners}.
+ */
+public abstract class EntityCommitListener implements PostCommitInsertEventListener, PostCommitUpdateEventListener,
+        PostCommitDeleteEventListener {
+
+    private final List<Class<?>> types;
+
+    protected EntityCommitListener(Class<?>... types) {
+        this.types = List.of(types);
+    }
+
+    protected void onSaved(Object entity) {
+    }
+
+    protected void onInsert(Object entity) {
+        onSaved(entity);
+    }
+
+    protected void onUpdate(Object entity) {
+        onSaved(entity);
+    }
+
+    protected void onDelete(Object entity, Long id) {
+    }
+
+    @Override
+    public final void onPostInsert(PostInsertEvent event) {
+        if (accepts(event.getEntity())) {
+            onInsert(event.getEntity());
+        }
+    }
+
+    @Override
+    public final void onPostUpdate(PostUpdateEvent event) {
+        if (accepts(event.getEntity())) {
+            onUpdate(event.getEntity());
+        }
+    }
+
+    @Override
+    public final void onPostDelete(PostDeleteEvent event) {
+        if (accepts(event.getEntity())) {
+            onDelete(event.getEntity(), (Long) event.getId());
+        }
+    }
+
+    @Override
+    public final void onPostInsertCommitFailed(PostInsertEvent event) {
+        // 事务未提交，无需处理
+    }
+
+    @Override
+    public final void onPostUpdateCommitFailed(PostUpdateEvent event) {
+    }
+
+    @Override
+    public final void onPostDeleteCommitFailed(PostDeleteEvent event) {
+    }
+
+    @Override
+    public final boolean requiresPostCommitHandling(EntityPersister persister) {
+        return types.contains(persister.getMappedClass());
+    }
+
+    private boolean accepts(Object entity) {
+        for (Class<?> type : types) {
+            if (type.isInstance(entity)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,34 @@
+package com.company.projectmanagement.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostLoadEventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Registers {@link EntityCommitListener}s for post-commit inserts, updates and deletes,
+ * and listeners for entities loaded into any session
+ */
+@Component
+public class EntityCommitListeners {
+
+    private final EventListenerRegistry registry;
+
+    public EntityCommitListeners(EntityManagerFactory entityManagerFactory) {
+        this.registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+    }
+
+    public void register(EntityCommitListener listener) {
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, listener);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, listener);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, listener);
+    }
+
+    public void registerPostLoad(PostLoadEventListener listener) {
+        registry.appendListeners(EventType.POST_LOAD, listener);
+    }
+}
@@ -2,6 +2,7 @@ package com.company.projectmanagement.service;
 
 import com.company.projectmanagement.model.Project;
 import com.company.projectmanagement.model.ProjectPhase;
+import com.company.projectmanagement.repository.KeyMilestoneRepository;
 import com.company.projectmanagement.repository.ProjectPhaseRepository;
 import com.company.projectmanagement.repository.ProjectRepository;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -13,7 +14,7 @@ import java.util.*;
 import java.util.stream.Collectors;
 
 @Service
-@Transactional
+@Transactional(readOnly = true)
 public class GanttChartService {
     
     @Autowired
@@ -22,16 +23,25 @@ public class GanttChartService {
     @Autowired
     private ProjectRepository projectRepository;
     
+    @Autowired
+    private KeyMilestoneRepository milestoneRepository;
+    
+    @Autowired
+    private MilestoneProgressBuffer progressBuffer;
+    
     // 获取甘特图数据
     public Map<String, Object> getGanttChartData() {
         Map<String, Object> result = new HashMap<>();
         
-        // 获取所有项目和阶段
-        List<Project> projects = projectRepository.findAll();
+        // 获取所有项目和阶段（阶段随项目一次取出，里程碑一次查询后按项目分组）
+        List<Project> projects = projectRepository.findAllForGantt();
+        Map<Long, List<Map<String, Object>>> milestonesByProject = milestoneRepository.findGanttRows().stream()
+            .collect(Collectors.groupingBy(row -> ((Number) row[1]).longValue(),
+                Collectors.mapping(this::ganttMilestone, Collectors.toList())));
         List<Map<String, Object>> ganttData = new ArrayList<>();
         
         for (Project project : projects) {
-            List<ProjectPhase> phases = projectPhaseRepository.findByProjectIdOrderByPhaseName(project.getId());
+            List<ProjectPhase> phases = project.getProjectPhases();
             
             Map<String, Object> projectData = new HashMap<>();
             projectData.put("id", project.getId());
@@ -67,19 +77,7 @@ public class GanttChartService {
             projectData.put("phases", phaseData);
             
             // 项目里程碑
-            if (project.getKeyMilestones() != null) {
-                projectData.put("milestones", project.getKeyMilestones().stream().map(milestone -> {
-                    Map<String, Object> milestoneMap = new HashMap<>();
-                    milestoneMap.put("id", milestone.getId());
-                    milestoneMap.put("name", milestone.getName());
-                    milestoneMap.put("targetDate", milestone.getTargetDate());
-                    milestoneMap.put("status", milestone.getStatus());
-                    milestoneMap.put("progress", milestone.getProgress());
-                    return milestoneMap;
-                }).collect(Collectors.toList()));
-            } else {
-                projectData.put("milestones", new ArrayList<>());
-            }
+            projectData.put("milestones", milestonesByProject.getOrDefault(project.getId(), new ArrayList<>()));
             
             ganttData.add(projectData);
         }
@@ -92,6 +90,19 @@ public class GanttChartService {
         return result;
     }
     
+    // 甘特图里程碑：只取所需列；投影查询不经过实体加载，缓冲中尚未写入的进度在这里叠加
+    private Map<String, Object> ganttMilestone(Object[] row) {
+        long id = ((Number) row[0]).longValue();
+        MilestoneProgressBuffer.Pending pending = progressBuffer.get(id);
+        Map<String, Object> milestoneMap = new HashMap<>();
+        milestoneMap.put("id", id);
+        milestoneMap.put("name", row[2]);
+        milestoneMap.put("targetDate", row[3]);
+        milestoneMap.put("status", row[4]);
+        milestoneMap.put("progress", pending != null ? pending.progress() : row[5]);
+        return milestoneMap;
+    }
+    
     // 计算项目整体状态
     private Map<String, Object> calculateProjectStatus(List<ProjectPhase> phases) {
         Map<String, Object> status = new HashMap<>();
@@ -139,7 +150,7 @@ public class GanttChartService {
     public Map<String, Object> getGanttStatistics() {
         Map<String, Object> stats = new HashMap<>();
         
-        List<Project> allProjects = projectRepository.findAll();
+        List<Project> allProjects = projectRepository.findAllForGantt();
         int totalProjects = allProjects.size();
         
         int completedProjects = 0;
@@ -148,8 +159,7 @@ public class GanttChartService {
         int overdueProjects = 0;
         
         for (Project project : allProjects) {
-            List<ProjectPhase> phases = projectPhaseRepository.findByProjectIdOrderByPhaseName(project.getId());
-            Map<String, Object> projectStatus = calculateProjectStatus(phases);
+            Map<String, Object> projectStatus = calculateProjectStatus(project.getProjectPhases());
             
             String status = (String) projectStatus.get("status");
             Boolean isOverdue = (Boolean) projectStatus.get("isOverdue");
@@ -206,9 +216,12 @@ public class GanttChartService {
     }
     
     // 更新阶段
+    @Transactional
     public ProjectPhase updatePhase(Long phaseId, ProjectPhase phaseDetails) {
         return projectPhaseRepository.findById(phaseId)
             .map(phase -> {
+                // 客户端带回的版本与当前版本不一致，说明读取后已被他人修改
+                OptimisticVersions.check(phaseDetails.getVersion(), phase.getVersion(), ProjectPhase.class, phaseId);
                 if (phaseDetails.getStartDate() != null) {
                     phase.setStartDate(phaseDetails.getStartDate());
                 }
@@ -237,6 +250,7 @@ public class GanttChartService {
     }
     
     // 更新逾期状态（定时任务可调用）
+    @Transactional
     public void updateOverdueStatus() {
         List<ProjectPhase> overduePhases = projectPhaseRepository.findOverduePhases();
         for (ProjectPhase phase : overduePhases) {
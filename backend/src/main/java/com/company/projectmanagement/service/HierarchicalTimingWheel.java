@@ -0,0 +1,237 @@
+package com.company.projectmanagement.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Hierarchical timing wheel.
+ * Each level has a fixed number of buckets; a level's bucket spans the whole range of the
+ * level below, so timers far in the future sit in a coarse bucket and move down a level when
+ * that bucket comes due. Inserting and cancelling a timer are O(1); only non-empty buckets
+ * are queued by expiration, so advancing the clock never scans empty slots.
+ */
+public class HierarchicalTimingWheel<T> {
+
+    public static final class Timer<T> {
+
+        private final T payload;
+
+        private final long expirationMs;
+
+        private volatile Bucket<T> bucket;
+
+        private volatile boolean cancelled;
+
+        private Timer(T payload, long expirationMs) {
+            this.payload = payload;
+            this.expirationMs = expirationMs;
+        }
+
+        public T getPayload() {
+            return payload;
+        }
+
+        public long getExpirationMs() {
+            return expirationMs;
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        public void cancel() {
+            cancelled = true;
+            Bucket<T> current = bucket;
+            if (current != null) {
+                current.remove(this);
+            }
+        }
+    }
+
+    private static final class Bucket<T> {
+
+        private final Set<Timer<T>> timers = ConcurrentHashMap.newKeySet();
+
+        private final AtomicLong expiration = new AtomicLong(-1L);
+
+        private final AtomicInteger counter;
+
+        private Bucket(AtomicInteger counter) {
+            this.counter = counter;
+        }
+
+        void add(Timer<T> timer) {
+            timer.bucket = this;
+            if (timers.add(timer)) {
+                counter.incrementAndGet();
+            }
+        }
+
+        void remove(Timer<T> timer) {
+            if (timers.remove(timer)) {
+                timer.bucket = null;
+                counter.decrementAndGet();
+            }
+        }
+
+        // 返回 true 表示到期时间有变化，需要重新入队
+        boolean setExpiration(long expirationMs) {
+            return expiration.getAndSet(expirationMs) != expirationMs;
+        }
+
+        long getExpiration() {
+            return expiration.get();
+        }
+
+        List<Timer<T>> drain() {
+            List<Timer<T>> drained = new ArrayList<>(timers);
+            drained.forEach(this::remove);
+            expiration.set(-1L);
+            return drained;
+        }
+    }
+
+    private final class Wheel {
+
+        private final long tickMs;
+
+        private final long interval;
+
+        private final List<Bucket<T>> buckets;
+
+        private long currentTime;
+
+        private volatile Wheel overflow;
+
+        Wheel(long tickMs, long startMs) {
+            this.tickMs = tickMs;
+            this.interval = tickMs * wheelSize;
+            this.currentTime = startMs - (startMs % tickMs);
+            this.buckets = new ArrayList<>(wheelSize);
+            for (int i = 0; i < wheelSize; i++) {
+                buckets.add(new Bucket<>(size));
+            }
+        }
+
+        boolean add(Timer<T> timer) {
+            long expiration = timer.expirationMs;
+            if (expiration < currentTime + tickMs) {
+                return false;
+            }
+            if (expiration < currentTime + interval) {
+                long virtualId = expiration / tickMs;
+                Bucket<T> bucket = buckets.get((int) (virtualId % wheelSize));
+                bucket.add(timer);
+                if (bucket.setExpiration(virtualId * tickMs)) {
+                    queue.offer(bucket);
+                }
+                return true;
+            }
+            return overflow().add(timer);
+        }
+
+        void advanceClock(long timeMs) {
+            if (timeMs >= currentTime + tickMs) {
+                currentTime = timeMs - (timeMs % tickMs);
+                Wheel next = overflow;
+                if (next != null) {
+                    next.advanceClock(currentTime);
+                }
+            }
+        }
+
+        private Wheel overflow() {
+            if (overflow == null) {
+                synchronized (this) {
+                    if (overflow == null) {
+                        overflow = new Wheel(interval, currentTime);
+                    }
+                }
+            }
+            return overflow;
+        }
+    }
+
+    private final int wheelSize;
+
+    private final AtomicInteger size = new AtomicInteger();
+
+    private final PriorityBlockingQueue<Bucket<T>> queue =
+            new PriorityBlockingQueue<>(64, Comparator.comparingLong(Bucket::getExpiration));
+
+    // 插入时已经到期的定时器，留到下一次推进时触发
+    private final Queue<Timer<T>> expiredOnInsert = new ConcurrentLinkedQueue<>();
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Wheel root;
+
+    public HierarchicalTimingWheel(long tickMs, int wheelSize, long startMs) {
+        this.wheelSize = wheelSize;
+        this.root = new Wheel(tickMs, startMs);
+    }
+
+    /**
+     * Schedule a payload to fire at the given epoch millis
+     */
+    public Timer<T> schedule(T payload, long expirationMs) {
+        Timer<T> timer = new Timer<>(payload, expirationMs);
+        lock.readLock().lock();
+        try {
+            if (!root.add(timer)) {
+                expiredOnInsert.add(timer);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return timer;
+    }
+
+    /**
+     * Move the clock to now and return every due timer. The caller handles them after the
+     * wheel's lock is released, so slow handlers never block scheduling or cancelling.
+     */
+    public List<Timer<T>> advance(long nowMs) {
+        List<Timer<T>> expired = new ArrayList<>();
+        Timer<T> early;
+        while ((early = expiredOnInsert.poll()) != null) {
+            if (!early.isCancelled()) {
+                expired.add(early);
+            }
+        }
+        lock.writeLock().lock();
+        try {
+            Bucket<T> bucket;
+            while ((bucket = queue.peek()) != null && bucket.getExpiration() <= nowMs) {
+                queue.poll();
+                root.advanceClock(bucket.getExpiration());
+                // 粗粒度桶到期后把定时器重新插入，落入更细的层级或直接触发
+                for (Timer<T> timer : bucket.drain()) {
+                    if (!timer.isCancelled() && !root.add(timer)) {
+                        expired.add(timer);
+                    }
+                }
+            }
+            root.advanceClock(nowMs);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        return expired;
+    }
+
+    /**
+     * Timers currently held in buckets
+     */
+    public int size() {
+        return size.get() + expiredOnInsert.size();
+    }
+}
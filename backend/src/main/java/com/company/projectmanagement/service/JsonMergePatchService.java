@@ -0,0 +1,109 @@
+package com.company.projectmanagement.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Applies JSON Merge Patch (RFC 7396) documents to managed entities.
+ * Only the supplied properties go through the setters, so Hibernate's dirty
+ * check (with @DynamicUpdate on the entity) writes just the changed columns.
+ * Invalid patches are reported as IllegalArgumentException.
+ */
+@Service
+public class JsonMergePatchService {
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private Validator validator;
+
+    /**
+     * Copy the patch into a mutable object node, rejecting anything that is not a JSON object
+     */
+    public ObjectNode toObjectNode(JsonNode patch) {
+        if (patch == null || !patch.isObject()) {
+            throw new IllegalArgumentException("Merge patch must be a JSON object");
+        }
+        return ((ObjectNode) patch).deepCopy();
+    }
+
+    /**
+     * Consume the "version" member, falling back to the If-Match version, and compare it with
+     * the current version; a patch without either is rejected
+     */
+    public void checkVersion(ObjectNode patch, Long ifMatchVersion, Long currentVersion, Class<?> entityType, Object id) {
+        JsonNode version = patch.remove("version");
+        if (version != null && !version.isNull() && !version.canConvertToLong()) {
+            throw new IllegalArgumentException("version must be a number");
+        }
+        Long expected = version != null && !version.isNull() ? Long.valueOf(version.asLong()) : ifMatchVersion;
+        OptimisticVersions.check(expected, currentVersion, entityType, id);
+    }
+
+    /**
+     * Consume a to-one reference member: null clears it, {"id": n} loads the target
+     */
+    public <E> PatchedReference<E> reference(ObjectNode patch, String field, JpaRepository<E, Long> repository) {
+        if (!patch.has(field)) {
+            return PatchedReference.absent();
+        }
+        JsonNode value = patch.remove(field);
+        if (value.isNull()) {
+            return PatchedReference.of(null);
+        }
+        JsonNode id = value.get("id");
+        if (id == null || !id.canConvertToLong()) {
+            throw new IllegalArgumentException(field + " must be null or an object with an id");
+        }
+        return PatchedReference.of(repository.findById(id.asLong())
+                .orElseThrow(() -> new IllegalArgumentException(field + " not found with id " + id.asLong())));
+    }
+
+    /**
+     * Merge the remaining members into the target and validate the result
+     */
+    public <T> T apply(T target, ObjectNode patch, Set<String> readOnlyFields) {
+        for (String field : readOnlyFields) {
+            if (patch.has(field)) {
+                throw new IllegalArgumentException("Field cannot be patched: " + field);
+            }
+        }
+        try {
+            objectMapper.readerForUpdating(target).readValue(patch);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Invalid merge patch: " + e.getMessage(), e);
+        }
+        Set<ConstraintViolation<T>> violations = validator.validate(target);
+        if (!violations.isEmpty()) {
+            throw new IllegalArgumentException(violations.stream()
+                    .map(v -> v.getPropertyPath() + " " + v.getMessage())
+                    .collect(Collectors.joining(", ")));
+        }
+        return target;
+    }
+
+    /**
+     * Result of a reference member; present is false when the patch did not mention it
+     */
+    public record PatchedReference<E>(boolean present, E value) {
+
+        static <E> PatchedReference<E> absent() {
+            return new PatchedReference<>(false, null);
+        }
+
+        static <E> PatchedReference<E> of(E value) {
+            return new PatchedReference<>(true, value);
+        }
+    }
+}
@@ -4,53 +4,186 @@ import com.company.projectmanagement.model.KeyMilestone;
 import com.company.projectmanagement.model.KeyMilestone.MilestoneStatus;
 import com.company.projectmanagement.model.KeyMilestone.Priority;
 import com.company.projectmanagement.model.Project;
+import com.company.projectmanagement.model.TeamMember;
+import com.company.projectmanagement.model.Views;
 import com.company.projectmanagement.repository.KeyMilestoneRepository;
+import com.company.projectmanagement.repository.MilestoneDependencyRepository;
 import com.company.projectmanagement.repository.ProjectRepository;
+import com.company.projectmanagement.repository.TeamMemberRepository;
+import com.company.projectmanagement.service.DeadlineAlert.EntityType;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.Map;
+import java.util.Objects;
 import java.util.HashMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Service
-@Transactional
+@Transactional(readOnly = true)
 public class KeyMilestoneService {
     
+    // Fields a merge patch may not touch; moving a milestone to another project is not supported
+    private static final Set<String> PATCH_READ_ONLY_FIELDS = Set.of("id", "project", "createdAt", "updatedAt");
+    
     @Autowired
     private KeyMilestoneRepository milestoneRepository;
     
     @Autowired
     private ProjectRepository projectRepository;
     
+    @Autowired
+    private JsonMergePatchService mergePatchService;
+    
+    @Autowired
+    private EntityCommitListeners entityCommitListeners;
+    
+    @Autowired
+    private MilestoneProgressBuffer progressBuffer;
+    
+    @Autowired
+    private DeadlineAlertService deadlineAlertService;
+    
+    @Autowired
+    private MilestoneDependencyService milestoneDependencyService;
+    
+    @Autowired
+    private MilestoneDependencyRepository milestoneDependencyRepository;
+    
+    @Autowired
+    private TeamMemberRepository teamMemberRepository;
+    
+    @Autowired
+    private MemberWorkloadService memberWorkloadService;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    // IN lists are split so one statement never carries an unbounded number of parameters
+    private static final int QUERY_CHUNK = 500;
+    
+    // Short-lived per-project statistics; milestone writes evict their project after commit,
+    // the TTL bounds staleness from bulk updates and from milestones becoming overdue at midnight
+    @Value("${milestone-statistics.cache-ttl-ms:30000}")
+    private long statisticsCacheTtlMs;
+    
+    private record CachedStatistics(Map<String, Object> statistics, long expiresAt) {}
+    
+    private final Map<Long, CachedStatistics> statisticsCache = new ConcurrentHashMap<>();
+    
+    private TransactionTemplate readOnlyTemplate;
+    
+    private TransactionTemplate writeTemplate;
+    
+    @PostConstruct
+    void init() {
+        readOnlyTemplate = new TransactionTemplate(transactionManager);
+        readOnlyTemplate.setReadOnly(true);
+        writeTemplate = new TransactionTemplate(transactionManager);
+        entityCommitListeners.register(new StatisticsEvictionListener());
+    }
+    
     /**
      * Get all milestones
      */
     public List<KeyMilestone> getAllMilestones() {
-        return milestoneRepository.findAll();
+        return getAllMilestones(Views.Shape.FULL);
+    }
+    
+    /**
+     * Get all milestones; the summary shape skips the lazy TEXT columns
+     */
+    public List<KeyMilestone> getAllMilestones(Views.Shape shape) {
+        if (shape == Views.Shape.SUMMARY) {
+            return milestoneRepository.findAll();
+        }
+        return milestoneRepository.findAllWithText();
     }
     
     /**
      * Get milestone by ID
      */
     public Optional<KeyMilestone> getMilestoneById(Long id) {
-        return milestoneRepository.findById(id);
+        return getMilestoneById(id, Views.Shape.FULL);
+    }
+    
+    /**
+     * Get milestone by ID; the summary shape skips the lazy TEXT columns
+     */
+    public Optional<KeyMilestone> getMilestoneById(Long id, Views.Shape shape) {
+        Optional<KeyMilestone> milestone = shape == Views.Shape.SUMMARY
+                ? milestoneRepository.findById(id)
+                : milestoneRepository.findWithTextById(id);
+        return milestone;
     }
     
     /**
      * Get milestones by project ID
      */
     public List<KeyMilestone> getMilestonesByProjectId(Long projectId) {
-        return milestoneRepository.findByProjectIdOrderByTargetDateAsc(projectId);
+        return getMilestonesByProjectId(projectId, Views.Shape.FULL);
+    }
+    
+    /**
+     * Get milestones by project ID in the given shape
+     */
+    public List<KeyMilestone> getMilestonesByProjectId(Long projectId, Views.Shape shape) {
+        return inShape(milestoneRepository.findByProjectIdOrderByTargetDateAsc(projectId), shape);
+    }
+    
+    /**
+     * Load the lazy TEXT columns of a finder result for the detail and full shapes in one query per
+     * chunk, keeping the finder's order; the summary shape returns the lean result as is
+     */
+    private List<KeyMilestone> inShape(List<KeyMilestone> milestones, Views.Shape shape) {
+        if (shape == Views.Shape.SUMMARY || milestones.isEmpty()) {
+            return milestones;
+        }
+        List<Long> ids = milestones.stream().map(KeyMilestone::getId).toList();
+        // 重新查询不会填充已托管实体的懒加载分组，先分离精简实体再按 ID 带 TEXT 列加载
+        milestones.forEach(entityManager::detach);
+        Map<Long, KeyMilestone> withText = new HashMap<>();
+        for (int from = 0; from < ids.size(); from += QUERY_CHUNK) {
+            List<Long> chunk = ids.subList(from, Math.min(from + QUERY_CHUNK, ids.size()));
+            milestoneRepository.findWithTextByIdIn(chunk).forEach(m -> withText.put(m.getId(), m));
+        }
+        return ids.stream().map(withText::get).filter(Objects::nonNull).toList();
     }
     
     /**
      * Create a new milestone
      */
+    @Transactional
     public KeyMilestone createMilestone(KeyMilestone milestone) {
         // Validate project exists
         if (milestone.getProject() != null && milestone.getProject().getId() != null) {
@@ -77,6 +210,7 @@ public class KeyMilestoneService {
         if (milestone.getCreatedDate() == null) {
             milestone.setCreatedDate(LocalDate.now());
         }
+        resolveOwner(milestone, milestone.getOwnerMemberId());
         
         return milestoneRepository.save(milestone);
     }
@@ -84,11 +218,17 @@ public class KeyMilestoneService {
     /**
      * Update an existing milestone
      */
+    @Transactional
     public KeyMilestone updateMilestone(Long id, KeyMilestone milestoneDetails) {
+        // 先写出缓冲的进度：它会推进版本，读到旧版本的客户端因此得到冲突而不是覆盖它
+        progressBuffer.flush(id);
         Optional<KeyMilestone> optionalMilestone = milestoneRepository.findById(id);
         if (optionalMilestone.isPresent()) {
             KeyMilestone milestone = optionalMilestone.get();
             
+            // Reject stale updates: the client must send back the version it read
+            OptimisticVersions.check(milestoneDetails.getVersion(), milestone.getVersion(), KeyMilestone.class, id);
+            
             // Update fields
             if (milestoneDetails.getName() != null) {
                 milestone.setName(milestoneDetails.getName());
@@ -114,6 +254,9 @@ public class KeyMilestoneService {
             if (milestoneDetails.getOwner() != null) {
                 milestone.setOwner(milestoneDetails.getOwner());
             }
+            if (milestoneDetails.getOwner() != null || milestoneDetails.getOwnerMemberId() != null) {
+                resolveOwner(milestone, milestoneDetails.getOwnerMemberId());
+            }
             if (milestoneDetails.getDeliverables() != null) {
                 milestone.setDeliverables(milestoneDetails.getDeliverables());
             }
@@ -136,11 +279,41 @@ public class KeyMilestoneService {
         }
     }
     
+    /**
+     * Apply a JSON Merge Patch; only the supplied fields change. The version comes from the
+     * patch or from If-Match.
+     */
+    @Transactional
+    public KeyMilestone patchMilestone(Long id, JsonNode patch, Long ifMatchVersion) {
+        progressBuffer.flush(id);
+        KeyMilestone milestone = milestoneRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Milestone not found with ID: " + id));
+        ObjectNode node = mergePatchService.toObjectNode(patch);
+        mergePatchService.checkVersion(node, ifMatchVersion, milestone.getVersion(), KeyMilestone.class, id);
+        // ownerMemberId 是只读映射，由 resolveOwner 设置关联
+        JsonNode ownerMemberId = node.remove("ownerMemberId");
+        boolean ownerPatched = node.has("owner");
+        mergePatchService.apply(milestone, node, PATCH_READ_ONLY_FIELDS);
+        if (ownerMemberId != null && !ownerMemberId.isNull()) {
+            if (!ownerMemberId.canConvertToLong()) {
+                throw new IllegalArgumentException("ownerMemberId must be null or a number");
+            }
+            resolveOwner(milestone, ownerMemberId.asLong());
+        } else if (ownerMemberId != null) {
+            milestone.setOwnerMember(null);
+        } else if (ownerPatched) {
+            resolveOwner(milestone, null);
+        }
+        return milestoneRepository.save(milestone);
+    }
+    
     /**
      * Delete a milestone
      */
+    @Transactional
     public void deleteMilestone(Long id) {
         if (milestoneRepository.existsById(id)) {
+            progressBuffer.discard(id);
             milestoneRepository.deleteById(id);
         } else {
             throw new RuntimeException("Milestone not found with ID: " + id);
@@ -151,21 +324,35 @@ public class KeyMilestoneService {
      * Get milestones by status
      */
     public List<KeyMilestone> getMilestonesByStatus(MilestoneStatus status) {
-        return milestoneRepository.findByStatus(status);
+        return getMilestonesByStatus(status, Views.Shape.FULL);
+    }
+    
+    /**
+     * Get milestones by status in the given shape
+     */
+    public List<KeyMilestone> getMilestonesByStatus(MilestoneStatus status, Views.Shape shape) {
+        return inShape(milestoneRepository.findByStatus(status), shape);
     }
     
     /**
      * Get milestones by priority
      */
     public List<KeyMilestone> getMilestonesByPriority(Priority priority) {
-        return milestoneRepository.findByPriority(priority);
+        return getMilestonesByPriority(priority, Views.Shape.FULL);
+    }
+    
+    /**
+     * Get milestones by priority in the given shape
+     */
+    public List<KeyMilestone> getMilestonesByPriority(Priority priority, Views.Shape shape) {
+        return inShape(milestoneRepository.findByPriority(priority), shape);
     }
     
     /**
      * Get overdue milestones
      */
     public List<KeyMilestone> getOverdueMilestones() {
-        return milestoneRepository.findOverdueMilestones(LocalDate.now());
+        return inShape(milestoneRepository.findOverdueMilestones(LocalDate.now()), Views.Shape.FULL);
     }
     
     /**
@@ -174,98 +361,306 @@ public class KeyMilestoneService {
     public List<KeyMilestone> getUpcomingMilestones(int days) {
         LocalDate currentDate = LocalDate.now();
         LocalDate futureDate = currentDate.plusDays(days);
-        return milestoneRepository.findUpcomingMilestones(currentDate, futureDate);
+        return inShape(milestoneRepository.findUpcomingMilestones(currentDate, futureDate), Views.Shape.FULL);
     }
     
     /**
      * Get critical milestones
      */
     public List<KeyMilestone> getCriticalMilestones() {
-        return milestoneRepository.findCriticalMilestones();
+        return inShape(milestoneRepository.findCriticalMilestones(), Views.Shape.FULL);
+    }
+    
+    /**
+     * Milestone lists for the dashboard in the summary shape: the earliest overdue, upcoming and
+     * open critical milestones, at most {@code limit} each, plus the full overdue and upcoming counts
+     */
+    public Map<String, Object> getDashboardMilestones(int upcomingDays, int limit) {
+        LocalDate currentDate = LocalDate.now();
+        LocalDate futureDate = currentDate.plusDays(upcomingDays);
+        Pageable first = PageRequest.of(0, limit);
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("overdueMilestones", milestoneRepository.findOverdueMilestones(currentDate, first));
+        result.put("overdueMilestoneCount", milestoneRepository.countOverdueMilestones(currentDate));
+        result.put("upcomingMilestones", milestoneRepository.findUpcomingMilestones(currentDate, futureDate, first));
+        result.put("upcomingMilestoneCount", milestoneRepository.countUpcomingMilestones(currentDate, futureDate));
+        result.put("criticalMilestones", milestoneRepository.findOpenCriticalMilestones(first));
+        return result;
     }
     
     /**
      * Search milestones by keyword
      */
     public List<KeyMilestone> searchMilestones(String searchTerm) {
-        return milestoneRepository.searchMilestones(searchTerm);
+        return inShape(milestoneRepository.searchMilestones(searchTerm), Views.Shape.FULL);
     }
     
     /**
-     * Get milestones by owner
+     * Get milestones by owner; an owner naming exactly one member uses the member link,
+     * anything else falls back to a substring match on the owner text
      */
     public List<KeyMilestone> getMilestonesByOwner(String owner) {
-        return milestoneRepository.findByOwnerContainingIgnoreCaseOrderByTargetDateAsc(owner);
+        return getMilestonesByOwner(owner, Views.Shape.FULL);
+    }
+    
+    /**
+     * Get milestones by owner in the given shape
+     */
+    public List<KeyMilestone> getMilestonesByOwner(String owner, Views.Shape shape) {
+        Optional<TeamMember> member = findOwnerMember(owner);
+        if (member.isPresent()) {
+            return getMilestonesByOwnerMember(member.get().getId(), shape);
+        }
+        return inShape(milestoneRepository.findByOwnerContainingIgnoreCaseOrderByTargetDateAsc(owner), shape);
+    }
+    
+    /**
+     * Get milestones owned by a team member
+     */
+    public List<KeyMilestone> getMilestonesByOwnerMember(Long memberId) {
+        return getMilestonesByOwnerMember(memberId, Views.Shape.FULL);
+    }
+    
+    /**
+     * Get milestones owned by a team member in the given shape
+     */
+    public List<KeyMilestone> getMilestonesByOwnerMember(Long memberId, Views.Shape shape) {
+        return inShape(milestoneRepository.findByOwnerMemberIdOrderByTargetDateAsc(memberId), shape);
+    }
+    
+    /**
+     * Link unlinked milestones to the member their owner text names (by name or email, ignoring case);
+     * owner texts matching no member or several members stay unlinked
+     */
+    @Transactional
+    public Map<String, Object> linkOwnersToMembers() {
+        List<String> owners = milestoneRepository.findUnlinkedOwners();
+        Map<String, List<TeamMember>> candidates = new HashMap<>();
+        for (TeamMember member : teamMemberRepository.findAll()) {
+            candidates.computeIfAbsent(member.getName().trim().toLowerCase(), k -> new ArrayList<>()).add(member);
+            if (member.getEmail() != null && !member.getEmail().equalsIgnoreCase(member.getName())) {
+                candidates.computeIfAbsent(member.getEmail().trim().toLowerCase(), k -> new ArrayList<>()).add(member);
+            }
+        }
+        // 每个成员一条 UPDATE，IN 列表按块拆分
+        Map<TeamMember, List<String>> ownersByMember = new LinkedHashMap<>();
+        int unmatched = 0;
+        for (String owner : owners) {
+            List<TeamMember> matches = candidates.getOrDefault(owner, List.of());
+            if (matches.size() == 1) {
+                ownersByMember.computeIfAbsent(matches.get(0), k -> new ArrayList<>()).add(owner);
+            } else {
+                unmatched++;
+            }
+        }
+        int linked = 0;
+        List<Long> linkedIds = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+        for (Map.Entry<TeamMember, List<String>> entry : ownersByMember.entrySet()) {
+            List<String> keys = entry.getValue();
+            for (int i = 0; i < keys.size(); i += QUERY_CHUNK) {
+                List<String> chunk = keys.subList(i, Math.min(i + QUERY_CHUNK, keys.size()));
+                linkedIds.addAll(milestoneRepository.findUnlinkedIdsByOwners(chunk));
+                linked += milestoneRepository.linkOwners(entry.getKey(), chunk, now);
+            }
+        }
+        if (linked > 0) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    progressBuffer.flush();
+                    memberWorkloadService.refreshMilestones(linkedIds);
+                }
+            });
+        }
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("ownerTexts", owners.size());
+        result.put("unmatchedOwnerTexts", unmatched);
+        result.put("linkedMilestones", linked);
+        return result;
+    }
+    
+    // 负责人优先按成员ID关联；否则按负责人文本唯一匹配成员，匹配不到时只保留文本
+    private void resolveOwner(KeyMilestone milestone, Long memberId) {
+        if (memberId != null) {
+            TeamMember member = teamMemberRepository.findById(memberId)
+                    .orElseThrow(() -> new IllegalArgumentException("Owner member not found with ID: " + memberId));
+            if (milestone.getOwner() == null || milestone.getOwner().isBlank()) {
+                milestone.setOwner(member.getName());
+            }
+            milestone.setOwnerMember(member);
+        } else {
+            milestone.setOwnerMember(findOwnerMember(milestone.getOwner()).orElse(null));
+        }
+    }
+    
+    private Optional<TeamMember> findOwnerMember(String owner) {
+        if (owner == null || owner.isBlank()) {
+            return Optional.empty();
+        }
+        List<TeamMember> matches = teamMemberRepository.findByNameOrEmailIgnoreCase(owner);
+        return matches.size() == 1 ? Optional.of(matches.get(0)) : Optional.empty();
     }
     
     /**
      * Get milestones with dependencies
      */
     public List<KeyMilestone> getMilestonesWithDependencies() {
-        return milestoneRepository.findMilestonesWithDependencies();
+        return inShape(milestoneRepository.findMilestonesWithDependencies(), Views.Shape.FULL);
     }
     
     /**
      * Get milestone statistics for a project
      */
     public Map<String, Object> getMilestoneStatistics(Long projectId) {
-        Object[] stats = milestoneRepository.getMilestoneStatistics(projectId);
-        Map<String, Object> statistics = new HashMap<>();
-        
-        if (stats != null && stats.length > 0) {
-            statistics.put("total", stats[0] != null ? ((Number) stats[0]).longValue() : 0L);
-            statistics.put("completed", stats[1] != null ? ((Number) stats[1]).longValue() : 0L);
-            statistics.put("overdue", stats[2] != null ? ((Number) stats[2]).longValue() : 0L);
-            statistics.put("avgProgress", stats[3] != null ? ((Number) stats[3]).doubleValue() : 0.0);
-        } else {
-            statistics.put("total", 0L);
-            statistics.put("completed", 0L);
-            statistics.put("overdue", 0L);
-            statistics.put("avgProgress", 0.0);
+        return getMilestoneStatistics(List.of(projectId))
+                .getOrDefault(projectId, toStatistics(0L, 0L, 0L, null));
+    }
+    
+    /**
+     * Get milestone statistics for a set of projects, keyed by project ID.
+     * Cached entries are reused; the rest come from one GROUP BY per chunk of IDs.
+     */
+    public Map<Long, Map<String, Object>> getMilestoneStatistics(Collection<Long> projectIds) {
+        Map<Long, Map<String, Object>> result = new TreeMap<>();
+        List<Long> misses = new ArrayList<>();
+        long now = System.currentTimeMillis();
+        for (Long projectId : new LinkedHashSet<>(projectIds)) {
+            CachedStatistics cached = statisticsCache.get(projectId);
+            if (cached != null && cached.expiresAt() > now) {
+                result.put(projectId, cached.statistics());
+            } else {
+                misses.add(projectId);
+            }
         }
+        if (!misses.isEmpty()) {
+            // 平均进度由数据库聚合，先写入缓冲中的进度
+            progressBuffer.flush();
+        }
+        for (int from = 0; from < misses.size(); from += QUERY_CHUNK) {
+            List<Long> chunk = misses.subList(from, Math.min(from + QUERY_CHUNK, misses.size()));
+            result.putAll(cacheStatistics(milestoneRepository.getMilestoneStatistics(chunk)));
+        }
+        return result;
+    }
+    
+    /**
+     * Get milestone statistics for every project from a single GROUP BY, refreshing the cache
+     */
+    public Map<Long, Map<String, Object>> getAllMilestoneStatistics() {
+        progressBuffer.flush();
+        return new TreeMap<>(cacheStatistics(milestoneRepository.getMilestoneStatisticsForAllProjects()));
+    }
+    
+    private Map<Long, Map<String, Object>> cacheStatistics(List<Object[]> rows) {
+        Map<Long, Map<String, Object>> statistics = new HashMap<>();
+        long expiresAt = System.currentTimeMillis() + statisticsCacheTtlMs;
+        for (Object[] row : rows) {
+            Long projectId = ((Number) row[0]).longValue();
+            Map<String, Object> projectStatistics = toStatistics(row[1], row[2], row[3], row[4]);
+            statisticsCache.put(projectId, new CachedStatistics(projectStatistics, expiresAt));
+            statistics.put(projectId, projectStatistics);
+        }
+        return statistics;
+    }
+    
+    private static Map<String, Object> toStatistics(Object total, Object completed, Object overdue, Object avgProgress) {
+        Map<String, Object> statistics = new HashMap<>();
+        long totalCount = total != null ? ((Number) total).longValue() : 0L;
+        long completedCount = completed != null ? ((Number) completed).longValue() : 0L;
+        statistics.put("total", totalCount);
+        statistics.put("completed", completedCount);
+        statistics.put("overdue", overdue != null ? ((Number) overdue).longValue() : 0L);
+        statistics.put("avgProgress", avgProgress != null ? ((Number) avgProgress).doubleValue() : 0.0);
         
         // Calculate completion rate
-        Long total = (Long) statistics.get("total");
-        Long completed = (Long) statistics.get("completed");
-        if (total > 0) {
-            statistics.put("completionRate", (completed.doubleValue() / total.doubleValue()) * 100);
+        if (totalCount > 0) {
+            statistics.put("completionRate", ((double) completedCount / totalCount) * 100);
         } else {
             statistics.put("completionRate", 0.0);
         }
-        
-        return statistics;
+        return Collections.unmodifiableMap(statistics);
     }
     
     /**
-     * Update milestone progress
+     * Update milestone progress. With write-behind enabled, a change that leaves the status
+     * as it is goes to the progress buffer and returns empty: no entity is loaded and no
+     * read-write transaction is opened. Status transitions are always written immediately.
      */
-    public KeyMilestone updateMilestoneProgress(Long id, Integer progress) {
-        Optional<KeyMilestone> optionalMilestone = milestoneRepository.findById(id);
-        if (optionalMilestone.isPresent()) {
-            KeyMilestone milestone = optionalMilestone.get();
-            milestone.setProgress(progress);
-            
-            // Auto-update status based on progress
-            if (progress >= 100) {
-                milestone.setStatus(MilestoneStatus.COMPLETED);
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Optional<KeyMilestone> updateMilestoneProgress(Long id, Integer progress) {
+        if (progress == null || progress < 0 || progress > 100) {
+            throw new IllegalArgumentException("Progress must be between 0 and 100");
+        }
+        if (progressBuffer.isEnabled()) {
+            // 已在缓冲区的里程碑沿用缓冲时的版本和状态，否则只读取这几列
+            MilestoneProgressBuffer.Pending current = progressBuffer.get(id);
+            if (current == null) {
+                current = readOnlyTemplate.execute(status -> milestoneRepository.findProgressStateById(id))
+                        .stream()
+                        .findFirst()
+                        .map(row -> new MilestoneProgressBuffer.Pending(row[0] != null ? (Integer) row[0] : 0, (Long) row[1],
+                                (MilestoneStatus) row[2], (Long) row[3]))
+                        .orElseThrow(() -> new RuntimeException("Milestone not found with ID: " + id));
+            }
+            if (statusForProgress(progress, current.status()) == current.status()) {
+                progressBuffer.buffer(id, new MilestoneProgressBuffer.Pending(progress, current.version(),
+                        current.status(), current.projectId()));
+                statisticsCache.remove(current.projectId());
+                return Optional.empty();
+            }
+        }
+        return Optional.of(writeTemplate.execute(status -> writeProgress(id, progress)));
+    }
+    
+    private KeyMilestone writeProgress(Long id, int progress) {
+        KeyMilestone milestone = milestoneRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Milestone not found with ID: " + id));
+        MilestoneStatus status = statusForProgress(progress, milestone.getStatus());
+        
+        progressBuffer.discard(id);
+        milestone.setProgress(progress);
+        if (status != milestone.getStatus()) {
+            milestone.setStatus(status);
+            // The completion date is set once, on the transition to COMPLETED
+            if (status == MilestoneStatus.COMPLETED) {
                 milestone.setActualDate(LocalDate.now());
-            } else if (progress > 0) {
-                milestone.setStatus(MilestoneStatus.IN_PROGRESS);
             }
-            
-            return milestoneRepository.save(milestone);
-        } else {
-            throw new RuntimeException("Milestone not found with ID: " + id);
         }
+        return milestoneRepository.save(milestone);
+    }
+    
+    // Auto-update status based on progress
+    private static MilestoneStatus statusForProgress(int progress, MilestoneStatus current) {
+        if (progress >= 100) {
+            return MilestoneStatus.COMPLETED;
+        }
+        return progress > 0 ? MilestoneStatus.IN_PROGRESS : current;
+    }
+    
+    /**
+     * Drop cached statistics of projects changed by set-based statements; call after commit
+     */
+    public void evictStatistics(Collection<Long> projectIds) {
+        projectIds.forEach(statisticsCache::remove);
+    }
+    
+    /**
+     * Statistics of the progress write-behind buffer
+     */
+    public Map<String, Object> getProgressBufferStatistics() {
+        return progressBuffer.getStatistics();
     }
     
     /**
      * Mark milestone as completed
      */
+    @Transactional
     public KeyMilestone completeMilestone(Long id) {
         Optional<KeyMilestone> optionalMilestone = milestoneRepository.findById(id);
         if (optionalMilestone.isPresent()) {
             KeyMilestone milestone = optionalMilestone.get();
+            progressBuffer.discard(id);
             milestone.setStatus(MilestoneStatus.COMPLETED);
             milestone.setProgress(100);
             milestone.setActualDate(LocalDate.now());
@@ -280,34 +675,62 @@ public class KeyMilestoneService {
      * Get milestones by budget range
      */
     public List<KeyMilestone> getMilestonesByBudgetRange(BigDecimal minBudget, BigDecimal maxBudget) {
-        return milestoneRepository.findByBudgetRange(minBudget, maxBudget);
+        return inShape(milestoneRepository.findByBudgetRange(minBudget, maxBudget), Views.Shape.FULL);
     }
     
     /**
      * Get milestones due within date range
      */
     public List<KeyMilestone> getMilestonesDueBetween(LocalDate startDate, LocalDate endDate) {
-        return milestoneRepository.findMilestonesDueBetween(startDate, endDate);
+        return inShape(milestoneRepository.findMilestonesDueBetween(startDate, endDate), Views.Shape.FULL);
     }
     
     /**
-     * Delete all milestones for a project
+     * Delete all milestones for a project with set-based statements, without loading them
      */
-    public void deleteMilestonesByProjectId(Long projectId) {
-        milestoneRepository.deleteByProjectId(projectId);
+    @Transactional
+    public int deleteMilestonesByProjectId(Long projectId) {
+        List<Long> projectIds = List.of(projectId);
+        List<Long> milestoneIds = milestoneRepository.findIdsByProjectIds(projectIds);
+        if (milestoneIds.isEmpty()) {
+            return 0;
+        }
+        milestoneDependencyRepository.deleteByProjectIds(projectIds);
+        int deleted = milestoneRepository.deleteByProjectIds(projectIds);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                statisticsCache.remove(projectId);
+                milestoneIds.forEach(progressBuffer::discard);
+                milestoneDependencyService.removeMilestones(milestoneIds);
+                deadlineAlertService.removeDeadlines(EntityType.MILESTONE, milestoneIds);
+                memberWorkloadService.removeMilestones(milestoneIds);
+            }
+        });
+        return deleted;
     }
     
     /**
      * Get milestones by due date range
      */
     public List<KeyMilestone> getMilestonesByDueDateRange(LocalDate startDate, LocalDate endDate) {
-        return milestoneRepository.findMilestonesDueBetween(startDate, endDate);
+        return getMilestonesByDueDateRange(startDate, endDate, Views.Shape.FULL);
+    }
+    
+    /**
+     * Get milestones by due date range in the given shape
+     */
+    public List<KeyMilestone> getMilestonesByDueDateRange(LocalDate startDate, LocalDate endDate, Views.Shape shape) {
+        return inShape(milestoneRepository.findMilestonesDueBetween(startDate, endDate), shape);
     }
     
     /**
      * Update milestone status
      */
+    @Transactional
     public KeyMilestone updateMilestoneStatus(Long id, MilestoneStatus status) {
+        // 状态变更保留已缓冲的进度
+        progressBuffer.flush(id);
         Optional<KeyMilestone> optionalMilestone = milestoneRepository.findById(id);
         if (optionalMilestone.isPresent()) {
             KeyMilestone milestone = optionalMilestone.get();
@@ -324,4 +747,113 @@ public class KeyMilestoneService {
             throw new RuntimeException("Milestone not found with ID: " + id);
         }
     }
+    
+    /**
+     * Shift target dates of all matching milestones by the given number of days in one UPDATE
+     */
+    @Transactional
+    public Map<String, Object> bulkShiftTargetDates(long days, Long projectId, Collection<MilestoneStatus> statuses,
+                                                    LocalDate from, LocalDate to) {
+        if (days == 0) {
+            throw new IllegalArgumentException("Days must not be zero");
+        }
+        Collection<MilestoneStatus> matching = bulkStatuses(projectId, statuses, from, to);
+        List<Long> ids = milestoneRepository.findBulkIds(projectId, matching, from, to);
+        int affected = milestoneRepository.shiftTargetDates(days, projectId, matching, from, to, LocalDateTime.now());
+        return bulkResult("shift-dates", affected, projectId, ids);
+    }
+    
+    /**
+     * Move all matching milestones to a status in one UPDATE; COMPLETED also sets progress and actual date
+     */
+    @Transactional
+    public Map<String, Object> bulkUpdateStatus(MilestoneStatus status, Long projectId, Collection<MilestoneStatus> statuses,
+                                                LocalDate from, LocalDate to) {
+        if (status == null) {
+            throw new IllegalArgumentException("Status is required");
+        }
+        if (status == MilestoneStatus.COMPLETED) {
+            return bulkComplete(projectId, statuses, from, to);
+        }
+        Collection<MilestoneStatus> matching = bulkStatuses(projectId, statuses, from, to);
+        List<Long> ids = milestoneRepository.findBulkIds(projectId, matching, from, to);
+        int affected = milestoneRepository.updateStatus(status, projectId, matching, from, to, LocalDateTime.now());
+        return bulkResult("status", affected, projectId, ids);
+    }
+    
+    /**
+     * Complete all matching milestones in one UPDATE
+     */
+    @Transactional
+    public Map<String, Object> bulkComplete(Long projectId, Collection<MilestoneStatus> statuses, LocalDate from, LocalDate to) {
+        Collection<MilestoneStatus> matching = bulkStatuses(projectId, statuses, from, to);
+        List<Long> ids = milestoneRepository.findBulkIds(projectId, matching, from, to);
+        int affected = milestoneRepository.completeAll(projectId, matching, from, to, LocalDate.now(), LocalDateTime.now());
+        return bulkResult("complete", affected, projectId, ids);
+    }
+    
+    // 批量操作必须至少限定项目、状态或日期之一，避免误改全部里程碑
+    private Collection<MilestoneStatus> bulkStatuses(Long projectId, Collection<MilestoneStatus> statuses,
+                                                     LocalDate from, LocalDate to) {
+        boolean anyStatus = statuses == null || statuses.isEmpty();
+        if (projectId == null && anyStatus && from == null && to == null) {
+            throw new IllegalArgumentException("A project, status or date filter is required");
+        }
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new IllegalArgumentException("From date must not be after to date");
+        }
+        return anyStatus ? EnumSet.allOf(MilestoneStatus.class) : statuses;
+    }
+    
+    // 批量 UPDATE 不触发实体事件：提交后自行清理统计缓存、进度缓冲，并按受影响的ID更新到期提醒和工作量
+    private Map<String, Object> bulkResult(String operation, int affected, Long projectId, List<Long> ids) {
+        if (affected > 0) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    if (projectId != null) {
+                        statisticsCache.remove(projectId);
+                    } else {
+                        statisticsCache.clear();
+                    }
+                    // 版本号已递增，缓冲中的旧进度在这次刷写中被丢弃
+                    progressBuffer.flush();
+                    deadlineAlertService.refreshMilestones(ids);
+                    memberWorkloadService.refreshMilestones(ids);
+                }
+            });
+        }
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("operation", operation);
+        result.put("projectId", projectId);
+        result.put("affected", affected);
+        return result;
+    }
+    
+    private class StatisticsEvictionListener extends EntityCommitListener {
+        
+        StatisticsEvictionListener() {
+            super(KeyMilestone.class, Project.class);
+        }
+        
+        @Override
+        protected void onSaved(Object entity) {
+            evict(entity);
+        }
+        
+        @Override
+        protected void onDelete(Object entity, Long id) {
+            if (entity instanceof Project) {
+                statisticsCache.remove(id);
+            } else {
+                evict(entity);
+            }
+        }
+        
+        private void evict(Object entity) {
+            if (entity instanceof KeyMilestone milestone && milestone.getProject() != null) {
+                statisticsCache.remove(milestone.getProject().getId());
+            }
+        }
+    }
 }
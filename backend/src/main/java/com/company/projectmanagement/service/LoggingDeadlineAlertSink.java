@@ -0,0 +1,20 @@
+package com.company.projectmanagement.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Writes every deadline alert to the application log
+ */
+@Component
+public class LoggingDeadlineAlertSink implements DeadlineAlertSink {
+
+    private static final Logger log = LoggerFactory.getLogger(LoggingDeadlineAlertSink.class);
+
+    @Override
+    public void publish(DeadlineAlert alert) {
+        log.info("Deadline {}: {} #{} '{}' (project {}) due {}", alert.kind(), alert.entityType(),
+                alert.entityId(), alert.label(), alert.projectId(), alert.dueDate());
+    }
+}
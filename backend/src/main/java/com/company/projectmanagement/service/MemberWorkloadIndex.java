@@ -0,0 +1,294 @@
+package com.company.projectmanagement.service;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.BitSet;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Per-member workload counts, bucketed by week (Monday).
+ * Holds open milestones by owner, open phases by the lead of their project and open risks by
+ * assignee. Milestones and risks count in the week they are due; a phase counts in every week
+ * from its planned start to its planned end (a single week when one date is missing). Every item
+ * remembers the member and weeks it was counted under, so a change moves exactly its own counts;
+ * changing a project's lead moves that project's open phases. Undated items are counted as
+ * unscheduled. Reads touch only the requested members' weeks.
+ */
+final class MemberWorkloadIndex {
+
+    enum Kind {
+        MILESTONE, PHASE, RISK
+    }
+
+    // 计入的周区间 [first, last]；无日期时两端均为 null
+    private record Item(Long memberId, LocalDate first, LocalDate last) {}
+
+    private record Phase(long projectId, LocalDate first, LocalDate last) {}
+
+    /**
+     * Counts of one member: per week, undated, and in total (a phase counts once in the total);
+     * each array is indexed by {@link Kind}
+     */
+    record Load(SortedMap<LocalDate, int[]> weeks, int[] unscheduled, int[] total) {
+
+        private Load() {
+            this(new TreeMap<>(), new int[Kind.values().length], new int[Kind.values().length]);
+        }
+
+        private boolean isEmpty() {
+            for (int count : total) {
+                if (count != 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private Load copy(LocalDate from, LocalDate until) {
+            SortedMap<LocalDate, int[]> range = new TreeMap<>();
+            weeks.subMap(from, until).forEach((week, counts) -> range.put(week, counts.clone()));
+            return new Load(range, unscheduled.clone(), total.clone());
+        }
+    }
+
+    /**
+     * Dense members × weeks counts, {@code counts[kind][member][week]}, and per member the weeks
+     * covered by at least one phase; rows follow the requested member order
+     */
+    record Capacity(int[][][] counts, BitSet[] phaseWeeks) {}
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<Kind, Map<Long, Item>> items = new EnumMap<>(Kind.class);
+
+    private final Map<Long, Load> loads = new HashMap<>();
+
+    private final Map<Long, Phase> phases = new HashMap<>();
+
+    private final Map<Long, Set<Long>> phasesByProject = new HashMap<>();
+
+    private final Map<Long, Long> leadByProject = new HashMap<>();
+
+    MemberWorkloadIndex() {
+        for (Kind kind : Kind.values()) {
+            items.put(kind, new HashMap<>());
+        }
+    }
+
+    static LocalDate weekOf(LocalDate date) {
+        return date == null ? null : date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+    }
+
+    /**
+     * Count an open milestone or risk under a member; a null member or a closed item removes it
+     */
+    void put(Kind kind, long id, Long memberId, LocalDate dueDate, boolean open) {
+        lock.writeLock().lock();
+        try {
+            LocalDate week = weekOf(dueDate);
+            move(kind, id, open ? memberId : null, week, week);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(Kind kind, long id) {
+        put(kind, id, null, null, false);
+    }
+
+    /**
+     * Track an open phase of a project; it counts for whoever leads the project
+     */
+    void putPhase(long id, long projectId, LocalDate plannedStartDate, LocalDate plannedEndDate, boolean open) {
+        lock.writeLock().lock();
+        try {
+            LocalDate start = weekOf(plannedStartDate != null ? plannedStartDate : plannedEndDate);
+            LocalDate end = weekOf(plannedEndDate != null ? plannedEndDate : plannedStartDate);
+            // 计划开始晚于计划结束的异常数据按两端互换处理
+            Phase phase = start != null && start.isAfter(end) ? new Phase(projectId, end, start) : new Phase(projectId, start, end);
+            Phase previous = open ? phases.put(id, phase) : phases.remove(id);
+            if (previous != null && (!open || previous.projectId() != projectId)) {
+                Set<Long> siblings = phasesByProject.get(previous.projectId());
+                if (siblings != null && siblings.remove(id) && siblings.isEmpty()) {
+                    phasesByProject.remove(previous.projectId());
+                }
+            }
+            if (open) {
+                phasesByProject.computeIfAbsent(projectId, k -> new HashSet<>()).add(id);
+                move(Kind.PHASE, id, leadByProject.get(projectId), phase.first(), phase.last());
+            } else {
+                move(Kind.PHASE, id, null, null, null);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void removePhase(long id) {
+        putPhase(id, -1L, null, null, false);
+    }
+
+    /**
+     * Set or clear a project's lead and move its open phases to the new lead
+     */
+    void putProjectLead(long projectId, Long memberId) {
+        lock.writeLock().lock();
+        try {
+            Long previous = memberId != null ? leadByProject.put(projectId, memberId) : leadByProject.remove(projectId);
+            if (Objects.equals(previous, memberId)) {
+                return;
+            }
+            for (Long phaseId : phasesByProject.getOrDefault(projectId, Set.of())) {
+                Phase phase = phases.get(phaseId);
+                move(Kind.PHASE, phaseId, memberId, phase.first(), phase.last());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Forget a deleted project; its phases are removed with it
+     */
+    void removeProject(long projectId) {
+        lock.writeLock().lock();
+        try {
+            leadByProject.remove(projectId);
+            Set<Long> projectPhases = phasesByProject.remove(projectId);
+            if (projectPhases != null) {
+                for (Long phaseId : projectPhases) {
+                    phases.remove(phaseId);
+                    move(Kind.PHASE, phaseId, null, null, null);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Forget a deleted member: its milestones and risks become unassigned, its projects leaderless
+     */
+    void removeMember(long memberId) {
+        lock.writeLock().lock();
+        try {
+            for (Kind kind : Kind.values()) {
+                items.get(kind).entrySet().removeIf(e -> e.getValue().memberId() == memberId);
+            }
+            leadByProject.values().removeIf(lead -> lead == memberId);
+            loads.remove(memberId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Copy of a member's counts for the weeks in [from, until); null when the member has no open work
+     */
+    Load get(long memberId, LocalDate from, LocalDate until) {
+        lock.readLock().lock();
+        try {
+            Load load = loads.get(memberId);
+            return load == null ? null : load.copy(weekOf(from), until);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Counts of the given members for {@code weeks} weeks from the week of {@code from}, read from
+     * the same week buckets as {@link #get}, and per member the weeks with at least one phase
+     */
+    Capacity capacity(long[] memberIds, LocalDate from, int weeks) {
+        LocalDate start = weekOf(from);
+        LocalDate until = start.plusWeeks(weeks);
+        int[][][] counts = new int[Kind.values().length][memberIds.length][weeks];
+        BitSet[] phaseWeeks = new BitSet[memberIds.length];
+        lock.readLock().lock();
+        try {
+            for (int m = 0; m < memberIds.length; m++) {
+                BitSet covered = new BitSet(weeks);
+                Load load = loads.get(memberIds[m]);
+                if (load != null) {
+                    for (Map.Entry<LocalDate, int[]> entry : load.weeks().subMap(start, until).entrySet()) {
+                        int w = (int) weekIndex(start, entry.getKey());
+                        for (Kind kind : Kind.values()) {
+                            counts[kind.ordinal()][m][w] = entry.getValue()[kind.ordinal()];
+                        }
+                        if (entry.getValue()[Kind.PHASE.ordinal()] > 0) {
+                            covered.set(w);
+                        }
+                    }
+                }
+                phaseWeeks[m] = covered;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return new Capacity(counts, phaseWeeks);
+    }
+
+    int memberCount() {
+        lock.readLock().lock();
+        try {
+            return loads.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    int itemCount(Kind kind) {
+        lock.readLock().lock();
+        try {
+            return items.get(kind).size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static long weekIndex(LocalDate start, LocalDate week) {
+        return Math.floorDiv(week.toEpochDay() - start.toEpochDay(), 7);
+    }
+
+    // 从原成员/周区间移出，再计入新成员/周区间；memberId 为 null 表示不再计入
+    private void move(Kind kind, long id, Long memberId, LocalDate first, LocalDate last) {
+        Map<Long, Item> byId = items.get(kind);
+        Item previous = memberId != null ? byId.put(id, new Item(memberId, first, last)) : byId.remove(id);
+        if (previous != null) {
+            count(previous.memberId(), kind, previous.first(), previous.last(), -1);
+        }
+        if (memberId != null) {
+            count(memberId, kind, first, last, 1);
+        }
+    }
+
+    private void count(long memberId, Kind kind, LocalDate first, LocalDate last, int delta) {
+        Load load = loads.computeIfAbsent(memberId, k -> new Load());
+        int index = kind.ordinal();
+        load.total()[index] += delta;
+        if (first == null) {
+            load.unscheduled()[index] += delta;
+        } else {
+            for (LocalDate week = first; !week.isAfter(last); week = week.plusWeeks(1)) {
+                int[] counts = load.weeks().computeIfAbsent(week, k -> new int[Kind.values().length]);
+                counts[index] += delta;
+                if (counts[0] == 0 && counts[1] == 0 && counts[2] == 0) {
+                    load.weeks().remove(week);
+                }
+            }
+        }
+        if (load.isEmpty()) {
+            loads.remove(memberId);
+        }
+    }
+}
@@ -0,0 +1,375 @@
+package com.company.projectmanagement.service;
+
+import com.company.projectmanagement.model.KeyMilestone;
+import com.company.projectmanagement.model.KeyMilestone.MilestoneStatus;
+import com.company.projectmanagement.model.Project;
+import com.company.projectmanagement.model.ProjectPhase;
+import com.company.projectmanagement.model.RiskIssue;
+import com.company.projectmanagement.model.RiskStatus;
+import com.company.projectmanagement.model.TeamMember;
+import com.company.projectmanagement.repository.KeyMilestoneRepository;
+import com.company.projectmanagement.repository.ProjectPhaseRepository;
+import com.company.projectmanagement.repository.ProjectRepository;
+import com.company.projectmanagement.repository.RiskIssueRepository;
+import com.company.projectmanagement.repository.TeamMemberRepository;
+import com.company.projectmanagement.repository.TeamRepository;
+import com.company.projectmanagement.service.MemberWorkloadIndex.Capacity;
+import com.company.projectmanagement.service.MemberWorkloadIndex.Kind;
+import com.company.projectmanagement.service.MemberWorkloadIndex.Load;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-member workload view: open milestones owned, open phases of the projects a member leads
+ * and open risks assigned, per week.
+ * Served from a {@link MemberWorkloadIndex} that is loaded at startup, kept current by entity
+ * writes after commit and rebuilt nightly; set-based statements report the rows they changed
+ * through {@link #refreshMilestones} and {@link #removeProjects}.
+ * The team capacity matrix is computed from the same index on every request.
+ */
+@Service
+public class MemberWorkloadService {
+
+    private static final Logger log = LoggerFactory.getLogger(MemberWorkloadService.class);
+
+    // 单次查询最多返回的周数
+    private static final int MAX_WEEKS = 104;
+
+    // IN 列表分批，单条语句的参数个数有上限
+    private static final int QUERY_CHUNK = 500;
+
+    @Autowired
+    private KeyMilestoneRepository milestoneRepository;
+
+    @Autowired
+    private ProjectPhaseRepository projectPhaseRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private RiskIssueRepository riskIssueRepository;
+
+    @Autowired
+    private TeamMemberRepository teamMemberRepository;
+
+    @Autowired
+    private TeamRepository teamRepository;
+
+    @Autowired
+    private EntityCommitListeners entityCommitListeners;
+
+    @Value("${member-workload.default-weeks:8}")
+    private int defaultWeeks;
+
+    private final ReloadableState<MemberWorkloadIndex> index = new ReloadableState<>(new MemberWorkloadIndex());
+
+    @PostConstruct
+    void registerListener() {
+        entityCommitListeners.register(new WorkloadChangeListener());
+    }
+
+    /**
+     * Load all open work into a fresh index and swap it in; changes committed during the scan
+     * are replayed into the fresh index first
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${member-workload.rebuild-cron:0 40 0 * * *}")
+    public void rebuild() {
+        MemberWorkloadIndex loaded = index.reload(() -> {
+            MemberWorkloadIndex fresh = new MemberWorkloadIndex();
+            // 先登记项目负责人，阶段加入时即可计到负责人名下
+            for (Object[] row : projectRepository.findProjectLeads()) {
+                fresh.putProjectLead(id(row[0]), id(row[1]));
+            }
+            for (Object[] row : projectPhaseRepository.findOpenWorkload()) {
+                fresh.putPhase(id(row[0]), id(row[1]), (LocalDate) row[3], (LocalDate) row[2], true);
+            }
+            for (Object[] row : milestoneRepository.findOpenOwnedWorkload()) {
+                fresh.put(Kind.MILESTONE, id(row[0]), id(row[1]), (LocalDate) row[2], true);
+            }
+            for (Object[] row : riskIssueRepository.findOpenAssignedWorkload()) {
+                fresh.put(Kind.RISK, id(row[0]), id(row[1]), (LocalDate) row[2], true);
+            }
+            return fresh;
+        });
+        log.info("Member workload index loaded for {} members", loaded.memberCount());
+    }
+
+    /**
+     * Recount milestones changed by a set-based UPDATE from their committed rows; call after commit
+     */
+    public void refreshMilestones(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        List<Long> all = new ArrayList<>(ids);
+        List<Object[]> rows = new ArrayList<>(all.size());
+        for (int i = 0; i < all.size(); i += QUERY_CHUNK) {
+            rows.addAll(milestoneRepository.findWorkloadByIds(all.subList(i, Math.min(i + QUERY_CHUNK, all.size()))));
+        }
+        index.update(current -> {
+            // 已不存在的里程碑同样移除
+            all.forEach(id -> current.remove(Kind.MILESTONE, id));
+            for (Object[] row : rows) {
+                MilestoneStatus status = (MilestoneStatus) row[3];
+                boolean open = status != MilestoneStatus.COMPLETED && status != MilestoneStatus.CANCELLED;
+                current.put(Kind.MILESTONE, id(row[0]), row[1] != null ? id(row[1]) : null, (LocalDate) row[2], open);
+            }
+        });
+    }
+
+    /**
+     * Count the open work of a project written back with plain SQL (archive restore),
+     * which fires no entity events; call after commit
+     */
+    public void addProject(Long projectId, Collection<Long> milestoneIds) {
+        List<Object[]> leads = projectRepository.findCheckpointAndLeadById(projectId);
+        List<Object[]> phases = projectPhaseRepository.findOpenWorkloadByProjectId(projectId);
+        List<Object[]> risks = riskIssueRepository.findOpenAssignedWorkloadByProjectId(projectId);
+        // 先登记负责人，阶段加入时即可计到负责人名下
+        index.update(current -> {
+            for (Object[] row : leads) {
+                current.putProjectLead(id(row[0]), row[3] != null ? id(row[3]) : null);
+            }
+            for (Object[] row : phases) {
+                current.putPhase(id(row[0]), id(row[1]), (LocalDate) row[3], (LocalDate) row[2], true);
+            }
+            for (Object[] row : risks) {
+                current.put(Kind.RISK, id(row[0]), id(row[1]), (LocalDate) row[2], true);
+            }
+        });
+        refreshMilestones(milestoneIds);
+    }
+
+    /**
+     * Forget milestones removed by a set-based DELETE; call after commit
+     */
+    public void removeMilestones(Collection<Long> milestoneIds) {
+        index.update(current -> milestoneIds.forEach(id -> current.remove(Kind.MILESTONE, id)));
+    }
+
+    /**
+     * Forget projects removed by a set-based DELETE together with their milestones and risks; call after commit
+     */
+    public void removeProjects(Collection<Long> projectIds, Collection<Long> milestoneIds, Collection<Long> riskIds) {
+        index.update(current -> {
+            projectIds.forEach(current::removeProject);
+            milestoneIds.forEach(id -> current.remove(Kind.MILESTONE, id));
+            riskIds.forEach(id -> current.remove(Kind.RISK, id));
+        });
+    }
+
+    /**
+     * Workload of one member for the given number of weeks starting with the week of {@code from}
+     */
+    public Map<String, Object> getMemberWorkload(Long memberId, LocalDate from, Integer weeks) {
+        TeamMember member = teamMemberRepository.findById(memberId)
+                .orElseThrow(() -> new RuntimeException("Team member not found with ID: " + memberId));
+        LocalDate start = MemberWorkloadIndex.weekOf(from != null ? from : LocalDate.now());
+        return toWorkload(member, start, weekCount(weeks));
+    }
+
+    /**
+     * Workload of every member of a team, same window for all
+     */
+    public Map<String, Object> getTeamWorkload(Long teamId, LocalDate from, Integer weeks) {
+        LocalDate start = MemberWorkloadIndex.weekOf(from != null ? from : LocalDate.now());
+        int count = weekCount(weeks);
+        List<Map<String, Object>> members = new ArrayList<>();
+        for (TeamMember member : teamMemberRepository.findByTeamId(teamId)) {
+            members.add(toWorkload(member, start, count));
+        }
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("teamId", teamId);
+        result.put("from", start);
+        result.put("weeks", count);
+        result.put("members", members);
+        return result;
+    }
+
+    /**
+     * Members × weeks load matrix of a team: per member and week the phases of the projects the
+     * member leads that are planned to run that week, the open milestones owned and the open
+     * risks assigned that are due that week; the same counts as the member workload endpoint.
+     * Rows are the members ordered by name.
+     */
+    public Map<String, Object> getTeamCapacity(Long teamId, LocalDate from, Integer weeks) {
+        if (!teamRepository.existsById(teamId)) {
+            throw new RuntimeException("Team not found with ID: " + teamId);
+        }
+        LocalDate start = MemberWorkloadIndex.weekOf(from != null ? from : LocalDate.now());
+        int count = weekCount(weeks);
+        List<Object[]> rows = teamMemberRepository.findNamesByTeamId(teamId);
+        long[] memberIds = new long[rows.size()];
+        for (int m = 0; m < memberIds.length; m++) {
+            memberIds[m] = id(rows.get(m)[0]);
+        }
+        Capacity capacity = index.get().capacity(memberIds, start, count);
+        int[][] phases = capacity.counts()[Kind.PHASE.ordinal()];
+        int[][] milestones = capacity.counts()[Kind.MILESTONE.ordinal()];
+        int[][] risks = capacity.counts()[Kind.RISK.ordinal()];
+
+        // 每格合计，并统计每个成员的峰值和每周的团队合计
+        int[][] load = new int[memberIds.length][count];
+        int[] weeklyLoad = new int[count];
+        List<Map<String, Object>> members = new ArrayList<>(memberIds.length);
+        for (int m = 0; m < memberIds.length; m++) {
+            int peak = 0;
+            for (int w = 0; w < count; w++) {
+                int total = phases[m][w] + milestones[m][w] + risks[m][w];
+                load[m][w] = total;
+                weeklyLoad[w] += total;
+                peak = Math.max(peak, total);
+            }
+            BitSet phaseWeeks = capacity.phaseWeeks()[m];
+            Map<String, Object> member = new LinkedHashMap<>();
+            member.put("memberId", memberIds[m]);
+            member.put("name", rows.get(m)[1]);
+            member.put("weeksWithPhases", phaseWeeks.cardinality());
+            member.put("peakLoad", peak);
+            members.add(member);
+        }
+        List<LocalDate> weekStarts = new ArrayList<>(count);
+        for (int w = 0; w < count; w++) {
+            weekStarts.add(start.plusWeeks(w));
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("teamId", teamId);
+        result.put("from", start);
+        result.put("weeks", count);
+        result.put("weekStarts", weekStarts);
+        result.put("members", members);
+        result.put("phases", phases);
+        result.put("milestones", milestones);
+        result.put("risks", risks);
+        result.put("load", load);
+        result.put("weeklyLoad", weeklyLoad);
+        return result;
+    }
+
+    public Map<String, Object> getStatistics() {
+        MemberWorkloadIndex current = index.get();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("membersWithWork", current.memberCount());
+        stats.put("openMilestones", current.itemCount(Kind.MILESTONE));
+        stats.put("phasesLed", current.itemCount(Kind.PHASE));
+        stats.put("assignedRisks", current.itemCount(Kind.RISK));
+        return stats;
+    }
+
+    private int weekCount(Integer weeks) {
+        int count = weeks != null ? weeks : defaultWeeks;
+        if (count < 1 || count > MAX_WEEKS) {
+            throw new IllegalArgumentException("Weeks must be between 1 and " + MAX_WEEKS);
+        }
+        return count;
+    }
+
+    // 窗口内每周都列出（没有工作的周计 0），另给出总数和无日期的条目数
+    private Map<String, Object> toWorkload(TeamMember member, LocalDate start, int weeks) {
+        LocalDate until = start.plusWeeks(weeks);
+        Load load = index.get().get(member.getId(), start, until);
+        List<Map<String, Object>> perWeek = new ArrayList<>(weeks);
+        for (LocalDate week = start; week.isBefore(until); week = week.plusWeeks(1)) {
+            int[] counts = load != null ? load.weeks().get(week) : null;
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("weekStart", week);
+            entry.putAll(counts(counts));
+            perWeek.add(entry);
+        }
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("memberId", member.getId());
+        result.put("name", member.getName());
+        result.put("email", member.getEmail());
+        result.put("total", counts(load != null ? load.total() : null));
+        result.put("unscheduled", counts(load != null ? load.unscheduled() : null));
+        result.put("weeks", perWeek);
+        return result;
+    }
+
+    private static Map<String, Object> counts(int[] counts) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        int milestones = counts != null ? counts[Kind.MILESTONE.ordinal()] : 0;
+        int phases = counts != null ? counts[Kind.PHASE.ordinal()] : 0;
+        int risks = counts != null ? counts[Kind.RISK.ordinal()] : 0;
+        result.put("openMilestones", milestones);
+        result.put("phasesLed", phases);
+        result.put("assignedRisks", risks);
+        result.put("total", milestones + phases + risks);
+        return result;
+    }
+
+    private static long id(Object value) {
+        return ((Number) value).longValue();
+    }
+
+    private class WorkloadChangeListener extends EntityCommitListener {
+
+        WorkloadChangeListener() {
+            super(KeyMilestone.class, ProjectPhase.class, RiskIssue.class, Project.class, TeamMember.class);
+        }
+
+        @Override
+        protected void onDelete(Object entity, Long id) {
+            if (entity instanceof KeyMilestone) {
+                index.update(current -> current.remove(Kind.MILESTONE, id));
+            } else if (entity instanceof ProjectPhase) {
+                index.update(current -> current.removePhase(id));
+            } else if (entity instanceof RiskIssue) {
+                index.update(current -> current.remove(Kind.RISK, id));
+            } else if (entity instanceof Project) {
+                index.update(current -> current.removeProject(id));
+            } else {
+                index.update(current -> current.removeMember(id));
+            }
+        }
+
+        // 已完成/已取消/已关闭的条目从索引移除，其余按最新的负责人和日期重新计数
+        // 先取出字段值：增量可能在重新加载结束时再次执行
+        @Override
+        protected void onSaved(Object entity) {
+            if (entity instanceof KeyMilestone m) {
+                boolean open = m.getStatus() != KeyMilestone.MilestoneStatus.COMPLETED
+                        && m.getStatus() != KeyMilestone.MilestoneStatus.CANCELLED;
+                long id = m.getId();
+                Long owner = m.getOwnerMemberId();
+                LocalDate due = m.getTargetDate();
+                index.update(current -> current.put(Kind.MILESTONE, id, owner, due, open));
+            } else if (entity instanceof ProjectPhase p) {
+                long id = p.getId();
+                long projectId = p.getProject().getId();
+                LocalDate start = p.getPlannedStartDate();
+                LocalDate end = p.getPlannedEndDate();
+                boolean open = p.getStatus() != ProjectPhase.PhaseStatus.COMPLETED;
+                index.update(current -> current.putPhase(id, projectId, start, end, open));
+            } else if (entity instanceof RiskIssue r) {
+                boolean open = r.getStatus() == RiskStatus.OPEN || r.getStatus() == RiskStatus.IN_PROGRESS;
+                long id = r.getId();
+                Long assignee = r.getAssignedTo() != null ? r.getAssignedTo().getId() : null;
+                LocalDate due = r.getDueDate();
+                index.update(current -> current.put(Kind.RISK, id, assignee, due, open));
+            } else if (entity instanceof Project p) {
+                long id = p.getId();
+                Long lead = p.getLead() != null ? p.getLead().getId() : null;
+                index.update(current -> current.putProjectLead(id, lead));
+            }
+        }
+    }
+}
@@ -0,0 +1,229 @@
+package com.company.projectmanagement.service;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory milestone dependency graph.
+ * An edge (milestone, dependsOn) means a slip of dependsOn slips milestone.
+ * The downstream closure of each queried milestone is cached; adding an edge
+ * extends the cached closures of the affected upstream milestones in place,
+ * removing one drops just those entries. Edges that would create a cycle are rejected.
+ */
+public class MilestoneDependencyGraph {
+
+    // dependsOn -> milestones that depend on it
+    private final Map<Long, Set<Long>> dependents = new HashMap<>();
+
+    // milestone -> milestones it depends on
+    private final Map<Long, Set<Long>> prerequisites = new HashMap<>();
+
+    private final Map<Long, Set<Long>> closureCache = new ConcurrentHashMap<>();
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final int maxCachedClosures;
+
+    private int edgeCount;
+
+    public MilestoneDependencyGraph(int maxCachedClosures) {
+        this.maxCachedClosures = maxCachedClosures;
+    }
+
+    /**
+     * Replace the whole graph; each edge is {milestoneId, dependsOnId}
+     */
+    public void load(Iterable<long[]> edges) {
+        lock.writeLock().lock();
+        try {
+            dependents.clear();
+            prerequisites.clear();
+            closureCache.clear();
+            edgeCount = 0;
+            for (long[] edge : edges) {
+                link(edge[0], edge[1]);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Add an edge; rejected with IllegalArgumentException if it would create a cycle.
+     * Returns false if the edge was already present.
+     */
+    public boolean addEdge(long milestoneId, long dependsOnId) {
+        lock.writeLock().lock();
+        try {
+            if (milestoneId == dependsOnId || downstream(milestoneId).contains(dependsOnId)) {
+                throw new IllegalArgumentException("Dependency " + milestoneId + " -> " + dependsOnId + " would create a cycle");
+            }
+            if (!link(milestoneId, dependsOnId)) {
+                return false;
+            }
+            // 新增边只会扩大 dependsOn 及其上游的影响范围：并入 milestone 及其下游
+            Set<Long> added = new HashSet<>(downstream(milestoneId));
+            added.add(milestoneId);
+            for (Long upstream : upstreamInclusive(dependsOnId)) {
+                Set<Long> cached = closureCache.get(upstream);
+                if (cached != null) {
+                    Set<Long> merged = new HashSet<>(cached);
+                    merged.addAll(added);
+                    closureCache.put(upstream, Collections.unmodifiableSet(merged));
+                }
+            }
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removeEdge(long milestoneId, long dependsOnId) {
+        lock.writeLock().lock();
+        try {
+            if (!contains(dependents, dependsOnId, milestoneId)) {
+                return;
+            }
+            // 删除边可能缩小上游的闭包，失效这些缓存（在断开前计算上游）
+            upstreamInclusive(dependsOnId).forEach(closureCache::remove);
+            unlink(milestoneId, dependsOnId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removeMilestone(long milestoneId) {
+        lock.writeLock().lock();
+        try {
+            upstreamInclusive(milestoneId).forEach(closureCache::remove);
+            for (Long dependsOnId : Set.copyOf(prerequisites.getOrDefault(milestoneId, Set.of()))) {
+                unlink(milestoneId, dependsOnId);
+            }
+            for (Long dependentId : Set.copyOf(dependents.getOrDefault(milestoneId, Set.of()))) {
+                unlink(dependentId, milestoneId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * All milestones that slip, directly or transitively, when the given milestone slips
+     */
+    public Set<Long> getImpacted(long milestoneId) {
+        lock.readLock().lock();
+        try {
+            return downstream(milestoneId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Set<Long> getDependents(long milestoneId) {
+        lock.readLock().lock();
+        try {
+            return Set.copyOf(dependents.getOrDefault(milestoneId, Set.of()));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Set<Long> getPrerequisites(long milestoneId) {
+        lock.readLock().lock();
+        try {
+            return Set.copyOf(prerequisites.getOrDefault(milestoneId, Set.of()));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Map<String, Object> getStatistics() {
+        lock.readLock().lock();
+        try {
+            Set<Long> nodes = new HashSet<>(dependents.keySet());
+            nodes.addAll(prerequisites.keySet());
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("milestones", nodes.size());
+            stats.put("edges", edgeCount);
+            stats.put("cachedClosures", closureCache.size());
+            return stats;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // 调用方需持有读锁或写锁
+    private Set<Long> downstream(long milestoneId) {
+        Set<Long> cached = closureCache.get(milestoneId);
+        if (cached != null) {
+            return cached;
+        }
+        Set<Long> closure = traverse(milestoneId, dependents);
+        closure.remove(milestoneId);
+        Set<Long> result = Collections.unmodifiableSet(closure);
+        if (closureCache.size() >= maxCachedClosures) {
+            closureCache.clear();
+        }
+        closureCache.put(milestoneId, result);
+        return result;
+    }
+
+    private Set<Long> upstreamInclusive(long milestoneId) {
+        return traverse(milestoneId, prerequisites);
+    }
+
+    private static Set<Long> traverse(long start, Map<Long, Set<Long>> edges) {
+        Set<Long> visited = new HashSet<>();
+        Deque<Long> queue = new ArrayDeque<>();
+        visited.add(start);
+        queue.add(start);
+        while (!queue.isEmpty()) {
+            for (Long next : edges.getOrDefault(queue.poll(), Set.of())) {
+                if (visited.add(next)) {
+                    queue.add(next);
+                }
+            }
+        }
+        return visited;
+    }
+
+    private boolean link(long milestoneId, long dependsOnId) {
+        boolean added = dependents.computeIfAbsent(dependsOnId, k -> new HashSet<>()).add(milestoneId);
+        prerequisites.computeIfAbsent(milestoneId, k -> new HashSet<>()).add(dependsOnId);
+        if (added) {
+            edgeCount++;
+        }
+        return added;
+    }
+
+    private void unlink(long milestoneId, long dependsOnId) {
+        if (remove(dependents, dependsOnId, milestoneId)) {
+            edgeCount--;
+        }
+        remove(prerequisites, milestoneId, dependsOnId);
+    }
+
+    private static boolean contains(Map<Long, Set<Long>> edges, long from, long to) {
+        Set<Long> targets = edges.get(from);
+        return targets != null && targets.contains(to);
+    }
+
+    private static boolean remove(Map<Long, Set<Long>> edges, long from, long to) {
+        Set<Long> targets = edges.get(from);
+        if (targets == null || !targets.remove(to)) {
+            return false;
+        }
+        if (targets.isEmpty()) {
+            edges.remove(from);
+        }
+        return true;
+    }
+}
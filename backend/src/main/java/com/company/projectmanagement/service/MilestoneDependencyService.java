@@ -0,0 +1,178 @@
+package com.company.projectmanagement.service;
+
+import com.company.projectmanagement.model.KeyMilestone;
+import com.company.projectmanagement.model.MilestoneDependency;
+import com.company.projectmanagement.repository.KeyMilestoneRepository;
+import com.company.projectmanagement.repository.MilestoneDependencyRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Keeps the in-memory {@link MilestoneDependencyGraph} in step with the
+ * milestone_dependencies table and answers impact queries from it.
+ */
+@Service
+@Transactional(readOnly = true)
+public class MilestoneDependencyService {
+
+    private static final Logger log = LoggerFactory.getLogger(MilestoneDependencyService.class);
+
+    @Autowired
+    private MilestoneDependencyRepository dependencyRepository;
+
+    @Autowired
+    private KeyMilestoneRepository milestoneRepository;
+
+    @Autowired
+    private EntityCommitListeners entityCommitListeners;
+
+    @Value("${milestone-graph.max-cached-closures:10000}")
+    private int maxCachedClosures;
+
+    private MilestoneDependencyGraph graph;
+
+    @PostConstruct
+    void init() {
+        graph = new MilestoneDependencyGraph(maxCachedClosures);
+        // 里程碑被删除（含随项目级联删除）后，从图中移除对应节点
+        entityCommitListeners.register(new MilestoneDeleteListener());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadGraph() {
+        List<long[]> edges = new ArrayList<>();
+        for (Object[] row : dependencyRepository.findAllEdges()) {
+            edges.add(new long[] {((Number) row[0]).longValue(), ((Number) row[1]).longValue()});
+        }
+        graph.load(edges);
+    }
+
+    /**
+     * Record that a milestone depends on another; rejected if it would create a cycle
+     */
+    @Transactional
+    public void addDependency(Long milestoneId, Long dependsOnId) {
+        KeyMilestone milestone = milestoneRepository.findById(milestoneId)
+                .orElseThrow(() -> new RuntimeException("Milestone not found with ID: " + milestoneId));
+        KeyMilestone dependsOn = milestoneRepository.findById(dependsOnId)
+                .orElseThrow(() -> new RuntimeException("Milestone not found with ID: " + dependsOnId));
+        if (dependencyRepository.existsByMilestoneIdAndDependsOnId(milestoneId, dependsOnId)) {
+            return;
+        }
+        // 先在内存图中加边：环检测在图的写锁内完成，事务未提交则撤回
+        // 边已在图中（并发请求刚加入）时不登记撤回，避免回滚时删掉别人的边
+        if (graph.addEdge(milestoneId, dependsOnId)) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        graph.removeEdge(milestoneId, dependsOnId);
+                    }
+                }
+            });
+        }
+        dependencyRepository.save(new MilestoneDependency(milestone, dependsOn));
+    }
+
+    @Transactional
+    public void removeDependency(Long milestoneId, Long dependsOnId) {
+        if (dependencyRepository.deleteEdge(milestoneId, dependsOnId) == 0) {
+            throw new RuntimeException("Dependency not found: " + milestoneId + " -> " + dependsOnId);
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                graph.removeEdge(milestoneId, dependsOnId);
+            }
+        });
+    }
+
+    /**
+     * Direct prerequisites and dependents of a milestone
+     */
+    public Map<String, Object> getDependencies(Long milestoneId) {
+        Map<String, Object> result = new HashMap<>();
+        result.put("milestoneId", milestoneId);
+        result.put("dependsOn", graph.getPrerequisites(milestoneId));
+        result.put("dependents", graph.getDependents(milestoneId));
+        return result;
+    }
+
+    /**
+     * Everything that slips if the given milestone slips
+     */
+    public Map<String, Object> getImpact(Long milestoneId, boolean includeMilestones) {
+        Set<Long> impacted = graph.getImpacted(milestoneId);
+        Map<String, Object> result = new HashMap<>();
+        result.put("milestoneId", milestoneId);
+        result.put("impactedCount", impacted.size());
+        result.put("impactedMilestoneIds", impacted);
+        if (includeMilestones) {
+            List<Map<String, Object>> milestones = new ArrayList<>();
+            for (KeyMilestone milestone : milestoneRepository.findAllById(impacted)) {
+                Map<String, Object> item = new HashMap<>();
+                item.put("id", milestone.getId());
+                item.put("name", milestone.getName());
+                item.put("projectId", milestone.getProject().getId());
+                item.put("targetDate", milestone.getTargetDate());
+                item.put("status", milestone.getStatus());
+                milestones.add(item);
+            }
+            result.put("milestones", milestones);
+        }
+        return result;
+    }
+
+    public Map<String, Object> getGraphStatistics() {
+        return graph.getStatistics();
+    }
+
+    /**
+     * Add edges written back with plain SQL (archive restore), which fires no entity events; call after commit.
+     * An edge that would now close a cycle is skipped.
+     */
+    public void addEdges(Collection<long[]> edges) {
+        for (long[] edge : edges) {
+            try {
+                graph.addEdge(edge[0], edge[1]);
+            } catch (IllegalArgumentException e) {
+                log.warn("Skipped milestone dependency {} -> {}: it would create a cycle", edge[0], edge[1]);
+            }
+        }
+    }
+
+    /**
+     * Drop milestones removed by a set-based DELETE, which fires no entity events; call after commit
+     */
+    public void removeMilestones(Collection<Long> milestoneIds) {
+        milestoneIds.forEach(graph::removeMilestone);
+    }
+
+    private class MilestoneDeleteListener extends EntityCommitListener {
+
+        MilestoneDeleteListener() {
+            super(KeyMilestone.class);
+        }
+
+        @Override
+        protected void onDelete(Object entity, Long id) {
+            graph.removeMilestone(id);
+        }
+    }
+}
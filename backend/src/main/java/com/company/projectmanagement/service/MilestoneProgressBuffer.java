@@ -0,0 +1,198 @@
+package com.company.projectmanagement.service;
+
+import com.company.projectmanagement.model.KeyMilestone;
+import com.company.projectmanagement.model.KeyMilestone.MilestoneStatus;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.hibernate.event.spi.PostLoadEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Write-behind buffer for milestone progress.
+ * Holds the last reported progress per milestone and writes all pending values in one JDBC
+ * batch on a short interval. Only progress changes that do not move the milestone's status
+ * are buffered; each entry carries the version it was read at, and the batched UPDATE is
+ * guarded on that version, so a value overtaken by any entity write is dropped. A flushed
+ * value bumps the version like any other write, so a client still holding the old version
+ * gets a conflict instead of silently overwriting it.
+ * Milestones loaded in read-only transactions show the buffered value, whichever query
+ * loaded them.
+ */
+@Component
+public class MilestoneProgressBuffer {
+
+    private static final Logger log = LoggerFactory.getLogger(MilestoneProgressBuffer.class);
+
+    private static final String UPDATE_SQL =
+            "UPDATE key_milestones SET progress = ?, updated_at = ?, version = version + 1 WHERE id = ? AND version = ?";
+
+    /**
+     * A buffered progress value with the version, status and project it was read with
+     */
+    public record Pending(int progress, long version, MilestoneStatus status, long projectId) {}
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityCommitListeners entityCommitListeners;
+
+    @Value("${milestone-progress.write-behind.enabled:false}")
+    private boolean enabled;
+
+    private final Map<Long, Pending> pending = new ConcurrentHashMap<>();
+
+    private final AtomicLong buffered = new AtomicLong();
+
+    private final AtomicLong written = new AtomicLong();
+
+    private final AtomicLong dropped = new AtomicLong();
+
+    private volatile LocalDateTime lastFlush;
+
+    // 刷写总在独立事务中进行：可能在提交后的回调或只读事务内被调用
+    private TransactionTemplate flushTemplate;
+
+    @PostConstruct
+    void init() {
+        flushTemplate = new TransactionTemplate(transactionManager);
+        flushTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        if (enabled) {
+            entityCommitListeners.registerPostLoad(this::showBufferedProgress);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Record the latest progress; an earlier unflushed value for the same milestone is replaced
+     */
+    public void buffer(long milestoneId, Pending entry) {
+        pending.put(milestoneId, entry);
+        buffered.incrementAndGet();
+    }
+
+    public void discard(long milestoneId) {
+        pending.remove(milestoneId);
+    }
+
+    /**
+     * Buffered entry not yet written, or null
+     */
+    public Pending get(long milestoneId) {
+        return pending.get(milestoneId);
+    }
+
+    @Scheduled(fixedDelayString = "${milestone-progress.write-behind.flush-interval-ms:2000}")
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        // 只摘取当前值：刷写期间到达的新值留在缓冲区，等下一轮
+        List<Map.Entry<Long, Pending>> taken = new ArrayList<>();
+        for (Map.Entry<Long, Pending> entry : pending.entrySet()) {
+            if (pending.remove(entry.getKey(), entry.getValue())) {
+                taken.add(Map.entry(entry.getKey(), entry.getValue()));
+            }
+        }
+        write(taken);
+    }
+
+    /**
+     * Write one milestone's buffered value now, so a version-checked write that follows sees
+     * the version it produced
+     */
+    public void flush(long milestoneId) {
+        Pending entry = pending.get(milestoneId);
+        if (entry != null && pending.remove(milestoneId, entry)) {
+            write(List.of(Map.entry(milestoneId, entry)));
+        }
+    }
+
+    private void write(List<Map.Entry<Long, Pending>> taken) {
+        if (taken.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> args = new ArrayList<>();
+        for (Map.Entry<Long, Pending> entry : taken) {
+            args.add(new Object[] {entry.getValue().progress(), now, entry.getKey(), entry.getValue().version()});
+        }
+        try {
+            int[] counts = flushTemplate.execute(status -> jdbcTemplate.batchUpdate(UPDATE_SQL, args));
+            int applied = 0;
+            for (int i = 0; i < counts.length; i++) {
+                // 部分驱动的批量执行只返回 SUCCESS_NO_INFO(-2)
+                if (counts[i] != 0) {
+                    applied++;
+                    rebase(taken.get(i).getKey(), taken.get(i).getValue().version());
+                }
+            }
+            written.addAndGet(applied);
+            dropped.addAndGet(args.size() - applied);
+            lastFlush = LocalDateTime.now();
+        } catch (RuntimeException e) {
+            // 写入失败：放回未被更新值覆盖的条目，下一轮重试
+            log.warn("Flushing {} buffered milestone progress updates failed: {}", args.size(), e.getMessage());
+            taken.forEach(entry -> pending.putIfAbsent(entry.getKey(), entry.getValue()));
+        }
+    }
+
+    // 刷写期间基于旧版本缓冲的新值改为基于刷写后的版本，否则下一轮会被当作过期值丢弃
+    private void rebase(long milestoneId, long flushedVersion) {
+        pending.computeIfPresent(milestoneId, (id, entry) -> entry.version() == flushedVersion
+                ? new Pending(entry.progress(), flushedVersion + 1, entry.status(), entry.projectId())
+                : entry);
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    // 只读事务中的实体不会被刷写，可以直接改成缓冲值；读写事务保持数据库中的值
+    private void showBufferedProgress(PostLoadEvent event) {
+        if (event.getEntity() instanceof KeyMilestone milestone && !pending.isEmpty()
+                && TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            Pending entry = pending.get(milestone.getId());
+            if (entry != null) {
+                milestone.setProgress(entry.progress());
+            }
+        }
+    }
+
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("pending", pending.size());
+        stats.put("buffered", buffered.get());
+        stats.put("written", written.get());
+        stats.put("droppedStale", dropped.get());
+        stats.put("lastFlush", lastFlush);
+        return stats;
+    }
+}
@@ -0,0 +1,52 @@
+package com.company.projectmanagement.service;
+
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+/**
+ * Version checks for updates of optimistically locked entities.
+ * The client sends back the version it read, in the request body or as an If-Match header;
+ * a missing version is rejected, a different one is a conflict.
+ */
+public final class OptimisticVersions {
+
+    private OptimisticVersions() {
+    }
+
+    /**
+     * The version in an If-Match header: 3, "3" or W/"3"; null without a header
+     */
+    public static Long fromIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank()) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.startsWith("W/")) {
+            tag = tag.substring(2);
+        }
+        if (tag.length() >= 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            tag = tag.substring(1, tag.length() - 1);
+        }
+        try {
+            return Long.valueOf(tag);
+        } catch (NumberFormatException e) {
+            // "*" 或多个实体标签无法对应到唯一版本
+            throw new IllegalArgumentException("If-Match must carry a single entity version, got: " + ifMatch);
+        }
+    }
+
+    /**
+     * The version in the body, falling back to the If-Match header
+     */
+    public static Long resolve(Long bodyVersion, String ifMatch) {
+        return bodyVersion != null ? bodyVersion : fromIfMatch(ifMatch);
+    }
+
+    public static void check(Long expected, Long current, Class<?> entityType, Object id) {
+        if (expected == null) {
+            throw new VersionRequiredException(entityType, id);
+        }
+        if (!expected.equals(current)) {
+            throw new ObjectOptimisticLockingFailureException(entityType, id);
+        }
+    }
+}
@@ -0,0 +1,229 @@
+package com.company.projectmanagement.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * Path-compressed (radix) trie from string keys to values.
+ * Edges carry whole key fragments and a node only exists where keys branch or end, so the
+ * node count stays proportional to the number of keys. Children are kept sorted by their first
+ * character; a prefix walk therefore visits keys in lexicographic order, shorter keys first,
+ * and stops as soon as enough distinct values are found. Not thread-safe.
+ */
+final class PrefixTrie<V> {
+
+    private static final String[] NO_LABELS = new String[0];
+
+    private static final Node<?>[] NO_CHILDREN = new Node<?>[0];
+
+    private static final class Node<V> {
+        char[] firsts = new char[0];
+        String[] labels = NO_LABELS;
+        @SuppressWarnings("unchecked")
+        Node<V>[] children = (Node<V>[]) NO_CHILDREN;
+        List<V> values;
+
+        int find(char c) {
+            return Arrays.binarySearch(firsts, c);
+        }
+
+        void insertChild(int at, String label, Node<V> child) {
+            int n = labels.length;
+            char[] f = new char[n + 1];
+            String[] l = new String[n + 1];
+            @SuppressWarnings("unchecked")
+            Node<V>[] c = (Node<V>[]) new Node<?>[n + 1];
+            System.arraycopy(firsts, 0, f, 0, at);
+            System.arraycopy(labels, 0, l, 0, at);
+            System.arraycopy(children, 0, c, 0, at);
+            f[at] = label.charAt(0);
+            l[at] = label;
+            c[at] = child;
+            System.arraycopy(firsts, at, f, at + 1, n - at);
+            System.arraycopy(labels, at, l, at + 1, n - at);
+            System.arraycopy(children, at, c, at + 1, n - at);
+            firsts = f;
+            labels = l;
+            children = c;
+        }
+
+        void removeChild(int at) {
+            int n = labels.length;
+            char[] f = new char[n - 1];
+            String[] l = new String[n - 1];
+            @SuppressWarnings("unchecked")
+            Node<V>[] c = (Node<V>[]) new Node<?>[n - 1];
+            System.arraycopy(firsts, 0, f, 0, at);
+            System.arraycopy(labels, 0, l, 0, at);
+            System.arraycopy(children, 0, c, 0, at);
+            System.arraycopy(firsts, at + 1, f, at, n - at - 1);
+            System.arraycopy(labels, at + 1, l, at, n - at - 1);
+            System.arraycopy(children, at + 1, c, at, n - at - 1);
+            firsts = f;
+            labels = l;
+            children = c;
+        }
+
+        boolean isEmpty() {
+            return values == null && labels.length == 0;
+        }
+    }
+
+    private final Node<V> root = new Node<>();
+
+    private int size;
+
+    private int nodes = 1;
+
+    /**
+     * Number of (key, value) pairs
+     */
+    int size() {
+        return size;
+    }
+
+    int nodeCount() {
+        return nodes;
+    }
+
+    void put(String key, V value) {
+        Node<V> node = root;
+        int i = 0;
+        while (i < key.length()) {
+            int idx = node.find(key.charAt(i));
+            if (idx < 0) {
+                Node<V> leaf = new Node<>();
+                node.insertChild(-(idx + 1), key.substring(i), leaf);
+                nodes++;
+                node = leaf;
+                i = key.length();
+                break;
+            }
+            String label = node.labels[idx];
+            int common = commonPrefix(label, key, i);
+            if (common < label.length()) {
+                // 在公共前缀处拆分边
+                Node<V> mid = new Node<>();
+                mid.insertChild(0, label.substring(common), node.children[idx]);
+                node.labels[idx] = label.substring(0, common);
+                node.children[idx] = mid;
+                nodes++;
+            }
+            node = node.children[idx];
+            i += common;
+        }
+        if (node.values == null) {
+            node.values = new ArrayList<>(1);
+        }
+        if (!node.values.contains(value)) {
+            node.values.add(value);
+            size++;
+        }
+    }
+
+    void remove(String key, V value) {
+        List<Node<V>> path = new ArrayList<>();
+        List<Integer> indexes = new ArrayList<>();
+        Node<V> node = root;
+        int i = 0;
+        while (i < key.length()) {
+            int idx = node.find(key.charAt(i));
+            if (idx < 0 || !key.startsWith(node.labels[idx], i)) {
+                return;
+            }
+            path.add(node);
+            indexes.add(idx);
+            i += node.labels[idx].length();
+            node = node.children[idx];
+        }
+        if (node.values == null || !node.values.remove(value)) {
+            return;
+        }
+        size--;
+        if (node.values.isEmpty()) {
+            node.values = null;
+        }
+        // 删除空叶子，并把只剩一个子节点的中间节点与子节点合并
+        for (int p = path.size() - 1; p >= 0; p--) {
+            Node<V> parent = path.get(p);
+            int idx = indexes.get(p);
+            Node<V> child = parent.children[idx];
+            if (child.isEmpty()) {
+                parent.removeChild(idx);
+                nodes--;
+            } else if (child.values == null && child.labels.length == 1) {
+                parent.labels[idx] = parent.labels[idx] + child.labels[0];
+                parent.children[idx] = child.children[0];
+                nodes--;
+                break;
+            } else {
+                break;
+            }
+        }
+    }
+
+    /**
+     * Up to {@code limit} distinct values whose key starts with the prefix, in key order;
+     * the consumer receives each value with the key it was found under
+     */
+    void collect(String prefix, int limit, BiConsumer<String, V> consumer) {
+        Node<V> node = root;
+        StringBuilder key = new StringBuilder(prefix.length() + 16);
+        int i = 0;
+        while (i < prefix.length()) {
+            int idx = node.find(prefix.charAt(i));
+            if (idx < 0) {
+                return;
+            }
+            String label = node.labels[idx];
+            int remaining = prefix.length() - i;
+            if (remaining <= label.length()) {
+                if (!label.startsWith(prefix.substring(i))) {
+                    return;
+                }
+            } else if (!prefix.startsWith(label, i)) {
+                return;
+            }
+            key.append(label);
+            i += label.length();
+            node = node.children[idx];
+        }
+        walk(node, key, new LinkedHashSet<>(), limit, consumer);
+    }
+
+    private boolean walk(Node<V> node, StringBuilder key, Set<V> seen, int limit, BiConsumer<String, V> consumer) {
+        if (node.values != null) {
+            for (V value : node.values) {
+                if (seen.add(value)) {
+                    consumer.accept(key.toString(), value);
+                    if (seen.size() >= limit) {
+                        return true;
+                    }
+                }
+            }
+        }
+        for (int c = 0; c < node.labels.length; c++) {
+            int length = key.length();
+            key.append(node.labels[c]);
+            boolean full = walk(node.children[c], key, seen, limit, consumer);
+            key.setLength(length);
+            if (full) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int commonPrefix(String label, String key, int offset) {
+        int max = Math.min(label.length(), key.length() - offset);
+        int n = 0;
+        while (n < max && label.charAt(n) == key.charAt(offset + n)) {
+            n++;
+        }
+        return n;
+    }
+}
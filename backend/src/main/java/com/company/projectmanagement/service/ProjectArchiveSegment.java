@@ -0,0 +1,160 @@
+package com.company.projectmanagement.service;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.sql.Blob;
+import java.sql.Clob;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.temporal.TemporalAccessor;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Cold-storage segment of one archived project.
+ * Holds the raw rows of every table the project owns, with column names and JDBC types, so a
+ * restore writes them back under their original IDs whatever the schema dialect; plus the
+ * project serialized in its full JSON view, which serves detail reads without a restore.
+ * Stored as gzip-compressed JSON.
+ */
+final class ProjectArchiveSegment {
+
+    static final int FORMAT = 1;
+
+    record TableRows(String table, List<String> columns, List<Integer> types, List<List<Object>> rows) {}
+
+    record Content(int format, JsonNode view, List<TableRows> tables, List<Long> inboundDependencyIds) {
+
+        int rowCount() {
+            return tables.stream().mapToInt(t -> t.rows().size()).sum();
+        }
+
+        TableRows table(String name) {
+            return tables.stream().filter(t -> t.table().equals(name)).findFirst()
+                    .orElse(new TableRows(name, List.of(), List.of(), List.of()));
+        }
+    }
+
+    private ProjectArchiveSegment() {
+    }
+
+    /**
+     * Read a result set into portable rows: temporals become ISO strings, LOBs are read out
+     */
+    static TableRows readRows(String table, ResultSet rs) throws SQLException {
+        ResultSetMetaData meta = rs.getMetaData();
+        List<String> columns = new ArrayList<>(meta.getColumnCount());
+        List<Integer> types = new ArrayList<>(meta.getColumnCount());
+        for (int i = 1; i <= meta.getColumnCount(); i++) {
+            columns.add(meta.getColumnLabel(i).toLowerCase());
+            types.add(meta.getColumnType(i));
+        }
+        List<List<Object>> rows = new ArrayList<>();
+        while (rs.next()) {
+            List<Object> row = new ArrayList<>(columns.size());
+            for (int i = 1; i <= columns.size(); i++) {
+                row.add(portable(rs.getObject(i)));
+            }
+            rows.add(row);
+        }
+        return new TableRows(table, columns, types, rows);
+    }
+
+    private static Object portable(Object value) throws SQLException {
+        if (value instanceof Clob clob) {
+            return clob.getSubString(1, (int) clob.length());
+        }
+        if (value instanceof Blob blob) {
+            return blob.getBytes(1, (int) blob.length());
+        }
+        if (value instanceof java.sql.Date date) {
+            return date.toLocalDate().toString();
+        }
+        if (value instanceof Timestamp timestamp) {
+            return timestamp.toLocalDateTime().toString();
+        }
+        if (value instanceof java.sql.Time || value instanceof TemporalAccessor) {
+            return value.toString();
+        }
+        return value;
+    }
+
+    /**
+     * Convert a stored value back to a JDBC parameter for a column of the given type
+     */
+    static Object toJdbc(Object value, int sqlType) {
+        if (value == null) {
+            return null;
+        }
+        switch (sqlType) {
+            case Types.DATE:
+                return java.sql.Date.valueOf(LocalDate.parse(value.toString()));
+            case Types.TIMESTAMP:
+                return Timestamp.valueOf(LocalDateTime.parse(value.toString()));
+            case Types.TIMESTAMP_WITH_TIMEZONE:
+                return OffsetDateTime.parse(value.toString());
+            case Types.BIGINT:
+                return ((Number) value).longValue();
+            case Types.INTEGER:
+            case Types.SMALLINT:
+            case Types.TINYINT:
+                return ((Number) value).intValue();
+            case Types.DECIMAL:
+            case Types.NUMERIC:
+                return new BigDecimal(value.toString());
+            case Types.DOUBLE:
+            case Types.FLOAT:
+            case Types.REAL:
+                return ((Number) value).doubleValue();
+            case Types.BOOLEAN:
+            case Types.BIT:
+                return value instanceof Number n ? n.intValue() != 0 : value;
+            case Types.BINARY:
+            case Types.VARBINARY:
+            case Types.LONGVARBINARY:
+            case Types.BLOB:
+                return value instanceof String s ? Base64.getDecoder().decode(s) : value;
+            default:
+                return value;
+        }
+    }
+
+    static byte[] encode(ObjectMapper objectMapper, Content content) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (OutputStream out = new GZIPOutputStream(bytes)) {
+            objectMapper.writeValue(out, content);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write archive segment", e);
+        }
+        return bytes.toByteArray();
+    }
+
+    static Content decode(ObjectMapper objectMapper, byte[] segment) {
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(segment))) {
+            // 小数按 BigDecimal 读回，避免经 double 损失精度
+            return objectMapper.readerFor(Content.class)
+                    .with(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS)
+                    .readValue(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read archive segment", e);
+        }
+    }
+}
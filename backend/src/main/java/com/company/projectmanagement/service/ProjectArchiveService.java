@@ -0,0 +1,378 @@
+package com.company.projectmanagement.service;
+
+import com.company.projectmanagement.model.ArchivedProject;
+import com.company.projectmanagement.model.Project;
+import com.company.projectmanagement.model.Views;
+import com.company.projectmanagement.repository.ArchivedProjectRepository;
+import com.company.projectmanagement.repository.KeyMilestoneRepository;
+import com.company.projectmanagement.repository.ProjectRepository;
+import com.company.projectmanagement.repository.TeamMemberRepository;
+import com.company.projectmanagement.repository.TeamRepository;
+import com.company.projectmanagement.service.ProjectArchiveSegment.Content;
+import com.company.projectmanagement.service.ProjectArchiveSegment.TableRows;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * Hot/cold archival of finished projects.
+ * Archiving packs a project's rows (phases, milestones, risks, dependencies) into a compressed
+ * {@link ProjectArchiveSegment}, stores it in {@code archived_projects} and removes the rows from
+ * the hot tables through the set-based delete path. Detail reads fall through to the segment's
+ * JSON view; a restore writes the rows back under their original IDs.
+ */
+@Service
+@Transactional(readOnly = true)
+public class ProjectArchiveService {
+
+    private static final Logger log = LoggerFactory.getLogger(ProjectArchiveService.class);
+
+    private static final String MILESTONES_OF_PROJECT = "SELECT id FROM key_milestones WHERE project_id = ?";
+
+    @Autowired
+    private ArchivedProjectRepository archivedProjectRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private KeyMilestoneRepository milestoneRepository;
+
+    @Autowired
+    private TeamRepository teamRepository;
+
+    @Autowired
+    private TeamMemberRepository teamMemberRepository;
+
+    @Autowired
+    private ProjectService projectService;
+
+    @Autowired
+    private KeyMilestoneService milestoneService;
+
+    @Autowired
+    private MilestoneDependencyService milestoneDependencyService;
+
+    @Autowired
+    private ProjectDependencyService projectDependencyService;
+
+    @Autowired
+    private RiskIssueService riskIssueService;
+
+    @Autowired
+    private DeadlineAlertService deadlineAlertService;
+
+    @Autowired
+    private MemberWorkloadService memberWorkloadService;
+
+    @Autowired
+    private AutocompleteService autocompleteService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${project-archive.min-age-days:365}")
+    private int minAgeDays;
+
+    private TransactionTemplate projectTemplate;
+
+    public List<ArchivedProject> getArchivedProjects() {
+        return archivedProjectRepository.findAllByOrderByArchivedAtDesc();
+    }
+
+    /**
+     * Read-through for detail views: the archived project as it was when archived
+     */
+    public Optional<Project> getArchivedProject(Long projectId) {
+        return archivedProjectRepository.findById(projectId).map(archived -> {
+            Content content = ProjectArchiveSegment.decode(objectMapper, archived.getSegment());
+            try {
+                return objectMapper.treeToValue(content.view(), Project.class);
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Archived project " + projectId + " has an unreadable view", e);
+            }
+        });
+    }
+
+    @PostConstruct
+    void init() {
+        projectTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Archive every project that is finished (all phases completed, or LIVE) and whose last
+     * phase ended more than the configured number of days ago
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @Scheduled(cron = "${project-archive.cron:-}")
+    public Map<String, Object> archiveFinishedProjects() {
+        LocalDate endedBefore = LocalDate.now().minusDays(minAgeDays);
+        List<Long> ids = projectRepository.findArchivableIds(endedBefore);
+        Map<String, Object> result = archive(ids);
+        result.put("endedBefore", endedBefore);
+        if (!ids.isEmpty()) {
+            log.info("Archived {} of {} finished projects that ended before {}",
+                    ((List<?>) result.get("archived")).size(), ids.size(), endedBefore);
+        }
+        return result;
+    }
+
+    /**
+     * Archive the given projects regardless of their phases; unknown IDs are reported as missing
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Map<String, Object> archiveProjects(Collection<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            throw new IllegalArgumentException("At least one project ID is required");
+        }
+        return archive(ids);
+    }
+
+    // 每个项目在自己的事务中归档：一个项目失败只回滚它自己，其余项目照常归档
+    private Map<String, Object> archive(Collection<Long> ids) {
+        List<Long> archived = new ArrayList<>();
+        List<Long> missing = new ArrayList<>();
+        Map<Long, String> failed = new LinkedHashMap<>();
+        long rows = 0;
+        long bytes = 0;
+        for (Long id : ids) {
+            try {
+                ArchiveOutcome outcome = projectTemplate.execute(status -> archiveOne(id));
+                if (outcome == null) {
+                    missing.add(id);
+                    continue;
+                }
+                archived.add(id);
+                rows += outcome.rows();
+                bytes += outcome.segmentBytes();
+            } catch (RuntimeException e) {
+                log.warn("Could not archive project {}", id, e);
+                failed.put(id, e.getMessage());
+            }
+        }
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("archived", archived);
+        result.put("missing", missing);
+        result.put("failed", failed);
+        result.put("rows", rows);
+        result.put("segmentBytes", bytes);
+        return result;
+    }
+
+    private record ArchiveOutcome(int rows, int segmentBytes) {}
+
+    private ArchiveOutcome archiveOne(Long id) {
+        // 完整视图的读取条数固定（项目与里程碑、风险、依赖、阶段），不随子行数量增长
+        Optional<Project> project = projectService.getProjectById(id, Views.Shape.FULL);
+        if (project.isEmpty()) {
+            return null;
+        }
+        Content content = readSegment(project.get());
+        byte[] segment = ProjectArchiveSegment.encode(objectMapper, content);
+        Long teamId = project.get().getTeam() != null ? project.get().getTeam().getId() : null;
+        archivedProjectRepository.save(new ArchivedProject(id, project.get().getProjectName(), teamId,
+                ProjectArchiveSegment.FORMAT, content.rowCount(), segment));
+        // 归档行写入后再从热表删除，同一事务内完成
+        archivedProjectRepository.flush();
+        projectService.deleteProjects(List.of(id));
+        return new ArchiveOutcome(content.rowCount(), segment.length);
+    }
+
+    private Content readSegment(Project project) {
+        long id = project.getId();
+        List<TableRows> tables = new ArrayList<>();
+        tables.add(select("projects", "SELECT * FROM projects WHERE id = ?", id));
+        tables.add(select("project_phases", "SELECT * FROM project_phases WHERE project_id = ?", id));
+        tables.add(select("key_milestones", "SELECT * FROM key_milestones WHERE project_id = ?", id));
+        tables.add(select("risks_issues", "SELECT * FROM risks_issues WHERE project_id = ?", id));
+        tables.add(select("project_dependencies", "SELECT * FROM project_dependencies WHERE project_id = ?", id));
+        tables.add(select("milestone_dependencies", "SELECT * FROM milestone_dependencies WHERE " +
+                "milestone_id IN (" + MILESTONES_OF_PROJECT + ") OR depends_on_id IN (" + MILESTONES_OF_PROJECT + ")", id, id));
+        // 其他项目对本项目的依赖在删除时断开，恢复时重新接上
+        List<Long> inbound = jdbcTemplate.queryForList(
+                "SELECT id FROM project_dependencies WHERE depends_on_project_id = ? AND project_id <> ?", Long.class, id, id);
+        try {
+            JsonNode view = objectMapper.readTree(objectMapper.writerWithView(Views.Full.class).writeValueAsBytes(project));
+            return new Content(ProjectArchiveSegment.FORMAT, view, tables, inbound);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not serialize project " + id, e);
+        }
+    }
+
+    private TableRows select(String table, String sql, Object... args) {
+        ResultSetExtractor<TableRows> extractor = rs -> ProjectArchiveSegment.readRows(table, rs);
+        return jdbcTemplate.query(sql, extractor, args);
+    }
+
+    /**
+     * Write an archived project back to the hot tables under its original IDs. References to
+     * rows deleted in the meantime (team, lead, owner, assignee, other projects' milestones) are dropped.
+     */
+    @Transactional
+    public Map<String, Object> restoreProject(Long projectId) {
+        ArchivedProject archived = archivedProjectRepository.findById(projectId)
+                .orElseThrow(() -> new RuntimeException("Archived project not found with id " + projectId));
+        if (projectRepository.existsById(projectId)) {
+            throw new IllegalStateException("Project " + projectId + " already exists in the active tables");
+        }
+        Content content = ProjectArchiveSegment.decode(objectMapper, archived.getSegment());
+
+        Map<String, Object> restored = new LinkedHashMap<>();
+        restored.put("projects", insert(nullMissing(nullMissing(content.table("projects"),
+                "team_id", teamRepository::existsById), "lead_id", teamMemberRepository::existsById)));
+        restored.put("phases", insert(content.table("project_phases")));
+        TableRows milestones = nullMissing(content.table("key_milestones"),
+                "owner_member_id", teamMemberRepository::existsById);
+        restored.put("milestones", insert(milestones));
+        restored.put("risks", insert(nullMissing(content.table("risks_issues"),
+                "assigned_to", teamMemberRepository::existsById)));
+        TableRows dependencies = nullMissing(content.table("project_dependencies"),
+                "depends_on_project_id", projectRepository::existsById);
+        restored.put("dependencies", insert(dependencies));
+        // 另一端里程碑已不存在的依赖边不再恢复
+        TableRows milestoneDependencies = dropMissing(content.table("milestone_dependencies"),
+                List.of("milestone_id", "depends_on_id"), milestoneRepository::existsById);
+        restored.put("milestoneDependencies", insert(milestoneDependencies));
+        List<long[]> projectEdges = edges(dependencies, "project_id", "depends_on_project_id");
+        int relinked = 0;
+        for (Long dependencyId : content.inboundDependencyIds()) {
+            if (jdbcTemplate.update("UPDATE project_dependencies SET depends_on_project_id = ? " +
+                    "WHERE id = ? AND depends_on_project_id IS NULL", projectId, dependencyId) > 0) {
+                relinked++;
+                Long dependentId = jdbcTemplate.queryForObject(
+                        "SELECT project_id FROM project_dependencies WHERE id = ?", Long.class, dependencyId);
+                projectEdges.add(new long[] {dependentId, projectId});
+            }
+        }
+        restored.put("relinkedDependencies", relinked);
+        archivedProjectRepository.delete(archived);
+
+        // 行是直接写回的，没有实体事件：提交后只把这个项目的行增量登记到内存索引
+        List<Long> milestoneIds = ids(milestones, "id");
+        List<long[]> milestoneEdges = edges(milestoneDependencies, "milestone_id", "depends_on_id");
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                milestoneService.evictStatistics(List.of(projectId));
+                milestoneDependencyService.addEdges(milestoneEdges);
+                projectDependencyService.addEdges(projectEdges);
+                riskIssueService.addProjectsToHeatmap(List.of(projectId));
+                deadlineAlertService.addProject(projectId, milestoneIds);
+                memberWorkloadService.addProject(projectId, milestoneIds);
+                autocompleteService.put(new AutocompleteSuggestion(AutocompleteSuggestion.Type.PROJECT,
+                        projectId, archived.getProjectName(), null));
+            }
+        });
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("projectId", projectId);
+        result.put("restored", restored);
+        return result;
+    }
+
+    private int insert(TableRows rows) {
+        if (rows.rows().isEmpty()) {
+            return 0;
+        }
+        String sql = "INSERT INTO " + rows.table() + " (" + String.join(", ", rows.columns()) + ") VALUES (" +
+                rows.columns().stream().map(c -> "?").collect(Collectors.joining(", ")) + ")";
+        jdbcTemplate.batchUpdate(sql, rows.rows(), rows.rows().size(), (ps, row) -> {
+            for (int i = 0; i < row.size(); i++) {
+                Object value = ProjectArchiveSegment.toJdbc(row.get(i), rows.types().get(i));
+                if (value == null) {
+                    ps.setNull(i + 1, rows.types().get(i));
+                } else {
+                    ps.setObject(i + 1, value);
+                }
+            }
+        });
+        return rows.rows().size();
+    }
+
+    private static List<Long> ids(TableRows rows, String column) {
+        int index = rows.columns().indexOf(column);
+        List<Long> ids = new ArrayList<>();
+        for (List<Object> row : rows.rows()) {
+            if (index >= 0 && row.get(index) != null) {
+                ids.add(((Number) row.get(index)).longValue());
+            }
+        }
+        return ids;
+    }
+
+    private static List<long[]> edges(TableRows rows, String fromColumn, String toColumn) {
+        int from = rows.columns().indexOf(fromColumn);
+        int to = rows.columns().indexOf(toColumn);
+        List<long[]> edges = new ArrayList<>();
+        for (List<Object> row : rows.rows()) {
+            if (from >= 0 && to >= 0 && row.get(from) != null && row.get(to) != null) {
+                edges.add(new long[] {((Number) row.get(from)).longValue(), ((Number) row.get(to)).longValue()});
+            }
+        }
+        return edges;
+    }
+
+    private static TableRows nullMissing(TableRows rows, String column, Predicate<Long> exists) {
+        int index = rows.columns().indexOf(column);
+        if (index < 0) {
+            return rows;
+        }
+        for (List<Object> row : rows.rows()) {
+            Object value = row.get(index);
+            if (value != null && !exists.test(((Number) value).longValue())) {
+                row.set(index, null);
+            }
+        }
+        return rows;
+    }
+
+    private static TableRows dropMissing(TableRows rows, List<String> columns, Predicate<Long> exists) {
+        List<Integer> indexes = columns.stream().map(rows.columns()::indexOf).filter(i -> i >= 0).toList();
+        rows.rows().removeIf(row -> indexes.stream()
+                .anyMatch(i -> row.get(i) == null || !exists.test(((Number) row.get(i)).longValue())));
+        return rows;
+    }
+
+    public Map<String, Object> getStatistics() {
+        Object[] summary = archivedProjectRepository.summarize().get(0);
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("archivedProjects", summary[0]);
+        stats.put("archivedRows", summary[1]);
+        stats.put("segmentBytes", summary[2]);
+        stats.put("activeProjects", projectRepository.count());
+        stats.put("minAgeDays", minAgeDays);
+        return stats;
+    }
+}
@@ -0,0 +1,8 @@
+package com.company.projectmanagement.service;
+
+/**
+ * Rows removed by {@link ProjectService#deleteProjects}, per table
+ */
+public record ProjectDeletionResult(int projects, int milestones, int milestoneDependencies, int risks,
+                                    int phases, int dependencies) {
+}
@@ -0,0 +1,305 @@
+package com.company.projectmanagement.service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntPredicate;
+
+/**
+ * In-memory graph of cross-project dependencies.
+ * An edge (project, dependsOn) means project waits on dependsOn.
+ * A topological order (upstream projects first) is maintained incrementally with the
+ * Pearce-Kelly algorithm: an insert only reorders the projects between the two endpoints,
+ * and the same bounded search detects whether the edge would close a cycle.
+ */
+public class ProjectDependencyGraph {
+
+    // dependsOn -> projects waiting on it
+    private final Map<Long, Set<Long>> dependents = new HashMap<>();
+
+    // project -> projects it waits on
+    private final Map<Long, Set<Long>> prerequisites = new HashMap<>();
+
+    // 拓扑序号：上游项目的序号总是小于下游项目
+    private final Map<Long, Integer> order = new HashMap<>();
+
+    private final TreeMap<Integer, Long> projectAt = new TreeMap<>();
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private int nextOrder;
+
+    private int edgeCount;
+
+    // 上次加载时因成环被跳过的边数
+    private int skippedEdges;
+
+    /**
+     * Replace the whole graph; each edge is {projectId, dependsOnProjectId}.
+     * Edges that would close a cycle are left out and returned.
+     */
+    public List<long[]> load(Iterable<long[]> edges) {
+        lock.writeLock().lock();
+        try {
+            dependents.clear();
+            prerequisites.clear();
+            order.clear();
+            projectAt.clear();
+            nextOrder = 0;
+            edgeCount = 0;
+            skippedEdges = 0;
+            List<long[]> skipped = new ArrayList<>();
+            for (long[] edge : edges) {
+                // 数据库中的环（如归档恢复时写回的旧依赖）不应阻止其余边加载
+                try {
+                    insert(edge[0], edge[1]);
+                } catch (IllegalArgumentException e) {
+                    skipped.add(edge);
+                }
+            }
+            skippedEdges = skipped.size();
+            return skipped;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Add an edge; rejected with IllegalArgumentException if it would create a cycle.
+     * Returns false if the edge was already present.
+     */
+    public boolean addEdge(long projectId, long dependsOnProjectId) {
+        lock.writeLock().lock();
+        try {
+            return insert(projectId, dependsOnProjectId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removeEdge(long projectId, long dependsOnProjectId) {
+        lock.writeLock().lock();
+        try {
+            // 删除边不会破坏已有的拓扑序
+            if (remove(dependents, dependsOnProjectId, projectId)) {
+                remove(prerequisites, projectId, dependsOnProjectId);
+                edgeCount--;
+                dropIfIsolated(projectId);
+                dropIfIsolated(dependsOnProjectId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removeProject(long projectId) {
+        lock.writeLock().lock();
+        try {
+            for (Long dependsOnId : List.copyOf(prerequisites.getOrDefault(projectId, Set.of()))) {
+                remove(dependents, dependsOnId, projectId);
+                edgeCount--;
+                dropIfIsolated(dependsOnId);
+            }
+            for (Long dependentId : List.copyOf(dependents.getOrDefault(projectId, Set.of()))) {
+                remove(prerequisites, dependentId, projectId);
+                edgeCount--;
+                dropIfIsolated(dependentId);
+            }
+            prerequisites.remove(projectId);
+            dependents.remove(projectId);
+            dropIfIsolated(projectId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Projects this project waits on, directly or transitively
+     */
+    public Set<Long> getUpstream(long projectId) {
+        lock.readLock().lock();
+        try {
+            return reachable(projectId, prerequisites);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Projects waiting on this project, directly or transitively
+     */
+    public Set<Long> getDownstream(long projectId) {
+        lock.readLock().lock();
+        try {
+            return reachable(projectId, dependents);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Projects with at least one cross-project dependency, upstream first,
+     * each with its level (length of the longest chain of prerequisites)
+     */
+    public Map<Long, Integer> getLevels() {
+        lock.readLock().lock();
+        try {
+            Map<Long, Integer> levels = new LinkedHashMap<>();
+            for (Long projectId : projectAt.values()) {
+                int level = 0;
+                for (Long dependsOnId : prerequisites.getOrDefault(projectId, Set.of())) {
+                    level = Math.max(level, levels.get(dependsOnId) + 1);
+                }
+                levels.put(projectId, level);
+            }
+            return levels;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<long[]> getEdges() {
+        lock.readLock().lock();
+        try {
+            List<long[]> edges = new ArrayList<>(edgeCount);
+            prerequisites.forEach((projectId, targets) ->
+                    targets.forEach(dependsOnId -> edges.add(new long[] {projectId, dependsOnId})));
+            return edges;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Map<String, Object> getStatistics() {
+        lock.readLock().lock();
+        try {
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("projects", order.size());
+            stats.put("edges", edgeCount);
+            stats.put("skippedEdges", skippedEdges);
+            return stats;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // 调用方需持有写锁
+    private boolean insert(long projectId, long dependsOnProjectId) {
+        if (projectId == dependsOnProjectId) {
+            throw new IllegalArgumentException("Project " + projectId + " cannot depend on itself");
+        }
+        Set<Long> waiting = dependents.get(dependsOnProjectId);
+        if (waiting != null && waiting.contains(projectId)) {
+            return false;
+        }
+        long upstream = dependsOnProjectId;
+        long downstream = projectId;
+        int lower = orderOf(downstream);
+        int upper = orderOf(upstream);
+        if (upper > lower) {
+            // 上游排在下游之后：只在 [lower, upper] 区间内搜索并重排
+            Set<Long> forward = search(downstream, dependents, o -> o <= upper, upstream);
+            if (forward == null) {
+                throw new IllegalArgumentException("Dependency " + projectId + " -> " + dependsOnProjectId + " would create a cycle");
+            }
+            Set<Long> backward = search(upstream, prerequisites, o -> o >= lower, null);
+            reorder(backward, forward);
+        }
+        dependents.computeIfAbsent(dependsOnProjectId, k -> new HashSet<>()).add(projectId);
+        prerequisites.computeIfAbsent(projectId, k -> new HashSet<>()).add(dependsOnProjectId);
+        edgeCount++;
+        return true;
+    }
+
+    private int orderOf(long projectId) {
+        Integer existing = order.get(projectId);
+        if (existing != null) {
+            return existing;
+        }
+        int assigned = nextOrder++;
+        order.put(projectId, assigned);
+        projectAt.put(assigned, projectId);
+        return assigned;
+    }
+
+    /**
+     * Depth-first search from start over nodes whose order satisfies the bound.
+     * Returns null if forbidden is reached (the new edge would close a cycle).
+     */
+    private Set<Long> search(long start, Map<Long, Set<Long>> edges,
+                             IntPredicate withinBound, Long forbidden) {
+        Set<Long> visited = new HashSet<>();
+        Deque<Long> stack = new ArrayDeque<>();
+        visited.add(start);
+        stack.push(start);
+        while (!stack.isEmpty()) {
+            for (Long next : edges.getOrDefault(stack.pop(), Set.of())) {
+                if (forbidden != null && next.equals(forbidden)) {
+                    return null;
+                }
+                if (withinBound.test(order.get(next)) && visited.add(next)) {
+                    stack.push(next);
+                }
+            }
+        }
+        return visited;
+    }
+
+    // 把受影响区间内的序号重新分配：上游集合整体排在下游集合之前，各自保持原有相对顺序
+    private void reorder(Set<Long> backward, Set<Long> forward) {
+        Comparator<Long> byOrder = Comparator.comparingInt(order::get);
+        List<Long> projects = new ArrayList<>(backward.size() + forward.size());
+        backward.stream().sorted(byOrder).forEach(projects::add);
+        forward.stream().sorted(byOrder).forEach(projects::add);
+        List<Integer> slots = projects.stream().map(order::get).sorted().toList();
+        for (int i = 0; i < projects.size(); i++) {
+            Long projectId = projects.get(i);
+            int slot = slots.get(i);
+            order.put(projectId, slot);
+            projectAt.put(slot, projectId);
+        }
+    }
+
+    private void dropIfIsolated(long projectId) {
+        if (!dependents.containsKey(projectId) && !prerequisites.containsKey(projectId)) {
+            Integer slot = order.remove(projectId);
+            if (slot != null) {
+                projectAt.remove(slot);
+            }
+        }
+    }
+
+    private static Set<Long> reachable(long start, Map<Long, Set<Long>> edges) {
+        Set<Long> visited = new HashSet<>();
+        Deque<Long> queue = new ArrayDeque<>();
+        queue.add(start);
+        while (!queue.isEmpty()) {
+            for (Long next : edges.getOrDefault(queue.poll(), Set.of())) {
+                if (next != start && visited.add(next)) {
+                    queue.add(next);
+                }
+            }
+        }
+        return visited;
+    }
+
+    private static boolean remove(Map<Long, Set<Long>> edges, long from, long to) {
+        Set<Long> targets = edges.get(from);
+        if (targets == null || !targets.remove(to)) {
+            return false;
+        }
+        if (targets.isEmpty()) {
+            edges.remove(from);
+        }
+        return true;
+    }
+}
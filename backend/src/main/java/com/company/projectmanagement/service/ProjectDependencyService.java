@@ -0,0 +1,255 @@
+package com.company.projectmanagement.service;
+
+import com.company.projectmanagement.model.Project;
+import com.company.projectmanagement.model.ProjectDependency;
+import com.company.projectmanagement.repository.ProjectDependencyRepository;
+import com.company.projectmanagement.repository.ProjectRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Cross-project dependencies: CRUD on project_dependencies, with the project-to-project
+ * edges mirrored in a {@link ProjectDependencyGraph} for cycle checks and reachability queries.
+ */
+@Service
+@Transactional(readOnly = true)
+public class ProjectDependencyService {
+
+    private static final Logger log = LoggerFactory.getLogger(ProjectDependencyService.class);
+
+    @Autowired
+    private ProjectDependencyRepository dependencyRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private EntityCommitListeners entityCommitListeners;
+
+    private final ProjectDependencyGraph graph = new ProjectDependencyGraph();
+
+    @PostConstruct
+    void registerListener() {
+        // 项目被删除后，从图中移除对应节点（其他项目指向它的依赖在数据库中被置空）
+        entityCommitListeners.register(new ProjectDeleteListener());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadGraph() {
+        List<long[]> edges = new ArrayList<>();
+        for (Object[] row : dependencyRepository.findProjectEdges()) {
+            edges.add(new long[] {((Number) row[0]).longValue(), ((Number) row[1]).longValue()});
+        }
+        for (long[] edge : graph.load(edges)) {
+            log.warn("Skipped project dependency {} -> {}: it would create a cycle", edge[0], edge[1]);
+        }
+    }
+
+    public List<ProjectDependency> getDependenciesByProjectId(Long projectId) {
+        return dependencyRepository.findByProjectId(projectId);
+    }
+
+    public ProjectDependency getDependencyById(Long id) {
+        return dependencyRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Project dependency not found with id " + id));
+    }
+
+    @Transactional
+    public ProjectDependency createDependency(Long projectId, ProjectDependency dependency) {
+        Project project = projectRepository.findById(projectId)
+                .orElseThrow(() -> new RuntimeException("Project not found with id " + projectId));
+        dependency.setId(null);
+        dependency.setProject(project);
+        dependency.setDependsOnProject(resolveTarget(dependency.getDependsOnProjectId()));
+        linkInGraph(projectId, dependency.getDependsOnProjectId());
+        return dependencyRepository.save(dependency);
+    }
+
+    @Transactional
+    public ProjectDependency updateDependency(Long id, ProjectDependency details) {
+        ProjectDependency dependency = getDependencyById(id);
+        Long projectId = dependency.getProject().getId();
+        Long oldTarget = dependency.getDependsOnProjectId();
+        Long newTarget = details.getDependsOnProjectId();
+
+        dependency.setDependencyName(details.getDependencyName());
+        dependency.setDependencyType(details.getDependencyType());
+        dependency.setDescription(details.getDescription());
+        dependency.setTimeline(details.getTimeline());
+        dependency.setStatus(details.getStatus());
+        dependency.setContactPerson(details.getContactPerson());
+        if (!Objects.equals(oldTarget, newTarget)) {
+            dependency.setDependsOnProject(resolveTarget(newTarget));
+            linkInGraph(projectId, newTarget);
+        }
+        ProjectDependency saved = dependencyRepository.save(dependency);
+        if (!Objects.equals(oldTarget, newTarget)) {
+            unlinkInGraph(projectId, oldTarget);
+        }
+        return saved;
+    }
+
+    @Transactional
+    public void deleteDependency(Long id) {
+        ProjectDependency dependency = getDependencyById(id);
+        dependencyRepository.delete(dependency);
+        unlinkInGraph(dependency.getProject().getId(), dependency.getDependsOnProjectId());
+    }
+
+    /**
+     * Projects the given project waits on, directly or transitively
+     */
+    public Map<String, Object> getUpstream(Long projectId) {
+        Set<Long> upstream = graph.getUpstream(projectId);
+        Map<String, Object> result = new HashMap<>();
+        result.put("projectId", projectId);
+        result.put("count", upstream.size());
+        result.put("projects", summarize(upstream));
+        return result;
+    }
+
+    /**
+     * Projects waiting on the given project, directly or transitively
+     */
+    public Map<String, Object> getDownstream(Long projectId) {
+        Set<Long> downstream = graph.getDownstream(projectId);
+        Map<String, Object> result = new HashMap<>();
+        result.put("projectId", projectId);
+        result.put("count", downstream.size());
+        result.put("projects", summarize(downstream));
+        return result;
+    }
+
+    /**
+     * Portfolio dependency view: projects in topological order with their level, plus all edges
+     */
+    public Map<String, Object> getDependencyGraph() {
+        Map<Long, Integer> levels = graph.getLevels();
+        Map<Long, Project> projects = projectRepository.findAllById(levels.keySet()).stream()
+                .collect(Collectors.toMap(Project::getId, Function.identity()));
+
+        List<Map<String, Object>> nodes = new ArrayList<>();
+        levels.forEach((projectId, level) -> {
+            Project project = projects.get(projectId);
+            if (project != null) {
+                Map<String, Object> node = summary(project);
+                node.put("level", level);
+                nodes.add(node);
+            }
+        });
+        List<Map<String, Object>> edges = graph.getEdges().stream().map(edge -> {
+            Map<String, Object> item = new HashMap<>();
+            item.put("projectId", edge[0]);
+            item.put("dependsOnProjectId", edge[1]);
+            return item;
+        }).collect(Collectors.toList());
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("nodes", nodes);
+        result.put("edges", edges);
+        result.put("statistics", graph.getStatistics());
+        return result;
+    }
+
+    /**
+     * Add edges written back with plain SQL (archive restore), which fires no entity events; call after commit.
+     * An edge that would now close a cycle is skipped, as on a full load.
+     */
+    public void addEdges(Collection<long[]> edges) {
+        for (long[] edge : edges) {
+            try {
+                graph.addEdge(edge[0], edge[1]);
+            } catch (IllegalArgumentException e) {
+                log.warn("Skipped project dependency {} -> {}: it would create a cycle", edge[0], edge[1]);
+            }
+        }
+    }
+
+    /**
+     * Drop projects removed by a set-based DELETE, which fires no entity events; call after commit
+     */
+    public void removeProjects(Collection<Long> projectIds) {
+        projectIds.forEach(graph::removeProject);
+    }
+
+    private Project resolveTarget(Long dependsOnProjectId) {
+        if (dependsOnProjectId == null) {
+            return null;
+        }
+        return projectRepository.findById(dependsOnProjectId)
+                .orElseThrow(() -> new RuntimeException("Project not found with id " + dependsOnProjectId));
+    }
+
+    // 先在内存图中加边：环检测在图的写锁内完成，事务未提交则撤回
+    private void linkInGraph(Long projectId, Long dependsOnProjectId) {
+        if (dependsOnProjectId == null || !graph.addEdge(projectId, dependsOnProjectId)) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    graph.removeEdge(projectId, dependsOnProjectId);
+                }
+            }
+        });
+    }
+
+    // 同一对项目之间可能有多条依赖记录，最后一条删除后才移除图中的边
+    private void unlinkInGraph(Long projectId, Long dependsOnProjectId) {
+        if (dependsOnProjectId == null || dependencyRepository.existsEdge(projectId, dependsOnProjectId)) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                graph.removeEdge(projectId, dependsOnProjectId);
+            }
+        });
+    }
+
+    private List<Map<String, Object>> summarize(Collection<Long> projectIds) {
+        return projectRepository.findAllById(projectIds).stream()
+                .map(this::summary)
+                .collect(Collectors.toList());
+    }
+
+    private Map<String, Object> summary(Project project) {
+        Map<String, Object> item = new HashMap<>();
+        item.put("id", project.getId());
+        item.put("projectName", project.getProjectName());
+        item.put("status", project.getItProjectStatus());
+        item.put("goLiveDate", project.getGoLiveDate());
+        return item;
+    }
+
+    private class ProjectDeleteListener extends EntityCommitListener {
+
+        ProjectDeleteListener() {
+            super(Project.class);
+        }
+
+        @Override
+        protected void onDelete(Object entity, Long id) {
+            graph.removeProject(id);
+        }
+    }
+}
@@ -1,19 +1,35 @@
 package com.company.projectmanagement.service;
 
+import com.company.projectmanagement.model.Project;
 import com.company.projectmanagement.model.ProjectPhase;
 import com.company.projectmanagement.repository.ProjectPhaseRepository;
+import com.company.projectmanagement.repository.ProjectRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
+@Transactional(readOnly = true)
 public class ProjectPhaseService {
 
+    // Fields a merge patch may not touch; moving a phase to another project is not supported
+    private static final Set<String> PATCH_READ_ONLY_FIELDS = Set.of("id", "project", "createdAt", "updatedAt");
+
     @Autowired
     private ProjectPhaseRepository projectPhaseRepository;
 
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private JsonMergePatchService mergePatchService;
+
     public List<ProjectPhase> getAllProjectPhases() {
         return projectPhaseRepository.findAll();
     }
@@ -26,15 +42,28 @@ public class ProjectPhaseService {
         return projectPhaseRepository.findByProjectIdOrderByPhaseName(projectId);
     }
 
+    @Transactional
     public ProjectPhase createProjectPhase(ProjectPhase projectPhase) {
+        // Resolve the project reference so a bare {"id": ...} from the client is not treated as a detached entity
+        if (projectPhase.getProject() != null && projectPhase.getProject().getId() != null) {
+            Project project = projectRepository.findById(projectPhase.getProject().getId())
+                    .orElseThrow(() -> new RuntimeException("Project not found with ID: " + projectPhase.getProject().getId()));
+            projectPhase.setProject(project);
+        } else {
+            throw new RuntimeException("Project ID is required for phase creation");
+        }
         return projectPhaseRepository.save(projectPhase);
     }
 
+    @Transactional
     public ProjectPhase updateProjectPhase(Long id, ProjectPhase projectPhaseDetails) {
         Optional<ProjectPhase> optionalProjectPhase = projectPhaseRepository.findById(id);
         if (optionalProjectPhase.isPresent()) {
             ProjectPhase projectPhase = optionalProjectPhase.get();
             
+            // Reject stale updates: the client must send back the version it read
+            OptimisticVersions.check(projectPhaseDetails.getVersion(), projectPhase.getVersion(), ProjectPhase.class, id);
+            
             // Update fields
             if (projectPhaseDetails.getPhaseName() != null) {
                 projectPhase.setPhaseName(projectPhaseDetails.getPhaseName());
@@ -73,6 +102,21 @@ public class ProjectPhaseService {
         }
     }
 
+    /**
+     * Apply a JSON Merge Patch; only the supplied fields change. The version comes from the
+     * patch or from If-Match.
+     */
+    @Transactional
+    public ProjectPhase patchProjectPhase(Long id, JsonNode patch, Long ifMatchVersion) {
+        ProjectPhase projectPhase = projectPhaseRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("ProjectPhase not found with id: " + id));
+        ObjectNode node = mergePatchService.toObjectNode(patch);
+        mergePatchService.checkVersion(node, ifMatchVersion, projectPhase.getVersion(), ProjectPhase.class, id);
+        mergePatchService.apply(projectPhase, node, PATCH_READ_ONLY_FIELDS);
+        return projectPhaseRepository.save(projectPhase);
+    }
+
+    @Transactional
     public void deleteProjectPhase(Long id) {
         if (projectPhaseRepository.existsById(id)) {
             projectPhaseRepository.deleteById(id);
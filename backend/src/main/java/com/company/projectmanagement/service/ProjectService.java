@@ -4,19 +4,50 @@ import com.company.projectmanagement.model.Project;
 import com.company.projectmanagement.model.ProjectPhase;
 import com.company.projectmanagement.model.KeyMilestone;
 import com.company.projectmanagement.model.ProjectStatus;
+import com.company.projectmanagement.model.Team;
+import com.company.projectmanagement.model.TeamMember;
+import com.company.projectmanagement.model.Views;
+import com.company.projectmanagement.repository.KeyMilestoneRepository;
+import com.company.projectmanagement.repository.MilestoneDependencyRepository;
+import com.company.projectmanagement.repository.ProjectDependencyRepository;
+import com.company.projectmanagement.repository.ProjectPhaseRepository;
 import com.company.projectmanagement.repository.ProjectRepository;
+import com.company.projectmanagement.repository.RiskIssueRepository;
+import com.company.projectmanagement.repository.TeamMemberRepository;
+import com.company.projectmanagement.repository.TeamRepository;
+import com.company.projectmanagement.service.DeadlineAlert.EntityType;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.hibernate.Hibernate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.Map;
 import java.util.HashMap;
 
 @Service
+@Transactional(readOnly = true)
 public class ProjectService {
     
+    private static final Logger log = LoggerFactory.getLogger(ProjectService.class);
+    
+    // PATCH 不允许修改的字段：主键、审计时间和子集合
+    private static final Set<String> PATCH_READ_ONLY_FIELDS = Set.of(
+            "id", "createdAt", "updatedAt", "keyMilestones", "risksIssues", "projectDependencies", "projectPhases");
+    
     @Autowired
     private ProjectRepository projectRepository;
     
@@ -26,21 +57,109 @@ public class ProjectService {
     @Autowired
     private KeyMilestoneService milestoneService;
     
+    @Autowired
+    private TeamRepository teamRepository;
+    
+    @Autowired
+    private TeamMemberRepository teamMemberRepository;
+    
+    @Autowired
+    private JsonMergePatchService mergePatchService;
+    
+    @Autowired
+    private KeyMilestoneRepository milestoneRepository;
+    
+    @Autowired
+    private MilestoneDependencyRepository milestoneDependencyRepository;
+    
+    @Autowired
+    private RiskIssueRepository riskIssueRepository;
+    
+    @Autowired
+    private ProjectDependencyRepository projectDependencyRepository;
+    
+    @Autowired
+    private ProjectPhaseRepository projectPhaseRepository;
+    
+    @Autowired
+    private MilestoneDependencyService milestoneDependencyService;
+    
+    @Autowired
+    private ProjectDependencyService projectDependencyService;
+    
+    @Autowired
+    private RiskIssueService riskIssueService;
+    
+    @Autowired
+    private DeadlineAlertService deadlineAlertService;
+    
+    @Autowired
+    private MemberWorkloadService memberWorkloadService;
+    
+    @Autowired
+    private AutocompleteService autocompleteService;
+    
+    private static final int DELETE_CHUNK = 500;
+    
     public List<Project> getAllProjects() {
-        return projectRepository.findAll();
+        return getAllProjects(Views.Shape.FULL);
+    }
+    
+    // 按返回形态选择抓取计划，摘要不加载里程碑，完整视图另加全部子集合
+    public List<Project> getAllProjects(Views.Shape shape) {
+        if (shape == Views.Shape.SUMMARY) {
+            return projectRepository.findAllForSummary();
+        }
+        return withCollections(projectRepository.findAllForList(), shape);
     }
     
     public Optional<Project> getProjectById(Long id) {
-        return projectRepository.findById(id);
+        return getProjectById(id, Views.Shape.FULL);
+    }
+    
+    public Optional<Project> getProjectById(Long id, Views.Shape shape) {
+        if (shape == Views.Shape.SUMMARY) {
+            return projectRepository.findSummaryById(id);
+        }
+        Optional<Project> project = projectRepository.findDetailById(id);
+        if (shape == Views.Shape.FULL) {
+            project.ifPresent(p -> initializeFullCollections(List.of(p)));
+        }
+        return project;
     }
     
+    // 完整视图需要全部子集合，在事务内初始化，避免序列化时再懒加载（关闭 OSIV 后未初始化的集合会输出为 null）。
+    // 先按实体图带大文本字段查出风险条目，集合初始化时复用这些已托管实体，避免逐条加载延迟属性；
+    // 集合按 @BatchSize 成批初始化，查询条数不随项目数线性增长
+    private List<Project> withCollections(List<Project> projects, Views.Shape shape) {
+        if (shape == Views.Shape.FULL) {
+            initializeFullCollections(projects);
+        }
+        return projects;
+    }
+    
+    private void initializeFullCollections(List<Project> projects) {
+        for (List<Long> chunk : chunks(projects.stream().map(Project::getId).toList())) {
+            riskIssueRepository.findByProjectIdIn(chunk);
+        }
+        for (Project p : projects) {
+            Hibernate.initialize(p.getRisksIssues());
+            Hibernate.initialize(p.getProjectDependencies());
+            Hibernate.initialize(p.getProjectPhases());
+        }
+    }
+    
+    @Transactional
     public Project saveProject(Project project) {
         return projectRepository.save(project);
     }
     
+    @Transactional
     public Project updateProject(Long id, Project projectDetails) {
         return projectRepository.findById(id)
                 .map(project -> {
+                    // 客户端带回的版本与当前版本不一致，说明读取后已被他人修改
+                    OptimisticVersions.check(projectDetails.getVersion(), project.getVersion(), Project.class, id);
                     project.setProjectName(projectDetails.getProjectName());
                     project.setDaRecord(projectDetails.getDaRecord());
                     project.setTeam(projectDetails.getTeam());
@@ -62,12 +181,107 @@ public class ProjectService {
                 .orElseThrow(() -> new RuntimeException("Project not found with id " + id));
     }
     
+    // JSON Merge Patch：只修改请求中出现的字段，配合 @DynamicUpdate 只更新变化的列；版本取自补丁或 If-Match
+    @Transactional
+    public Project patchProject(Long id, JsonNode patch, Long ifMatchVersion) {
+        Project project = projectRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Project not found with id " + id));
+        ObjectNode node = mergePatchService.toObjectNode(patch);
+        mergePatchService.checkVersion(node, ifMatchVersion, project.getVersion(), Project.class, id);
+        
+        JsonMergePatchService.PatchedReference<Team> team = mergePatchService.reference(node, "team", teamRepository);
+        if (team.present()) {
+            project.setTeam(team.value());
+        }
+        JsonMergePatchService.PatchedReference<TeamMember> lead = mergePatchService.reference(node, "lead", teamMemberRepository);
+        if (lead.present()) {
+            project.setLead(lead.value());
+        }
+        
+        mergePatchService.apply(project, node, PATCH_READ_ONLY_FIELDS);
+        return projectRepository.save(project);
+    }
+    
+    @Transactional
     public void deleteProject(Long id) {
-        projectRepository.deleteById(id);
+        if (deleteProjects(List.of(id)).projects() == 0) {
+            throw new RuntimeException("Project not found with id " + id);
+        }
+    }
+    
+    /**
+     * Delete projects and all their children with set-based DELETE statements. Nothing is
+     * loaded into the persistence context, so the cost does not grow with the child graph;
+     * the in-memory indexes normally fed by entity events are updated after commit.
+     */
+    @Transactional
+    public ProjectDeletionResult deleteProjects(Collection<Long> ids) {
+        Set<Long> projectIds = new LinkedHashSet<>(ids);
+        projectIds.remove(null);
+        if (projectIds.isEmpty()) {
+            throw new IllegalArgumentException("At least one project ID is required");
+        }
+        List<Long> milestoneIds = new ArrayList<>();
+        List<Long> phaseIds = new ArrayList<>();
+        List<Long> riskIds = new ArrayList<>();
+        int projects = 0;
+        int milestones = 0;
+        int milestoneDependencies = 0;
+        int risks = 0;
+        int phases = 0;
+        int dependencies = 0;
+        for (List<Long> chunk : chunks(projectIds)) {
+            // 先记下子行ID，提交后按ID更新内存索引
+            milestoneIds.addAll(milestoneRepository.findIdsByProjectIds(chunk));
+            phaseIds.addAll(projectPhaseRepository.findIdsByProjectIds(chunk));
+            riskIds.addAll(riskIssueRepository.findIdsByProjectIds(chunk));
+            // 先删子表，再删项目行
+            milestoneDependencies += milestoneDependencyRepository.deleteByProjectIds(chunk);
+            milestones += milestoneRepository.deleteByProjectIds(chunk);
+            risks += riskIssueRepository.deleteByProjectIds(chunk);
+            projectDependencyRepository.detachFromProjects(chunk);
+            dependencies += projectDependencyRepository.deleteByProjectIds(chunk);
+            phases += projectPhaseRepository.deleteByProjectIds(chunk);
+            projects += projectRepository.deleteByIds(chunk);
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                milestoneService.evictStatistics(projectIds);
+                milestoneDependencyService.removeMilestones(milestoneIds);
+                projectDependencyService.removeProjects(projectIds);
+                riskIssueService.removeProjectsFromHeatmap(projectIds);
+                deadlineAlertService.removeDeadlines(EntityType.MILESTONE, milestoneIds);
+                deadlineAlertService.removeDeadlines(EntityType.PHASE, phaseIds);
+                deadlineAlertService.removeDeadlines(EntityType.RISK, riskIds);
+                deadlineAlertService.removeDeadlines(EntityType.PROJECT_CHECKPOINT, projectIds);
+                memberWorkloadService.removeProjects(projectIds, milestoneIds, riskIds);
+                projectIds.forEach(id -> autocompleteService.remove(AutocompleteSuggestion.Type.PROJECT, id));
+            }
+        });
+        return new ProjectDeletionResult(projects, milestones, milestoneDependencies, risks, phases, dependencies);
+    }
+    
+    // IN 列表分批，单条语句的参数个数有上限
+    private static List<List<Long>> chunks(Collection<Long> ids) {
+        List<Long> all = new ArrayList<>(ids);
+        List<List<Long>> chunks = new ArrayList<>();
+        for (int i = 0; i < all.size(); i += DELETE_CHUNK) {
+            chunks.add(all.subList(i, Math.min(i + DELETE_CHUNK, all.size())));
+        }
+        return chunks;
     }
     
     public List<Project> getProjectsByStatus(ProjectStatus status) {
-        return projectRepository.findByItProjectStatus(status);
+        return getProjectsByStatus(status, Views.Shape.FULL);
+    }
+    
+    // 与 getAllProjects 相同：摘要不加载里程碑，详情带里程碑，完整视图另加全部子集合
+    public List<Project> getProjectsByStatus(ProjectStatus status, Views.Shape shape) {
+        if (shape == Views.Shape.SUMMARY) {
+            return projectRepository.findSummaryByItProjectStatus(status);
+        }
+        return withCollections(projectRepository.findByItProjectStatus(status), shape);
     }
     
     public List<Project> getProjectsByTeam(Long teamId) {
@@ -88,13 +302,24 @@ public class ProjectService {
     }
     
     public List<Project> searchProjectsByName(String projectName) {
-        return projectRepository.findByProjectNameContainingIgnoreCase(projectName);
+        return searchProjectsByName(projectName, Views.Shape.FULL);
+    }
+    
+    public List<Project> searchProjectsByName(String projectName, Views.Shape shape) {
+        if (shape == Views.Shape.SUMMARY) {
+            return projectRepository.findSummaryByProjectNameContaining(projectName);
+        }
+        return withCollections(projectRepository.findByProjectNameContainingIgnoreCase(projectName), shape);
     }
     
     public List<Project> getProjectsInDateRange(LocalDate startDate, LocalDate endDate) {
         return projectRepository.findByNextCheckDateBetween(startDate, endDate);
     }
     
+    /**
+     * Copy a project with its phases and milestones in one transaction; any failure rolls back the whole copy
+     */
+    @Transactional
     public Project copyProject(Long originalProjectId) {
         // 获取原项目
         Project originalProject = projectRepository.findById(originalProjectId)
@@ -123,69 +348,72 @@ public class ProjectService {
         Project savedProject = projectRepository.save(copiedProject);
         
         // 复制项目阶段
-        try {
-            List<ProjectPhase> originalPhases = projectPhaseService.getProjectPhasesByProjectId(originalProjectId);
-            for (ProjectPhase originalPhase : originalPhases) {
-                ProjectPhase copiedPhase = new ProjectPhase();
-                copiedPhase.setProject(savedProject);
-                copiedPhase.setPhaseName(originalPhase.getPhaseName());
-                copiedPhase.setStartDate(originalPhase.getStartDate());
-                copiedPhase.setEndDate(originalPhase.getEndDate());
-                copiedPhase.setPlannedStartDate(originalPhase.getPlannedStartDate());
-                copiedPhase.setPlannedEndDate(originalPhase.getPlannedEndDate());
-                copiedPhase.setStatus(ProjectPhase.PhaseStatus.NOT_STARTED); // 重置状态
-                copiedPhase.setProgressPercentage(java.math.BigDecimal.ZERO); // 重置进度
-                copiedPhase.setIsCompleted(false); // 重置完成状态
-                copiedPhase.setIsOverdue(false); // 重置逾期状态
-                copiedPhase.setDescription(originalPhase.getDescription());
-                
-                projectPhaseService.createProjectPhase(copiedPhase);
-            }
-        } catch (Exception e) {
-            System.err.println("Error copying project phases: " + e.getMessage());
+        List<ProjectPhase> originalPhases = projectPhaseService.getProjectPhasesByProjectId(originalProjectId);
+        for (ProjectPhase originalPhase : originalPhases) {
+            ProjectPhase copiedPhase = new ProjectPhase();
+            copiedPhase.setProject(savedProject);
+            copiedPhase.setPhaseName(originalPhase.getPhaseName());
+            copiedPhase.setStartDate(originalPhase.getStartDate());
+            copiedPhase.setEndDate(originalPhase.getEndDate());
+            copiedPhase.setPlannedStartDate(originalPhase.getPlannedStartDate());
+            copiedPhase.setPlannedEndDate(originalPhase.getPlannedEndDate());
+            copiedPhase.setStatus(ProjectPhase.PhaseStatus.NOT_STARTED); // 重置状态
+            copiedPhase.setProgressPercentage(java.math.BigDecimal.ZERO); // 重置进度
+            copiedPhase.setIsCompleted(false); // 重置完成状态
+            copiedPhase.setIsOverdue(false); // 重置逾期状态
+            copiedPhase.setDescription(originalPhase.getDescription());
+            
+            projectPhaseService.createProjectPhase(copiedPhase);
         }
         
         // 复制里程碑
-        try {
-            List<KeyMilestone> originalMilestones = milestoneService.getMilestonesByProjectId(originalProjectId);
-            for (KeyMilestone originalMilestone : originalMilestones) {
-                KeyMilestone copiedMilestone = new KeyMilestone();
-                copiedMilestone.setProject(savedProject);
-                copiedMilestone.setName(originalMilestone.getName());
-                copiedMilestone.setDescription(originalMilestone.getDescription());
-                copiedMilestone.setTargetDate(originalMilestone.getTargetDate());
-                copiedMilestone.setStatus(KeyMilestone.MilestoneStatus.PENDING); // 重置状态
-                copiedMilestone.setProgress(0); // 重置进度
-                copiedMilestone.setPriority(originalMilestone.getPriority());
-                copiedMilestone.setOwner(originalMilestone.getOwner());
-                copiedMilestone.setDeliverables(originalMilestone.getDeliverables());
-                copiedMilestone.setDependencies(originalMilestone.getDependencies());
-                copiedMilestone.setSuccessCriteria(originalMilestone.getSuccessCriteria());
-                copiedMilestone.setActualDate(null); // 清空实际完成日期
-                
-                milestoneService.createMilestone(copiedMilestone);
-            }
-        } catch (Exception e) {
-            System.err.println("Error copying milestones: " + e.getMessage());
+        List<KeyMilestone> originalMilestones = milestoneService.getMilestonesByProjectId(originalProjectId);
+        for (KeyMilestone originalMilestone : originalMilestones) {
+            KeyMilestone copiedMilestone = new KeyMilestone();
+            copiedMilestone.setProject(savedProject);
+            copiedMilestone.setName(originalMilestone.getName());
+            copiedMilestone.setDescription(originalMilestone.getDescription());
+            copiedMilestone.setTargetDate(originalMilestone.getTargetDate());
+            copiedMilestone.setStatus(KeyMilestone.MilestoneStatus.PENDING); // 重置状态
+            copiedMilestone.setProgress(0); // 重置进度
+            copiedMilestone.setPriority(originalMilestone.getPriority());
+            copiedMilestone.setOwner(originalMilestone.getOwner());
+            copiedMilestone.setOwnerMemberId(originalMilestone.getOwnerMemberId());
+            copiedMilestone.setDeliverables(originalMilestone.getDeliverables());
+            copiedMilestone.setDependencies(originalMilestone.getDependencies());
+            copiedMilestone.setSuccessCriteria(originalMilestone.getSuccessCriteria());
+            copiedMilestone.setActualDate(null); // 清空实际完成日期
+            
+            milestoneService.createMilestone(copiedMilestone);
         }
         
+        log.info("Copied project {} to {} with {} phases and {} milestones", originalProjectId, savedProject.getId(),
+                originalPhases.size(), originalMilestones.size());
         return savedProject;
     }
     
+    /**
+     * Project counts per RAG status and escalation, from a single grouped query
+     */
     public Map<String, Object> getProjectStatistics() {
-        Map<String, Object> statistics = new HashMap<>();
-        List<Project> allProjects = projectRepository.findAll();
-        
-        statistics.put("totalProjects", allProjects.size());
-        statistics.put("greenStatus", allProjects.stream()
-                .mapToLong(p -> ProjectStatus.GREEN.equals(p.getItProjectStatus()) ? 1 : 0).sum());
-        statistics.put("yellowStatus", allProjects.stream()
-                .mapToLong(p -> ProjectStatus.YELLOW.equals(p.getItProjectStatus()) ? 1 : 0).sum());
-        statistics.put("redStatus", allProjects.stream()
-                .mapToLong(p -> ProjectStatus.RED.equals(p.getItProjectStatus()) ? 1 : 0).sum());
-        statistics.put("escalatedProjects", allProjects.stream()
-                .mapToLong(p -> Boolean.TRUE.equals(p.getEscalation()) ? 1 : 0).sum());
+        Map<ProjectStatus, Long> byStatus = new EnumMap<>(ProjectStatus.class);
+        long total = 0;
+        long escalated = 0;
+        for (Object[] row : projectRepository.countByStatus()) {
+            long count = ((Number) row[1]).longValue();
+            total += count;
+            escalated += row[2] != null ? ((Number) row[2]).longValue() : 0L;
+            if (row[0] != null) {
+                byStatus.put((ProjectStatus) row[0], count);
+            }
+        }
         
+        Map<String, Object> statistics = new HashMap<>();
+        statistics.put("totalProjects", total);
+        statistics.put("greenStatus", byStatus.getOrDefault(ProjectStatus.GREEN, 0L));
+        statistics.put("yellowStatus", byStatus.getOrDefault(ProjectStatus.YELLOW, 0L));
+        statistics.put("redStatus", byStatus.getOrDefault(ProjectStatus.RED, 0L));
+        statistics.put("escalatedProjects", escalated);
         return statistics;
     }
 }
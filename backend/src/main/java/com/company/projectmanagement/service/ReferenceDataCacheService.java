@@ -0,0 +1,99 @@
+package com.company.projectmanagement.service;
+
+import com.company.projectmanagement.model.Team;
+import com.company.projectmanagement.model.TeamMember;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 团队和成员二级缓存的统计与失效
+ */
+@Service
+public class ReferenceDataCacheService {
+
+    private static final Map<String, Class<?>> REGIONS = Map.of(
+            Team.CACHE_REGION, Team.class,
+            TeamMember.CACHE_REGION, TeamMember.class);
+
+    private static final String STATISTICS_MBEAN = "javax.cache:type=CacheStatistics,Cache=";
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    /**
+     * Get hit/miss statistics for each reference data region, read from the JCache statistics MXBeans
+     * that caffeine.conf enables (monitoring.statistics); independent of hibernate.generate_statistics
+     */
+    public Map<String, Object> getStatistics() {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        Map<String, Object> result = new LinkedHashMap<>();
+        boolean enabled = true;
+        Map<String, Object> regions = new LinkedHashMap<>();
+        for (String region : REGIONS.keySet()) {
+            ObjectName name = statisticsBean(server, region);
+            if (name == null) {
+                // 缓存尚未创建或未开启统计
+                enabled = false;
+                continue;
+            }
+            Map<String, Object> regionMap = new LinkedHashMap<>();
+            long hits = attribute(server, name, "CacheHits");
+            long misses = attribute(server, name, "CacheMisses");
+            regionMap.put("hitCount", hits);
+            regionMap.put("missCount", misses);
+            regionMap.put("putCount", attribute(server, name, "CachePuts"));
+            regionMap.put("evictionCount", attribute(server, name, "CacheEvictions"));
+            regionMap.put("hitRatio", hits + misses > 0 ? (double) hits / (hits + misses) : 0.0);
+            regions.put(region, regionMap);
+        }
+        result.put("statisticsEnabled", enabled);
+        result.putAll(regions);
+        return result;
+    }
+
+    private static ObjectName statisticsBean(MBeanServer server, String region) {
+        try {
+            // 只按缓存名匹配，CacheManager 的 URI 随配置文件位置变化
+            Set<ObjectName> names = server.queryNames(new ObjectName(STATISTICS_MBEAN + region + ",*"), null);
+            return names.isEmpty() ? null : names.iterator().next();
+        } catch (MalformedObjectNameException e) {
+            throw new IllegalStateException("Invalid cache region name: " + region, e);
+        }
+    }
+
+    private static long attribute(MBeanServer server, ObjectName name, String attribute) {
+        try {
+            return ((Number) server.getAttribute(name, attribute)).longValue();
+        } catch (JMException e) {
+            throw new IllegalStateException("Cannot read " + attribute + " from " + name, e);
+        }
+    }
+
+    /**
+     * Evict one entry from the local cache, e.g. when another node reports a change
+     */
+    public void evictLocal(String region, Object id) {
+        Class<?> entityClass = REGIONS.get(region);
+        if (entityClass == null) {
+            throw new IllegalArgumentException("Unknown cache region: " + region);
+        }
+        entityManagerFactory.getCache().evict(entityClass, id);
+    }
+
+    /**
+     * Evict all reference data from the local cache
+     */
+    public void evictAll() {
+        REGIONS.values().forEach(entityClass -> entityManagerFactory.getCache().evict(entityClass));
+    }
+}
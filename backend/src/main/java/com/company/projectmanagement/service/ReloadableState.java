@@ -0,0 +1,64 @@
+package com.company.projectmanagement.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Holder for an in-memory structure that is kept current by post-commit deltas and
+ * occasionally reloaded from the database. Deltas that arrive while a reload is scanning
+ * are recorded and replayed into the fresh structure before it is swapped in, so a change
+ * committed after the scan read its rows is not lost. Deltas must be idempotent upserts
+ * or removals: a replayed delta may already be reflected in the scanned rows.
+ */
+final class ReloadableState<S> {
+
+    private final Object reloadLock = new Object();
+
+    private volatile S current;
+
+    // 重新加载期间收到的增量，加载结束后按顺序重放；未在加载时为 null
+    private List<Consumer<S>> pending;
+
+    ReloadableState(S initial) {
+        this.current = initial;
+    }
+
+    S get() {
+        return current;
+    }
+
+    synchronized void update(Consumer<S> delta) {
+        delta.accept(current);
+        if (pending != null) {
+            pending.add(delta);
+        }
+    }
+
+    /**
+     * Build a fresh structure with the loader, replay the deltas received meanwhile and swap it in
+     */
+    S reload(Supplier<S> loader) {
+        synchronized (reloadLock) {
+            synchronized (this) {
+                pending = new ArrayList<>();
+            }
+            S fresh;
+            try {
+                fresh = loader.get();
+            } catch (RuntimeException e) {
+                synchronized (this) {
+                    pending = null;
+                }
+                throw e;
+            }
+            synchronized (this) {
+                pending.forEach(delta -> delta.accept(fresh));
+                pending = null;
+                current = fresh;
+            }
+            return fresh;
+        }
+    }
+}
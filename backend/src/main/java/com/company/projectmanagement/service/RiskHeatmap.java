@@ -0,0 +1,266 @@
+package com.company.projectmanagement.service;
+
+import com.company.projectmanagement.model.RiskStatus;
+import com.company.projectmanagement.model.Severity;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory risk counters for the portfolio heatmap.
+ * Keeps one small entry per risk and, per project, a severity x status count matrix and
+ * the due dates of open risks. A risk change moves the risk between cells, so a read
+ * only sums the per-project counters by team and never touches the database.
+ */
+public class RiskHeatmap {
+
+    private static final Severity[] SEVERITIES = Severity.values();
+
+    private static final RiskStatus[] STATUSES = RiskStatus.values();
+
+    private record Entry(long projectId, Severity severity, RiskStatus status, LocalDate dueDate) {
+
+        boolean isOpen() {
+            return status == RiskStatus.OPEN || status == RiskStatus.IN_PROGRESS;
+        }
+
+        int cell() {
+            return severity.ordinal() * STATUSES.length + status.ordinal();
+        }
+    }
+
+    private final Map<Long, Entry> risks = new HashMap<>();
+
+    // projectId -> severity x status 计数
+    private final Map<Long, int[]> cellsByProject = new HashMap<>();
+
+    // projectId -> 未关闭风险的到期日及数量
+    private final Map<Long, TreeMap<LocalDate, Integer>> openDueDatesByProject = new HashMap<>();
+
+    private final Map<Long, Long> teamByProject = new HashMap<>();
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Replace all counters; risk rows are {id, projectId, severity, status, dueDate},
+     * project rows are {projectId, teamId}
+     */
+    public void load(List<Object[]> riskRows, List<Object[]> projectRows) {
+        lock.writeLock().lock();
+        try {
+            risks.clear();
+            cellsByProject.clear();
+            openDueDatesByProject.clear();
+            teamByProject.clear();
+            for (Object[] row : projectRows) {
+                if (row[1] != null) {
+                    teamByProject.put(((Number) row[0]).longValue(), ((Number) row[1]).longValue());
+                }
+            }
+            for (Object[] row : riskRows) {
+                add(((Number) row[0]).longValue(), entry(((Number) row[1]).longValue(),
+                        (Severity) row[2], (RiskStatus) row[3], (LocalDate) row[4]));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void putRisk(long riskId, long projectId, Severity severity, RiskStatus status, LocalDate dueDate) {
+        lock.writeLock().lock();
+        try {
+            subtract(riskId);
+            add(riskId, entry(projectId, severity, status, dueDate));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removeRisk(long riskId) {
+        lock.writeLock().lock();
+        try {
+            subtract(riskId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void setProjectTeam(long projectId, Long teamId) {
+        lock.writeLock().lock();
+        try {
+            if (teamId == null) {
+                teamByProject.remove(projectId);
+            } else {
+                teamByProject.put(projectId, teamId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removeProject(long projectId) {
+        lock.writeLock().lock();
+        try {
+            teamByProject.remove(projectId);
+            risks.entrySet().removeIf(e -> e.getValue().projectId() == projectId);
+            cellsByProject.remove(projectId);
+            openDueDatesByProject.remove(projectId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Severity x status counts and open risks past due, for one team or the whole portfolio
+     * with a per-team breakdown
+     */
+    public Map<String, Object> snapshot(Long teamId, LocalDate today) {
+        lock.readLock().lock();
+        try {
+            // 按团队汇总各项目的计数器；无团队的项目归入 null
+            Map<Long, Totals> byTeam = new LinkedHashMap<>();
+            Totals portfolio = new Totals();
+            for (Map.Entry<Long, int[]> project : cellsByProject.entrySet()) {
+                Long projectTeam = teamByProject.get(project.getKey());
+                if (teamId != null && !teamId.equals(projectTeam)) {
+                    continue;
+                }
+                int overdue = overdueCount(project.getKey(), today);
+                portfolio.add(project.getValue(), overdue);
+                if (teamId == null) {
+                    byTeam.computeIfAbsent(projectTeam, k -> new Totals()).add(project.getValue(), overdue);
+                }
+            }
+
+            Map<String, Object> result = portfolio.toMap();
+            result.put("asOf", today);
+            if (teamId != null) {
+                result.put("teamId", teamId);
+            } else {
+                List<Map<String, Object>> teams = new ArrayList<>();
+                byTeam.forEach((id, totals) -> {
+                    Map<String, Object> team = totals.toMap();
+                    team.put("teamId", id);
+                    teams.add(team);
+                });
+                result.put("teams", teams);
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return risks.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // 调用方需持有写锁
+    private void add(long riskId, Entry entry) {
+        risks.put(riskId, entry);
+        cellsByProject.computeIfAbsent(entry.projectId(), k -> new int[SEVERITIES.length * STATUSES.length])[entry.cell()]++;
+        if (entry.isOpen() && entry.dueDate() != null) {
+            openDueDatesByProject.computeIfAbsent(entry.projectId(), k -> new TreeMap<>())
+                    .merge(entry.dueDate(), 1, Integer::sum);
+        }
+    }
+
+    private void subtract(long riskId) {
+        Entry entry = risks.remove(riskId);
+        if (entry == null) {
+            return;
+        }
+        int[] cells = cellsByProject.get(entry.projectId());
+        cells[entry.cell()]--;
+        if (isEmpty(cells)) {
+            cellsByProject.remove(entry.projectId());
+        }
+        if (entry.isOpen() && entry.dueDate() != null) {
+            TreeMap<LocalDate, Integer> dueDates = openDueDatesByProject.get(entry.projectId());
+            if (dueDates.merge(entry.dueDate(), -1, Integer::sum) == 0) {
+                dueDates.remove(entry.dueDate());
+            }
+            if (dueDates.isEmpty()) {
+                openDueDatesByProject.remove(entry.projectId());
+            }
+        }
+    }
+
+    private int overdueCount(long projectId, LocalDate today) {
+        TreeMap<LocalDate, Integer> dueDates = openDueDatesByProject.get(projectId);
+        if (dueDates == null) {
+            return 0;
+        }
+        int count = 0;
+        for (int n : dueDates.headMap(today, false).values()) {
+            count += n;
+        }
+        return count;
+    }
+
+    // 空值按实体默认值处理
+    private static Entry entry(long projectId, Severity severity, RiskStatus status, LocalDate dueDate) {
+        return new Entry(projectId,
+                severity != null ? severity : Severity.MEDIUM,
+                status != null ? status : RiskStatus.OPEN,
+                dueDate);
+    }
+
+    private static boolean isEmpty(int[] cells) {
+        for (int n : cells) {
+            if (n != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static class Totals {
+
+        private final int[] cells = new int[SEVERITIES.length * STATUSES.length];
+
+        private int overdue;
+
+        void add(int[] projectCells, int projectOverdue) {
+            for (int i = 0; i < cells.length; i++) {
+                cells[i] += projectCells[i];
+            }
+            overdue += projectOverdue;
+        }
+
+        Map<String, Object> toMap() {
+            Map<String, Map<String, Integer>> matrix = new LinkedHashMap<>();
+            int total = 0;
+            int open = 0;
+            for (Severity severity : SEVERITIES) {
+                Map<String, Integer> row = new LinkedHashMap<>();
+                for (RiskStatus status : STATUSES) {
+                    int count = cells[severity.ordinal() * STATUSES.length + status.ordinal()];
+                    row.put(status.name(), count);
+                    total += count;
+                    if (status == RiskStatus.OPEN || status == RiskStatus.IN_PROGRESS) {
+                        open += count;
+                    }
+                }
+                matrix.put(severity.name(), row);
+            }
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("totalRisks", total);
+            result.put("openRisks", open);
+            result.put("overdueOpenRisks", overdue);
+            result.put("matrix", matrix);
+            return result;
+        }
+    }
+}
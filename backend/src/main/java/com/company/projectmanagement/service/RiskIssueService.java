@@ -0,0 +1,193 @@
+package com.company.projectmanagement.service;
+
+import com.company.projectmanagement.model.Project;
+import com.company.projectmanagement.model.RiskIssue;
+import com.company.projectmanagement.model.RiskStatus;
+import com.company.projectmanagement.model.Severity;
+import com.company.projectmanagement.model.TeamMember;
+import com.company.projectmanagement.repository.ProjectRepository;
+import com.company.projectmanagement.repository.RiskIssueRepository;
+import com.company.projectmanagement.repository.TeamMemberRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Risk register. Heatmap counters are kept in a {@link RiskHeatmap} and moved by
+ * post-commit entity events, so reading the heatmap never runs a GROUP BY.
+ */
+@Service
+@Transactional(readOnly = true)
+public class RiskIssueService {
+
+    private static final Set<RiskStatus> OPEN_STATUSES = EnumSet.of(RiskStatus.OPEN, RiskStatus.IN_PROGRESS);
+
+    @Autowired
+    private RiskIssueRepository riskIssueRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private TeamMemberRepository teamMemberRepository;
+
+    @Autowired
+    private EntityCommitListeners entityCommitListeners;
+
+    private final ReloadableState<RiskHeatmap> heatmap = new ReloadableState<>(new RiskHeatmap());
+
+    @PostConstruct
+    void registerListeners() {
+        entityCommitListeners.register(new HeatmapListener());
+    }
+
+    /**
+     * Rebuild the heatmap counters from the database. Runs at startup; afterwards entity events
+     * and the set-based write paths keep the counters current.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildHeatmap() {
+        heatmap.reload(() -> {
+            RiskHeatmap fresh = new RiskHeatmap();
+            fresh.load(riskIssueRepository.findHeatmapRows(), projectRepository.findTeamIds());
+            return fresh;
+        });
+    }
+
+    public List<RiskIssue> getRisksByProject(Long projectId) {
+        return riskIssueRepository.findByProjectId(projectId);
+    }
+
+    public RiskIssue getRiskById(Long id) {
+        return riskIssueRepository.findWithTextById(id)
+                .orElseThrow(() -> new RuntimeException("Risk not found with id " + id));
+    }
+
+    public List<RiskIssue> getOverdueRisks() {
+        return riskIssueRepository.findOverdue(OPEN_STATUSES, LocalDate.now());
+    }
+
+    @Transactional
+    public RiskIssue createRisk(Long projectId, RiskIssue risk) {
+        Project project = projectRepository.findById(projectId)
+                .orElseThrow(() -> new RuntimeException("Project not found with id " + projectId));
+        if (risk.getRiskType() == null) {
+            throw new IllegalArgumentException("Risk type is required");
+        }
+        risk.setId(null);
+        risk.setProject(project);
+        risk.setAssignedTo(resolveAssignee(risk.getAssignedTo()));
+        return riskIssueRepository.save(risk);
+    }
+
+    @Transactional
+    public RiskIssue updateRisk(Long id, RiskIssue riskDetails) {
+        RiskIssue risk = getRiskById(id);
+        if (riskDetails.getRiskType() == null) {
+            throw new IllegalArgumentException("Risk type is required");
+        }
+        risk.setTitle(riskDetails.getTitle());
+        risk.setDescription(riskDetails.getDescription());
+        risk.setRiskType(riskDetails.getRiskType());
+        risk.setSeverity(riskDetails.getSeverity());
+        risk.setMitigationAction(riskDetails.getMitigationAction());
+        risk.setStatus(riskDetails.getStatus());
+        risk.setAssignedTo(resolveAssignee(riskDetails.getAssignedTo()));
+        risk.setDueDate(riskDetails.getDueDate());
+        return riskIssueRepository.save(risk);
+    }
+
+    @Transactional
+    public RiskIssue updateRiskStatus(Long id, RiskStatus status) {
+        RiskIssue risk = getRiskById(id);
+        risk.setStatus(status);
+        return riskIssueRepository.save(risk);
+    }
+
+    @Transactional
+    public void deleteRisk(Long id) {
+        RiskIssue risk = riskIssueRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Risk not found with id " + id));
+        riskIssueRepository.delete(risk);
+    }
+
+    /**
+     * Severity x status heatmap and open risks past due, for one team or the whole portfolio
+     */
+    public Map<String, Object> getHeatmap(Long teamId) {
+        return heatmap.get().snapshot(teamId, LocalDate.now());
+    }
+
+    /**
+     * Drop projects removed by a set-based DELETE, which fires no entity events; call after commit
+     */
+    public void removeProjectsFromHeatmap(Collection<Long> projectIds) {
+        heatmap.update(current -> projectIds.forEach(current::removeProject));
+    }
+
+    /**
+     * Count the risks of projects written back by SQL (archive restore), which fires no entity events;
+     * call after commit
+     */
+    public void addProjectsToHeatmap(Collection<Long> projectIds) {
+        List<Object[]> teams = projectRepository.findTeamIdsByIds(projectIds);
+        List<Object[]> risks = riskIssueRepository.findHeatmapRowsByProjectIds(projectIds);
+        heatmap.update(current -> {
+            for (Object[] row : teams) {
+                current.setProjectTeam(((Number) row[0]).longValue(), row[1] != null ? ((Number) row[1]).longValue() : null);
+            }
+            for (Object[] row : risks) {
+                current.putRisk(((Number) row[0]).longValue(), ((Number) row[1]).longValue(),
+                        (Severity) row[2], (RiskStatus) row[3], (LocalDate) row[4]);
+            }
+        });
+    }
+    
+    // 请求体中只带负责人ID，按ID解析成受管实体
+    private TeamMember resolveAssignee(TeamMember assignee) {
+        if (assignee == null || assignee.getId() == null) {
+            return null;
+        }
+        return teamMemberRepository.findById(assignee.getId())
+                .orElseThrow(() -> new RuntimeException("Team member not found with id " + assignee.getId()));
+    }
+
+    private class HeatmapListener extends EntityCommitListener {
+
+        HeatmapListener() {
+            super(RiskIssue.class, Project.class);
+        }
+
+        @Override
+        protected void onDelete(Object entity, Long id) {
+            if (entity instanceof RiskIssue) {
+                heatmap.update(current -> current.removeRisk(id));
+            } else {
+                heatmap.update(current -> current.removeProject(id));
+            }
+        }
+
+        // 风险按其最新状态重新计入；项目只关心所属团队
+        @Override
+        protected void onSaved(Object entity) {
+            if (entity instanceof RiskIssue risk) {
+                long projectId = risk.getProject().getId();
+                heatmap.update(current -> current.putRisk(risk.getId(), projectId, risk.getSeverity(), risk.getStatus(),
+                        risk.getDueDate()));
+            } else if (entity instanceof Project project) {
+                Long teamId = project.getTeam() != null ? project.getTeam().getId() : null;
+                heatmap.update(current -> current.setProjectTeam(project.getId(), teamId));
+            }
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.company.projectmanagement.service;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.util.Locale;
+
+/**
+ * LIKE patterns for the name searches.
+ * Terms are trimmed, lower-cased and escaped with '!' (a backslash is an escape inside MySQL
+ * string literals), matching the LOWER(column) expressions the search indexes are built on.
+ * Terms shorter than {@link #MIN_CONTAINS_LENGTH} only match as prefixes: a trigram index cannot
+ * narrow a one or two character infix search.
+ */
+final class SearchTerms {
+
+    static final int MIN_CONTAINS_LENGTH = 3;
+
+    static final int DEFAULT_LIMIT = 20;
+
+    static final int MAX_LIMIT = 100;
+
+    private SearchTerms() {
+    }
+
+    static String normalize(String term) {
+        return term == null ? "" : term.trim().toLowerCase(Locale.ROOT);
+    }
+
+    static boolean matchesAnywhere(String normalized) {
+        return normalized.length() >= MIN_CONTAINS_LENGTH;
+    }
+
+    static String prefix(String normalized) {
+        return escape(normalized) + "%";
+    }
+
+    static String contains(String normalized) {
+        return "%" + escape(normalized) + "%";
+    }
+
+    static Pageable limit(Integer limit) {
+        int size = limit != null ? limit : DEFAULT_LIMIT;
+        if (size < 1 || size > MAX_LIMIT) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_LIMIT);
+        }
+        return PageRequest.of(0, size);
+    }
+
+    private static String escape(String term) {
+        return term.replace("!", "!!").replace("%", "!%").replace("_", "!_");
+    }
+}
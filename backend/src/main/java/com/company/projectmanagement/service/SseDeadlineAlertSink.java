@@ -0,0 +1,42 @@
+package com.company.projectmanagement.service;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Pushes deadline alerts to browsers subscribed through Server-Sent Events
+ */
+@Component
+public class SseDeadlineAlertSink implements DeadlineAlertSink {
+
+    private final List<SseEmitter> emitters = new CopyOnWriteArrayList<>();
+
+    public SseEmitter subscribe(long timeoutMs) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        emitters.add(emitter);
+        emitter.onCompletion(() -> emitters.remove(emitter));
+        emitter.onTimeout(() -> emitters.remove(emitter));
+        emitter.onError(e -> emitters.remove(emitter));
+        return emitter;
+    }
+
+    public int getSubscriberCount() {
+        return emitters.size();
+    }
+
+    @Override
+    public void publish(DeadlineAlert alert) {
+        for (SseEmitter emitter : emitters) {
+            try {
+                emitter.send(SseEmitter.event().name("deadline").data(alert));
+            } catch (IOException | IllegalStateException e) {
+                // 客户端已断开
+                emitters.remove(emitter);
+            }
+        }
+    }
+}
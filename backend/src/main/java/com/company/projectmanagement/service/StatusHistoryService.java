@@ -0,0 +1,164 @@
+package com.company.projectmanagement.service;
+
+import com.company.projectmanagement.model.PortfolioStatusSnapshot;
+import com.company.projectmanagement.model.Project;
+import com.company.projectmanagement.model.ProjectStatus;
+import com.company.projectmanagement.model.StatusHistory;
+import com.company.projectmanagement.repository.PortfolioStatusSnapshotRepository;
+import com.company.projectmanagement.repository.ProjectRepository;
+import com.company.projectmanagement.repository.StatusHistoryRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+@Service
+@Transactional(readOnly = true)
+public class StatusHistoryService {
+
+    private static final Logger log = LoggerFactory.getLogger(StatusHistoryService.class);
+
+    @Autowired
+    private StatusHistoryRepository statusHistoryRepository;
+
+    @Autowired
+    private PortfolioStatusSnapshotRepository snapshotRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${status-history.partition-months-ahead:12}")
+    private int partitionMonthsAhead;
+
+    /**
+     * Get status changes of a project and its phases over the last given days
+     */
+    public List<StatusHistory> getProjectHistory(Long projectId, int days) {
+        LocalDateTime now = LocalDateTime.now();
+        return statusHistoryRepository.findProjectHistory(projectId, now.minusDays(days), now.plusSeconds(1));
+    }
+
+    /**
+     * How long a project has been in its current RAG status
+     */
+    public Map<String, Object> getCurrentStatusDuration(Long projectId) {
+        Project project = projectRepository.findSummaryById(projectId)
+                .orElseThrow(() -> new RuntimeException("Project not found with id " + projectId));
+
+        // 没有变更记录时，状态从项目创建起就没变过
+        Optional<StatusHistory> lastChange = statusHistoryRepository
+                .findFirstByProjectIdAndFieldNameOrderByChangedAtDesc(projectId, StatusHistory.Field.IT_PROJECT_STATUS);
+        LocalDateTime since = lastChange.map(StatusHistory::getChangedAt).orElse(project.getCreatedAt());
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("projectId", projectId);
+        result.put("status", project.getItProjectStatus());
+        result.put("since", since);
+        result.put("days", since != null ? Duration.between(since, LocalDateTime.now()).toDays() : null);
+        return result;
+    }
+
+    /**
+     * Portfolio RAG counts per day, read from the pre-aggregated daily snapshots
+     */
+    public List<Map<String, Object>> getPortfolioTrend(LocalDate startDate, LocalDate endDate) {
+        Map<LocalDate, Map<String, Object>> byDate = new LinkedHashMap<>();
+        for (PortfolioStatusSnapshot snapshot : snapshotRepository.findBySnapshotDateBetweenOrderBySnapshotDateAsc(startDate, endDate)) {
+            Map<String, Object> day = byDate.computeIfAbsent(snapshot.getSnapshotDate(), date -> {
+                Map<String, Object> row = new LinkedHashMap<>();
+                row.put("date", date);
+                for (ProjectStatus status : ProjectStatus.values()) {
+                    row.put(status.name(), 0L);
+                }
+                row.put("escalated", 0L);
+                return row;
+            });
+            day.put(snapshot.getItProjectStatus().name(), snapshot.getProjectCount());
+            day.put("escalated", (Long) day.get("escalated") + snapshot.getEscalatedCount());
+        }
+        return new ArrayList<>(byDate.values());
+    }
+
+    /**
+     * Write today's portfolio snapshot, replacing any earlier one for the same day
+     */
+    @Scheduled(cron = "${status-history.snapshot-cron:0 5 0 * * *}")
+    @Transactional
+    public void takeDailySnapshot() {
+        writeSnapshot(LocalDate.now());
+    }
+
+    // 启动时补齐当天快照
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void snapshotOnStartup() {
+        LocalDate today = LocalDate.now();
+        if (!snapshotRepository.existsBySnapshotDate(today)) {
+            writeSnapshot(today);
+        }
+    }
+
+    /**
+     * Keep monthly status_history partitions ahead of the current month, using the routines
+     * from the PostgreSQL and MySQL status history migrations; runs at startup and monthly
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${status-history.partition-cron:0 15 0 1 * *}")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void rollPartitionsForward() {
+        String database = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                connection.getMetaData().getDatabaseProductName());
+        try {
+            switch (database) {
+                // 当月加上之后的月份；默认分区里滞留的行由函数挪回对应的月分区
+                case "PostgreSQL" -> jdbcTemplate.queryForList(
+                        "SELECT create_status_history_partitions(date_trunc('month', CURRENT_DATE)::DATE, ?)",
+                        partitionMonthsAhead + 1);
+                case "MySQL" -> jdbcTemplate.update("CALL add_status_history_partitions(?)", partitionMonthsAhead);
+                // H2 上由 ddl-auto 建普通表，没有分区
+                default -> {
+                    return;
+                }
+            }
+            log.info("Status history partitions ensured {} months ahead on {}", partitionMonthsAhead, database);
+        } catch (DataAccessException e) {
+            // 迁移脚本未执行时表没有分区，写入照常进行
+            log.warn("Could not roll status history partitions forward on {}: {}", database, e.getMessage());
+        }
+    }
+
+    private void writeSnapshot(LocalDate date) {
+        snapshotRepository.deleteBySnapshotDate(date);
+        List<PortfolioStatusSnapshot> snapshots = new ArrayList<>();
+        for (Object[] row : projectRepository.countByStatus()) {
+            if (row[0] == null) {
+                continue;
+            }
+            snapshots.add(new PortfolioStatusSnapshot(date, (ProjectStatus) row[0],
+                    ((Number) row[1]).longValue(), row[2] != null ? ((Number) row[2]).longValue() : 0L));
+        }
+        snapshotRepository.saveAll(snapshots);
+    }
+}
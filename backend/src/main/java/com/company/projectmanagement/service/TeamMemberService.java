@@ -4,23 +4,72 @@ import com.company.projectmanagement.model.TeamMember;
 import com.company.projectmanagement.model.Team;
 import com.company.projectmanagement.repository.TeamMemberRepository;
 import com.company.projectmanagement.repository.TeamRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Team members. Emails are stored lower-cased and are unique: the database enforces it with a
+ * unique index, and an in-memory map of the emails in use answers "not taken" without a query.
+ * The map is loaded at startup and kept current by member writes after commit. An entry may be
+ * stale (a member removed by a database cascade), so a hit is confirmed in the database; a miss
+ * is trusted, and a concurrent insert that slips past it is rejected by the index.
+ */
 @Service
+@Transactional(readOnly = true)
 public class TeamMemberService {
     
+    private static final Logger log = LoggerFactory.getLogger(TeamMemberService.class);
+    
     @Autowired
     private TeamMemberRepository teamMemberRepository;
     
     @Autowired
     private TeamRepository teamRepository;
     
+    @Autowired
+    private EntityCommitListeners entityCommitListeners;
+    
+    // 规范化邮箱 -> 成员ID，以及成员ID -> 规范化邮箱（成员改邮箱时据此移除旧值）
+    private final Map<String, Long> emailOwners = new ConcurrentHashMap<>();
+    
+    private final Map<Long, String> memberEmails = new ConcurrentHashMap<>();
+    
+    // 加载完成前所有检查都查库
+    private volatile boolean emailsLoaded;
+    
+    @PostConstruct
+    void registerListener() {
+        entityCommitListeners.register(new EmailChangeListener());
+    }
+    
+    /**
+     * Load the emails in use from the database
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void loadEmails() {
+        emailOwners.clear();
+        memberEmails.clear();
+        for (Object[] row : teamMemberRepository.findNames()) {
+            trackEmail(((Number) row[0]).longValue(), (String) row[2]);
+        }
+        emailsLoaded = true;
+        log.info("Loaded {} team member emails", emailOwners.size());
+    }
+    
     public List<TeamMember> getAllTeamMembers() {
         return teamMemberRepository.findAll();
     }
@@ -33,13 +82,12 @@ public class TeamMemberService {
         return teamMemberRepository.findByTeamId(teamId);
     }
     
+    @Transactional
     public TeamMember createTeamMember(TeamMember teamMember) {
         // Check for duplicate email if email is provided
-        if (teamMember.getEmail() != null && !teamMember.getEmail().trim().isEmpty()) {
-            Optional<TeamMember> existingMember = teamMemberRepository.findByEmail(teamMember.getEmail());
-            if (existingMember.isPresent()) {
-                throw new RuntimeException("A team member with email '" + teamMember.getEmail() + "' already exists");
-            }
+        teamMember.setEmail(normalizeEmail(teamMember.getEmail()));
+        if (isEmailTaken(teamMember.getEmail(), null)) {
+            throw duplicateEmail(teamMember.getEmail());
         }
         
         // If teamId is provided, set the team relationship
@@ -53,22 +101,21 @@ public class TeamMemberService {
         }
         
         // Save the team member
-        TeamMember savedMember = teamMemberRepository.save(teamMember);
+        TeamMember savedMember = saveChecked(teamMember);
         
         return savedMember;
     }
     
+    @Transactional
     public TeamMember updateTeamMember(Long id, TeamMember teamMember) {
         if (!teamMemberRepository.existsById(id)) {
             throw new RuntimeException("Team member not found");
         }
         
         // Check for duplicate email if email is provided and different from current
-        if (teamMember.getEmail() != null && !teamMember.getEmail().trim().isEmpty()) {
-            Optional<TeamMember> existingMember = teamMemberRepository.findByEmail(teamMember.getEmail());
-            if (existingMember.isPresent() && !existingMember.get().getId().equals(id)) {
-                throw new RuntimeException("A team member with email '" + teamMember.getEmail() + "' already exists");
-            }
+        teamMember.setEmail(normalizeEmail(teamMember.getEmail()));
+        if (isEmailTaken(teamMember.getEmail(), id)) {
+            throw duplicateEmail(teamMember.getEmail());
         }
         
         // If teamId is provided, set the team relationship
@@ -85,9 +132,10 @@ public class TeamMemberService {
         }
         
         teamMember.setId(id);
-        return teamMemberRepository.save(teamMember);
+        return saveChecked(teamMember);
     }
     
+    @Transactional
     public void deleteTeamMember(Long id) {
         if (!teamMemberRepository.existsById(id)) {
             throw new RuntimeException("Team member not found");
@@ -96,15 +144,25 @@ public class TeamMemberService {
     }
     
     public List<TeamMember> searchTeamMembers(String keyword) {
-        // 需要在 TeamMemberRepository 中添加搜索方法
-        return teamMemberRepository.findAll(); // 临时实现
+        return searchTeamMembers(keyword, null, null);
+    }
+    
+    /**
+     * Search members by name, email or role in the database, optionally within one team:
+     * prefix matches for short terms, substring matches (name prefix matches first) from three characters on
+     */
+    public List<TeamMember> searchTeamMembers(String keyword, Long teamId, Integer limit) {
+        String term = SearchTerms.normalize(keyword);
+        if (SearchTerms.matchesAnywhere(term)) {
+            return teamMemberRepository.searchByContains(SearchTerms.contains(term), SearchTerms.prefix(term),
+                    teamId, SearchTerms.limit(limit));
+        }
+        return teamMemberRepository.searchByPrefix(SearchTerms.prefix(term), teamId, SearchTerms.limit(limit));
     }
     
     public List<TeamMember> getTeamMembersByRole(String role) {
         // 根据角色获取团队成员
-        return teamMemberRepository.findAll().stream()
-                .filter(member -> member.getRole().toLowerCase().contains(role.toLowerCase()))
-                .toList();
+        return teamMemberRepository.findByRoleLike(SearchTerms.contains(SearchTerms.normalize(role)));
     }
     
     public Map<String, Object> getTeamMemberStatistics() {
@@ -115,7 +173,95 @@ public class TeamMemberService {
         return stats;
     }
     
+    /**
+     * Member using the email, ignoring case; emails not in use are answered from memory
+     */
     public Optional<TeamMember> findByEmail(String email) {
-        return teamMemberRepository.findByEmail(email);
+        String key = normalizeEmail(email);
+        if (key == null || emailsLoaded && !emailOwners.containsKey(key)) {
+            return Optional.empty();
+        }
+        return teamMemberRepository.findByEmailIgnoreCase(key).stream().findFirst();
+    }
+    
+    /**
+     * Whether another member than {@code memberId} uses the email, ignoring case
+     */
+    public boolean isEmailTaken(String email, Long memberId) {
+        String key = normalizeEmail(email);
+        if (key == null) {
+            return false;
+        }
+        if (emailsLoaded) {
+            Long owner = emailOwners.get(key);
+            if (owner == null || owner.equals(memberId)) {
+                return false;
+            }
+        }
+        return teamMemberRepository.findByEmailIgnoreCase(key).stream()
+                .anyMatch(member -> !member.getId().equals(memberId));
+    }
+    
+    // 立即刷新，让唯一索引冲突在这里抛出并转换成与预检查相同的错误
+    private TeamMember saveChecked(TeamMember teamMember) {
+        try {
+            return teamMemberRepository.saveAndFlush(teamMember);
+        } catch (DataIntegrityViolationException e) {
+            String message = String.valueOf(e.getMostSpecificCause().getMessage()).toLowerCase(Locale.ROOT);
+            if (teamMember.getEmail() != null && message.contains("email")) {
+                throw duplicateEmail(teamMember.getEmail());
+            }
+            throw e;
+        }
+    }
+    
+    private static RuntimeException duplicateEmail(String email) {
+        return new RuntimeException("A team member with email '" + email + "' already exists");
+    }
+    
+    // 空白邮箱存为 NULL，唯一索引允许多个 NULL
+    private static String trimEmail(String email) {
+        return email == null || email.trim().isEmpty() ? null : email.trim();
+    }
+    
+    private static String normalizeEmail(String email) {
+        String trimmed = trimEmail(email);
+        return trimmed == null ? null : trimmed.toLowerCase(Locale.ROOT);
+    }
+    
+    private synchronized void trackEmail(long memberId, String email) {
+        String key = normalizeEmail(email);
+        String previous = key == null ? memberEmails.remove(memberId) : memberEmails.put(memberId, key);
+        if (previous != null && !previous.equals(key)) {
+            emailOwners.remove(previous, memberId);
+        }
+        if (key != null) {
+            emailOwners.put(key, memberId);
+        }
+    }
+    
+    private synchronized void untrackEmail(long memberId) {
+        String previous = memberEmails.remove(memberId);
+        if (previous != null) {
+            emailOwners.remove(previous, memberId);
+        }
+    }
+    
+    private class EmailChangeListener extends EntityCommitListener {
+        
+        EmailChangeListener() {
+            super(TeamMember.class);
+        }
+        
+        @Override
+        protected void onSaved(Object entity) {
+            TeamMember member = (TeamMember) entity;
+            trackEmail(member.getId(), member.getEmail());
+        }
+        
+        @Override
+        protected void onDelete(Object entity, Long id) {
+            untrackEmail(id);
+        }
     }
 }
@@ -2,16 +2,27 @@ package com.company.projectmanagement.service;
 
 import com.company.projectmanagement.model.Team;
 import com.company.projectmanagement.model.TeamMember;
+import com.company.projectmanagement.model.Views;
+import com.company.projectmanagement.repository.TeamMemberRepository;
 import com.company.projectmanagement.repository.TeamRepository;
+import org.hibernate.Hibernate;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
+@Transactional(readOnly = true)
 public class TeamService {
     
     @Autowired
@@ -20,12 +31,33 @@ public class TeamService {
     @Autowired
     private TeamMemberService teamMemberService;
     
+    @Autowired
+    private TeamMemberRepository teamMemberRepository;
+    
+    @Autowired
+    private CacheInvalidationBroadcaster cacheInvalidationBroadcaster;
+    
     public List<Team> getAllTeams() {
-        return teamRepository.findAll();
+        return getAllTeams(Views.Shape.FULL);
+    }
+    
+    // 摘要视图不输出成员，无需抓取
+    public List<Team> getAllTeams(Views.Shape shape) {
+        if (shape == Views.Shape.SUMMARY) {
+            return teamRepository.findAll();
+        }
+        return teamRepository.findAllWithMembers();
     }
     
     public Optional<Team> getTeamById(Long id) {
-        return teamRepository.findById(id);
+        return getTeamById(id, Views.Shape.FULL);
+    }
+    
+    public Optional<Team> getTeamById(Long id, Views.Shape shape) {
+        if (shape == Views.Shape.SUMMARY) {
+            return teamRepository.findById(id);
+        }
+        return teamRepository.findWithMembersById(id);
     }
     
     public List<Team> getTeamsByProjectId(Long projectId) {
@@ -33,10 +65,12 @@ public class TeamService {
         return teamRepository.findAll(); // 临时实现
     }
     
+    @Transactional
     public Team createTeam(Team team) {
         return teamRepository.save(team);
     }
     
+    @Transactional
     public Team updateTeam(Long id, Team team) {
         if (!teamRepository.existsById(id)) {
             throw new RuntimeException("Team not found");
@@ -58,6 +92,7 @@ public class TeamService {
         return teamRepository.save(existingTeam);
     }
     
+    @Transactional
     public void deleteTeam(Long id) {
         if (!teamRepository.existsById(id)) {
             throw new RuntimeException("Team not found");
@@ -66,15 +101,32 @@ public class TeamService {
     }
     
     public List<Team> searchTeams(String keyword) {
-        // 需要在 TeamRepository 中添加搜索方法
-        return teamRepository.findAll(); // 临时实现
+        return searchTeams(keyword, null);
+    }
+    
+    /**
+     * Search teams by name in the database: prefix matches for short terms, substring matches
+     * (prefix matches first) from three characters on
+     */
+    public List<Team> searchTeams(String keyword, Integer limit) {
+        return searchTeams(keyword, limit, Views.Shape.SUMMARY);
+    }
+    
+    // 分页查询不能连带抓取集合；详情/完整视图在事务内按批（@BatchSize）初始化成员
+    public List<Team> searchTeams(String keyword, Integer limit, Views.Shape shape) {
+        String term = SearchTerms.normalize(keyword);
+        List<Team> teams = SearchTerms.matchesAnywhere(term)
+                ? teamRepository.searchByContains(SearchTerms.contains(term), SearchTerms.prefix(term), SearchTerms.limit(limit))
+                : teamRepository.searchByPrefix(SearchTerms.prefix(term), SearchTerms.limit(limit));
+        if (shape != Views.Shape.SUMMARY) {
+            teams.forEach(team -> Hibernate.initialize(team.getMembers()));
+        }
+        return teams;
     }
     
     public List<Team> getTeamsByName(String name) {
         // 根据团队名称搜索团队
-        return teamRepository.findAll().stream()
-                .filter(team -> team.getName().toLowerCase().contains(name.toLowerCase()))
-                .toList();
+        return teamRepository.findByNameContainingIgnoreCase(name);
     }
     
     public Map<String, Object> getTeamStatistics() {
@@ -89,41 +141,95 @@ public class TeamService {
         return teamMemberService.getTeamMembersByTeamId(teamId);
     }
     
-    public void updateTeamMembers(Long teamId, List<Long> memberIds) {
-        // 验证团队是否存在
-        if (!teamRepository.existsById(teamId)) {
-            throw new RuntimeException("Team not found with id: " + teamId);
+    /**
+     * Replace a team's members with set-based UPDATEs: members not in the list leave the team,
+     * listed members join it. Unknown member IDs reject the whole change.
+     */
+    @Transactional
+    public Map<String, Object> updateTeamMembers(Long teamId, List<Long> memberIds) {
+        Team team = teamRepository.findById(teamId)
+                .orElseThrow(() -> new RuntimeException("Team not found with id: " + teamId));
+        Set<Long> ids = memberIds != null ? new LinkedHashSet<>(memberIds) : Set.of();
+        requireExistingMembers(ids);
+        
+        // 改动的成员：离开团队的现有成员和新加入的成员
+        Set<Long> current = new LinkedHashSet<>(teamMemberRepository.findIdsByTeamId(teamId));
+        Set<Long> changed = new LinkedHashSet<>(current);
+        changed.removeAll(ids);
+        ids.stream().filter(id -> !current.contains(id)).forEach(changed::add);
+        broadcastAfterCommit(changed);
+        
+        int removed = ids.isEmpty()
+                ? teamMemberRepository.removeAllFromTeam(teamId)
+                : teamMemberRepository.removeFromTeamExcept(teamId, ids);
+        int added = ids.isEmpty() ? 0 : teamMemberRepository.assignToTeam(team, ids, null);
+        
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("teamId", teamId);
+        result.put("members", ids.size());
+        result.put("removed", removed);
+        result.put("added", added);
+        return result;
+    }
+    
+    /**
+     * Move members into a team in one UPDATE: the listed members, all members of another team,
+     * or the listed members that are currently in that other team
+     */
+    @Transactional
+    public Map<String, Object> moveMembers(Long targetTeamId, Long fromTeamId, List<Long> memberIds) {
+        Set<Long> ids = memberIds != null ? new LinkedHashSet<>(memberIds) : Set.of();
+        if (ids.isEmpty() && fromTeamId == null) {
+            throw new IllegalArgumentException("Member IDs or a source team are required");
         }
-
-        // 获取团队对象
-        Optional<Team> teamOpt = teamRepository.findById(teamId);
-        if (!teamOpt.isPresent()) {
-            throw new RuntimeException("Team not found with id: " + teamId);
+        if (targetTeamId.equals(fromTeamId)) {
+            throw new IllegalArgumentException("Source and target team must differ");
         }
-        Team team = teamOpt.get();
-
-        // 首先，将当前团队的所有成员从团队中移除
-        List<TeamMember> currentMembers = teamMemberService.getTeamMembersByTeamId(teamId);
-        for (TeamMember currentMember : currentMembers) {
-            currentMember.setTeam(null);
-            currentMember.setTeamId(null);
-            teamMemberService.updateTeamMember(currentMember.getId(), currentMember);
+        Team team = teamRepository.findById(targetTeamId)
+                .orElseThrow(() -> new RuntimeException("Team not found with id: " + targetTeamId));
+        if (fromTeamId != null && !teamRepository.existsById(fromTeamId)) {
+            throw new RuntimeException("Team not found with id: " + fromTeamId);
         }
-
-        // 然后，将指定的成员添加到团队中
-        if (memberIds != null) {
-            for (Long memberId : memberIds) {
-                Optional<TeamMember> memberOpt = teamMemberService.getTeamMemberById(memberId);
-                if (memberOpt.isPresent()) {
-                    TeamMember member = memberOpt.get();
-                    // 设置团队关系
-                    member.setTeam(team);
-                    member.setTeamId(teamId);
-                    
-                    // 更新团队成员
-                    teamMemberService.updateTeamMember(memberId, member);
-                }
+        requireExistingMembers(ids);
+        
+        broadcastAfterCommit(ids.isEmpty()
+                ? teamMemberRepository.findIdsByTeamId(fromTeamId)
+                : teamMemberRepository.findIdsToAssign(team, ids, fromTeamId));
+        
+        int moved = ids.isEmpty()
+                ? teamMemberRepository.moveAllFromTeam(team, fromTeamId)
+                : teamMemberRepository.assignToTeam(team, ids, fromTeamId);
+        
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("teamId", targetTeamId);
+        result.put("fromTeamId", fromTeamId);
+        result.put("moved", moved);
+        return result;
+    }
+    
+    // 批量 UPDATE 不触发实体监听器，提交后按成员ID通知其他节点失效缓存
+    private void broadcastAfterCommit(Collection<Long> memberIds) {
+        if (memberIds.isEmpty()) {
+            return;
+        }
+        List<Long> ids = List.copyOf(memberIds);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                ids.forEach(id -> cacheInvalidationBroadcaster.entityChanged(TeamMember.CACHE_REGION, id));
             }
+        });
+    }
+    
+    // 一次查询校验所有成员ID，有不存在的ID时整体拒绝
+    private void requireExistingMembers(Set<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        Set<Long> missing = new LinkedHashSet<>(ids);
+        teamMemberRepository.findExistingIds(ids).forEach(missing::remove);
+        if (!missing.isEmpty()) {
+            throw new IllegalArgumentException("Team members not found with ids: " + missing);
         }
     }
 }
@@ -0,0 +1,13 @@
+package com.company.projectmanagement.service;
+
+/**
+ * An update of an optimistically locked entity arrived without the version the client read;
+ * controllers answer it with 428 Precondition Required
+ */
+public class VersionRequiredException extends RuntimeException {
+
+    public VersionRequiredException(Class<?> entityType, Object id) {
+        super(entityType.getSimpleName() + " " + id + " can only be updated with the version it was read at "
+                + "(a \"version\" member or an If-Match header)");
+    }
+}
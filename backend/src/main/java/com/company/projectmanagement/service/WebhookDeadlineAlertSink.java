@@ -0,0 +1,58 @@
+package com.company.projectmanagement.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+/**
+ * Posts each deadline alert as JSON to a configured URL; enabled when alerts.webhook.url is set
+ */
+@Component
+@ConditionalOnProperty(name = "alerts.webhook.url")
+public class WebhookDeadlineAlertSink implements DeadlineAlertSink {
+
+    private static final Logger log = LoggerFactory.getLogger(WebhookDeadlineAlertSink.class);
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${alerts.webhook.url}")
+    private String url;
+
+    @Override
+    public void publish(DeadlineAlert alert) {
+        try {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                    .timeout(Duration.ofSeconds(10))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(alert)))
+                    .build();
+            // 异步发送，不阻塞定时器线程
+            httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        if (error != null) {
+                            log.warn("Deadline webhook failed: {}", error.getMessage());
+                        } else if (response.statusCode() >= 300) {
+                            log.warn("Deadline webhook returned HTTP {}", response.statusCode());
+                        }
+                    });
+        } catch (JsonProcessingException e) {
+            log.warn("Could not serialize deadline alert: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package com.company.projectmanagement.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Routes between two embedded H2 databases that each hold a row naming themselves.
+ */
+class ReplicaRoutingDataSourceTest {
+
+    private static final String WHERE_AM_I = "SELECT name FROM marker";
+
+    private EmbeddedDatabase primary;
+
+    private EmbeddedDatabase replica;
+
+    private ReplicaRoutingDataSource routing;
+
+    private JdbcTemplate jdbc;
+
+    private TransactionTemplate readOnly;
+
+    private TransactionTemplate write;
+
+    @BeforeEach
+    void setUp() {
+        primary = database("primary");
+        replica = database("replica");
+        route(Map.of("replica-0", replica));
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReplicaRoutingDataSource.clearCurrentClient();
+        routing.shutdown();
+        primary.shutdown();
+        replica.shutdown();
+    }
+
+    @Test
+    void readOnlyTransactionGoesToReplica() {
+        assertThat(whereReadOnlyRuns()).isEqualTo("replica");
+    }
+
+    @Test
+    void writeTransactionGoesToPrimary() {
+        assertThat(whereWriteRuns()).isEqualTo("primary");
+    }
+
+    @Test
+    void clientIsPinnedToPrimaryOnlyAfterItsWriteCommits() {
+        ReplicaRoutingDataSource.setCurrentClient("writer");
+        String duringWrite = write.execute(status -> {
+            jdbc.update("UPDATE marker SET touched = touched + 1");
+            // 写事务尚未提交：同一客户端的其他只读请求不应被固定到主库
+            return routing.getStatus().get("pinnedClients").toString();
+        });
+        assertThat(duringWrite).isEqualTo("0");
+        assertThat(whereReadOnlyRuns()).isEqualTo("primary");
+
+        ReplicaRoutingDataSource.setCurrentClient("reader");
+        assertThat(whereReadOnlyRuns()).isEqualTo("replica");
+    }
+
+    @Test
+    void rolledBackWriteDoesNotPin() {
+        ReplicaRoutingDataSource.setCurrentClient("writer");
+        write.executeWithoutResult(status -> {
+            jdbc.update("UPDATE marker SET touched = touched + 1");
+            status.setRollbackOnly();
+        });
+        assertThat(whereReadOnlyRuns()).isEqualTo("replica");
+    }
+
+    @Test
+    void unreachableReplicaFallsBackToPrimary() {
+        routing.shutdown();
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        replicas.put("replica-0", new DriverManagerDataSource("jdbc:h2:tcp://127.0.0.1:1/unreachable"));
+        route(replicas);
+
+        assertThat(whereReadOnlyRuns()).isEqualTo("primary");
+        assertThat(routing.getStatus().get("replicas")).isEqualTo(Map.of("replica-0", false));
+    }
+
+    @Test
+    void capturedContextSharesOneReplicaAcrossThreads() throws Exception {
+        EmbeddedDatabase second = database("second");
+        try {
+            routing.shutdown();
+            Map<String, DataSource> replicas = new LinkedHashMap<>();
+            replicas.put("replica-0", replica);
+            replicas.put("replica-1", second);
+            route(replicas);
+
+            ReplicaRoutingDataSource.ReadContext context = ReplicaRoutingDataSource.captureReadContext();
+            Set<String> targets = ConcurrentHashMap.newKeySet();
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                List<Future<?>> reads = new ArrayList<>();
+                for (int i = 0; i < 8; i++) {
+                    reads.add(executor.submit(() -> targets.add(context.call(this::whereReadOnlyRuns))));
+                }
+                for (Future<?> read : reads) {
+                    read.get();
+                }
+            }
+            assertThat(targets).hasSize(1).isSubsetOf("replica", "second");
+        } finally {
+            second.shutdown();
+        }
+    }
+
+    @Test
+    void capturedContextCarriesReadYourWritesToOtherThreads() throws Exception {
+        ReplicaRoutingDataSource.setCurrentClient("writer");
+        write.executeWithoutResult(status -> jdbc.update("UPDATE marker SET touched = touched + 1"));
+
+        ReplicaRoutingDataSource.ReadContext context = ReplicaRoutingDataSource.captureReadContext();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            assertThat(executor.submit(() -> context.call(this::whereReadOnlyRuns)).get()).isEqualTo("primary");
+            // 未带上下文的工作线程不知道调用方是谁，会读副本
+            assertThat(executor.submit(this::whereReadOnlyRuns).get()).isEqualTo("replica");
+        }
+    }
+
+    private void route(Map<String, DataSource> replicas) {
+        routing = new ReplicaRoutingDataSource(primary, replicas, 60_000, 60_000);
+        routing.afterPropertiesSet();
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+        jdbc = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        write = new TransactionTemplate(transactionManager);
+    }
+
+    private String whereReadOnlyRuns() {
+        return readOnly.execute(status -> whereAmI());
+    }
+
+    private String whereWriteRuns() {
+        return write.execute(status -> whereAmI());
+    }
+
+    private String whereAmI() {
+        return jdbc.queryForObject(WHERE_AM_I, String.class);
+    }
+
+    private static EmbeddedDatabase database(String name) {
+        EmbeddedDatabase database = new EmbeddedDatabaseBuilder().setType(EmbeddedDatabaseType.H2).generateUniqueName(true).build();
+        JdbcTemplate jdbc = new JdbcTemplate(database);
+        jdbc.execute("CREATE TABLE marker (name VARCHAR(20), touched INT)");
+        jdbc.update("INSERT INTO marker VALUES (?, 0)", name);
+        return database;
+    }
+}
@@ -0,0 +1,114 @@
+package com.company.projectmanagement.service;
+
+import com.company.projectmanagement.service.HierarchicalTimingWheel.Timer;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Timers in {@link HierarchicalTimingWheel} fire exactly once, no earlier than their tick,
+ * after cascading down from the overflow wheels, and never once cancelled.
+ */
+class HierarchicalTimingWheelTest {
+
+    // 10ms × 8 格：第一层覆盖 80ms，第二层 640ms，第三层 5120ms
+    private static final long TICK_MS = 10;
+
+    private static final int WHEEL_SIZE = 8;
+
+    @Test
+    void timerCascadingFromAnOverflowWheelFiresOnce() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(TICK_MS, WHEEL_SIZE, 0);
+        wheel.schedule("far", 1_000);
+        assertThat(wheel.size()).isEqualTo(1);
+
+        List<String> fired = new ArrayList<>();
+        long firedAt = -1;
+        for (long now = 0; now <= 2_000; now += 7) {
+            List<Timer<String>> expired = wheel.advance(now);
+            if (!expired.isEmpty() && firedAt < 0) {
+                firedAt = now;
+            }
+            expired.forEach(timer -> fired.add(timer.getPayload()));
+        }
+        assertThat(fired).containsExactly("far");
+        assertThat(firedAt).isBetween(1_000L, 1_000L + TICK_MS);
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void cancelledTimersNeverFire() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(TICK_MS, WHEEL_SIZE, 0);
+        Timer<String> inOverflow = wheel.schedule("overflow", 3_000);
+        Timer<String> cascaded = wheel.schedule("cascaded", 500);
+        Timer<String> kept = wheel.schedule("kept", 520);
+        Timer<String> expiredOnInsert = wheel.schedule("expired", 0);
+
+        inOverflow.cancel();
+        expiredOnInsert.cancel();
+        assertThat(inOverflow.isCancelled()).isTrue();
+        // 推进到 480 时 500 所在的第二层桶到期，定时器已下沉到第一层
+        assertThat(wheel.advance(480)).isEmpty();
+        cascaded.cancel();
+        assertThat(wheel.size()).isEqualTo(1);
+
+        assertThat(wheel.advance(5_000)).containsExactly(kept);
+        assertThat(wheel.size()).isZero();
+        kept.cancel();
+        assertThat(wheel.advance(10_000)).isEmpty();
+    }
+
+    @Test
+    void firesEveryTimerExactlyOnceUnderRandomOperations() {
+        for (long seed = 1; seed <= 20; seed++) {
+            Random random = new Random(seed);
+            long now = random.nextInt(1_000);
+            HierarchicalTimingWheel<Integer> wheel = new HierarchicalTimingWheel<>(TICK_MS, WHEEL_SIZE, now);
+            List<Timer<Integer>> timers = new ArrayList<>();
+            Set<Integer> cancelled = new HashSet<>();
+            Map<Integer, Long> firedAt = new HashMap<>();
+            for (int op = 0; op < 2_000; op++) {
+                int action = random.nextInt(10);
+                if (action < 5) {
+                    timers.add(wheel.schedule(timers.size(), now + random.nextInt(20_000) - 50));
+                } else if (action < 6 && !timers.isEmpty()) {
+                    Timer<Integer> timer = timers.get(random.nextInt(timers.size()));
+                    if (!firedAt.containsKey(timer.getPayload())) {
+                        timer.cancel();
+                        cancelled.add(timer.getPayload());
+                    }
+                } else {
+                    now += random.nextInt(random.nextBoolean() ? 30 : 600);
+                    for (Timer<Integer> timer : wheel.advance(now)) {
+                        assertThat(firedAt.put(timer.getPayload(), now)).as("seed %d timer %d fired twice",
+                                seed, timer.getPayload()).isNull();
+                    }
+                }
+            }
+            now += 40_000;
+            for (Timer<Integer> timer : wheel.advance(now)) {
+                assertThat(firedAt.put(timer.getPayload(), now)).isNull();
+            }
+
+            assertThat(wheel.size()).as("seed %d", seed).isZero();
+            for (Timer<Integer> timer : timers) {
+                if (cancelled.contains(timer.getPayload())) {
+                    assertThat(firedAt).as("seed %d", seed).doesNotContainKey(timer.getPayload());
+                } else {
+                    // 以 tick 为精度：到期时间所在格的起点之前不会触发
+                    long tickStart = timer.getExpirationMs() - Math.floorMod(timer.getExpirationMs(), TICK_MS);
+                    assertThat(firedAt.get(timer.getPayload())).as("seed %d timer %d", seed, timer.getPayload())
+                            .isNotNull().isGreaterThanOrEqualTo(tickStart);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,264 @@
+package com.company.projectmanagement.service;
+
+import com.company.projectmanagement.service.MemberWorkloadIndex.Kind;
+import com.company.projectmanagement.service.MemberWorkloadIndex.Load;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares the incremental counts of {@link MemberWorkloadIndex} against a recount of the open
+ * items over random adds, moves between members and weeks, lead changes and removals.
+ */
+class MemberWorkloadIndexTest {
+
+    // 周一
+    private static final LocalDate WEEK = LocalDate.of(2026, 3, 2);
+
+    private static final LocalDate FROM = WEEK.minusYears(1);
+
+    private static final LocalDate UNTIL = WEEK.plusYears(1);
+
+    private static final int MEMBERS = 4;
+
+    private static final int PROJECTS = 3;
+
+    // 容量矩阵的行含一个从未分配过的成员；窗口从周中开始，只覆盖随机日期的一部分
+    private static final long[] MEMBER_IDS = {3, 0, 99, 2, 1};
+
+    private static final LocalDate CAPACITY_FROM = WEEK.minusDays(18);
+
+    private static final int CAPACITY_WEEKS = 8;
+
+    private record Assigned(Long memberId, LocalDate dueDate, boolean open) {}
+
+    private record Phase(long projectId, LocalDate start, LocalDate end, boolean open) {}
+
+    @Test
+    void movesCountsBetweenMembersAndWeeks() {
+        MemberWorkloadIndex index = new MemberWorkloadIndex();
+        index.put(Kind.MILESTONE, 1, 10L, WEEK.plusDays(2), true);
+        index.put(Kind.RISK, 1, 10L, null, true);
+        assertThat(weeks(index.get(10, FROM, UNTIL))).containsExactly(Map.entry(WEEK, List.of(1, 0, 0)));
+        assertThat(index.get(10, FROM, UNTIL).unscheduled()).containsExactly(0, 0, 1);
+
+        // 换负责人并改到下一周
+        index.put(Kind.MILESTONE, 1, 11L, WEEK.plusDays(8), true);
+        assertThat(index.get(10, FROM, UNTIL).weeks()).isEmpty();
+        assertThat(weeks(index.get(11, FROM, UNTIL))).containsExactly(Map.entry(WEEK.plusWeeks(1), List.of(1, 0, 0)));
+
+        // 关闭即移出
+        index.put(Kind.RISK, 1, 10L, null, false);
+        assertThat(index.get(10, FROM, UNTIL)).isNull();
+        index.remove(Kind.MILESTONE, 1);
+        assertThat(index.get(11, FROM, UNTIL)).isNull();
+        assertThat(index.memberCount()).isZero();
+    }
+
+    @Test
+    void phasesFollowTheProjectLead() {
+        MemberWorkloadIndex index = new MemberWorkloadIndex();
+        index.putPhase(1, 100, WEEK, WEEK.plusDays(15), true);
+        assertThat(index.itemCount(Kind.PHASE)).isZero();
+
+        index.putProjectLead(100, 10L);
+        Load lead = index.get(10, FROM, UNTIL);
+        assertThat(lead.weeks()).containsOnlyKeys(WEEK, WEEK.plusWeeks(1), WEEK.plusWeeks(2));
+        assertThat(lead.total()).containsExactly(0, 1, 0);
+
+        index.putProjectLead(100, 11L);
+        assertThat(index.get(10, FROM, UNTIL)).isNull();
+        assertThat(index.get(11, FROM, UNTIL).total()).containsExactly(0, 1, 0);
+
+        index.removeMember(11);
+        assertThat(index.get(11, FROM, UNTIL)).isNull();
+        index.putProjectLead(100, 12L);
+        assertThat(index.get(12, FROM, UNTIL).total()).containsExactly(0, 1, 0);
+
+        index.removeProject(100);
+        assertThat(index.memberCount()).isZero();
+        assertThat(index.itemCount(Kind.PHASE)).isZero();
+    }
+
+    @Test
+    void capacityReadsTheSameWeekBuckets() {
+        MemberWorkloadIndex index = new MemberWorkloadIndex();
+        index.putProjectLead(100, 10L);
+        // 阶段跨第 1、2 周；里程碑在第 0 周和窗口之外；风险在第 3 周
+        index.putPhase(1, 100, WEEK.plusWeeks(1).plusDays(3), WEEK.plusWeeks(2), true);
+        index.put(Kind.MILESTONE, 1, 10L, WEEK.plusDays(4), true);
+        index.put(Kind.MILESTONE, 2, 10L, WEEK.plusWeeks(9), true);
+        index.put(Kind.RISK, 1, 11L, WEEK.plusWeeks(3).plusDays(6), true);
+
+        MemberWorkloadIndex.Capacity capacity = index.capacity(new long[] {11, 10, 12}, WEEK.plusDays(2), 4);
+        assertThat(capacity.counts()[Kind.MILESTONE.ordinal()]).isDeepEqualTo(new int[][] {
+                {0, 0, 0, 0}, {1, 0, 0, 0}, {0, 0, 0, 0}});
+        assertThat(capacity.counts()[Kind.PHASE.ordinal()][1]).containsExactly(0, 1, 1, 0);
+        assertThat(capacity.counts()[Kind.RISK.ordinal()][0]).containsExactly(0, 0, 0, 1);
+        assertThat(capacity.phaseWeeks()[1].stream().toArray()).containsExactly(1, 2);
+        assertThat(capacity.phaseWeeks()[0].isEmpty()).isTrue();
+        assertThat(capacity.phaseWeeks()[2].isEmpty()).isTrue();
+
+        // 改期后矩阵随之移动
+        index.putPhase(1, 100, WEEK.plusWeeks(3), null, true);
+        capacity = index.capacity(new long[] {10}, WEEK, 4);
+        assertThat(capacity.counts()[Kind.PHASE.ordinal()][0]).containsExactly(0, 0, 0, 1);
+        assertThat(capacity.phaseWeeks()[0].stream().toArray()).containsExactly(3);
+    }
+
+    @Test
+    void matchesRecountUnderRandomOperations() {
+        for (long seed = 1; seed <= 20; seed++) {
+            Random random = new Random(seed);
+            MemberWorkloadIndex index = new MemberWorkloadIndex();
+            Map<Kind, Map<Long, Assigned>> assigned = new HashMap<>();
+            assigned.put(Kind.MILESTONE, new HashMap<>());
+            assigned.put(Kind.RISK, new HashMap<>());
+            Map<Long, Phase> phases = new HashMap<>();
+            Map<Long, Long> leads = new HashMap<>();
+            for (int op = 0; op < 1_000; op++) {
+                int action = random.nextInt(20);
+                long id = random.nextInt(15);
+                if (action < 8) {
+                    Kind kind = random.nextBoolean() ? Kind.MILESTONE : Kind.RISK;
+                    Assigned item = new Assigned(randomMember(random), randomDate(random), random.nextInt(4) > 0);
+                    index.put(kind, id, item.memberId(), item.dueDate(), item.open());
+                    assigned.get(kind).put(id, item);
+                } else if (action < 10) {
+                    Kind kind = random.nextBoolean() ? Kind.MILESTONE : Kind.RISK;
+                    index.remove(kind, id);
+                    assigned.get(kind).remove(id);
+                } else if (action < 14) {
+                    Phase phase = new Phase(random.nextInt(PROJECTS), randomDate(random), randomDate(random),
+                            random.nextInt(4) > 0);
+                    index.putPhase(id, phase.projectId(), phase.start(), phase.end(), phase.open());
+                    phases.put(id, phase);
+                } else if (action < 15) {
+                    index.removePhase(id);
+                    phases.remove(id);
+                } else if (action < 18) {
+                    long projectId = random.nextInt(PROJECTS);
+                    Long memberId = randomMember(random);
+                    index.putProjectLead(projectId, memberId);
+                    leads.put(projectId, memberId);
+                } else if (action < 19) {
+                    long projectId = random.nextInt(PROJECTS);
+                    index.removeProject(projectId);
+                    leads.remove(projectId);
+                    phases.values().removeIf(phase -> phase.projectId() == projectId);
+                } else {
+                    long memberId = random.nextInt(MEMBERS);
+                    index.removeMember(memberId);
+                    assigned.values().forEach(byId -> byId.values().removeIf(item -> item.open()
+                            && item.memberId() != null && item.memberId() == memberId));
+                    leads.values().removeIf(lead -> lead != null && lead == memberId);
+                }
+
+                Map<Long, Expected> expected = recount(assigned, phases, leads);
+                String description = "seed " + seed + " op " + op;
+                assertThat(index.memberCount()).as(description).isEqualTo(expected.size());
+                for (long memberId = 0; memberId < MEMBERS; memberId++) {
+                    Load load = index.get(memberId, FROM, UNTIL);
+                    Expected counts = expected.get(memberId);
+                    if (counts == null) {
+                        assertThat(load).as("%s member %d", description, memberId).isNull();
+                        continue;
+                    }
+                    assertThat(load).as("%s member %d", description, memberId).isNotNull();
+                    assertThat(weeks(load)).as("%s member %d weeks", description, memberId).isEqualTo(counts.weeks());
+                    assertThat(load.unscheduled()).as("%s member %d unscheduled", description, memberId)
+                            .isEqualTo(counts.unscheduled());
+                    assertThat(load.total()).as("%s member %d total", description, memberId).isEqualTo(counts.total());
+                }
+                assertCapacity(index.capacity(MEMBER_IDS, CAPACITY_FROM, CAPACITY_WEEKS), expected, description);
+            }
+        }
+    }
+
+    private record Expected(Map<LocalDate, List<Integer>> weeks, int[] unscheduled, int[] total) {
+
+        Expected() {
+            this(new TreeMap<>(), new int[Kind.values().length], new int[Kind.values().length]);
+        }
+
+        void add(Kind kind, LocalDate first, LocalDate last) {
+            total[kind.ordinal()]++;
+            if (first == null) {
+                unscheduled[kind.ordinal()]++;
+                return;
+            }
+            for (LocalDate week = first; !week.isAfter(last); week = week.plusWeeks(1)) {
+                List<Integer> counts = weeks.computeIfAbsent(week, k -> Arrays.asList(0, 0, 0));
+                counts.set(kind.ordinal(), counts.get(kind.ordinal()) + 1);
+            }
+        }
+    }
+
+    // 只计入打开且有负责人的事项；阶段按项目负责人计入，首尾缺一时按单周，颠倒时互换
+    private static Map<Long, Expected> recount(Map<Kind, Map<Long, Assigned>> assigned, Map<Long, Phase> phases,
+                                               Map<Long, Long> leads) {
+        Map<Long, Expected> expected = new HashMap<>();
+        assigned.forEach((kind, byId) -> byId.values().forEach(item -> {
+            if (item.open() && item.memberId() != null) {
+                LocalDate week = MemberWorkloadIndex.weekOf(item.dueDate());
+                expected.computeIfAbsent(item.memberId(), k -> new Expected()).add(kind, week, week);
+            }
+        }));
+        for (Phase phase : phases.values()) {
+            Long lead = leads.get(phase.projectId());
+            if (!phase.open() || lead == null) {
+                continue;
+            }
+            LocalDate start = MemberWorkloadIndex.weekOf(phase.start() != null ? phase.start() : phase.end());
+            LocalDate end = MemberWorkloadIndex.weekOf(phase.end() != null ? phase.end() : phase.start());
+            if (start != null && start.isAfter(end)) {
+                LocalDate swap = start;
+                start = end;
+                end = swap;
+            }
+            expected.computeIfAbsent(lead, k -> new Expected()).add(Kind.PHASE, start, end);
+        }
+        return expected;
+    }
+
+    // 矩阵第 w 列对应窗口起始周之后的第 w 周
+    private static void assertCapacity(MemberWorkloadIndex.Capacity capacity, Map<Long, Expected> expected,
+                                       String description) {
+        LocalDate start = MemberWorkloadIndex.weekOf(CAPACITY_FROM);
+        for (int m = 0; m < MEMBER_IDS.length; m++) {
+            Expected counts = expected.get(MEMBER_IDS[m]);
+            for (int w = 0; w < CAPACITY_WEEKS; w++) {
+                List<Integer> week = counts == null ? null : counts.weeks().get(start.plusWeeks(w));
+                for (Kind kind : Kind.values()) {
+                    assertThat(capacity.counts()[kind.ordinal()][m][w])
+                            .as("%s capacity member %d week %d %s", description, MEMBER_IDS[m], w, kind)
+                            .isEqualTo(week == null ? 0 : week.get(kind.ordinal()));
+                }
+                assertThat(capacity.phaseWeeks()[m].get(w)).as("%s phase week member %d week %d",
+                        description, MEMBER_IDS[m], w).isEqualTo(week != null && week.get(Kind.PHASE.ordinal()) > 0);
+            }
+        }
+    }
+
+    private static Map<LocalDate, List<Integer>> weeks(Load load) {
+        Map<LocalDate, List<Integer>> weeks = new TreeMap<>();
+        load.weeks().forEach((week, counts) -> weeks.put(week, Arrays.stream(counts).boxed().toList()));
+        return weeks;
+    }
+
+    private static Long randomMember(Random random) {
+        return random.nextInt(MEMBERS + 1) == MEMBERS ? null : (long) random.nextInt(MEMBERS);
+    }
+
+    private static LocalDate randomDate(Random random) {
+        return random.nextInt(5) == 0 ? null : WEEK.plusDays(random.nextInt(120) - 60);
+    }
+}
@@ -0,0 +1,94 @@
+package com.company.projectmanagement.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Compares the cached closures of {@link MilestoneDependencyGraph} against a plain
+ * breadth-first search over random edge inserts and removals.
+ */
+class MilestoneDependencyGraphTest {
+
+    private static final int MILESTONES = 12;
+
+    @Test
+    void rejectsCycles() {
+        MilestoneDependencyGraph graph = new MilestoneDependencyGraph(100);
+        graph.addEdge(2, 1);
+        graph.addEdge(3, 2);
+        assertThat(graph.getImpacted(1)).containsExactlyInAnyOrder(2L, 3L);
+
+        assertThatThrownBy(() -> graph.addEdge(1, 3)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> graph.addEdge(4, 4)).isInstanceOf(IllegalArgumentException.class);
+        assertThat(graph.getPrerequisites(1)).isEmpty();
+        assertThat(graph.getImpacted(1)).containsExactlyInAnyOrder(2L, 3L);
+
+        graph.removeEdge(3, 2);
+        assertThat(graph.addEdge(1, 3)).isTrue();
+        assertThat(graph.getImpacted(3)).containsExactlyInAnyOrder(1L, 2L);
+        assertThat(graph.addEdge(1, 3)).isFalse();
+        assertThat(graph.getStatistics()).containsEntry("edges", 2);
+    }
+
+    @Test
+    void matchesBreadthFirstSearchUnderRandomOperations() {
+        for (long seed = 1; seed <= 20; seed++) {
+            Random random = new Random(seed);
+            // 缓存上限小于节点数，同时覆盖缓存被整体清空的路径
+            MilestoneDependencyGraph graph = new MilestoneDependencyGraph(MILESTONES / 2);
+            Map<Long, Set<Long>> dependents = new HashMap<>();
+            for (int op = 0; op < 1_000; op++) {
+                long milestone = random.nextInt(MILESTONES);
+                long dependsOn = random.nextInt(MILESTONES);
+                if (random.nextInt(3) > 0) {
+                    boolean cycle = milestone == dependsOn || reachable(dependents, milestone).contains(dependsOn);
+                    if (cycle) {
+                        assertThatThrownBy(() -> graph.addEdge(milestone, dependsOn))
+                                .as("seed %d op %d", seed, op)
+                                .isInstanceOf(IllegalArgumentException.class);
+                    } else {
+                        boolean added = dependents.computeIfAbsent(dependsOn, k -> new HashSet<>()).add(milestone);
+                        assertThat(graph.addEdge(milestone, dependsOn)).as("seed %d op %d", seed, op).isEqualTo(added);
+                    }
+                } else if (random.nextInt(4) > 0) {
+                    graph.removeEdge(milestone, dependsOn);
+                    dependents.getOrDefault(dependsOn, new HashSet<>()).remove(milestone);
+                } else {
+                    graph.removeMilestone(milestone);
+                    dependents.remove(milestone);
+                    dependents.values().forEach(targets -> targets.remove(milestone));
+                }
+
+                for (long id : List.of((long) random.nextInt(MILESTONES), milestone, dependsOn)) {
+                    assertThat(graph.getImpacted(id)).as("seed %d op %d milestone %d", seed, op, id)
+                            .isEqualTo(reachable(dependents, id));
+                }
+            }
+        }
+    }
+
+    private static Set<Long> reachable(Map<Long, Set<Long>> edges, long start) {
+        Set<Long> visited = new HashSet<>();
+        Deque<Long> queue = new ArrayDeque<>(List.of(start));
+        while (!queue.isEmpty()) {
+            for (Long next : edges.getOrDefault(queue.poll(), Set.of())) {
+                if (visited.add(next)) {
+                    queue.add(next);
+                }
+            }
+        }
+        visited.remove(start);
+        return visited;
+    }
+}
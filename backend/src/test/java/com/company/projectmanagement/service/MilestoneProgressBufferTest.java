@@ -0,0 +1,97 @@
+package com.company.projectmanagement.service;
+
+import com.company.projectmanagement.model.KeyMilestone;
+import com.company.projectmanagement.model.Project;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Buffered progress must not be overwritten by a client that read the milestone before it was written.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.javax.cache.uri=caffeine.conf",
+        "milestone-progress.write-behind.enabled=true",
+        "milestone-progress.write-behind.flush-interval-ms=3600000"})
+@ActiveProfiles("h2")
+class MilestoneProgressBufferTest {
+
+    @Autowired
+    private KeyMilestoneService milestoneService;
+
+    @Autowired
+    private ProjectService projectService;
+
+    @Autowired
+    private MilestoneProgressBuffer progressBuffer;
+
+    private Long milestoneId;
+
+    private Long readVersion;
+
+    @BeforeEach
+    void createMilestone() {
+        Project project = new Project();
+        project.setProjectName("Buffer " + System.nanoTime());
+        project = projectService.saveProject(project);
+
+        KeyMilestone milestone = new KeyMilestone();
+        milestone.setProject(project);
+        milestone.setName("Buffered");
+        milestone.setTargetDate(LocalDate.now().plusDays(10));
+        milestone.setStatus(KeyMilestone.MilestoneStatus.IN_PROGRESS);
+        milestone.setProgress(10);
+        milestone = milestoneService.createMilestone(milestone);
+        milestoneId = milestone.getId();
+        readVersion = milestone.getVersion();
+    }
+
+    @Test
+    void flushAdvancesTheVersion() {
+        assertThat(milestoneService.updateMilestoneProgress(milestoneId, 40)).isEmpty();
+        progressBuffer.flush();
+
+        KeyMilestone stored = milestoneService.getMilestoneById(milestoneId).orElseThrow();
+        assertThat(stored.getProgress()).isEqualTo(40);
+        assertThat(stored.getVersion()).isEqualTo(readVersion + 1);
+        assertThatThrownBy(() -> milestoneService.updateMilestone(milestoneId, staleUpdate()))
+                .isInstanceOf(ObjectOptimisticLockingFailureException.class);
+    }
+
+    @Test
+    void staleWriteWhileBufferedConflictsAndKeepsTheBufferedProgress() {
+        assertThat(milestoneService.updateMilestoneProgress(milestoneId, 60)).isEmpty();
+
+        assertThatThrownBy(() -> milestoneService.updateMilestone(milestoneId, staleUpdate()))
+                .isInstanceOf(ObjectOptimisticLockingFailureException.class);
+        assertThat(progressBuffer.get(milestoneId)).isNull();
+        assertThat(milestoneService.getMilestoneById(milestoneId).orElseThrow().getProgress()).isEqualTo(60);
+    }
+
+    @Test
+    void laterBufferedValuesUseTheFlushedVersion() {
+        milestoneService.updateMilestoneProgress(milestoneId, 20);
+        progressBuffer.flush();
+        milestoneService.updateMilestoneProgress(milestoneId, 30);
+        progressBuffer.flush();
+
+        KeyMilestone stored = milestoneService.getMilestoneById(milestoneId).orElseThrow();
+        assertThat(stored.getProgress()).isEqualTo(30);
+        assertThat(stored.getVersion()).isEqualTo(readVersion + 2);
+    }
+
+    private KeyMilestone staleUpdate() {
+        KeyMilestone details = new KeyMilestone();
+        details.setVersion(readVersion);
+        details.setProgress(15);
+        return details;
+    }
+}
@@ -0,0 +1,104 @@
+package com.company.projectmanagement.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares {@link PrefixTrie} against a sorted map over random puts, removes and prefix walks.
+ */
+class PrefixTrieTest {
+
+    // 小字母表让键大量共享前缀，频繁触发边拆分与合并
+    private static final String ALPHABET = "abc";
+
+    @Test
+    void matchesSortedMapUnderRandomOperations() {
+        for (long seed = 1; seed <= 20; seed++) {
+            Random random = new Random(seed);
+            PrefixTrie<Integer> trie = new PrefixTrie<>();
+            TreeMap<String, List<Integer>> expected = new TreeMap<>();
+            for (int op = 0; op < 2_000; op++) {
+                String key = randomKey(random, 1, 6);
+                int value = random.nextInt(4);
+                if (random.nextInt(3) > 0) {
+                    trie.put(key, value);
+                    List<Integer> values = expected.computeIfAbsent(key, k -> new ArrayList<>());
+                    if (!values.contains(value)) {
+                        values.add(value);
+                    }
+                } else {
+                    trie.remove(key, value);
+                    List<Integer> values = expected.get(key);
+                    if (values != null && values.remove(Integer.valueOf(value)) && values.isEmpty()) {
+                        expected.remove(key);
+                    }
+                }
+                assertThat(trie.size()).as("seed %d op %d", seed, op)
+                        .isEqualTo(expected.values().stream().mapToInt(List::size).sum());
+
+                String prefix = randomKey(random, 0, 4);
+                int limit = 1 + random.nextInt(5);
+                List<String> actual = new ArrayList<>();
+                trie.collect(prefix, limit, (k, v) -> actual.add(k + "=" + v));
+                assertThat(actual).as("seed %d op %d prefix '%s' limit %d", seed, op, prefix, limit)
+                        .isEqualTo(expectedMatches(expected, prefix, limit));
+            }
+        }
+    }
+
+    @Test
+    void removingEveryKeyCollapsesToTheRoot() {
+        Random random = new Random(42);
+        PrefixTrie<Integer> trie = new PrefixTrie<>();
+        Set<String> keys = new LinkedHashSet<>();
+        for (int i = 0; i < 500; i++) {
+            String key = randomKey(random, 1, 8);
+            keys.add(key);
+            trie.put(key, 1);
+        }
+        assertThat(trie.size()).isEqualTo(keys.size());
+        assertThat(trie.nodeCount()).isLessThanOrEqualTo(2 * keys.size() + 1);
+
+        keys.forEach(key -> trie.remove(key, 1));
+        assertThat(trie.size()).isZero();
+        assertThat(trie.nodeCount()).isEqualTo(1);
+    }
+
+    // 有序表按键顺序遍历，同一键内按插入顺序，取前 limit 个不同的值
+    private static List<String> expectedMatches(TreeMap<String, List<Integer>> expected, String prefix, int limit) {
+        List<String> matches = new ArrayList<>();
+        Set<Integer> seen = new LinkedHashSet<>();
+        for (Map.Entry<String, List<Integer>> entry : expected.tailMap(prefix, true).entrySet()) {
+            if (!entry.getKey().startsWith(prefix)) {
+                break;
+            }
+            for (Integer value : entry.getValue()) {
+                if (seen.add(value)) {
+                    matches.add(entry.getKey() + "=" + value);
+                    if (seen.size() >= limit) {
+                        return matches;
+                    }
+                }
+            }
+        }
+        return matches;
+    }
+
+    private static String randomKey(Random random, int minLength, int maxLength) {
+        int length = minLength + random.nextInt(maxLength - minLength + 1);
+        StringBuilder key = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            key.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+        }
+        return key.toString();
+    }
+}
@@ -0,0 +1,125 @@
+package com.company.projectmanagement.service;
+
+import com.company.projectmanagement.service.ProjectArchiveSegment.Content;
+import com.company.projectmanagement.service.ProjectArchiveSegment.TableRows;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Round-trips rows through {@link ProjectArchiveSegment}: read from JDBC, encode, decode and
+ * write back, for every column type the archived tables use, with nulls and non-ASCII text.
+ */
+class ProjectArchiveSegmentTest {
+
+    private static final String COLUMNS = "id BIGINT, name VARCHAR(100), notes CLOB, budget DECIMAL(12, 2), "
+            + "score DOUBLE, progress INT, done BOOLEAN, due DATE, updated_at TIMESTAMP, attachment VARBINARY(16)";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private Connection connection;
+
+    @BeforeEach
+    void openDatabase() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:archive-segment-" + System.nanoTime());
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE source (" + COLUMNS + ")");
+            statement.execute("CREATE TABLE restored (" + COLUMNS + ")");
+            statement.execute("INSERT INTO source VALUES (1, '阿波罗 — Ünïcødé ✓ 🚀', '风险：依赖\n\"quoted\" \\ tab\t', "
+                    + "12345678.90, 0.1, 42, TRUE, DATE '2026-02-28', TIMESTAMP '2026-02-28 23:59:58.123456', X'00FF10')");
+            statement.execute("INSERT INTO source VALUES (2, NULL, NULL, NULL, NULL, NULL, NULL, NULL, NULL, NULL)");
+            statement.execute("INSERT INTO source VALUES (9007199254740993, '', '', 0.01, -1.5E300, 0, FALSE, "
+                    + "DATE '1999-12-31', TIMESTAMP '2000-01-01 00:00:00', X'')");
+        }
+    }
+
+    @AfterEach
+    void closeDatabase() throws SQLException {
+        connection.close();
+    }
+
+    @Test
+    void rowsSurviveEncodeDecodeAndRestore() throws SQLException {
+        TableRows source = read("source");
+        ObjectNode view = objectMapper.createObjectNode()
+                .put("projectName", "阿波罗 ✓ 🚀")
+                .putNull("lead");
+        Content decoded = ProjectArchiveSegment.decode(objectMapper, ProjectArchiveSegment.encode(objectMapper,
+                new Content(ProjectArchiveSegment.FORMAT, view, List.of(source), List.of(7L))));
+
+        assertThat(decoded.format()).isEqualTo(ProjectArchiveSegment.FORMAT);
+        assertThat(decoded.view()).isEqualTo(view);
+        assertThat(decoded.inboundDependencyIds()).containsExactly(7L);
+        assertThat(decoded.rowCount()).isEqualTo(3);
+        assertThat(decoded.table("missing").rows()).isEmpty();
+
+        TableRows rows = decoded.table("source");
+        assertThat(rows.columns()).isEqualTo(source.columns());
+        assertThat(rows.types()).isEqualTo(source.types());
+        String placeholders = String.join(", ", rows.columns().stream().map(c -> "?").toList());
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO restored (" + String.join(", ", rows.columns()) + ") VALUES (" + placeholders + ")")) {
+            for (List<Object> row : rows.rows()) {
+                for (int i = 0; i < row.size(); i++) {
+                    insert.setObject(i + 1, ProjectArchiveSegment.toJdbc(row.get(i), rows.types().get(i)));
+                }
+                insert.executeUpdate();
+            }
+        }
+
+        List<List<Object>> restored = read("restored").rows();
+        assertThat(restored).hasSize(3);
+        for (int r = 0; r < restored.size(); r++) {
+            List<Object> expected = source.rows().get(r);
+            List<Object> actual = restored.get(r);
+            for (int i = 0; i < expected.size(); i++) {
+                assertValueEquals(actual.get(i), expected.get(i), "row " + r + " column " + source.columns().get(i));
+            }
+        }
+        assertThat(restored.get(0).get(1)).isEqualTo("阿波罗 — Ünïcødé ✓ 🚀");
+        assertThat(restored.get(1)).containsOnly(2L, null);
+    }
+
+    @Test
+    void emptySegmentRoundTrips() {
+        Content decoded = ProjectArchiveSegment.decode(objectMapper, ProjectArchiveSegment.encode(objectMapper,
+                new Content(ProjectArchiveSegment.FORMAT, null, new ArrayList<>(), List.of())));
+
+        // JsonNode 字段的 null 读回为 NullNode
+        assertThat(decoded.view() == null || decoded.view().isNull()).isTrue();
+        assertThat(decoded.tables()).isEmpty();
+        assertThat(decoded.rowCount()).isZero();
+    }
+
+    private TableRows read(String table) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT * FROM " + table + " ORDER BY id")) {
+            return ProjectArchiveSegment.readRows(table, rs);
+        }
+    }
+
+    // 数组按内容比较，小数按数值比较（精度不变即可）
+    private static void assertValueEquals(Object actual, Object expected, String description) {
+        if (expected instanceof byte[] bytes) {
+            assertThat((byte[]) actual).as(description).isEqualTo(bytes);
+        } else if (expected instanceof BigDecimal decimal) {
+            assertThat((BigDecimal) actual).as(description).isEqualByComparingTo(decimal);
+        } else {
+            assertThat(actual).as(description).isEqualTo(expected);
+        }
+    }
+}
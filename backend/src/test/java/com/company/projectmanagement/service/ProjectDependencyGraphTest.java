@@ -0,0 +1,124 @@
+package com.company.projectmanagement.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Checks the incrementally maintained topological order of {@link ProjectDependencyGraph}
+ * against a plain reachability search over random edge inserts and removals.
+ */
+class ProjectDependencyGraphTest {
+
+    private static final int PROJECTS = 12;
+
+    @Test
+    void rejectsCyclesAndKeepsTheOrder() {
+        ProjectDependencyGraph graph = new ProjectDependencyGraph();
+        // 逆序插入，迫使每条边都重排
+        graph.addEdge(1, 2);
+        graph.addEdge(2, 3);
+        graph.addEdge(3, 4);
+        assertThat(graph.getLevels()).containsExactly(
+                Map.entry(4L, 0), Map.entry(3L, 1), Map.entry(2L, 2), Map.entry(1L, 3));
+
+        assertThatThrownBy(() -> graph.addEdge(4, 1)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> graph.addEdge(5, 5)).isInstanceOf(IllegalArgumentException.class);
+        assertThat(graph.getUpstream(4)).isEmpty();
+
+        graph.removeEdge(2, 3);
+        assertThat(graph.addEdge(3, 1)).isTrue();
+        assertThat(graph.addEdge(3, 1)).isFalse();
+        assertThat(graph.getUpstream(3)).containsExactlyInAnyOrder(1L, 2L, 4L);
+        assertThat(graph.getLevels()).containsEntry(3L, 2);
+        assertThat(graph.getStatistics()).containsEntry("edges", 3);
+    }
+
+    @Test
+    void loadSkipsEdgesThatCloseACycle() {
+        ProjectDependencyGraph graph = new ProjectDependencyGraph();
+        List<long[]> skipped = graph.load(List.of(new long[] {1, 2}, new long[] {2, 3}, new long[] {3, 1}));
+
+        assertThat(skipped).singleElement().satisfies(edge -> assertThat(edge).containsExactly(3, 1));
+        assertThat(graph.getStatistics()).containsEntry("edges", 2).containsEntry("skippedEdges", 1);
+    }
+
+    @Test
+    void matchesReachabilityUnderRandomOperations() {
+        for (long seed = 1; seed <= 20; seed++) {
+            Random random = new Random(seed);
+            ProjectDependencyGraph graph = new ProjectDependencyGraph();
+            Map<Long, Set<Long>> prerequisites = new HashMap<>();
+            for (int op = 0; op < 1_000; op++) {
+                long project = random.nextInt(PROJECTS);
+                long dependsOn = random.nextInt(PROJECTS);
+                if (random.nextInt(3) > 0) {
+                    boolean cycle = project == dependsOn || upstream(prerequisites, dependsOn).contains(project);
+                    if (cycle) {
+                        assertThatThrownBy(() -> graph.addEdge(project, dependsOn))
+                                .as("seed %d op %d", seed, op)
+                                .isInstanceOf(IllegalArgumentException.class);
+                    } else {
+                        boolean added = prerequisites.computeIfAbsent(project, k -> new HashSet<>()).add(dependsOn);
+                        assertThat(graph.addEdge(project, dependsOn)).as("seed %d op %d", seed, op).isEqualTo(added);
+                    }
+                } else if (random.nextInt(4) > 0) {
+                    graph.removeEdge(project, dependsOn);
+                    prerequisites.getOrDefault(project, new HashSet<>()).remove(dependsOn);
+                } else {
+                    graph.removeProject(project);
+                    prerequisites.remove(project);
+                    prerequisites.values().forEach(targets -> targets.remove(project));
+                }
+                prerequisites.values().removeIf(Set::isEmpty);
+
+                assertTopologicalOrder(graph.getLevels(), prerequisites, "seed " + seed + " op " + op);
+                assertThat(graph.getUpstream(project)).as("seed %d op %d", seed, op)
+                        .isEqualTo(upstream(prerequisites, project));
+            }
+        }
+    }
+
+    // 每个项目都排在其全部前置项目之后，层级等于最长前置链长度，且只包含有依赖的项目
+    private static void assertTopologicalOrder(Map<Long, Integer> levels, Map<Long, Set<Long>> prerequisites,
+                                               String description) {
+        Set<Long> involved = new HashSet<>(prerequisites.keySet());
+        prerequisites.values().forEach(involved::addAll);
+        assertThat(levels.keySet()).as(description).isEqualTo(involved);
+
+        List<Long> ordered = new ArrayList<>(levels.keySet());
+        for (Long projectId : ordered) {
+            int level = 0;
+            for (Long dependsOnId : prerequisites.getOrDefault(projectId, Set.of())) {
+                assertThat(ordered.indexOf(dependsOnId)).as(description).isLessThan(ordered.indexOf(projectId));
+                level = Math.max(level, levels.get(dependsOnId) + 1);
+            }
+            assertThat(levels.get(projectId)).as(description + " project " + projectId).isEqualTo(level);
+        }
+    }
+
+    private static Set<Long> upstream(Map<Long, Set<Long>> prerequisites, long start) {
+        Set<Long> visited = new HashSet<>();
+        Deque<Long> queue = new ArrayDeque<>(List.of(start));
+        while (!queue.isEmpty()) {
+            for (Long next : prerequisites.getOrDefault(queue.poll(), Set.of())) {
+                if (visited.add(next)) {
+                    queue.add(next);
+                }
+            }
+        }
+        visited.remove(start);
+        return visited;
+    }
+}
@@ -0,0 +1,94 @@
+package com.company.projectmanagement.service;
+
+import com.company.projectmanagement.model.Project;
+import com.company.projectmanagement.model.ProjectPhase;
+import com.company.projectmanagement.model.Views;
+import org.hibernate.Hibernate;
+import org.hibernate.LazyInitializationException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * With open-session-in-view off, only what the service layer fetched is usable once its transaction has ended.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.javax.cache.uri=caffeine.conf")
+@AutoConfigureMockMvc
+@ActiveProfiles("h2")
+class ProjectServiceLazyLoadingTest {
+
+    @Autowired
+    private ProjectService projectService;
+
+    @Autowired
+    private ProjectPhaseService projectPhaseService;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Value("${spring.jpa.open-in-view}")
+    private boolean openInView;
+
+    private Long projectId;
+
+    @BeforeEach
+    void createProjectWithPhase() {
+        Project project = new Project();
+        project.setProjectName("Lazy " + System.nanoTime());
+        projectId = projectService.saveProject(project).getId();
+
+        ProjectPhase phase = new ProjectPhase();
+        Project reference = new Project();
+        reference.setId(projectId);
+        phase.setProject(reference);
+        phase.setPhaseName(ProjectPhase.PhaseType.SIT);
+        projectPhaseService.createProjectPhase(phase);
+    }
+
+    @Test
+    void openSessionInViewIsOff() {
+        assertThat(openInView).isFalse();
+    }
+
+    @Test
+    void unfetchedAssociationFailsOutsideTheServiceLayer() {
+        Project project = find(Views.Shape.SUMMARY);
+
+        assertThat(Hibernate.isInitialized(project.getProjectPhases())).isFalse();
+        assertThatThrownBy(() -> project.getProjectPhases().size())
+                .isInstanceOf(LazyInitializationException.class);
+    }
+
+    @Test
+    void fullListFetchesChildCollectionsInsideTheServiceLayer() throws Exception {
+        Project project = find(Views.Shape.FULL);
+
+        assertThat(Hibernate.isInitialized(project.getProjectPhases())).isTrue();
+        assertThat(project.getProjectPhases()).hasSize(1);
+        assertThat(Hibernate.isInitialized(project.getRisksIssues())).isTrue();
+        assertThat(Hibernate.isInitialized(project.getProjectDependencies())).isTrue();
+
+        mockMvc.perform(get("/api/projects").param("view", "full"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[?(@.id == " + projectId + ")].projectPhases[0].phaseName").value("SIT"))
+                .andExpect(jsonPath("$[?(@.id == " + projectId + ")].risksIssues").isArray());
+    }
+
+    private Project find(Views.Shape shape) {
+        return projectService.getAllProjects(shape).stream()
+                .filter(p -> p.getId().equals(projectId))
+                .findFirst()
+                .orElseThrow();
+    }
+}
@@ -0,0 +1,191 @@
+package com.company.projectmanagement.service;
+
+import com.company.projectmanagement.model.KeyMilestone;
+import com.company.projectmanagement.model.Project;
+import com.company.projectmanagement.model.ProjectPhase;
+import com.company.projectmanagement.model.Views;
+import com.company.projectmanagement.repository.KeyMilestoneRepository;
+import com.company.projectmanagement.repository.ProjectPhaseRepository;
+import com.company.projectmanagement.repository.ProjectRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Before/after harness for read-only service transactions on the Gantt and milestone list paths.
+ * "read-write" runs the service call inside an outer read-write transaction, which is what the
+ * class-level {@code @Transactional} used to give every GET; "read-only" is the current behaviour.
+ * Not picked up by the default test run; start it with
+ * {@code mvn test -Dtest=ReadOnlyTransactionBenchmark}.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.javax.cache.uri=caffeine.conf")
+@ActiveProfiles("h2")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ReadOnlyTransactionBenchmark {
+
+    private static final int PROJECTS = 200;
+
+    private static final int PHASES_PER_PROJECT = 5;
+
+    private static final int MILESTONES_PER_PROJECT = 10;
+
+    private static final int WARMUP_ROUNDS = 30;
+
+    private static final int MEASURED_ROUNDS = 100;
+
+    @Autowired
+    private GanttChartService ganttChartService;
+
+    @Autowired
+    private KeyMilestoneService milestoneService;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private ProjectPhaseRepository phaseRepository;
+
+    @Autowired
+    private KeyMilestoneRepository milestoneRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private TransactionTemplate readWrite;
+
+    private TransactionTemplate readOnly;
+
+    @BeforeAll
+    void seed() {
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        LocalDate start = LocalDate.now().minusDays(60);
+        readWrite.executeWithoutResult(status -> {
+            for (int p = 0; p < PROJECTS; p++) {
+                Project project = new Project();
+                project.setProjectName("Bench " + p + " " + System.nanoTime());
+                project.setItExecutiveSummary("x".repeat(2_000));
+                projectRepository.save(project);
+
+                List<ProjectPhase> phases = new ArrayList<>();
+                ProjectPhase.PhaseType[] types = ProjectPhase.PhaseType.values();
+                for (int i = 0; i < PHASES_PER_PROJECT; i++) {
+                    ProjectPhase phase = new ProjectPhase();
+                    phase.setProject(project);
+                    phase.setPhaseName(types[i % types.length]);
+                    phase.setPlannedStartDate(start.plusDays(i * 20L));
+                    phase.setPlannedEndDate(start.plusDays(i * 20L + 19));
+                    phases.add(phase);
+                }
+                phaseRepository.saveAll(phases);
+
+                List<KeyMilestone> milestones = new ArrayList<>();
+                for (int i = 0; i < MILESTONES_PER_PROJECT; i++) {
+                    KeyMilestone milestone = new KeyMilestone();
+                    milestone.setProject(project);
+                    milestone.setName("M" + i);
+                    milestone.setTargetDate(start.plusDays(i * 10L));
+                    milestone.setDescription("d".repeat(1_000));
+                    milestone.setDeliverables("v".repeat(1_000));
+                    milestones.add(milestone);
+                }
+                milestoneRepository.saveAll(milestones);
+            }
+        });
+    }
+
+    @Test
+    void ganttChartData() {
+        compare("GET /api/gantt/data", ganttChartService::getGanttChartData);
+    }
+
+    @Test
+    void milestoneList() {
+        compare("GET /api/milestones?view=full", () -> milestoneService.getAllMilestones(Views.Shape.FULL));
+    }
+
+    private void compare(String endpoint, Supplier<?> call) {
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            measure(readWrite, call);
+            measure(readOnly, call);
+        }
+        Result before = run(readWrite, call);
+        Result after = run(readOnly, call);
+
+        System.out.printf("%n%s (%d rounds)%n", endpoint, MEASURED_ROUNDS);
+        System.out.printf("  %-10s %10s %10s %14s %10s%n", "mode", "p50 ms", "mean ms", "alloc KB/call", "snapshots");
+        before.print("read-write");
+        after.print("read-only");
+
+        assertThat(after.snapshots()).isZero();
+    }
+
+    private Result run(TransactionTemplate template, Supplier<?> call) {
+        long[] nanos = new long[MEASURED_ROUNDS];
+        long allocated = 0;
+        long snapshots = 0;
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            Sample sample = measure(template, call);
+            nanos[i] = sample.nanos();
+            allocated += sample.allocatedBytes();
+            snapshots = sample.snapshots();
+        }
+        Arrays.sort(nanos);
+        return new Result(nanos[nanos.length / 2], Arrays.stream(nanos).sum() / nanos.length,
+                allocated / MEASURED_ROUNDS, snapshots);
+    }
+
+    // 计时和分配量都包含事务提交，读写事务的脏检查和 flush 发生在提交时
+    private Sample measure(TransactionTemplate template, Supplier<?> call) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long[] snapshots = new long[1];
+        long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+        long start = System.nanoTime();
+        template.executeWithoutResult(status -> {
+            call.get();
+            snapshots[0] = snapshotCount();
+        });
+        long nanos = System.nanoTime() - start;
+        return new Sample(nanos, threads.getCurrentThreadAllocatedBytes() - allocatedBefore, snapshots[0]);
+    }
+
+    // 持久化上下文中带加载快照（用于脏检查）的实体数
+    private long snapshotCount() {
+        return Arrays.stream(entityManager.unwrap(SessionImplementor.class)
+                        .getPersistenceContextInternal().reentrantSafeEntityEntries())
+                .filter(entry -> entry.getValue().getLoadedState() != null)
+                .count();
+    }
+
+    private record Sample(long nanos, long allocatedBytes, long snapshots) {}
+
+    private record Result(long p50Nanos, long meanNanos, long allocatedBytes, long snapshots) {
+
+        void print(String mode) {
+            System.out.printf("  %-10s %10.2f %10.2f %14d %10d%n", mode, p50Nanos / 1e6, meanNanos / 1e6,
+                    allocatedBytes / 1024, snapshots);
+        }
+    }
+}
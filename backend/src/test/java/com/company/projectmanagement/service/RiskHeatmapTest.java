@@ -0,0 +1,170 @@
+package com.company.projectmanagement.service;
+
+import com.company.projectmanagement.model.RiskStatus;
+import com.company.projectmanagement.model.Severity;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares the incremental counters of {@link RiskHeatmap} against a recount of the current
+ * risks over random adds, moves between cells, projects and teams, and removals.
+ */
+class RiskHeatmapTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2026, 3, 15);
+
+    private static final int PROJECTS = 6;
+
+    private static final int TEAMS = 3;
+
+    private record Risk(long projectId, Severity severity, RiskStatus status, LocalDate dueDate) {}
+
+    @Test
+    void movesRiskBetweenCells() {
+        RiskHeatmap heatmap = new RiskHeatmap();
+        heatmap.setProjectTeam(1, 10L);
+        heatmap.putRisk(100, 1, Severity.HIGH, RiskStatus.OPEN, TODAY.minusDays(1));
+        heatmap.putRisk(101, 1, null, null, null);
+
+        Map<String, Object> before = heatmap.snapshot(10L, TODAY);
+        assertThat(before).containsEntry("totalRisks", 2).containsEntry("openRisks", 2)
+                .containsEntry("overdueOpenRisks", 1);
+        assertThat(cell(before, Severity.MEDIUM, RiskStatus.OPEN)).isEqualTo(1);
+
+        heatmap.putRisk(100, 1, Severity.CRITICAL, RiskStatus.RESOLVED, TODAY.minusDays(1));
+        Map<String, Object> after = heatmap.snapshot(10L, TODAY);
+        assertThat(after).containsEntry("totalRisks", 2).containsEntry("openRisks", 1)
+                .containsEntry("overdueOpenRisks", 0);
+        assertThat(cell(after, Severity.HIGH, RiskStatus.OPEN)).isZero();
+        assertThat(cell(after, Severity.CRITICAL, RiskStatus.RESOLVED)).isEqualTo(1);
+
+        heatmap.removeRisk(100);
+        heatmap.removeRisk(101);
+        assertThat(heatmap.size()).isZero();
+        assertThat(heatmap.snapshot(null, TODAY)).containsEntry("totalRisks", 0).containsEntry("teams", List.of());
+    }
+
+    @Test
+    void matchesRecountUnderRandomOperations() {
+        for (long seed = 1; seed <= 20; seed++) {
+            Random random = new Random(seed);
+            RiskHeatmap heatmap = new RiskHeatmap();
+            Map<Long, Risk> risks = new HashMap<>();
+            Map<Long, Long> teams = new HashMap<>();
+            for (int op = 0; op < 1_000; op++) {
+                int action = random.nextInt(10);
+                if (action < 6) {
+                    long riskId = random.nextInt(40);
+                    Risk risk = new Risk(random.nextInt(PROJECTS), pick(random, Severity.values()),
+                            pick(random, RiskStatus.values()),
+                            random.nextInt(4) == 0 ? null : TODAY.plusDays(random.nextInt(11) - 5));
+                    heatmap.putRisk(riskId, risk.projectId(), risk.severity(), risk.status(), risk.dueDate());
+                    risks.put(riskId, risk);
+                } else if (action < 8) {
+                    long riskId = random.nextInt(40);
+                    heatmap.removeRisk(riskId);
+                    risks.remove(riskId);
+                } else if (action < 9) {
+                    long projectId = random.nextInt(PROJECTS);
+                    Long teamId = random.nextInt(TEAMS + 1) == 0 ? null : (long) random.nextInt(TEAMS);
+                    heatmap.setProjectTeam(projectId, teamId);
+                    teams.put(projectId, teamId);
+                } else {
+                    long projectId = random.nextInt(PROJECTS);
+                    heatmap.removeProject(projectId);
+                    risks.values().removeIf(risk -> risk.projectId() == projectId);
+                    teams.remove(projectId);
+                }
+
+                String description = "seed " + seed + " op " + op;
+                assertThat(heatmap.size()).as(description).isEqualTo(risks.size());
+                Map<String, Object> portfolio = heatmap.snapshot(null, TODAY);
+                assertThat(withoutKeys(portfolio, "asOf", "teams")).as(description)
+                        .isEqualTo(recount(risks, teams, null, false));
+                Map<Long, Map<String, Object>> byTeam = new HashMap<>();
+                for (Object team : (List<?>) portfolio.get("teams")) {
+                    Map<String, Object> totals = withoutKeys((Map<?, ?>) team, "teamId");
+                    byTeam.put((Long) ((Map<?, ?>) team).get("teamId"), totals);
+                }
+                assertThat(byTeam).as(description).isEqualTo(recountByTeam(risks, teams));
+                for (long teamId = 0; teamId < TEAMS; teamId++) {
+                    assertThat(withoutKeys(heatmap.snapshot(teamId, TODAY), "asOf", "teamId"))
+                            .as("%s team %d", description, teamId)
+                            .isEqualTo(recount(risks, teams, teamId, true));
+                }
+            }
+        }
+    }
+
+    private static Map<Long, Map<String, Object>> recountByTeam(Map<Long, Risk> risks, Map<Long, Long> teams) {
+        Map<Long, Map<String, Object>> byTeam = new HashMap<>();
+        for (Risk risk : risks.values()) {
+            Long teamId = teams.get(risk.projectId());
+            byTeam.computeIfAbsent(teamId, id -> recount(risks, teams, id, true));
+        }
+        return byTeam;
+    }
+
+    // 只统计所属团队为 teamId 的项目（filtered 为 false 时统计全部）
+    private static Map<String, Object> recount(Map<Long, Risk> risks, Map<Long, Long> teams, Long teamId,
+                                               boolean filtered) {
+        Map<String, Map<String, Integer>> matrix = new LinkedHashMap<>();
+        for (Severity severity : Severity.values()) {
+            Map<String, Integer> row = new LinkedHashMap<>();
+            for (RiskStatus status : RiskStatus.values()) {
+                row.put(status.name(), 0);
+            }
+            matrix.put(severity.name(), row);
+        }
+        int total = 0;
+        int open = 0;
+        int overdue = 0;
+        for (Risk risk : risks.values()) {
+            if (filtered && !Objects.equals(teamId, teams.get(risk.projectId()))) {
+                continue;
+            }
+            matrix.get(risk.severity().name()).merge(risk.status().name(), 1, Integer::sum);
+            total++;
+            boolean isOpen = risk.status() == RiskStatus.OPEN || risk.status() == RiskStatus.IN_PROGRESS;
+            if (isOpen) {
+                open++;
+                if (risk.dueDate() != null && risk.dueDate().isBefore(TODAY)) {
+                    overdue++;
+                }
+            }
+        }
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("totalRisks", total);
+        result.put("openRisks", open);
+        result.put("overdueOpenRisks", overdue);
+        result.put("matrix", matrix);
+        return result;
+    }
+
+    private static Map<String, Object> withoutKeys(Map<?, ?> map, String... keys) {
+        Map<String, Object> copy = new LinkedHashMap<>();
+        map.forEach((key, value) -> copy.put((String) key, value));
+        for (String key : keys) {
+            copy.remove(key);
+        }
+        return copy;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static int cell(Map<String, Object> snapshot, Severity severity, RiskStatus status) {
+        return ((Map<String, Map<String, Integer>>) snapshot.get("matrix")).get(severity.name()).get(status.name());
+    }
+
+    private static <T> T pick(Random random, T[] values) {
+        return values[random.nextInt(values.length)];
+    }
+}
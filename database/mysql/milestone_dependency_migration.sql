@@ -0,0 +1,50 @@
+-- MySQL Migration script for milestone dependency edges
+-- Dependencies between milestones are stored as rows (milestone_id depends on depends_on_id)
+-- instead of free text, so "what slips if this milestone slips" can be answered by graph traversal.
+-- The legacy key_milestones.dependencies text is kept; existing entries are parsed into edges below.
+
+CREATE TABLE IF NOT EXISTS milestone_dependencies (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    milestone_id BIGINT NOT NULL,
+    depends_on_id BIGINT NOT NULL,
+    created_at DATETIME(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6),
+    UNIQUE KEY uk_milestone_dependency (milestone_id, depends_on_id),
+    INDEX idx_milestone_dependency_depends_on (depends_on_id),
+    CONSTRAINT fk_milestone_dependency_milestone FOREIGN KEY (milestone_id) REFERENCES key_milestones(id) ON DELETE CASCADE,
+    CONSTRAINT fk_milestone_dependency_depends_on FOREIGN KEY (depends_on_id) REFERENCES key_milestones(id) ON DELETE CASCADE
+);
+
+-- Parse the free-text column: entries separated by comma, semicolon or newline,
+-- matched case-insensitively against milestone names in the same project.
+-- Entries that match no milestone are left in the text column only.
+INSERT IGNORE INTO milestone_dependencies (milestone_id, depends_on_id)
+WITH RECURSIVE entries (milestone_id, project_id, entry, rest) AS (
+    SELECT id, project_id,
+           SUBSTRING_INDEX(REPLACE(REPLACE(dependencies, ';', ','), '\n', ','), ',', 1),
+           IF(LOCATE(',', REPLACE(REPLACE(dependencies, ';', ','), '\n', ',')) > 0,
+              SUBSTRING(REPLACE(REPLACE(dependencies, ';', ','), '\n', ','),
+                        LOCATE(',', REPLACE(REPLACE(dependencies, ';', ','), '\n', ',')) + 1),
+              NULL)
+    FROM key_milestones
+    WHERE dependencies IS NOT NULL AND TRIM(dependencies) <> ''
+    UNION ALL
+    SELECT milestone_id, project_id,
+           SUBSTRING_INDEX(rest, ',', 1),
+           IF(LOCATE(',', rest) > 0, SUBSTRING(rest, LOCATE(',', rest) + 1), NULL)
+    FROM entries
+    WHERE rest IS NOT NULL
+)
+SELECT DISTINCT e.milestone_id, target.id
+FROM entries e
+JOIN key_milestones target
+  ON target.project_id = e.project_id
+ AND LOWER(target.name) = LOWER(TRIM(REPLACE(e.entry, '\r', '')))
+ AND target.id <> e.milestone_id;
+
+-- Verify the changes
+SELECT m.id, m.name, m.dependencies, COUNT(d.id) AS parsed_edges
+FROM key_milestones m
+LEFT JOIN milestone_dependencies d ON d.milestone_id = m.id
+WHERE m.dependencies IS NOT NULL AND TRIM(m.dependencies) <> ''
+GROUP BY m.id, m.name, m.dependencies
+ORDER BY m.id;
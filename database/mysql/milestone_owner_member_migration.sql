@@ -0,0 +1,45 @@
+-- MySQL Migration script for milestone owners
+-- A milestone owner may now be linked to a team member (owner_member_id), which the member
+-- workload view is indexed on. The free-text owner column is kept for display and for owners
+-- outside the teams. Existing owners are linked where the text names exactly one member,
+-- by name or by email; ambiguous and unknown owners stay unlinked.
+-- If the member is deleted, the column is set back to NULL and the owner text is kept.
+
+DELIMITER //
+DROP PROCEDURE IF EXISTS add_milestone_owner_member//
+CREATE PROCEDURE add_milestone_owner_member()
+BEGIN
+    IF NOT EXISTS (
+        SELECT 1 FROM information_schema.columns
+        WHERE table_schema = DATABASE() AND table_name = 'key_milestones' AND column_name = 'owner_member_id'
+    ) THEN
+        ALTER TABLE key_milestones
+            ADD COLUMN owner_member_id BIGINT NULL,
+            ADD INDEX idx_key_milestone_owner_member (owner_member_id),
+            ADD CONSTRAINT fk_key_milestone_owner_member
+                FOREIGN KEY (owner_member_id) REFERENCES team_members(id) ON DELETE SET NULL;
+    END IF;
+END//
+DELIMITER ;
+
+CALL add_milestone_owner_member();
+DROP PROCEDURE IF EXISTS add_milestone_owner_member;
+
+-- Link existing owners that match exactly one member (default collations compare case-insensitively)
+UPDATE key_milestones m
+JOIN (
+    SELECT km.id AS milestone_id, MIN(tm.id) AS member_id
+    FROM key_milestones km
+    JOIN team_members tm
+      ON TRIM(km.owner) IN (tm.name, tm.email)
+    WHERE km.owner_member_id IS NULL
+    GROUP BY km.id
+    HAVING COUNT(DISTINCT tm.id) = 1
+) matched ON m.id = matched.milestone_id
+SET m.owner_member_id = matched.member_id;
+
+-- Verify the changes
+SELECT COUNT(*) AS milestones,
+       COUNT(owner) AS with_owner,
+       COUNT(owner_member_id) AS linked_to_member
+FROM key_milestones;
@@ -0,0 +1,31 @@
+-- MySQL Migration script for optimistic locking
+-- Adds a version column to projects, project_phases and key_milestones.
+-- Every update bumps the version; an update carrying a stale version is rejected with HTTP 409.
+
+DROP PROCEDURE IF EXISTS add_version_column;
+DELIMITER //
+CREATE PROCEDURE add_version_column(IN target_table VARCHAR(64))
+BEGIN
+    IF NOT EXISTS (
+        SELECT 1 FROM information_schema.columns
+        WHERE table_schema = DATABASE() AND table_name = target_table AND column_name = 'version'
+    ) THEN
+        SET @sql = CONCAT('ALTER TABLE ', target_table, ' ADD COLUMN version BIGINT NOT NULL DEFAULT 0');
+        PREPARE stmt FROM @sql;
+        EXECUTE stmt;
+        DEALLOCATE PREPARE stmt;
+    END IF;
+END//
+DELIMITER ;
+
+CALL add_version_column('projects');
+CALL add_version_column('project_phases');
+CALL add_version_column('key_milestones');
+
+DROP PROCEDURE IF EXISTS add_version_column;
+
+-- Verify the changes
+SELECT table_name, column_name, data_type, column_default
+FROM information_schema.columns
+WHERE table_schema = DATABASE() AND column_name = 'version'
+  AND table_name IN ('projects', 'project_phases', 'key_milestones');
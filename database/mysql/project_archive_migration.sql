@@ -0,0 +1,23 @@
+-- MySQL Migration script for hot/cold project archival
+-- Finished projects are moved out of projects, project_phases, key_milestones, risks_issues and
+-- project_dependencies into one gzip-compressed segment per project. The segment keeps the
+-- original rows and IDs, so a restore writes them back unchanged.
+
+CREATE TABLE IF NOT EXISTS archived_projects (
+    project_id BIGINT PRIMARY KEY,
+    project_name VARCHAR(255) NOT NULL,
+    team_id BIGINT,
+    archived_at DATETIME(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6),
+    segment_format INT NOT NULL,
+    row_count INT NOT NULL,
+    segment_size INT NOT NULL,
+    segment LONGBLOB NOT NULL,
+    -- No foreign key to teams: archives outlive deleted teams
+    INDEX idx_archived_project_team (team_id)
+);
+
+-- Verify the changes
+SELECT column_name, data_type, is_nullable
+FROM information_schema.columns
+WHERE table_schema = DATABASE() AND table_name = 'archived_projects'
+ORDER BY ordinal_position;
@@ -0,0 +1,29 @@
+-- MySQL Migration script for cross-project dependencies
+-- A project dependency may now point at another project (depends_on_project_id).
+-- Dependencies on external systems keep the column NULL.
+-- If the referenced project is deleted, the column is set back to NULL and the named dependency is kept.
+
+DELIMITER //
+DROP PROCEDURE IF EXISTS add_project_dependency_target//
+CREATE PROCEDURE add_project_dependency_target()
+BEGIN
+    IF NOT EXISTS (
+        SELECT 1 FROM information_schema.columns
+        WHERE table_schema = DATABASE() AND table_name = 'project_dependencies' AND column_name = 'depends_on_project_id'
+    ) THEN
+        ALTER TABLE project_dependencies
+            ADD COLUMN depends_on_project_id BIGINT NULL,
+            ADD INDEX idx_project_dependency_depends_on (depends_on_project_id),
+            ADD CONSTRAINT fk_project_dependency_depends_on
+                FOREIGN KEY (depends_on_project_id) REFERENCES projects(id) ON DELETE SET NULL;
+    END IF;
+END//
+DELIMITER ;
+
+CALL add_project_dependency_target();
+DROP PROCEDURE IF EXISTS add_project_dependency_target;
+
+-- Verify the changes
+SELECT column_name, data_type, is_nullable
+FROM information_schema.columns
+WHERE table_schema = DATABASE() AND table_name = 'project_dependencies' AND column_name = 'depends_on_project_id';
@@ -0,0 +1,20 @@
+-- MySQL Migration script for the risk register
+-- Indexes for listing a project's risks and for the open-and-past-due query.
+-- Heatmap counts are kept in application memory and need no schema changes.
+
+SET @index_exists = (SELECT COUNT(*) FROM information_schema.statistics
+    WHERE table_schema = DATABASE() AND table_name = 'risks_issues' AND index_name = 'idx_risk_issue_project');
+SET @sql = IF(@index_exists = 0, 'CREATE INDEX idx_risk_issue_project ON risks_issues(project_id)', 'SELECT 1');
+PREPARE stmt FROM @sql;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @index_exists = (SELECT COUNT(*) FROM information_schema.statistics
+    WHERE table_schema = DATABASE() AND table_name = 'risks_issues' AND index_name = 'idx_risk_issue_status_due');
+SET @sql = IF(@index_exists = 0, 'CREATE INDEX idx_risk_issue_status_due ON risks_issues(status, due_date)', 'SELECT 1');
+PREPARE stmt FROM @sql;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- Verify the changes
+SHOW INDEX FROM risks_issues;
@@ -0,0 +1,151 @@
+-- MySQL Migration script for RAG status history
+-- status_history is append-only (no UPDATE or DELETE) and range-partitioned by month on changed_at,
+-- with a stored procedure and monthly event that keep partitions twelve months ahead.
+-- portfolio_status_daily holds one pre-aggregated row per day and RAG status for trend charts.
+-- MySQL partitioned tables cannot carry foreign keys, and the partition key must be part of the primary key.
+
+CREATE TABLE IF NOT EXISTS status_history (
+    id BIGINT AUTO_INCREMENT,
+    entity_type VARCHAR(20) NOT NULL,
+    entity_id BIGINT NOT NULL,
+    project_id BIGINT NOT NULL,
+    field_name VARCHAR(30) NOT NULL,
+    old_value VARCHAR(50),
+    new_value VARCHAR(50),
+    changed_at DATETIME(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6),
+    PRIMARY KEY (id, changed_at),
+    INDEX idx_status_history_project (project_id, field_name, changed_at)
+)
+PARTITION BY RANGE (TO_DAYS(changed_at)) (
+    PARTITION p_history VALUES LESS THAN (TO_DAYS('2026-01-01')),
+    PARTITION p202601 VALUES LESS THAN (TO_DAYS('2026-02-01')),
+    PARTITION p202602 VALUES LESS THAN (TO_DAYS('2026-03-01')),
+    PARTITION p202603 VALUES LESS THAN (TO_DAYS('2026-04-01')),
+    PARTITION p202604 VALUES LESS THAN (TO_DAYS('2026-05-01')),
+    PARTITION p202605 VALUES LESS THAN (TO_DAYS('2026-06-01')),
+    PARTITION p202606 VALUES LESS THAN (TO_DAYS('2026-07-01')),
+    PARTITION p202607 VALUES LESS THAN (TO_DAYS('2026-08-01')),
+    PARTITION p202608 VALUES LESS THAN (TO_DAYS('2026-09-01')),
+    PARTITION p202609 VALUES LESS THAN (TO_DAYS('2026-10-01')),
+    PARTITION p202610 VALUES LESS THAN (TO_DAYS('2026-11-01')),
+    PARTITION p202611 VALUES LESS THAN (TO_DAYS('2026-12-01')),
+    PARTITION p202612 VALUES LESS THAN (TO_DAYS('2027-01-01')),
+    PARTITION p202701 VALUES LESS THAN (TO_DAYS('2027-02-01')),
+    PARTITION p202702 VALUES LESS THAN (TO_DAYS('2027-03-01')),
+    PARTITION p202703 VALUES LESS THAN (TO_DAYS('2027-04-01')),
+    PARTITION p202704 VALUES LESS THAN (TO_DAYS('2027-05-01')),
+    PARTITION p202705 VALUES LESS THAN (TO_DAYS('2027-06-01')),
+    PARTITION p202706 VALUES LESS THAN (TO_DAYS('2027-07-01')),
+    PARTITION p202707 VALUES LESS THAN (TO_DAYS('2027-08-01')),
+    PARTITION p202708 VALUES LESS THAN (TO_DAYS('2027-09-01')),
+    PARTITION p202709 VALUES LESS THAN (TO_DAYS('2027-10-01')),
+    PARTITION p202710 VALUES LESS THAN (TO_DAYS('2027-11-01')),
+    PARTITION p202711 VALUES LESS THAN (TO_DAYS('2027-12-01')),
+    PARTITION p202712 VALUES LESS THAN (TO_DAYS('2028-01-01')),
+    PARTITION p_future VALUES LESS THAN MAXVALUE
+);
+
+-- p_future is the catch-all for rows past the last monthly partition; writes never fail for lack of a partition.
+-- Rolling partitions: split p_future into monthly partitions up to months_ahead months past the current month.
+-- Safe to re-run; months that already have a partition are skipped.
+DROP PROCEDURE IF EXISTS add_status_history_partitions;
+DELIMITER //
+CREATE PROCEDURE add_status_history_partitions(IN months_ahead INT)
+BEGIN
+    DECLARE last_bound BIGINT;
+    DECLARE month_start DATE;
+    DECLARE target DATE;
+    DECLARE parts TEXT DEFAULT '';
+
+    -- 最后一个按月分区的上界（TO_DAYS 值），新分区从这里接着建
+    SELECT MAX(CAST(PARTITION_DESCRIPTION AS UNSIGNED)) INTO last_bound
+    FROM information_schema.PARTITIONS
+    WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'status_history'
+      AND PARTITION_DESCRIPTION <> 'MAXVALUE';
+
+    SET month_start = FROM_DAYS(last_bound);
+    SET target = DATE_ADD(DATE_FORMAT(CURRENT_DATE, '%Y-%m-01'), INTERVAL months_ahead + 1 MONTH);
+    WHILE month_start < target DO
+        SET parts = CONCAT(parts, 'PARTITION p', DATE_FORMAT(month_start, '%Y%m'),
+            ' VALUES LESS THAN (TO_DAYS(''', DATE_ADD(month_start, INTERVAL 1 MONTH), ''')), ');
+        SET month_start = DATE_ADD(month_start, INTERVAL 1 MONTH);
+    END WHILE;
+
+    IF parts <> '' THEN
+        SET @status_history_ddl = CONCAT('ALTER TABLE status_history REORGANIZE PARTITION p_future INTO (',
+            parts, 'PARTITION p_future VALUES LESS THAN MAXVALUE)');
+        PREPARE stmt FROM @status_history_ddl;
+        EXECUTE stmt;
+        DEALLOCATE PREPARE stmt;
+    END IF;
+END//
+DELIMITER ;
+
+CALL add_status_history_partitions(12);
+
+-- Keep twelve months of partitions ahead; needs the event scheduler (SET GLOBAL event_scheduler = ON).
+-- The application also calls add_status_history_partitions at startup and monthly (status-history.partition-cron).
+DROP EVENT IF EXISTS ev_status_history_partitions;
+CREATE EVENT ev_status_history_partitions
+    ON SCHEDULE EVERY 1 MONTH STARTS DATE_ADD(DATE_FORMAT(CURRENT_DATE, '%Y-%m-01'), INTERVAL 1 MONTH)
+    DO CALL add_status_history_partitions(12);
+
+-- Append-only: reject updates and deletes on history rows.
+-- Retention goes through ALTER TABLE status_history DROP PARTITION, which does not fire row triggers.
+DROP TRIGGER IF EXISTS trg_status_history_append_only;
+DELIMITER //
+CREATE TRIGGER trg_status_history_append_only
+BEFORE UPDATE ON status_history
+FOR EACH ROW
+BEGIN
+    SIGNAL SQLSTATE '45000' SET MESSAGE_TEXT = 'status_history is append-only';
+END//
+DELIMITER ;
+
+DROP TRIGGER IF EXISTS trg_status_history_no_delete;
+DELIMITER //
+CREATE TRIGGER trg_status_history_no_delete
+BEFORE DELETE ON status_history
+FOR EACH ROW
+BEGIN
+    SIGNAL SQLSTATE '45000' SET MESSAGE_TEXT = 'status_history is append-only';
+END//
+DELIMITER ;
+
+CREATE TABLE IF NOT EXISTS portfolio_status_daily (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    snapshot_date DATE NOT NULL,
+    it_project_status VARCHAR(20) NOT NULL,
+    project_count BIGINT NOT NULL DEFAULT 0,
+    escalated_count BIGINT NOT NULL DEFAULT 0,
+    UNIQUE KEY uk_portfolio_status_daily (snapshot_date, it_project_status)
+);
+
+-- Backfill a baseline row per tracked field for every project and phase that has no history for it yet.
+-- Covers rows written before this migration or while history was not recorded; re-running adds nothing twice.
+-- Values match what the application writes: enum names, and 'true'/'false' for escalation.
+INSERT INTO status_history (entity_type, entity_id, project_id, field_name, old_value, new_value, changed_at)
+SELECT 'PROJECT', p.id, p.id, 'IT_PROJECT_STATUS', NULL, p.it_project_status, COALESCE(p.created_at, CURRENT_TIMESTAMP(6))
+FROM projects p
+WHERE p.it_project_status IS NOT NULL
+  AND NOT EXISTS (SELECT 1 FROM status_history h
+                  WHERE h.project_id = p.id AND h.field_name = 'IT_PROJECT_STATUS' AND h.entity_type = 'PROJECT');
+
+INSERT INTO status_history (entity_type, entity_id, project_id, field_name, old_value, new_value, changed_at)
+SELECT 'PROJECT', p.id, p.id, 'ESCALATION', NULL, IF(p.escalation, 'true', 'false'), COALESCE(p.created_at, CURRENT_TIMESTAMP(6))
+FROM projects p
+WHERE p.escalation IS NOT NULL
+  AND NOT EXISTS (SELECT 1 FROM status_history h
+                  WHERE h.project_id = p.id AND h.field_name = 'ESCALATION' AND h.entity_type = 'PROJECT');
+
+INSERT INTO status_history (entity_type, entity_id, project_id, field_name, old_value, new_value, changed_at)
+SELECT 'PHASE', ph.id, ph.project_id, 'PHASE_STATUS', NULL, ph.status, COALESCE(ph.created_at, CURRENT_TIMESTAMP(6))
+FROM project_phases ph
+WHERE ph.status IS NOT NULL
+  AND NOT EXISTS (SELECT 1 FROM status_history h
+                  WHERE h.project_id = ph.project_id AND h.field_name = 'PHASE_STATUS'
+                    AND h.entity_type = 'PHASE' AND h.entity_id = ph.id);
+
+-- Verify the changes
+SELECT PARTITION_NAME, TABLE_ROWS FROM information_schema.PARTITIONS
+WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'status_history';
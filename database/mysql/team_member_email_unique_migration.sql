@@ -0,0 +1,40 @@
+-- MySQL Migration script for unique team member emails
+-- Emails are unique ignoring case. The default collations compare case-insensitively, so a
+-- unique index on email is enough. Blank emails become NULL (any number of members may have
+-- no email), surrounding spaces are trimmed and emails are lower-cased, as the application
+-- now does on every write.
+-- If existing members share an email the index cannot be created: the SELECT below lists
+-- them; merge or correct those members and run the script again.
+
+UPDATE team_members SET email = NULL WHERE TRIM(email) = '';
+UPDATE team_members SET email = TRIM(email) WHERE email <> TRIM(email);
+UPDATE team_members SET email = LOWER(email) WHERE email IS NOT NULL;
+
+-- Conflicting emails (must be empty)
+SELECT email, COUNT(*) AS members
+FROM team_members
+WHERE email IS NOT NULL
+GROUP BY email
+HAVING COUNT(*) > 1;
+
+DELIMITER //
+DROP PROCEDURE IF EXISTS add_team_member_email_unique//
+CREATE PROCEDURE add_team_member_email_unique()
+BEGIN
+    IF NOT EXISTS (
+        SELECT 1 FROM information_schema.statistics
+        WHERE table_schema = DATABASE() AND table_name = 'team_members'
+          AND index_name = 'ux_team_members_email'
+    ) THEN
+        ALTER TABLE team_members ADD UNIQUE INDEX ux_team_members_email (email);
+    END IF;
+END//
+DELIMITER ;
+
+CALL add_team_member_email_unique();
+DROP PROCEDURE IF EXISTS add_team_member_email_unique;
+
+-- Verify the changes
+SELECT index_name, non_unique, column_name
+FROM information_schema.statistics
+WHERE table_schema = DATABASE() AND table_name = 'team_members' AND column_name = 'email';
@@ -0,0 +1,39 @@
+-- PostgreSQL Migration script for milestone dependency edges
+-- Dependencies between milestones are stored as rows (milestone_id depends on depends_on_id)
+-- instead of free text, so "what slips if this milestone slips" can be answered by graph traversal.
+-- The legacy key_milestones.dependencies text is kept; existing entries are parsed into edges below.
+
+CREATE TABLE IF NOT EXISTS milestone_dependencies (
+    id BIGSERIAL PRIMARY KEY,
+    milestone_id BIGINT NOT NULL REFERENCES key_milestones(id) ON DELETE CASCADE,
+    depends_on_id BIGINT NOT NULL REFERENCES key_milestones(id) ON DELETE CASCADE,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT uk_milestone_dependency UNIQUE (milestone_id, depends_on_id),
+    CONSTRAINT chk_milestone_dependency_self CHECK (milestone_id <> depends_on_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_milestone_dependency_depends_on ON milestone_dependencies(depends_on_id);
+
+COMMENT ON TABLE milestone_dependencies IS 'Milestone dependency edges: milestone_id depends on depends_on_id';
+
+-- Parse the free-text column: entries separated by comma, semicolon or newline,
+-- matched case-insensitively against milestone names in the same project.
+-- Entries that match no milestone are left in the text column only.
+INSERT INTO milestone_dependencies (milestone_id, depends_on_id)
+SELECT DISTINCT m.id, target.id
+FROM key_milestones m
+CROSS JOIN LATERAL regexp_split_to_table(m.dependencies, '[,;\n]') AS entry(name)
+JOIN key_milestones target
+  ON target.project_id = m.project_id
+ AND LOWER(target.name) = LOWER(TRIM(entry.name))
+ AND target.id <> m.id
+WHERE m.dependencies IS NOT NULL AND TRIM(m.dependencies) <> ''
+ON CONFLICT (milestone_id, depends_on_id) DO NOTHING;
+
+-- Verify the changes
+SELECT m.id, m.name, m.dependencies, COUNT(d.id) AS parsed_edges
+FROM key_milestones m
+LEFT JOIN milestone_dependencies d ON d.milestone_id = m.id
+WHERE m.dependencies IS NOT NULL AND TRIM(m.dependencies) <> ''
+GROUP BY m.id, m.name, m.dependencies
+ORDER BY m.id;
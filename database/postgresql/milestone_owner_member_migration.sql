@@ -0,0 +1,44 @@
+-- PostgreSQL Migration script for milestone owners
+-- A milestone owner may now be linked to a team member (owner_member_id), which the member
+-- workload view is indexed on. The free-text owner column is kept for display and for owners
+-- outside the teams. Existing owners are linked where the text names exactly one member,
+-- by name or by email; ambiguous and unknown owners stay unlinked.
+-- If the member is deleted, the column is set back to NULL and the owner text is kept.
+
+ALTER TABLE key_milestones ADD COLUMN IF NOT EXISTS owner_member_id BIGINT;
+
+DO $$
+BEGIN
+    IF NOT EXISTS (
+        SELECT 1 FROM information_schema.table_constraints
+        WHERE table_name = 'key_milestones' AND constraint_name = 'fk_key_milestone_owner_member'
+    ) THEN
+        ALTER TABLE key_milestones
+            ADD CONSTRAINT fk_key_milestone_owner_member
+            FOREIGN KEY (owner_member_id) REFERENCES team_members(id) ON DELETE SET NULL;
+    END IF;
+END $$;
+
+CREATE INDEX IF NOT EXISTS idx_key_milestone_owner_member ON key_milestones(owner_member_id);
+
+COMMENT ON COLUMN key_milestones.owner_member_id IS 'Team member owning the milestone; NULL when the owner is not a known member';
+
+-- Link existing owners that match exactly one member
+UPDATE key_milestones m
+SET owner_member_id = matched.member_id
+FROM (
+    SELECT km.id AS milestone_id, MIN(tm.id) AS member_id
+    FROM key_milestones km
+    JOIN team_members tm
+      ON LOWER(TRIM(km.owner)) IN (LOWER(tm.name), LOWER(tm.email))
+    WHERE km.owner_member_id IS NULL
+    GROUP BY km.id
+    HAVING COUNT(DISTINCT tm.id) = 1
+) matched
+WHERE m.id = matched.milestone_id;
+
+-- Verify the changes
+SELECT COUNT(*) AS milestones,
+       COUNT(owner) AS with_owner,
+       COUNT(owner_member_id) AS linked_to_member
+FROM key_milestones;
@@ -0,0 +1,16 @@
+-- PostgreSQL Migration script for optimistic locking
+-- Adds a version column to projects, project_phases and key_milestones.
+-- Every update bumps the version; an update carrying a stale version is rejected with HTTP 409.
+
+ALTER TABLE projects ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE project_phases ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE key_milestones ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+
+COMMENT ON COLUMN projects.version IS 'Optimistic locking version';
+COMMENT ON COLUMN project_phases.version IS 'Optimistic locking version';
+COMMENT ON COLUMN key_milestones.version IS 'Optimistic locking version';
+
+-- Verify the changes
+SELECT table_name, column_name, data_type, column_default
+FROM information_schema.columns
+WHERE column_name = 'version' AND table_name IN ('projects', 'project_phases', 'key_milestones');
@@ -0,0 +1,27 @@
+-- PostgreSQL Migration script for hot/cold project archival
+-- Finished projects are moved out of projects, project_phases, key_milestones, risks_issues and
+-- project_dependencies into one gzip-compressed segment per project. The segment keeps the
+-- original rows and IDs, so a restore writes them back unchanged.
+
+CREATE TABLE IF NOT EXISTS archived_projects (
+    project_id BIGINT PRIMARY KEY,
+    project_name VARCHAR(255) NOT NULL,
+    team_id BIGINT,
+    archived_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    segment_format INTEGER NOT NULL,
+    row_count INTEGER NOT NULL,
+    segment_size INTEGER NOT NULL,
+    segment BYTEA NOT NULL
+);
+
+-- No foreign key to teams: archives outlive deleted teams
+CREATE INDEX IF NOT EXISTS idx_archived_project_team ON archived_projects (team_id);
+
+-- Segments are already compressed; keep them out of line without a second compression pass
+ALTER TABLE archived_projects ALTER COLUMN segment SET STORAGE EXTERNAL;
+
+-- Verify the changes
+SELECT column_name, data_type, is_nullable
+FROM information_schema.columns
+WHERE table_name = 'archived_projects'
+ORDER BY ordinal_position;
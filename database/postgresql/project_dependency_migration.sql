@@ -0,0 +1,27 @@
+-- PostgreSQL Migration script for cross-project dependencies
+-- A project dependency may now point at another project (depends_on_project_id).
+-- Dependencies on external systems keep the column NULL.
+-- If the referenced project is deleted, the column is set back to NULL and the named dependency is kept.
+
+ALTER TABLE project_dependencies ADD COLUMN IF NOT EXISTS depends_on_project_id BIGINT;
+
+DO $$
+BEGIN
+    IF NOT EXISTS (
+        SELECT 1 FROM information_schema.table_constraints
+        WHERE table_name = 'project_dependencies' AND constraint_name = 'fk_project_dependency_depends_on'
+    ) THEN
+        ALTER TABLE project_dependencies
+            ADD CONSTRAINT fk_project_dependency_depends_on
+            FOREIGN KEY (depends_on_project_id) REFERENCES projects(id) ON DELETE SET NULL;
+    END IF;
+END $$;
+
+CREATE INDEX IF NOT EXISTS idx_project_dependency_depends_on ON project_dependencies(depends_on_project_id);
+
+COMMENT ON COLUMN project_dependencies.depends_on_project_id IS 'Project this dependency waits on; NULL for non-project dependencies';
+
+-- Verify the changes
+SELECT column_name, data_type, is_nullable
+FROM information_schema.columns
+WHERE table_name = 'project_dependencies' AND column_name = 'depends_on_project_id';
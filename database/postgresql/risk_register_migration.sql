@@ -0,0 +1,11 @@
+-- PostgreSQL Migration script for the risk register
+-- Indexes for listing a project's risks and for the open-and-past-due query.
+-- Heatmap counts are kept in application memory and need no schema changes.
+
+CREATE INDEX IF NOT EXISTS idx_risk_issue_project ON risks_issues(project_id);
+CREATE INDEX IF NOT EXISTS idx_risk_issue_status_due ON risks_issues(status, due_date);
+
+-- Verify the changes
+SELECT indexname, indexdef
+FROM pg_indexes
+WHERE tablename = 'risks_issues';
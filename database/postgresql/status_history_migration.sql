@@ -0,0 +1,125 @@
+-- PostgreSQL Migration script for RAG status history
+-- status_history is append-only (no UPDATE or DELETE) and range-partitioned by month on changed_at.
+-- portfolio_status_daily holds one pre-aggregated row per day and RAG status for trend charts.
+
+CREATE TABLE IF NOT EXISTS status_history (
+    id BIGSERIAL,
+    entity_type VARCHAR(20) NOT NULL,
+    entity_id BIGINT NOT NULL,
+    project_id BIGINT NOT NULL,
+    field_name VARCHAR(30) NOT NULL,
+    old_value VARCHAR(50),
+    new_value VARCHAR(50),
+    changed_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    -- 分区表的主键必须包含分区键
+    PRIMARY KEY (id, changed_at)
+) PARTITION BY RANGE (changed_at);
+
+-- No foreign key to projects: history outlives deleted projects
+CREATE INDEX IF NOT EXISTS idx_status_history_project ON status_history (project_id, field_name, changed_at);
+
+-- Create monthly partitions from a start month for a number of months.
+-- Rows that already landed in the default partition for those months would make
+-- CREATE TABLE ... PARTITION OF fail, so the default partition is swapped for an empty one
+-- and its rows are re-inserted through the parent, which routes them to the new months.
+CREATE OR REPLACE FUNCTION create_status_history_partitions(start_month DATE, months INT)
+RETURNS VOID AS $$
+DECLARE
+    first_month DATE := date_trunc('month', start_month)::DATE;
+    end_month DATE := (date_trunc('month', start_month) + (months || ' month')::INTERVAL)::DATE;
+    month_start DATE;
+    partition_name TEXT;
+    stranded BOOLEAN := FALSE;
+BEGIN
+    IF to_regclass('status_history_default') IS NOT NULL THEN
+        EXECUTE 'SELECT EXISTS (SELECT 1 FROM status_history_default WHERE changed_at >= $1 AND changed_at < $2)'
+            INTO stranded USING first_month, end_month;
+    END IF;
+    IF stranded THEN
+        ALTER TABLE status_history DETACH PARTITION status_history_default;
+        ALTER TABLE status_history_default RENAME TO status_history_default_stranded;
+    END IF;
+
+    FOR i IN 0..months - 1 LOOP
+        month_start := first_month + (i || ' month')::INTERVAL;
+        partition_name := 'status_history_' || to_char(month_start, 'YYYYMM');
+        EXECUTE format(
+            'CREATE TABLE IF NOT EXISTS %I PARTITION OF status_history FOR VALUES FROM (%L) TO (%L)',
+            partition_name, month_start, (month_start + INTERVAL '1 month')::DATE);
+    END LOOP;
+
+    -- 旧默认分区整表删除，不逐行 DELETE，不会触发只追加触发器
+    IF stranded THEN
+        CREATE TABLE status_history_default PARTITION OF status_history DEFAULT;
+        EXECUTE 'INSERT INTO status_history SELECT * FROM status_history_default_stranded';
+        DROP TABLE status_history_default_stranded;
+        RAISE NOTICE 'Moved status_history rows from the default partition into monthly partitions';
+    END IF;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Last year through the next year. The application calls this again at startup and on the 1st of
+-- each month (status-history.partition-cron) to keep partitions ahead; without the application,
+-- schedule it with pg_cron instead:
+--   SELECT cron.schedule('status-history-partitions', '15 0 1 * *',
+--       $$SELECT create_status_history_partitions(date_trunc('month', CURRENT_DATE)::DATE, 13)$$);
+SELECT create_status_history_partitions((CURRENT_DATE - INTERVAL '12 months')::DATE, 25);
+
+-- Catch rows outside the prepared range instead of failing the write
+CREATE TABLE IF NOT EXISTS status_history_default PARTITION OF status_history DEFAULT;
+
+-- Append-only: reject updates and deletes on history rows.
+-- Retention goes through DROP TABLE / DETACH PARTITION on old months, which does not fire row triggers.
+CREATE OR REPLACE FUNCTION status_history_append_only()
+RETURNS TRIGGER AS $$
+BEGIN
+    RAISE EXCEPTION 'status_history is append-only';
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS trg_status_history_append_only ON status_history;
+CREATE TRIGGER trg_status_history_append_only
+    BEFORE UPDATE ON status_history
+    FOR EACH ROW EXECUTE FUNCTION status_history_append_only();
+
+DROP TRIGGER IF EXISTS trg_status_history_no_delete ON status_history;
+CREATE TRIGGER trg_status_history_no_delete
+    BEFORE DELETE ON status_history
+    FOR EACH ROW EXECUTE FUNCTION status_history_append_only();
+
+CREATE TABLE IF NOT EXISTS portfolio_status_daily (
+    id BIGSERIAL PRIMARY KEY,
+    snapshot_date DATE NOT NULL,
+    it_project_status VARCHAR(20) NOT NULL,
+    project_count BIGINT NOT NULL DEFAULT 0,
+    escalated_count BIGINT NOT NULL DEFAULT 0,
+    CONSTRAINT uk_portfolio_status_daily UNIQUE (snapshot_date, it_project_status)
+);
+
+-- Backfill a baseline row per tracked field for every project and phase that has no history for it yet.
+-- Covers rows written before this migration or while history was not recorded; re-running adds nothing twice.
+-- Values match what the application writes: enum names, and 'true'/'false' for escalation.
+INSERT INTO status_history (entity_type, entity_id, project_id, field_name, old_value, new_value, changed_at)
+SELECT 'PROJECT', p.id, p.id, 'IT_PROJECT_STATUS', NULL, p.it_project_status::TEXT, COALESCE(p.created_at, CURRENT_TIMESTAMP)
+FROM projects p
+WHERE p.it_project_status IS NOT NULL
+  AND NOT EXISTS (SELECT 1 FROM status_history h
+                  WHERE h.project_id = p.id AND h.field_name = 'IT_PROJECT_STATUS' AND h.entity_type = 'PROJECT');
+
+INSERT INTO status_history (entity_type, entity_id, project_id, field_name, old_value, new_value, changed_at)
+SELECT 'PROJECT', p.id, p.id, 'ESCALATION', NULL, p.escalation::TEXT, COALESCE(p.created_at, CURRENT_TIMESTAMP)
+FROM projects p
+WHERE p.escalation IS NOT NULL
+  AND NOT EXISTS (SELECT 1 FROM status_history h
+                  WHERE h.project_id = p.id AND h.field_name = 'ESCALATION' AND h.entity_type = 'PROJECT');
+
+INSERT INTO status_history (entity_type, entity_id, project_id, field_name, old_value, new_value, changed_at)
+SELECT 'PHASE', ph.id, ph.project_id, 'PHASE_STATUS', NULL, ph.status::TEXT, COALESCE(ph.created_at, CURRENT_TIMESTAMP)
+FROM project_phases ph
+WHERE ph.status IS NOT NULL
+  AND NOT EXISTS (SELECT 1 FROM status_history h
+                  WHERE h.project_id = ph.project_id AND h.field_name = 'PHASE_STATUS'
+                    AND h.entity_type = 'PHASE' AND h.entity_id = ph.id);
+
+-- Verify the changes
+SELECT tableoid::regclass AS partition, COUNT(*) FROM status_history GROUP BY 1 ORDER BY 1;
@@ -0,0 +1,40 @@
+-- PostgreSQL Migration script for unique team member emails
+-- Emails are unique ignoring case, enforced by a unique index on LOWER(email) that also serves
+-- the case-insensitive lookups of the email check. Blank emails become NULL (any number of
+-- members may have no email), surrounding spaces are trimmed and emails are lower-cased, as the
+-- application now does on every write. The script stops with the list of conflicting emails if
+-- existing members share one; merge or correct those members and run it again.
+-- Replaces the plain idx_team_members_email index. A unique constraint of the same name
+-- created by Hibernate's schema update is case-sensitive and is replaced.
+
+UPDATE team_members SET email = NULL WHERE TRIM(email) = '';
+UPDATE team_members SET email = TRIM(email) WHERE email <> TRIM(email);
+UPDATE team_members SET email = LOWER(email) WHERE email <> LOWER(email);
+
+DO $$
+DECLARE
+    duplicates TEXT;
+BEGIN
+    SELECT string_agg(email_key, ', ') INTO duplicates
+    FROM (
+        SELECT LOWER(email) AS email_key
+        FROM team_members
+        WHERE email IS NOT NULL
+        GROUP BY LOWER(email)
+        HAVING COUNT(*) > 1
+    ) d;
+    IF duplicates IS NOT NULL THEN
+        RAISE EXCEPTION 'Team members share these emails (ignoring case): %', duplicates;
+    END IF;
+END $$;
+
+ALTER TABLE team_members DROP CONSTRAINT IF EXISTS ux_team_members_email;
+DROP INDEX IF EXISTS ux_team_members_email;
+CREATE UNIQUE INDEX ux_team_members_email ON team_members (LOWER(email));
+
+DROP INDEX IF EXISTS idx_team_members_email;
+
+-- Verify the changes
+SELECT indexname, indexdef
+FROM pg_indexes
+WHERE tablename = 'team_members' AND indexname = 'ux_team_members_email';
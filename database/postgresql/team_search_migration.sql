@@ -0,0 +1,30 @@
+-- PostgreSQL Migration script for team and member search
+-- Searches compare LOWER(column) with LIKE patterns:
+--   * terms shorter than three characters match as prefixes ('ab%'), served by b-tree indexes
+--     with text_pattern_ops, which turn the prefix into a range scan under any collation;
+--   * longer terms match anywhere ('%abc%'), served by pg_trgm GIN indexes.
+-- Index expressions must stay LOWER(column) to match the queries.
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- Prefix search
+CREATE INDEX IF NOT EXISTS idx_team_name_prefix ON teams (LOWER(name) text_pattern_ops);
+CREATE INDEX IF NOT EXISTS idx_team_member_name_prefix ON team_members (LOWER(name) text_pattern_ops);
+CREATE INDEX IF NOT EXISTS idx_team_member_email_prefix ON team_members (LOWER(email) text_pattern_ops);
+CREATE INDEX IF NOT EXISTS idx_team_member_role_prefix ON team_members (LOWER(role) text_pattern_ops);
+
+-- Substring search
+CREATE INDEX IF NOT EXISTS idx_team_name_trgm ON teams USING gin (LOWER(name) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_team_member_name_trgm ON team_members USING gin (LOWER(name) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_team_member_email_trgm ON team_members USING gin (LOWER(email) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_team_member_role_trgm ON team_members USING gin (LOWER(role) gin_trgm_ops);
+
+ANALYZE teams;
+ANALYZE team_members;
+
+-- Verify the changes
+SELECT tablename, indexname, indexdef
+FROM pg_indexes
+WHERE tablename IN ('teams', 'team_members')
+  AND (indexname LIKE '%\_prefix' OR indexname LIKE '%\_trgm')
+ORDER BY tablename, indexname;
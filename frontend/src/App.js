@@ -605,7 +605,7 @@ function App() {
         return (
           <ProjectForm
             project={selectedProject}
-            onSubmit={(data) => handleUpdateProject(selectedProject.id, data)}
+            onSubmit={(data) => handleUpdateProject(selectedProject.id, { ...data, version: selectedProject.version })}
             onCancel={() => {
               setSelectedProject(null);
               setCurrentView('projects');
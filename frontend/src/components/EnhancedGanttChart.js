@@ -797,7 +797,7 @@ const EnhancedGanttChart = ({ loading, onUpdatePhase, projects = [] }) => {
         progressPercentage: values.progressPercentage || 0
       };
 
-      await projectPhaseService.updateProjectPhase(editingPhase.id, formattedValues);
+      await projectPhaseService.updateProjectPhase(editingPhase.id, { ...formattedValues, version: editingPhase.version });
       
       setIsPhaseEditVisible(false);
       setEditingPhase(null);
@@ -818,7 +818,7 @@ const EnhancedGanttChart = ({ loading, onUpdatePhase, projects = [] }) => {
         actualCompletionDate: values.actualCompletionDate ? values.actualCompletionDate.format('YYYY-MM-DD') : null,
       };
 
-      await milestoneService.updateMilestone(editingMilestone.id, formattedValues);
+      await milestoneService.updateMilestone(editingMilestone.id, { ...formattedValues, version: editingMilestone.version });
       
       setIsMilestoneEditVisible(false);
       setEditingMilestone(null);
@@ -409,7 +409,7 @@ const GanttChart = ({ loading, onUpdatePhase, projects = [] }) => {
       };
 
       // 调用API更新里程�?
-      await milestoneService.updateMilestone(editingMilestone.id, formattedValues);
+      await milestoneService.updateMilestone(editingMilestone.id, { ...formattedValues, version: editingMilestone.version });
       
       setIsMilestoneEditVisible(false);
       setEditingMilestone(null);
@@ -466,7 +466,7 @@ const GanttChart = ({ loading, onUpdatePhase, projects = [] }) => {
       const backendFormattedValues = convertToBackendPhaseNames(formattedValues);
 
       // 调用项目阶段服务API更新
-      await projectPhaseService.updateProjectPhase(editingPhase.id, backendFormattedValues);
+      await projectPhaseService.updateProjectPhase(editingPhase.id, { ...backendFormattedValues, version: editingPhase.version });
       
       setIsPhaseEditVisible(false);
       setEditingPhase(null);
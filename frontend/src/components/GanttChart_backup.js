@@ -477,7 +477,7 @@ const GanttChart = ({ loading, onUpdatePhase, projects = [] }) => {
       };
 
       // 调用API更新里程�?
-      await milestoneService.updateMilestone(editingMilestone.id, formattedValues);
+      await milestoneService.updateMilestone(editingMilestone.id, { ...formattedValues, version: editingMilestone.version });
       
       setIsMilestoneEditVisible(false);
       setEditingMilestone(null);
@@ -531,7 +531,7 @@ const GanttChart = ({ loading, onUpdatePhase, projects = [] }) => {
       };
 
       // 调用项目阶段服务API更新
-      await projectPhaseService.updateProjectPhase(editingPhase.id, formattedValues);
+      await projectPhaseService.updateProjectPhase(editingPhase.id, { ...formattedValues, version: editingPhase.version });
       
       setIsPhaseEditVisible(false);
       setEditingPhase(null);
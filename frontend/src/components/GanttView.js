@@ -30,6 +30,7 @@ export default class GanttView extends Component {
 
             return {
                 id: phase.id,
+                version: phase.version,
                 text: phase.phase_name,
                 start_date: gantt.date.date_to_str('%Y-%m-%d')(startDate),
                 end_date: gantt.date.date_to_str('%Y-%m-%d')(endDate),
@@ -215,10 +216,13 @@ export default class GanttView extends Component {
                 // 根据进度自动更新状态
                 status: task.progress >= 1 ? 'COMPLETED' : 
                        (task.progress > 0 ? 'IN_PROGRESS' : 'NOT_STARTED'),
-                is_completed: task.progress >= 1
+                is_completed: task.progress >= 1,
+                // 带回读取时的版本号，后端据此检测并发修改
+                version: task.version
             };
 
-            await projectPhaseService.updateProjectPhase(taskId, phaseData);
+            const updated = await projectPhaseService.updateProjectPhase(taskId, phaseData);
+            task.version = updated.version;
             message.success('阶段信息更新成功');
             
             // 通知父组件数据已更新
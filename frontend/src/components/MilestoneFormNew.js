@@ -80,7 +80,7 @@ const MilestoneForm = ({ milestone, projectId, onSuccess, onCancel }) => {
 
       if (milestone) {
         // Update existing milestone
-        await milestoneService.updateMilestone(milestone.id, formattedValues);
+        await milestoneService.updateMilestone(milestone.id, { ...formattedValues, version: milestone.version });
         message.success('Milestone updated successfully');
       } else {
         // Create new milestone
@@ -165,6 +165,18 @@ class MilestoneService {
         }
     }
 
+    // Statistics for many projects in one request; omit projectIds for all projects
+    async getMilestoneStatisticsBatch(projectIds) {
+        try {
+            const params = projectIds && projectIds.length ? { projectIds: projectIds.join(',') } : {};
+            const response = await this.api.get('/milestones/statistics', { params });
+            return response.data;
+        } catch (error) {
+            console.error('Error fetching milestone statistics:', error);
+            throw error;
+        }
+    }
+
     // Progress and status updates
     async updateMilestoneProgress(id, progress) {
         try {